@@ -41,11 +41,23 @@ dependencies {
 	implementation("org.springframework.boot:spring-boot-starter-data-r2dbc")
 	implementation("org.springframework.data:spring-data-r2dbc")
 	
+	// Blocking JDBC for the player store on virtual threads (jdbc profile)
+	implementation("org.springframework.boot:spring-boot-starter-jdbc")
+	runtimeOnly("com.mysql:mysql-connector-j")
+	
 	// Web and validation
 	implementation("org.springframework.boot:spring-boot-starter-security")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
 	implementation("org.springframework.boot:spring-boot-starter-webflux")
 	
+	// Binary response encodings (CBOR and Smile)
+	implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
+	implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
+	
+	// Caching and metrics
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
+	implementation("com.github.ben-manes.caffeine:caffeine")
+	
 	// OpenAPI/Swagger dependencies
 	implementation("org.springdoc:springdoc-openapi-starter-webflux-ui:${property("springdocVersion")}")
 	implementation("io.swagger.core.v3:swagger-annotations:2.2.20")
@@ -67,7 +79,6 @@ dependencies {
 	testImplementation("org.testcontainers:mysql")
 	testImplementation("org.testcontainers:r2dbc") // Required for R2DBC TestContainers integration
 	testRuntimeOnly("io.asyncer:r2dbc-mysql:1.0.5")
-	testRuntimeOnly("com.mysql:mysql-connector-j") // Required by TestContainers for MySQL
 }
 
 dependencyManagement {
@@ -79,3 +90,23 @@ dependencyManagement {
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
+
+tasks.named<Test>("test") {
+	useJUnitPlatform {
+		excludeTags("benchmark")
+	}
+}
+
+// Benchmarks take minutes and the store ones need Docker, so they only run on request
+tasks.register<Test>("benchmark") {
+	description = "Runs the benchmarks."
+	group = "verification"
+	testClassesDirs = sourceSets["test"].output.classesDirs
+	classpath = sourceSets["test"].runtimeClasspath
+	useJUnitPlatform {
+		includeTags("benchmark")
+	}
+	testLogging {
+		showStandardStreams = true
+	}
+}
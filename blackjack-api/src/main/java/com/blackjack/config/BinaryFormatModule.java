@@ -0,0 +1,21 @@
+package com.blackjack.config;
+
+import com.blackjack.model.Card;
+import com.blackjack.model.Game;
+import com.blackjack.model.Hand;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Jackson module for the binary formats (CBOR and Smile).
+ * Registers the hand-written game serializers without pre-encoded JSON card
+ * fragments, which only a text JSON generator can write.
+ */
+public class BinaryFormatModule extends SimpleModule {
+
+    public BinaryFormatModule() {
+        super("BinaryFormatModule");
+        addSerializer(Card.class, new GameJsonSerializers.CardSerializer(false));
+        addSerializer(Hand.class, new GameJsonSerializers.HandSerializer(false));
+        addSerializer(Game.class, new GameJsonSerializers.GameSerializer(false, false));
+    }
+}
@@ -0,0 +1,120 @@
+package com.blackjack.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response encodings chosen with the {@code Accept} header.
+ * Besides JSON, every endpoint can answer in CBOR ({@code application/cbor}),
+ * Smile ({@code application/x-jackson-smile}) or the compact card-code JSON
+ * ({@code application/vnd.blackjack.compact}). All of them are built from the
+ * application's Jackson settings, so they carry the same properties as JSON.
+ */
+@Configuration
+public class CodecConfig {
+
+    public static final String COMPACT_JSON_VALUE = "application/vnd.blackjack.compact";
+    public static final MediaType COMPACT_JSON = MediaType.parseMediaType(COMPACT_JSON_VALUE);
+
+    public static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    public static final MediaType SMILE_STREAM = MediaType.parseMediaType("application/stream+x-jackson-smile");
+
+    @Bean
+    public CodecCustomizer binaryCodecCustomizer(ObjectMapper objectMapper, ObjectProvider<Jackson2ObjectMapperBuilder> builders) {
+        ObjectMapper cbor = cborMapper(builders.getObject());
+        ObjectMapper smile = smileMapper(builders.getObject());
+        ObjectMapper compact = compactMapper(builders.getObject());
+        return configurer -> {
+            // Custom writers are consulted before the defaults, so JSON goes first to stay the
+            // answer for clients that send no Accept header
+            configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().register(new CborEncoder(cbor));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+            // The compact type has no +json suffix, so the JSON encoder never claims it
+            configurer.customCodecs().register(new Jackson2JsonEncoder(compact, COMPACT_JSON));
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smile, SMILE, SMILE_STREAM));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smile, SMILE, SMILE_STREAM));
+        };
+    }
+
+    /**
+     * Build the CBOR mapper
+     * @param builder builder carrying the application's Jackson settings
+     * @return mapper writing CBOR
+     */
+    public static ObjectMapper cborMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new CBORFactory())
+                .modulesToInstall(modules -> modules.add(new BinaryFormatModule()))
+                .build();
+    }
+
+    /**
+     * Build the Smile mapper
+     * @param builder builder carrying the application's Jackson settings
+     * @return mapper writing Smile
+     */
+    public static ObjectMapper smileMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new SmileFactory())
+                .modulesToInstall(modules -> modules.add(new BinaryFormatModule()))
+                .build();
+    }
+
+    /**
+     * Build the compact card-code JSON mapper
+     * @param builder builder carrying the application's Jackson settings
+     * @return mapper writing compact JSON
+     */
+    public static ObjectMapper compactMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.serializationInclusion(JsonInclude.Include.NON_NULL)
+                .modulesToInstall(modules -> modules.add(new CompactJsonModule()))
+                .build();
+    }
+
+    /**
+     * CBOR encoder that also writes single values and collections.
+     * Spring's encoder only implements encodeValue, so a Mono body is encoded
+     * as its value and a Flux as one CBOR array.
+     */
+    private static class CborEncoder extends Jackson2CborEncoder {
+
+        CborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> input, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                       @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+            if (input instanceof Mono<?> mono) {
+                return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+            return Flux.from(input).collectList()
+                    .map(values -> encodeValue(values, bufferFactory, listType, mimeType, hints))
+                    .flux();
+        }
+    }
+}
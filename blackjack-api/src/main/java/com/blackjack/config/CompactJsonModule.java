@@ -0,0 +1,72 @@
+package com.blackjack.config;
+
+import com.blackjack.model.Card;
+import com.blackjack.model.Game;
+import com.blackjack.model.Hand;
+import com.blackjack.model.Player;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Jackson module for the compact game format.
+ * Cards are written as short codes ({@code 10H}, {@code ??} when face down),
+ * hands as arrays of codes and actions as their one-letter signature codes.
+ * Values the client can derive, such as hand totals and win rates, are left out.
+ */
+public class CompactJsonModule extends SimpleModule {
+
+    public CompactJsonModule() {
+        super("CompactJsonModule");
+        addSerializer(Card.class, new CardSerializer());
+        addSerializer(Hand.class, new HandSerializer());
+        addSerializer(Game.GameAction.class, new ActionSerializer());
+        addSerializer(Game.class, new GameJsonSerializers.GameSerializer(true));
+        setMixInAnnotation(Player.class, PlayerMixin.class);
+    }
+
+    private static class CardSerializer extends StdSerializer<Card> {
+        CardSerializer() {
+            super(Card.class);
+        }
+
+        @Override
+        public void serialize(Card card, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeString(card.toCode());
+        }
+    }
+
+    private static class HandSerializer extends StdSerializer<Hand> {
+        HandSerializer() {
+            super(Hand.class);
+        }
+
+        @Override
+        public void serialize(Hand hand, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartArray(hand, hand.getCards().size());
+            for (Card card : hand.getCards()) {
+                generator.writeString(card.toCode());
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private static class ActionSerializer extends StdSerializer<Game.GameAction> {
+        ActionSerializer() {
+            super(Game.GameAction.class);
+        }
+
+        @Override
+        public void serialize(Game.GameAction action, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeString(String.valueOf(action.getCode()));
+        }
+    }
+
+    @JsonIgnoreProperties({"winRate", "dailyWinRate"})
+    private abstract static class PlayerMixin {
+    }
+}
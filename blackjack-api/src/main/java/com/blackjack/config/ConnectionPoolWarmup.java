@@ -0,0 +1,93 @@
+package com.blackjack.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ValidationDepth;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Opens the pool's initial connections before the application reports ready.
+ * Application runners complete before readiness switches to accepting traffic,
+ * so each connection is established, validated against the server and has run
+ * the hot-path queries once by the time the first request arrives. A failed
+ * warm-up is logged and startup continues; connections are then opened on demand.
+ */
+@Slf4j
+@Component
+public class ConnectionPoolWarmup implements ApplicationRunner {
+
+    // Queries on the request path, run once per connection so the driver and server caches are primed
+    static final List<String> WARMUP_QUERIES = List.of(
+            "SELECT * FROM players WHERE id = ?",
+            "SELECT idempotency_key FROM balance_ledger WHERE idempotency_key = ?",
+            "SELECT id, balance FROM players WHERE id = ?");
+
+    private static final List<Object> WARMUP_BINDINGS = List.of(0L, "", 0L);
+
+    private final ObjectProvider<ConnectionFactory> connectionFactory;
+    private final int connections;
+    private final Duration timeout;
+
+    public ConnectionPoolWarmup(
+            ObjectProvider<ConnectionFactory> connectionFactory,
+            @Value("${spring.r2dbc.pool.initial-size:10}") int connections,
+            @Value("${blackjack.r2dbc.warmup.timeout:10s}") Duration timeout) {
+        this.connectionFactory = connectionFactory;
+        this.connections = connections;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        ConnectionFactory factory = connectionFactory.getIfAvailable();
+        if (factory == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            Integer warmed = warmUp(factory).block(timeout);
+            log.info("Warmed up {} database connections in {} ms", warmed, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Database connection warm-up failed, connections will be opened on demand: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Open, validate and prime the pool's initial connections
+     * @param factory connection factory, usually a pool
+     * @return number of connections primed
+     */
+    Mono<Integer> warmUp(ConnectionFactory factory) {
+        ConnectionPool pool = R2dbcPoolConfig.unwrapPool(factory);
+        Mono<Integer> opened = pool != null ? pool.warmup() : Mono.just(0);
+        // Acquired concurrently so the priming queries spread across the pool's connections
+        return opened.thenMany(Flux.range(0, connections)
+                        .flatMap(i -> Mono.usingWhen(factory.create(), connection -> prime(connection).thenReturn(connection), Connection::close), connections))
+                .count()
+                .map(Long::intValue);
+    }
+
+    private Mono<Void> prime(Connection connection) {
+        return Mono.from(connection.validate(ValidationDepth.REMOTE))
+                .flatMap(valid -> valid
+                        ? Mono.<Void>empty()
+                        : Mono.<Void>error(new IllegalStateException("Connection failed validation")))
+                .thenMany(Flux.range(0, WARMUP_QUERIES.size())
+                        .concatMap(i -> Flux.from(connection.createStatement(WARMUP_QUERIES.get(i))
+                                        .bind(0, WARMUP_BINDINGS.get(i))
+                                        .execute())
+                                .concatMap(result -> result.map((row, metadata) -> row))))
+                .then();
+    }
+}
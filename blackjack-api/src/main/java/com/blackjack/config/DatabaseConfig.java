@@ -1,12 +1,81 @@
 package com.blackjack.config;
 
+import com.blackjack.model.Money;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.MySqlDialect;
 import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
 import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 @Configuration
 @EnableR2dbcRepositories(basePackages = "com.blackjack.repository")
 @EnableReactiveMongoRepositories(basePackages = "com.blackjack.repository")
 public class DatabaseConfig {
 
-} 
\ No newline at end of file
+    /**
+     * Map {@link Money} to and from {@code DECIMAL(19,2)} columns
+     */
+    @Bean
+    public R2dbcCustomConversions r2dbcCustomConversions() {
+        return R2dbcCustomConversions.of(MySqlDialect.INSTANCE,
+                List.of(MoneyToBigDecimalConverter.INSTANCE, BigDecimalToMoneyConverter.INSTANCE));
+    }
+
+    /**
+     * Store {@link Money} as a decimal string, the same representation used for
+     * {@link BigDecimal} game amounts written before the money type existed
+     */
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(
+                List.of(MoneyToStringConverter.INSTANCE, StringToMoneyConverter.INSTANCE));
+    }
+
+    @WritingConverter
+    enum MoneyToBigDecimalConverter implements Converter<Money, BigDecimal> {
+        INSTANCE;
+
+        @Override
+        public BigDecimal convert(Money source) {
+            return source.toBigDecimal();
+        }
+    }
+
+    @ReadingConverter
+    enum BigDecimalToMoneyConverter implements Converter<BigDecimal, Money> {
+        INSTANCE;
+
+        @Override
+        public Money convert(BigDecimal source) {
+            return Money.of(source);
+        }
+    }
+
+    @WritingConverter
+    enum MoneyToStringConverter implements Converter<Money, String> {
+        INSTANCE;
+
+        @Override
+        public String convert(Money source) {
+            return source.toString();
+        }
+    }
+
+    @ReadingConverter
+    enum StringToMoneyConverter implements Converter<String, Money> {
+        INSTANCE;
+
+        @Override
+        public Money convert(String source) {
+            return Money.of(new BigDecimal(source));
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.blackjack.config;
+
+import com.blackjack.model.Card;
+import com.blackjack.model.Game;
+import com.blackjack.model.Hand;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+/**
+ * Hand-written Jackson serializers for games, hands and cards.
+ * They write the same properties as the bean serializers, but score each hand
+ * once instead of once per derived property, and write cards in text JSON
+ * from pre-encoded fragments, one per suit, rank and face. Binary formats
+ * cannot embed JSON fragments, so their mappers install {@link BinaryFormatModule},
+ * which registers the same serializers writing cards field by field.
+ */
+@JsonComponent
+public class GameJsonSerializers {
+
+    private static final SerializedString SUIT = new SerializedString("suit");
+    private static final SerializedString RANK = new SerializedString("rank");
+    private static final SerializedString FACE_UP = new SerializedString("faceUp");
+    private static final SerializedString ACE = new SerializedString("ace");
+    private static final SerializedString CARDS = new SerializedString("cards");
+    private static final SerializedString VALUE = new SerializedString("value");
+    private static final SerializedString BUSTED = new SerializedString("busted");
+    private static final SerializedString BLACKJACK = new SerializedString("blackjack");
+    private static final SerializedString SOFT = new SerializedString("soft");
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString PLAYER_ID = new SerializedString("playerId");
+    private static final SerializedString PLAYER_HAND = new SerializedString("playerHand");
+    private static final SerializedString DEALER_HAND = new SerializedString("dealerHand");
+    private static final SerializedString BET = new SerializedString("bet");
+    private static final SerializedString INSURANCE_BET = new SerializedString("insuranceBet");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString START_TIME = new SerializedString("startTime");
+    private static final SerializedString END_TIME = new SerializedString("endTime");
+    private static final SerializedString RESULT = new SerializedString("result");
+    private static final SerializedString ACTIONS = new SerializedString("actions");
+    private static final SerializedString PLAYER_TURN = new SerializedString("playerTurn");
+    private static final SerializedString DEALER_TURN = new SerializedString("dealerTurn");
+
+    // Text JSON of every card, indexed by suit, rank and face
+    private static final SerializableString[][][] CARD_JSON = new SerializableString[Card.Suit.values().length][Card.Rank.values().length][2];
+
+    static {
+        for (Card.Suit suit : Card.Suit.values()) {
+            for (Card.Rank rank : Card.Rank.values()) {
+                for (int face = 0; face < 2; face++) {
+                    String json = "{\"suit\":\"" + suit.name() + "\",\"rank\":\"" + rank.name() +
+                            "\",\"faceUp\":" + (face == 1) + ",\"value\":" + rank.getValue() +
+                            ",\"ace\":" + (rank == Card.Rank.ACE) + "}";
+                    CARD_JSON[suit.ordinal()][rank.ordinal()][face] = new SerializedString(json.intern());
+                }
+            }
+        }
+    }
+
+    /**
+     * Write a card, from its pre-encoded fragment when the output is text JSON
+     * @param card card to write
+     * @param generator generator to write to
+     * @param rawFragments whether the generator writes text JSON and accepts raw fragments
+     */
+    static void writeCard(Card card, JsonGenerator generator, boolean rawFragments) throws IOException {
+        if (rawFragments && card.getSuit() != null && card.getRank() != null) {
+            generator.writeRawValue(CARD_JSON[card.getSuit().ordinal()][card.getRank().ordinal()][card.isFaceUp() ? 1 : 0]);
+            return;
+        }
+
+        // Binary formats, and cards missing a suit or rank, are written field by field
+        generator.writeStartObject(card);
+        generator.writeFieldName(SUIT);
+        writeName(card.getSuit(), generator);
+        generator.writeFieldName(RANK);
+        writeName(card.getRank(), generator);
+        generator.writeFieldName(FACE_UP);
+        generator.writeBoolean(card.isFaceUp());
+        generator.writeFieldName(VALUE);
+        generator.writeNumber(card.getValue());
+        generator.writeFieldName(ACE);
+        generator.writeBoolean(card.isAce());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Write a hand, scoring it in the same pass that writes its cards
+     * @param hand hand to write
+     * @param generator generator to write to
+     * @param rawFragments whether cards may be written from pre-encoded JSON fragments
+     * @return value of the hand
+     */
+    static int writeHand(Hand hand, JsonGenerator generator, boolean rawFragments) throws IOException {
+        generator.writeStartObject(hand);
+        generator.writeFieldName(CARDS);
+        generator.writeStartArray(hand.getCards(), hand.getCards().size());
+        int hardValue = 0;
+        boolean hasAce = false;
+        for (Card card : hand.getCards()) {
+            writeCard(card, generator, rawFragments);
+            hardValue += card.getValue();
+            hasAce |= card.isAce();
+        }
+        generator.writeEndArray();
+
+        int value = Hand.bestValue(hardValue, hasAce);
+        generator.writeFieldName(VALUE);
+        generator.writeNumber(value);
+        generator.writeFieldName(BUSTED);
+        generator.writeBoolean(value > 21);
+        generator.writeFieldName(BLACKJACK);
+        generator.writeBoolean(hand.getCards().size() == 2 && value == 21);
+        generator.writeFieldName(SOFT);
+        generator.writeBoolean(value != hardValue);
+        generator.writeEndObject();
+        return value;
+    }
+
+    private static void writeName(Enum<?> value, JsonGenerator generator) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value.name());
+        }
+    }
+
+    public static class CardSerializer extends StdSerializer<Card> {
+
+        private final boolean rawFragments;
+
+        public CardSerializer() {
+            this(true);
+        }
+
+        public CardSerializer(boolean rawFragments) {
+            super(Card.class);
+            this.rawFragments = rawFragments;
+        }
+
+        @Override
+        public void serialize(Card card, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            writeCard(card, generator, rawFragments);
+        }
+    }
+
+    public static class HandSerializer extends StdSerializer<Hand> {
+
+        private final boolean rawFragments;
+
+        public HandSerializer() {
+            this(true);
+        }
+
+        public HandSerializer(boolean rawFragments) {
+            super(Hand.class);
+            this.rawFragments = rawFragments;
+        }
+
+        @Override
+        public void serialize(Hand hand, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            writeHand(hand, generator, rawFragments);
+        }
+    }
+
+    /**
+     * Writes a game, scoring the player's hand once for the hand itself and both turn flags.
+     * The compact variant leaves out null properties and the turn flags, and writes
+     * hands and actions with whatever serializers the mapper has for them.
+     */
+    public static class GameSerializer extends StdSerializer<Game> {
+
+        private final boolean compact;
+        private final boolean rawFragments;
+
+        public GameSerializer() {
+            this(false);
+        }
+
+        public GameSerializer(boolean compact) {
+            this(compact, true);
+        }
+
+        public GameSerializer(boolean compact, boolean rawFragments) {
+            super(Game.class);
+            this.compact = compact;
+            this.rawFragments = rawFragments;
+        }
+
+        @Override
+        public void serialize(Game game, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(game);
+            writeString(ID, game.getId(), generator);
+            writeValue(PLAYER_ID, game.getPlayerId(), generator, provider);
+
+            int playerValue = writeHand(PLAYER_HAND, game.getPlayerHand(), generator, provider);
+            writeHand(DEALER_HAND, game.getDealerHand(), generator, provider);
+            writeValue(BET, game.getBet(), generator, provider);
+            writeValue(INSURANCE_BET, game.getInsuranceBet(), generator, provider);
+            writeValue(STATUS, game.getStatus(), generator, provider);
+            writeValue(START_TIME, game.getStartTime(), generator, provider);
+            writeValue(END_TIME, game.getEndTime(), generator, provider);
+            writeValue(RESULT, game.getResult(), generator, provider);
+            writeValue(ACTIONS, game.getActions(), generator, provider);
+
+            if (!compact && game.getPlayerHand() != null) {
+                generator.writeFieldName(PLAYER_TURN);
+                generator.writeBoolean(game.isPlayerTurn(playerValue));
+                generator.writeFieldName(DEALER_TURN);
+                generator.writeBoolean(game.isDealerTurn(playerValue));
+            }
+            generator.writeEndObject();
+        }
+
+        /**
+         * Write a hand property
+         * @return value of the hand, or 0 when the compact format or a missing hand left it unscored
+         */
+        private int writeHand(SerializedString name, Hand hand,
+                              JsonGenerator generator, SerializerProvider provider) throws IOException {
+            if (compact || hand == null) {
+                writeValue(name, hand, generator, provider);
+                return 0;
+            }
+            generator.writeFieldName(name);
+            return GameJsonSerializers.writeHand(hand, generator, rawFragments);
+        }
+
+        private void writeString(SerializedString name, String value, JsonGenerator generator) throws IOException {
+            if (value == null && compact) {
+                return;
+            }
+            generator.writeFieldName(name);
+            generator.writeString(value);
+        }
+
+        private void writeValue(SerializedString name, Object value,
+                                JsonGenerator generator, SerializerProvider provider) throws IOException {
+            if (value == null && compact) {
+                return;
+            }
+            generator.writeFieldName(name);
+            provider.defaultSerializeValue(value, generator);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.blackjack.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.R2dbcTimeoutException;
+import io.r2dbc.spi.Wrapped;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Connection factory decorator that times every connection acquisition.
+ * Wrapping the pool keeps it reachable through {@link Wrapped#unwrap()}, so
+ * the pool gauges Spring Boot registers (acquired, idle, pending, ...) still
+ * bind to it. Meters are created on first use because the registry may not
+ * exist yet when the connection factory is initialised.
+ */
+final class InstrumentedConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory> {
+
+    static final String ACQUIRE_TIMER = "r2dbc.pool.acquire";
+    static final String ACQUIRE_TIMEOUTS = "r2dbc.pool.acquire.timeouts";
+
+    private final ConnectionFactory delegate;
+    private final String name;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private volatile Meters meters;
+
+    InstrumentedConnectionFactory(ConnectionFactory delegate, String name, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.delegate = delegate;
+        this.name = name;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.defer(() -> {
+            Meters current = meters();
+            if (current == null) {
+                return Mono.from(delegate.create());
+            }
+            long start = System.nanoTime();
+            return Mono.<Connection>from(delegate.create())
+                    .doOnSuccess(connection -> current.record(current.acquired, start))
+                    .doOnError(error -> {
+                        if (isTimeout(error)) {
+                            current.timeouts.increment();
+                            current.record(current.timedOut, start);
+                        } else {
+                            current.record(current.failed, start);
+                        }
+                    });
+        });
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return delegate;
+    }
+
+    private Meters meters() {
+        Meters current = meters;
+        if (current == null) {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return null;
+            }
+            current = new Meters(registry, name);
+            meters = current;
+        }
+        return current;
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        return error instanceof R2dbcTimeoutException || error instanceof TimeoutException;
+    }
+
+    private static final class Meters {
+        private final Timer acquired;
+        private final Timer timedOut;
+        private final Timer failed;
+        private final Counter timeouts;
+
+        Meters(MeterRegistry registry, String name) {
+            this.acquired = timer(registry, name, "success");
+            this.timedOut = timer(registry, name, "timeout");
+            this.failed = timer(registry, name, "error");
+            this.timeouts = Counter.builder(ACQUIRE_TIMEOUTS)
+                    .description("Connection acquisitions that exceeded the pool's max acquire time")
+                    .tag("name", name)
+                    .register(registry);
+        }
+
+        void record(Timer timer, long start) {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        private static Timer timer(MeterRegistry registry, String name, String outcome) {
+            return Timer.builder(ACQUIRE_TIMER)
+                    .description("Time spent waiting for a pooled connection")
+                    .tag("name", name)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .publishPercentiles(0.5, 0.99)
+                    .register(registry);
+        }
+    }
+}
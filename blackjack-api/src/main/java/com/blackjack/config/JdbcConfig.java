@@ -0,0 +1,53 @@
+package com.blackjack.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Blocking JDBC access to the players database, active with the {@code jdbc} profile.
+ * Queries run on virtual threads, one per task, so a blocked call parks its
+ * virtual thread instead of holding a platform thread. R2DBC stays configured
+ * for everything else in the application.
+ */
+@Configuration
+@Profile("jdbc")
+public class JdbcConfig {
+
+    @Bean
+    @ConfigurationProperties("blackjack.jdbc.datasource")
+    public HikariDataSource playersDataSource() {
+        return new HikariDataSource();
+    }
+
+    @Bean
+    public JdbcTemplate playersJdbcTemplate(DataSource playersDataSource) {
+        return new JdbcTemplate(playersDataSource);
+    }
+
+    @Bean
+    public TransactionTemplate playersTransactionTemplate(DataSource playersDataSource) {
+        return new TransactionTemplate(new DataSourceTransactionManager(playersDataSource));
+    }
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService jdbcExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public Scheduler jdbcScheduler(ExecutorService jdbcExecutor) {
+        return Schedulers.fromExecutorService(jdbcExecutor, "jdbc-virtual");
+    }
+}
@@ -0,0 +1,49 @@
+package com.blackjack.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Instrumentation for the R2DBC connection pool.
+ * Spring Boot already publishes the pool gauges ({@code r2dbc.pool.acquired},
+ * {@code idle}, {@code pending}, {@code allocated}); this adds the acquire
+ * latency histogram and a timeout counter by wrapping each pooled connection factory.
+ */
+@Configuration
+public class R2dbcPoolConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionPoolInstrumentation(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof ConnectionPool pool) {
+                    return new InstrumentedConnectionFactory(pool, beanName, meterRegistry);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Find the pool behind a possibly wrapped connection factory
+     * @param connectionFactory the connection factory bean
+     * @return the pool, or null if the factory is not pooled
+     */
+    static ConnectionPool unwrapPool(ConnectionFactory connectionFactory) {
+        Object candidate = connectionFactory;
+        while (candidate != null) {
+            if (candidate instanceof ConnectionPool pool) {
+                return pool;
+            }
+            candidate = candidate instanceof Wrapped<?> wrapped ? wrapped.unwrap() : null;
+        }
+        return null;
+    }
+}
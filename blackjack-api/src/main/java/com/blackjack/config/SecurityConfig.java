@@ -28,6 +28,7 @@ public class SecurityConfig {
             .authorizeExchange(exchanges -> exchanges
                 .pathMatchers("/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**", "/webjars/**").permitAll()
                 .pathMatchers("/api/**").permitAll()
+                .pathMatchers("/ws/**").permitAll()
                 .anyExchange().permitAll()
             )
             .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
@@ -0,0 +1,19 @@
+package com.blackjack.config;
+
+import com.blackjack.controller.GameWebSocketHandler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+
+import java.util.Map;
+
+@Configuration
+public class WebSocketConfig {
+
+    // Ordered ahead of the annotated controllers so the upgrade request is not matched as a REST call
+    @Bean
+    public HandlerMapping gameWebSocketMapping(GameWebSocketHandler gameWebSocketHandler) {
+        return new SimpleUrlHandlerMapping(Map.of("/ws/games", gameWebSocketHandler), -1);
+    }
+}
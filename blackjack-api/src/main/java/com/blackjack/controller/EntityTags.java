@@ -0,0 +1,62 @@
+package com.blackjack.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Weak entity tags derived from a resource's version, and the If-None-Match
+ * check that lets a controller answer 304 from the version alone.
+ */
+final class EntityTags {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private EntityTags() {
+    }
+
+    /**
+     * Weak tag for a resource revision
+     * @param revision revision that changes on every write
+     * @return the tag, such as {@code W/"42"}
+     */
+    static String of(long revision) {
+        return WEAK_PREFIX + "\"" + revision + "\"";
+    }
+
+    /**
+     * Weak tag for the time a resource was last written
+     * @param updatedAt time of the last write, stored to the microsecond
+     * @return the tag, holding the time in microseconds
+     */
+    static String of(LocalDateTime updatedAt) {
+        return of(updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000);
+    }
+
+    /**
+     * Whether a request's If-None-Match holds a tag, using weak comparison
+     * @param ifNoneMatch tags from the If-None-Match header
+     * @param tag current tag of the resource
+     * @return true if the client's copy is current
+     */
+    static boolean matches(List<String> ifNoneMatch, String tag) {
+        String opaque = opaque(tag);
+        return ifNoneMatch.stream().anyMatch(candidate -> candidate.equals("*") || opaque(candidate).equals(opaque));
+    }
+
+    /**
+     * Response telling the client its copy is current
+     * @param tag current tag of the resource
+     * @return a 304 response carrying the tag
+     */
+    static <T> ResponseEntity<T> notModified(String tag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(tag).build();
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+}
@@ -2,11 +2,17 @@ package com.blackjack.controller;
 
 import com.blackjack.dto.CreateGameRequest;
 import com.blackjack.dto.ErrorResponse;
+import com.blackjack.dto.GameActionResult;
+import com.blackjack.dto.PlayGameActionsRequest;
+import com.blackjack.dto.PlayerGameSummaryResponse;
+import com.blackjack.dto.SparseFieldset;
 import com.blackjack.exception.GameNotFoundException;
 import com.blackjack.exception.PlayerNotFoundException;
 import com.blackjack.model.Game;
+import com.blackjack.model.Money;
 import com.blackjack.service.GameService;
 import com.blackjack.service.PlayerService;
+import com.blackjack.service.support.CompletedGameCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,17 +21,27 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Slf4j
@@ -36,8 +52,29 @@ import java.util.Optional;
 @Tag(name = "Game Management", description = "Endpoints for managing blackjack games")
 public class GameController {
 
+    // Properties a client can pick with fields=, and the stored fields each is read from
+    private static final SparseFieldset.Definition<Game> GAME_FIELDS = SparseFieldset.<Game>define()
+            .property("id", Game::getId)
+            .property("playerId", Game::getPlayerId, "playerId")
+            .property("playerHand", Game::getPlayerHand, "playerHand")
+            .property("playerHand.value", game -> game.getPlayerHand().getValue(), "playerHand")
+            .property("dealerHand", Game::getDealerHand, "dealerHand")
+            .property("dealerHand.value", game -> game.getDealerHand().getValue(), "dealerHand")
+            .property("bet", Game::getBet, "bet")
+            .property("insuranceBet", Game::getInsuranceBet, "insuranceBet")
+            .property("status", Game::getStatus, "status")
+            .property("startTime", Game::getStartTime, "startTime")
+            .property("endTime", Game::getEndTime, "endTime")
+            .property("result", Game::getResult, "result")
+            .property("actions", Game::getActions, "actions")
+            .property("playerTurn", Game::isPlayerTurn, "status", "playerHand", "actions")
+            .property("dealerTurn", Game::isDealerTurn, "status", "playerHand", "actions");
+
+    private static final CacheControl COMPLETED_GAME_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365)).immutable();
+
     private final GameService gameService;
     private final PlayerService playerService;
+    private final CompletedGameCache completedGameCache;
 
     @Operation(summary = "Start a new game", description = "Creates and starts a new blackjack game for a player")
     @ApiResponse(responseCode = "201", description = "Game created successfully",
@@ -54,7 +91,7 @@ public class GameController {
         
         return playerService.getPlayerById(request.getPlayerId())
                 .switchIfEmpty(Mono.error(new PlayerNotFoundException(request.getPlayerId())))
-                .then(gameService.startGame(request.getPlayerId(), request.getBet()))
+                .then(gameService.startGame(request.getPlayerId(), Money.of(request.getBet())))
                 .map(game -> ResponseEntity.status(HttpStatus.CREATED).body(game))
                 .doOnSuccess(response -> log.info("Game created successfully: {}", 
                     Optional.ofNullable(response.getBody()).map(Game::getId).orElse("unknown")));
@@ -144,22 +181,94 @@ public class GameController {
                 .doOnSuccess(response -> log.info("Insurance taken for game: {}", gameId));
     }
 
-    @Operation(summary = "Get game details", description = "Retrieves detailed information about a specific game")
+    @Operation(summary = "Get game details", description = "Retrieves detailed information about a specific game, with an ETag. Completed games are served from memory with a strong ETag and as immutable")
     @ApiResponse(responseCode = "200", description = "Game found",
         content = @Content(mediaType = "application/json", schema = @Schema(implementation = Game.class)))
+    @ApiResponse(responseCode = "304", description = "Game not modified since the ETag in If-None-Match")
+    @ApiResponse(responseCode = "400", description = "Unknown field requested",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     @ApiResponse(responseCode = "404", description = "Game not found",
         content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     @ApiResponse(responseCode = "500", description = "Internal server error",
         content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     @GetMapping("/{gameId}")
-    public Mono<ResponseEntity<Game>> getGame(
+    public Mono<ResponseEntity<?>> getGame(
             @Parameter(description = "Game ID", example = "507f1f77bcf86cd799439011") 
-            @PathVariable("gameId") String gameId) {
+            @PathVariable("gameId") String gameId,
+            @Parameter(description = "Comma-separated properties to return instead of the whole game",
+                example = "status,playerHand.value,dealerHand.value")
+            @RequestParam(required = false) String fields,
+            ServerHttpRequest request) {
         log.info("Getting game details for: {}", gameId);
-        
+        SparseFieldset<Game> selection = fields == null ? null : GAME_FIELDS.select(fields);
+
+        // Completed games are served as cached JSON; other encodings go through the codecs
+        boolean json = request.getHeaders().getAccept().stream().allMatch(type -> type.isCompatibleWith(MediaType.APPLICATION_JSON));
+        CompletedGameCache.EncodedGame cached = json && selection == null ? completedGameCache.get(gameId) : null;
+        if (cached != null) {
+            return Mono.just(completedGame(cached));
+        }
+
+        // The revision alone tells whether the client's copy is current, without loading the game
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        Mono<ResponseEntity<?>> response = ifNoneMatch.isEmpty()
+                ? loadGame(gameId, json, selection)
+                : gameService.getGameRevision(gameId)
+                        .flatMap(revision -> EntityTags.matches(ifNoneMatch, EntityTags.of(revision))
+                                ? Mono.just(EntityTags.notModified(EntityTags.of(revision)))
+                                : loadGame(gameId, json, selection));
+        return response.switchIfEmpty(Mono.error(GameNotFoundException.forGameId(gameId)));
+    }
+
+    /**
+     * Read a game and build its response, caching it if it is completed and wanted as JSON.
+     * With a selection, only the fields behind the selected properties are read and written.
+     */
+    private Mono<ResponseEntity<?>> loadGame(String gameId, boolean json, SparseFieldset<Game> selection) {
+        if (selection != null) {
+            return gameService.getGameById(gameId, selection.storedFields())
+                    .map(game -> ResponseEntity.ok().eTag(tag(game)).body(selection.write(game)));
+        }
         return gameService.getGameById(gameId)
-                .map(ResponseEntity::ok)
-                .switchIfEmpty(Mono.error(GameNotFoundException.forGameId(gameId.toString())));
+                .map(game -> json && game.getStatus() == Game.GameStatus.COMPLETED
+                        ? completedGame(completedGameCache.put(game))
+                        : ResponseEntity.ok().eTag(tag(game)).body(game));
+    }
+
+    /**
+     * Tag for a game's revision; a game stored before games were versioned is at revision 0
+     */
+    private static String tag(Game game) {
+        return EntityTags.of(game.getRevision() == null ? 0 : game.getRevision());
+    }
+
+    /**
+     * Response for a completed game, which never changes once encoded.
+     * A request whose If-None-Match holds the ETag is answered with 304.
+     */
+    private static ResponseEntity<DataBuffer> completedGame(CompletedGameCache.EncodedGame encoded) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(encoded.eTag())
+                .cacheControl(COMPLETED_GAME_CACHE_CONTROL)
+                .body(encoded.toDataBuffer());
+    }
+
+    @Operation(summary = "Get several games", description = "Retrieves up to 100 games by ID with one query, in the order requested. Unknown IDs are skipped")
+    @ApiResponse(responseCode = "200", description = "Games retrieved successfully",
+        content = @Content(mediaType = "application/json",
+            array = @ArraySchema(schema = @Schema(implementation = Game.class))))
+    @ApiResponse(responseCode = "400", description = "No IDs or too many IDs",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    @ApiResponse(responseCode = "500", description = "Internal server error",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    @GetMapping(params = "ids")
+    public Flux<Game> getGames(
+            @Parameter(description = "Game IDs", example = "507f1f77bcf86cd799439011,507f191e810c19729de860ea")
+            @RequestParam("ids") @Size(min = 1, max = 100) List<String> ids) {
+        log.info("Getting {} games by ID", ids.size());
+
+        return gameService.getGamesByIds(ids);
     }
 
     @Operation(summary = "Get player's active games", description = "Retrieves all active games for a specific player")
@@ -211,10 +320,43 @@ public class GameController {
                 .thenMany(gameService.getCompletedGames(playerId, start, end));
     }
 
-    @Operation(summary = "Get all player's games", description = "Retrieves all games (active and completed) for a player")
+    @Operation(summary = "Get player's game summary",
+        description = "Totals of a player's completed games over a range of days: games, amounts bet and won, and results by type")
+    @ApiResponse(responseCode = "200", description = "Summary retrieved successfully",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlayerGameSummaryResponse.class)))
+    @ApiResponse(responseCode = "404", description = "Player not found",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    @ApiResponse(responseCode = "500", description = "Internal server error",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    @GetMapping("/player/{playerId}/summary")
+    public Mono<ResponseEntity<PlayerGameSummaryResponse>> getGameSummary(
+            @Parameter(description = "Player ID", example = "1")
+            @PathVariable("playerId") Long playerId,
+            @Parameter(description = "First day, inclusive", example = "2023-12-01")
+            @RequestParam(required = false) LocalDate from,
+            @Parameter(description = "Last day, inclusive", example = "2023-12-31")
+            @RequestParam(required = false) LocalDate to) {
+
+        // Default to last 30 days if no dates provided
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(30);
+
+        log.info("Getting game summary for player {} from {} to {}", playerId, start, end);
+
+        return playerService.getPlayerById(playerId)
+                .switchIfEmpty(Mono.error(new PlayerNotFoundException(playerId)))
+                .then(gameService.getPlayerGameSummary(playerId, start, end))
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Get all player's games",
+        description = "Retrieves one page of a player's games, active and completed, newest first. "
+            + "Pass the start time and ID of the last game on a page as beforeStartTime/beforeId to get the next page")
     @ApiResponse(responseCode = "200", description = "All games retrieved successfully",
         content = @Content(mediaType = "application/json", 
             array = @ArraySchema(schema = @Schema(implementation = Game.class))))
+    @ApiResponse(responseCode = "400", description = "Invalid paging parameters",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     @ApiResponse(responseCode = "404", description = "Player not found",
         content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     @ApiResponse(responseCode = "500", description = "Internal server error",
@@ -222,17 +364,57 @@ public class GameController {
     @GetMapping("/player/{playerId}")
     public Flux<Game> getAllPlayerGames(
             @Parameter(description = "Player ID", example = "1") 
-            @PathVariable("playerId") Long playerId) {
-        log.info("Getting all games for player: {}", playerId);
+            @PathVariable("playerId") Long playerId,
+            @Parameter(description = "Number of games to return", example = "50")
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit,
+            @Parameter(description = "Start time of the last game on the previous page", example = "2023-12-08T15:30:45")
+            @RequestParam(required = false) LocalDateTime beforeStartTime,
+            @Parameter(description = "ID of the last game on the previous page", example = "507f1f77bcf86cd799439011")
+            @RequestParam(required = false) String beforeId) {
+        log.info("Getting up to {} games for player {} before ({}, {})", limit, playerId, beforeStartTime, beforeId);
         
         return playerService.getPlayerById(playerId)
                 .switchIfEmpty(Mono.error(new PlayerNotFoundException(playerId)))
-                .thenMany(
-                    Flux.merge(
-                        gameService.getActiveGames(playerId),
-                        gameService.getCompletedGames(playerId, LocalDateTime.now().minusYears(1), LocalDateTime.now())
-                    )
-                );
+                .thenMany(gameService.getPlayerGames(playerId, limit, beforeStartTime, beforeId));
+    }
+
+    @Operation(summary = "Play actions in several games",
+        description = "Plays hit and stand actions across many games in one request. Games are played concurrently, "
+            + "actions for the same game in the order given, and every changed game is saved with one bulk write")
+    @ApiResponse(responseCode = "200", description = "One result per action, in request order",
+        content = @Content(mediaType = "application/json",
+            array = @ArraySchema(schema = @Schema(implementation = GameActionResult.class))))
+    @ApiResponse(responseCode = "400", description = "Empty, oversized or invalid batch",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    @ApiResponse(responseCode = "500", description = "Internal server error",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    @PostMapping("/actions")
+    public Flux<GameActionResult> playActions(@Valid @RequestBody PlayGameActionsRequest request) {
+        log.info("Playing {} actions in a batch", request.getActions().size());
+
+        return gameService.playActions(request.getActions());
+    }
+
+    @Operation(summary = "Search games by actions",
+        description = "Finds games whose actions are exactly the sequence, start with it, or contain it consecutively")
+    @ApiResponse(responseCode = "200", description = "Matching games retrieved successfully",
+        content = @Content(mediaType = "application/json",
+            array = @ArraySchema(schema = @Schema(implementation = Game.class))))
+    @ApiResponse(responseCode = "400", description = "Missing or unknown actions",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    @ApiResponse(responseCode = "500", description = "Internal server error",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    @GetMapping("/actions")
+    public Flux<Game> searchGamesByActions(
+            @Parameter(description = "Actions in order", example = "HIT,HIT,STAND")
+            @RequestParam("sequence") List<Game.GameAction> sequence,
+            @Parameter(description = "How the sequence must match", example = "PREFIX")
+            @RequestParam(defaultValue = "CONTAINS") GameService.ActionMatch match,
+            @Parameter(description = "Maximum number of games to return", example = "50")
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit) {
+        log.info("Searching games with actions {} ({})", sequence, match);
+
+        return gameService.findGamesByActions(sequence, match, limit);
     }
 
     @Operation(summary = "Get high stake games", description = "Retrieves games with bets above the specified threshold")
@@ -266,6 +448,7 @@ public class GameController {
         log.info("Cleaning up games older than: {}", olderThan);
         
         return gameService.cleanupOldGames(olderThan)
+                .doOnNext(count -> completedGameCache.invalidateAll())
                 .map(count -> ResponseEntity.ok("Deleted " + count + " old games"));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,268 @@
+package com.blackjack.controller;
+
+import com.blackjack.dto.GameDelta;
+import com.blackjack.dto.GameFrame;
+import com.blackjack.model.Card;
+import com.blackjack.model.Game;
+import com.blackjack.model.Hand;
+import com.blackjack.model.Money;
+import com.blackjack.service.GameService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Plays games over one WebSocket session at {@code /ws/games}.
+ * Clients send small JSON frames such as {@code {"id":7,"g":"<gameId>","a":"H"}}
+ * and get back a {@link GameDelta} holding only what changed since the last
+ * state this session was sent for that game; the first reply for a game, and
+ * any reply to {@code G}, carries the full state. A session can play many
+ * games: different games run concurrently, while frames for the same game are
+ * played one after another in the order sent. A game stops counting towards
+ * the session's limit once it is over and its frames have been answered.
+ * Frames are read from the socket only as fast as replies can be written back.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GameWebSocketHandler implements WebSocketHandler {
+
+    static final int MAX_GAMES_PER_SESSION = 256;
+
+    private static final int FRAME_PREFETCH = 32;
+    // Routes invalid frames, and frames over the game limit, to a group of their own
+    private static final Route REJECTED = new Route(null, 0);
+
+    private final GameService gameService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        log.debug("Game WebSocket session {} opened", session.getId());
+        Flux<String> frames = session.receive().map(WebSocketMessage::getPayloadAsText);
+        return session.send(exchange(frames).map(session::textMessage))
+                .doFinally(signal -> log.debug("Game WebSocket session {} closed ({})", session.getId(), signal));
+    }
+
+    /**
+     * Play a session's frames
+     * @param frames frames received from the client
+     * @return replies to send back, one per frame
+     */
+    Flux<String> exchange(Flux<String> frames) {
+        SessionState state = new SessionState();
+        return frames.map(this::read)
+                .groupBy(state::route, FRAME_PREFETCH)
+                .flatMap(group -> REJECTED.equals(group.key())
+                        ? group.map(GameWebSocketHandler::reject)
+                        // A group ends once its game is over, otherwise finished games would hold their group forever
+                        : group.concatMap(frame -> play(frame, state))
+                                .takeUntil(delta -> state.replied(group.key())), MAX_GAMES_PER_SESSION + 1)
+                .map(this::write);
+    }
+
+    private Mono<GameDelta> play(GameFrame frame, SessionState state) {
+        String gameId = frame.getGameId();
+        Mono<Game> played = switch (frame.getAction()) {
+            case HIT -> gameService.hit(gameId);
+            case STAND -> gameService.stand(gameId);
+            case SPLIT -> gameService.split(gameId);
+            case INSURANCE -> gameService.insurance(gameId);
+            case GET -> gameService.getGameById(gameId);
+        };
+        return played
+                .map(game -> {
+                    Snapshot before = frame.getAction() == GameFrame.Action.GET ? null : state.seen().get(gameId);
+                    Snapshot after = Snapshot.of(game);
+                    state.seen().put(gameId, after);
+                    GameDelta delta = delta(frame.getId(), gameId, before, after);
+                    if (frame.getAction() == GameFrame.Action.SPLIT) {
+                        delta.setSplitGameId(game.getSplitGameId());
+                    }
+                    return delta;
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> GameDelta.error(frame.getId(), gameId, "Game not found")))
+                .onErrorResume(IllegalStateException.class,
+                        error -> Mono.just(GameDelta.error(frame.getId(), gameId, error.getMessage())))
+                .onErrorResume(error -> {
+                    log.error("Error playing {} in game {}: {}", frame.getAction(), gameId, error.getMessage(), error);
+                    return Mono.just(GameDelta.error(frame.getId(), gameId, "Action failed"));
+                });
+    }
+
+    private static GameDelta reject(GameFrame frame) {
+        String error = frame.getGameId() == null || frame.getAction() == null
+                ? "Invalid frame"
+                : "Too many games on this session";
+        return GameDelta.error(frame.getId(), frame.getGameId(), error);
+    }
+
+    /**
+     * Describe how a game changed between two states
+     * @param before state last sent to the client, or null to send everything
+     * @param after current state
+     */
+    static GameDelta delta(Long id, String gameId, Snapshot before, Snapshot after) {
+        GameDelta delta = new GameDelta();
+        delta.setId(id);
+        delta.setGameId(gameId);
+        if (before == null) {
+            delta.setStatus(after.status());
+            delta.setResult(after.result());
+            delta.setBet(toBigDecimal(after.bet()));
+            delta.setInsuranceBet(toBigDecimal(after.insuranceBet()));
+            delta.setPlayerCards(after.playerCards());
+            delta.setReplacePlayerHand(true);
+            delta.setDealerCards(after.dealerCards());
+            delta.setReplaceDealerHand(true);
+            return delta;
+        }
+
+        if (before.status() != after.status()) {
+            delta.setStatus(after.status());
+        }
+        if (before.result() != after.result()) {
+            delta.setResult(after.result());
+        }
+        if (!Objects.equals(before.insuranceBet(), after.insuranceBet())) {
+            delta.setInsuranceBet(toBigDecimal(after.insuranceBet()));
+        }
+        if (isPrefix(before.playerCards(), after.playerCards())) {
+            List<String> added = after.playerCards().subList(before.playerCards().size(), after.playerCards().size());
+            delta.setPlayerCards(added.isEmpty() ? null : List.copyOf(added));
+        } else {
+            delta.setPlayerCards(after.playerCards());
+            delta.setReplacePlayerHand(true);
+        }
+        // Revealing the hole card changes an earlier card, so the dealer's hand is resent
+        if (isPrefix(before.dealerCards(), after.dealerCards())) {
+            List<String> added = after.dealerCards().subList(before.dealerCards().size(), after.dealerCards().size());
+            delta.setDealerCards(added.isEmpty() ? null : List.copyOf(added));
+        } else {
+            delta.setDealerCards(after.dealerCards());
+            delta.setReplaceDealerHand(true);
+        }
+        return delta;
+    }
+
+    private static boolean isPrefix(List<String> prefix, List<String> cards) {
+        return prefix.size() <= cards.size() && cards.subList(0, prefix.size()).equals(prefix);
+    }
+
+    private static BigDecimal toBigDecimal(Money money) {
+        return money == null ? null : money.toBigDecimal();
+    }
+
+    private GameFrame read(String payload) {
+        try {
+            return objectMapper.readValue(payload, GameFrame.class);
+        } catch (JsonProcessingException e) {
+            log.debug("Ignoring unreadable game frame: {}", e.getOriginalMessage());
+            return new GameFrame();
+        }
+    }
+
+    private String write(GameDelta delta) {
+        try {
+            return objectMapper.writeValueAsString(delta);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The parts of a game a client can see, with cards as short codes such as {@code 10H}
+     */
+    record Snapshot(List<String> playerCards, List<String> dealerCards, Game.GameStatus status,
+                    Game.GameResult result, Money bet, Money insuranceBet) {
+
+        static Snapshot of(Game game) {
+            return new Snapshot(codes(game.getPlayerHand()), codes(game.getDealerHand()), game.getStatus(),
+                    game.getResult(), game.getBet(), game.getInsuranceBet());
+        }
+
+        private static List<String> codes(Hand hand) {
+            return hand == null ? List.of() : hand.getCards().stream().map(Card::toCode).toList();
+        }
+    }
+
+    /**
+     * Group key of a game's frames; a game that is played again after its group ended gets a new group
+     */
+    private record Route(String gameId, long generation) {
+    }
+
+    /**
+     * Games a session has open, with the frames routed to each that are still unanswered
+     */
+    private static final class SessionState {
+
+        private final Map<String, OpenGame> games = new HashMap<>();
+        private final Map<String, Snapshot> seen = new ConcurrentHashMap<>();
+        private long generation;
+
+        Map<String, Snapshot> seen() {
+            return seen;
+        }
+
+        synchronized Route route(GameFrame frame) {
+            if (frame.getGameId() == null || frame.getAction() == null) {
+                return REJECTED;
+            }
+            OpenGame game = games.get(frame.getGameId());
+            if (game == null) {
+                if (games.size() >= MAX_GAMES_PER_SESSION) {
+                    return REJECTED;
+                }
+                game = new OpenGame(new Route(frame.getGameId(), ++generation));
+                games.put(frame.getGameId(), game);
+            }
+            game.pending++;
+            return game.route;
+        }
+
+        /**
+         * Count a reply sent for a game
+         * @return whether the game's group should end, because the game is not in progress
+         * and no frames routed to it are left; later frames for it go to a new group
+         */
+        synchronized boolean replied(Route route) {
+            OpenGame game = games.get(route.gameId());
+            if (--game.pending > 0) {
+                return false;
+            }
+            Snapshot last = seen.get(route.gameId());
+            if (last != null && last.status() == Game.GameStatus.IN_PROGRESS) {
+                return false;
+            }
+            games.remove(route.gameId());
+            seen.remove(route.gameId());
+            return true;
+        }
+    }
+
+    private static final class OpenGame {
+
+        private final Route route;
+        private int pending;
+
+        OpenGame(Route route) {
+            this.route = route;
+        }
+    }
+}
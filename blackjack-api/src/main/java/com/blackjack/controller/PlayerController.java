@@ -2,11 +2,17 @@ package com.blackjack.controller;
 
 import com.blackjack.dto.CreatePlayerRequest;
 import com.blackjack.dto.UpdatePlayerRequest;
+import com.blackjack.dto.PlayerImportResult;
+import com.blackjack.dto.PlayerSearchResult;
 import com.blackjack.dto.PlayerStatsResponse;
+import com.blackjack.dto.SparseFieldset;
 import com.blackjack.dto.ErrorResponse;
 import com.blackjack.exception.PlayerNotFoundException;
+import com.blackjack.model.LedgerEntry;
 import com.blackjack.model.Player;
+import com.blackjack.repository.projection.PlayerStatistics;
 import com.blackjack.service.PlayerService;
+import com.blackjack.service.support.PlayerCsv;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,17 +21,23 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 
 @Slf4j
@@ -36,6 +48,25 @@ import java.util.Optional;
 @Tag(name = "Player Management", description = "Endpoints for managing players")
 public class PlayerController {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
+    // Properties a client can pick with fields=, and the columns each is read from
+    private static final SparseFieldset.Definition<Player> PLAYER_FIELDS = SparseFieldset.<Player>define()
+            .property("id", Player::getId, "id")
+            .property("username", Player::getUsername, "username")
+            .property("email", Player::getEmail, "email")
+            .property("balance", Player::getBalance, "balance")
+            .property("gamesPlayed", Player::getGamesPlayed, "games_played")
+            .property("gamesWon", Player::getGamesWon, "games_won")
+            .property("totalWinnings", Player::getTotalWinnings, "total_winnings")
+            .property("gamesPlayedToday", Player::getGamesPlayedToday, "games_played_today")
+            .property("gamesWonToday", Player::getGamesWonToday, "games_won_today")
+            .property("lastLoginDate", Player::getLastLoginDate, "last_login_date")
+            .property("createdAt", Player::getCreatedAt, "created_at")
+            .property("updatedAt", Player::getUpdatedAt, "updated_at")
+            .property("winRate", Player::getWinRate, "games_played", "games_won")
+            .property("dailyWinRate", Player::getDailyWinRate, "games_played_today", "games_won_today");
+
     private final PlayerService playerService;
 
     @Operation(summary = "Create a new player", description = "Creates a new player with username and email")
@@ -52,7 +83,6 @@ public class PlayerController {
         log.info("Creating new player with username: {}", request.getUsername());
         
         Player player = new Player(request.getUsername(), request.getEmail());
-        player.setBalance(BigDecimal.valueOf(100)); // Starting balance
         
         return playerService.createPlayer(player)
                 .map(createdPlayer -> ResponseEntity.status(HttpStatus.CREATED).body(createdPlayer))
@@ -60,22 +90,76 @@ public class PlayerController {
                     Optional.ofNullable(response.getBody()).map(Player::getId).orElse(-1L)));
     }
 
-    @Operation(summary = "Get player by ID", description = "Retrieves a player by their unique ID")
+    @Operation(summary = "Import players in bulk",
+        description = "Creates players from a newline-delimited JSON stream of create requests, or from CSV with "
+            + "username and email columns and an optional header row. Rows are written in chunks as they arrive; "
+            + "rows that are invalid or already taken are reported and skipped without failing the rest of the upload")
+    @ApiResponse(responseCode = "200", description = "Outcome of every row, streamed in upload order",
+        content = {
+            @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = PlayerImportResult.class)),
+            @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = PlayerImportResult.class)))
+        })
+    @ApiResponse(responseCode = "400", description = "Malformed request body",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    @ApiResponse(responseCode = "500", description = "Internal server error",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+        produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<PlayerImportResult> importPlayers(@RequestBody Flux<CreatePlayerRequest> requests) {
+        log.info("Importing players from NDJSON");
+        return playerService.importPlayers(requests);
+    }
+
+    @Operation(hidden = true)
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE,
+        produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<PlayerImportResult> importPlayersCsv(@RequestBody Flux<String> lines) {
+        log.info("Importing players from CSV");
+        return playerService.importPlayers(PlayerCsv.parse(lines));
+    }
+
+    @Operation(summary = "Get player by ID", description = "Retrieves a player by their unique ID, optionally only some of its properties")
     @ApiResponse(responseCode = "200", description = "Player found",
         content = @Content(mediaType = "application/json", schema = @Schema(implementation = Player.class)))
+    @ApiResponse(responseCode = "400", description = "Unknown field requested",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     @ApiResponse(responseCode = "404", description = "Player not found",
         content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     @ApiResponse(responseCode = "500", description = "Internal server error",
         content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<Player>> getPlayerById(
+    public Mono<ResponseEntity<?>> getPlayerById(
             @Parameter(description = "Player ID", example = "1") 
-            @PathVariable("id") Long id) {
+            @PathVariable("id") Long id,
+            @Parameter(description = "Comma-separated properties to return instead of the whole player",
+                example = "username,balance")
+            @RequestParam(required = false) String fields) {
         log.info("Getting player by ID: {}", id);
-        
-        return playerService.getPlayerById(id)
-                .map(ResponseEntity::ok)
-                .switchIfEmpty(Mono.error(new PlayerNotFoundException(id)));
+
+        // With a selection, only the columns behind the selected properties are read
+        Mono<ResponseEntity<?>> response = fields == null
+                ? playerService.getPlayerById(id).map(ResponseEntity::ok)
+                : Mono.just(PLAYER_FIELDS.select(fields))
+                        .flatMap(selection -> playerService.getPlayerById(id, selection.storedFields())
+                                .map(player -> ResponseEntity.ok(selection.write(player))));
+        return response.switchIfEmpty(Mono.error(new PlayerNotFoundException(id)));
+    }
+
+    @Operation(summary = "Get several players", description = "Retrieves up to 100 players by ID with one query, in the order requested. Unknown IDs are skipped")
+    @ApiResponse(responseCode = "200", description = "Players retrieved successfully",
+        content = @Content(mediaType = "application/json",
+            array = @ArraySchema(schema = @Schema(implementation = Player.class))))
+    @ApiResponse(responseCode = "400", description = "No IDs or too many IDs",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    @ApiResponse(responseCode = "500", description = "Internal server error",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    @GetMapping(params = "ids")
+    public Flux<Player> getPlayers(
+            @Parameter(description = "Player IDs", example = "1,2,3")
+            @RequestParam("ids") @Size(min = 1, max = 100) List<Long> ids) {
+        log.info("Getting {} players by ID", ids.size());
+
+        return playerService.getPlayersByIds(ids);
     }
 
     @Operation(summary = "Get player by username", description = "Retrieves a player by their username")
@@ -96,6 +180,24 @@ public class PlayerController {
                 .switchIfEmpty(Mono.error(new PlayerNotFoundException("username", username)));
     }
 
+    @Operation(summary = "Search players by username prefix",
+        description = "Returns players whose username starts with the prefix, ignoring case, in username order")
+    @ApiResponse(responseCode = "200", description = "Matching players retrieved successfully",
+        content = @Content(mediaType = "application/json", 
+            array = @ArraySchema(schema = @Schema(implementation = PlayerSearchResult.class))))
+    @ApiResponse(responseCode = "400", description = "Invalid prefix or limit parameter",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    @GetMapping("/search")
+    public Flux<PlayerSearchResult> searchPlayers(
+            @Parameter(description = "Username prefix", example = "john")
+            @RequestParam @NotBlank String prefix,
+            @Parameter(description = "Number of players to return", example = "10")
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) int limit) {
+        log.info("Searching players with username prefix: {}", prefix);
+        
+        return playerService.searchPlayersByUsername(prefix, limit);
+    }
+
     @Operation(summary = "Update player information", description = "Updates player's username and/or email")
     @ApiResponse(responseCode = "200", description = "Player updated successfully",
         content = @Content(mediaType = "application/json", schema = @Schema(implementation = Player.class)))
@@ -171,26 +273,38 @@ public class PlayerController {
         return playerService.getTopPlayers(limit);
     }
 
-    @Operation(summary = "Get wealthy players", description = "Retrieves players with balance above threshold")
+    @Operation(summary = "Get wealthy players",
+        description = "Retrieves one page of players with balance above threshold, richest first. "
+            + "Pass the balance and ID of the last player on a page as afterBalance/afterId, always together, to get the next page")
     @ApiResponse(responseCode = "200", description = "Wealthy players retrieved successfully",
         content = @Content(mediaType = "application/json", 
             array = @ArraySchema(schema = @Schema(implementation = Player.class))))
-    @ApiResponse(responseCode = "400", description = "Invalid threshold parameter",
+    @ApiResponse(responseCode = "400", description = "Invalid threshold or paging parameters",
         content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     @ApiResponse(responseCode = "500", description = "Internal server error",
         content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     @GetMapping("/wealthy")
     public Flux<Player> getWealthyPlayers(
             @Parameter(description = "Minimum balance threshold", example = "100.00")
-            @RequestParam(defaultValue = "100.0") BigDecimal threshold) {
-        log.info("Getting players with balance above: {}", threshold);
+            @RequestParam(defaultValue = "100.0") BigDecimal threshold,
+            @Parameter(description = "Number of players to return", example = "50")
+            @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit,
+            @Parameter(description = "Balance of the last player on the previous page", example = "250.00")
+            @RequestParam(required = false) BigDecimal afterBalance,
+            @Parameter(description = "ID of the last player on the previous page", example = "42")
+            @RequestParam(required = false) Long afterId) {
+        log.info("Getting up to {} players with balance above {} after ({}, {})", limit, threshold, afterBalance, afterId);
+        if ((afterBalance == null) != (afterId == null)) {
+            return Flux.error(new IllegalArgumentException("afterBalance and afterId must be given together"));
+        }
         
-        return playerService.getPlayersWithBalanceAbove(threshold);
+        return playerService.getPlayersWithBalanceAbove(threshold, limit, afterBalance, afterId);
     }
 
-    @Operation(summary = "Get player statistics", description = "Retrieves detailed statistics for a player")
+    @Operation(summary = "Get player statistics", description = "Retrieves detailed statistics for a player, with an ETag")
     @ApiResponse(responseCode = "200", description = "Statistics retrieved successfully",
         content = @Content(mediaType = "application/json", schema = @Schema(implementation = PlayerStatsResponse.class)))
+    @ApiResponse(responseCode = "304", description = "Statistics not modified since the ETag in If-None-Match")
     @ApiResponse(responseCode = "404", description = "Player not found",
         content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     @ApiResponse(responseCode = "500", description = "Internal server error",
@@ -198,13 +312,41 @@ public class PlayerController {
     @GetMapping("/{id}/stats")
     public Mono<ResponseEntity<PlayerStatsResponse>> getPlayerStats(
             @Parameter(description = "Player ID", example = "1") 
-            @PathVariable("id") Long id) {
+            @PathVariable("id") Long id,
+            ServerHttpRequest request) {
         log.info("Getting statistics for player: {}", id);
+
+        // The time of the last write alone tells whether the client's copy is current
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        Mono<ResponseEntity<PlayerStatsResponse>> response = ifNoneMatch.isEmpty()
+                ? loadStatistics(id)
+                : playerService.getPlayerUpdatedAt(id)
+                        .flatMap(updatedAt -> EntityTags.matches(ifNoneMatch, EntityTags.of(updatedAt))
+                                ? Mono.just(EntityTags.<PlayerStatsResponse>notModified(EntityTags.of(updatedAt)))
+                                : loadStatistics(id));
+        return response.switchIfEmpty(Mono.error(new PlayerNotFoundException(id)));
+    }
+
+    @Operation(summary = "Get player balance ledger",
+        description = "Streams every balance change recorded for a player, oldest first")
+    @ApiResponse(responseCode = "200", description = "Ledger entries streamed successfully",
+        content = {
+            @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = LedgerEntry.class)),
+            @Content(mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = LedgerEntry.class)))
+        })
+    @ApiResponse(responseCode = "404", description = "Player not found",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    @ApiResponse(responseCode = "500", description = "Internal server error",
+        content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    @GetMapping(value = "/{id}/ledger", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<LedgerEntry> getPlayerLedger(
+            @Parameter(description = "Player ID", example = "1") 
+            @PathVariable("id") Long id) {
+        log.info("Getting balance ledger for player: {}", id);
         
         return playerService.getPlayerById(id)
-                .map(this::mapToStatsResponse)
-                .map(ResponseEntity::ok)
-                .switchIfEmpty(Mono.error(new PlayerNotFoundException(id)));
+                .switchIfEmpty(Mono.error(new PlayerNotFoundException(id)))
+                .thenMany(playerService.getLedgerHistory(id));
     }
 
     @Operation(summary = "Reset daily statistics", description = "Resets daily statistics for all players")
@@ -220,18 +362,25 @@ public class PlayerController {
                 .map(count -> ResponseEntity.ok("Reset daily statistics for " + count + " players"));
     }
 
-    private PlayerStatsResponse mapToStatsResponse(Player player) {
+    private Mono<ResponseEntity<PlayerStatsResponse>> loadStatistics(Long id) {
+        return playerService.getPlayerStatistics(id)
+                .map(statistics -> ResponseEntity.ok()
+                        .eTag(EntityTags.of(statistics.updatedAt()))
+                        .body(mapToStatsResponse(statistics)));
+    }
+
+    private PlayerStatsResponse mapToStatsResponse(PlayerStatistics statistics) {
         return new PlayerStatsResponse(
-                player.getId(),
-                player.getUsername(),
-                player.getBalance(),
-                player.getGamesPlayed(),
-                player.getGamesWon(),
-                player.getWinRate(),
-                player.getTotalWinnings(),
-                player.getGamesPlayedToday(),
-                player.getGamesWonToday(),
-                player.getDailyWinRate()
+                statistics.id(),
+                statistics.username(),
+                statistics.balance().toBigDecimal(),
+                statistics.gamesPlayed(),
+                statistics.gamesWon(),
+                statistics.winRate(),
+                statistics.totalWinnings().toBigDecimal(),
+                statistics.gamesPlayedToday(),
+                statistics.gamesWonToday(),
+                statistics.dailyWinRate()
         );
     }
 } 
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.blackjack.dto;
+
+import com.blackjack.model.Game;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "One action to play in a game")
+public class GameActionRequest {
+
+    @NotBlank(message = "Game ID is required")
+    @Schema(description = "ID of the game to play", example = "507f1f77bcf86cd799439011")
+    private String gameId;
+
+    @NotNull(message = "Action is required")
+    @Schema(description = "Action to play; only HIT and STAND can be batched", example = "HIT")
+    private Game.GameAction action;
+}
@@ -0,0 +1,53 @@
+package com.blackjack.dto;
+
+import com.blackjack.model.Game;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of one action in a batch")
+public class GameActionResult {
+
+    @Schema(description = "ID of the game", example = "507f1f77bcf86cd799439011")
+    private String gameId;
+
+    @Schema(description = "Action that was requested", example = "HIT")
+    private Game.GameAction action;
+
+    @Schema(description = "What happened to the action", example = "APPLIED")
+    private Status status;
+
+    @Schema(description = "Game state after every action in the batch was played")
+    private Game game;
+
+    @Schema(description = "Why the action was not applied", example = "Game is not in progress")
+    private String message;
+
+    public static GameActionResult applied(Game game, Game.GameAction action) {
+        return new GameActionResult(game.getId(), action, Status.APPLIED, game, null);
+    }
+
+    public static GameActionResult rejected(String gameId, Game.GameAction action, Status status, String message) {
+        return new GameActionResult(gameId, action, status, null, message);
+    }
+
+    public static GameActionResult rejected(GameActionRequest request, Status status, String message) {
+        return rejected(request.getGameId(), request.getAction(), status, message);
+    }
+
+    @Schema(description = "Batch action status enumeration")
+    public enum Status {
+        @Schema(description = "Action was played")
+        APPLIED,
+        @Schema(description = "Action cannot be played in the game's current state")
+        REJECTED,
+        @Schema(description = "Game does not exist")
+        NOT_FOUND,
+        @Schema(description = "Game was changed by another request while the batch was played, so nothing was saved for it")
+        CONFLICT
+    }
+}
@@ -0,0 +1,73 @@
+package com.blackjack.dto;
+
+import com.blackjack.model.Game;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Change to a game pushed to a WebSocket client; fields that did not change are omitted")
+public class GameDelta {
+
+    @Schema(description = "ID of the frame this replies to", example = "7")
+    private Long id;
+
+    @JsonProperty("g")
+    @Schema(description = "ID of the game", example = "507f1f77bcf86cd799439011")
+    private String gameId;
+
+    @JsonProperty("s")
+    @Schema(description = "New game status", example = "COMPLETED")
+    private Game.GameStatus status;
+
+    @JsonProperty("r")
+    @Schema(description = "Game result, once the game is completed", example = "PLAYER_WIN")
+    private Game.GameResult result;
+
+    @JsonProperty("b")
+    @Schema(description = "Bet amount, sent with full state only", example = "25.00")
+    private BigDecimal bet;
+
+    @JsonProperty("i")
+    @Schema(description = "Insurance bet amount, once taken", example = "12.50")
+    private BigDecimal insuranceBet;
+
+    @JsonProperty("p")
+    @Schema(description = "Player cards to append, or the whole hand when pr is set; ?? is a face-down card", example = "[\"10H\"]")
+    private List<String> playerCards;
+
+    @JsonProperty("pr")
+    @Schema(description = "Whether p replaces the player's hand", example = "true")
+    private Boolean replacePlayerHand;
+
+    @JsonProperty("d")
+    @Schema(description = "Dealer cards to append, or the whole hand when dr is set", example = "[\"7D\", \"??\"]")
+    private List<String> dealerCards;
+
+    @JsonProperty("dr")
+    @Schema(description = "Whether d replaces the dealer's hand", example = "true")
+    private Boolean replaceDealerHand;
+
+    @JsonProperty("sg")
+    @Schema(description = "ID of the game a split created, sent in reply to a split", example = "507f1f77bcf86cd799439012")
+    private String splitGameId;
+
+    @JsonProperty("e")
+    @Schema(description = "Why the action failed", example = "Game is not in progress")
+    private String error;
+
+    public static GameDelta error(Long id, String gameId, String error) {
+        GameDelta delta = new GameDelta();
+        delta.setId(id);
+        delta.setGameId(gameId);
+        delta.setError(error);
+        return delta;
+    }
+}
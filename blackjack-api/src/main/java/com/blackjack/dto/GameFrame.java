@@ -0,0 +1,44 @@
+package com.blackjack.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Action frame sent by a client over the game WebSocket")
+public class GameFrame {
+
+    @Schema(description = "Client-chosen number echoed on the reply", example = "7")
+    private Long id;
+
+    @JsonProperty("g")
+    @Schema(description = "ID of the game to play", example = "507f1f77bcf86cd799439011")
+    private String gameId;
+
+    @JsonProperty("a")
+    @Schema(description = "Action to play", example = "H")
+    private Action action;
+
+    @Schema(description = "WebSocket action enumeration")
+    public enum Action {
+        @JsonProperty("H")
+        @Schema(description = "Hit")
+        HIT,
+        @JsonProperty("S")
+        @Schema(description = "Stand")
+        STAND,
+        @JsonProperty("P")
+        @Schema(description = "Split")
+        SPLIT,
+        @JsonProperty("I")
+        @Schema(description = "Take insurance")
+        INSURANCE,
+        @JsonProperty("G")
+        @Schema(description = "Send the full game state")
+        GET
+    }
+}
@@ -0,0 +1,24 @@
+package com.blackjack.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request object for playing actions in several games at once")
+public class PlayGameActionsRequest {
+
+    @Valid
+    @NotEmpty(message = "At least one action is required")
+    @Size(max = 100, message = "At most 100 actions can be played per request")
+    @Schema(description = "Actions to play; actions for the same game are played in the order given")
+    private List<GameActionRequest> actions;
+}
@@ -0,0 +1,45 @@
+package com.blackjack.dto;
+
+import com.blackjack.model.Game;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Totals of a player's completed games over a date range")
+public class PlayerGameSummaryResponse {
+
+    @Schema(description = "Player ID", example = "1")
+    private Long playerId;
+
+    @Schema(description = "First day of the range", example = "2023-12-01")
+    private LocalDate from;
+
+    @Schema(description = "Last day of the range", example = "2023-12-31")
+    private LocalDate to;
+
+    @Schema(description = "Games completed in the range", example = "45")
+    private long gamesPlayed;
+
+    @Schema(description = "Total amount bet", example = "1125.00")
+    private BigDecimal totalBet;
+
+    @Schema(description = "Average bet per game", example = "25.00")
+    private BigDecimal averageBet;
+
+    @Schema(description = "Amount won on winning games", example = "275.50")
+    private BigDecimal totalWinnings;
+
+    @Schema(description = "Games won with a blackjack", example = "2")
+    private long blackjacks;
+
+    @Schema(description = "Number of games by result", example = "{\"PLAYER_WIN\": 20, \"DEALER_WIN\": 22}")
+    private Map<Game.GameResult, Long> results;
+}
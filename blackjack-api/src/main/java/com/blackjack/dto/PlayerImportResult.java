@@ -0,0 +1,49 @@
+package com.blackjack.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Outcome of importing one player row")
+public class PlayerImportResult {
+
+    @Schema(description = "1-based position of the row in the upload, excluding any CSV header", example = "1")
+    private long row;
+
+    @Schema(description = "Username from the row", example = "johnsmith")
+    private String username;
+
+    @Schema(description = "Email from the row", example = "john.smith@example.com")
+    private String email;
+
+    @Schema(description = "What happened to the row", example = "CREATED")
+    private Status status;
+
+    @Schema(description = "ID of the created player", example = "1")
+    private Long playerId;
+
+    @Schema(description = "Why the row was not imported", example = "Username is already taken")
+    private String message;
+
+    public static PlayerImportResult created(long row, String username, String email, Long playerId) {
+        return new PlayerImportResult(row, username, email, Status.CREATED, playerId, null);
+    }
+
+    public static PlayerImportResult rejected(long row, String username, String email, Status status, String message) {
+        return new PlayerImportResult(row, username, email, status, null, message);
+    }
+
+    @Schema(description = "Import row status enumeration")
+    public enum Status {
+        @Schema(description = "Player was created")
+        CREATED,
+        @Schema(description = "Username or email already exists, or repeats an earlier row")
+        DUPLICATE,
+        @Schema(description = "Row failed validation")
+        INVALID
+    }
+}
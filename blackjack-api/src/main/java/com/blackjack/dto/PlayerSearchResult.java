@@ -0,0 +1,19 @@
+package com.blackjack.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Player matching a username search")
+public class PlayerSearchResult {
+
+    @Schema(description = "Player ID", example = "1")
+    private Long playerId;
+
+    @Schema(description = "Player username", example = "johnsmith")
+    private String username;
+}
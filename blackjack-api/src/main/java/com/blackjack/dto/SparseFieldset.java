@@ -0,0 +1,128 @@
+package com.blackjack.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The properties a client picked with {@code fields=}.
+ * Each property a resource offers names the stored fields it is read from, so
+ * only those are loaded, and how to get its value, so only the picked
+ * properties are written. A dotted name such as {@code playerHand.value} is
+ * written nested under its parent.
+ * @param <T> the resource type
+ */
+public final class SparseFieldset<T> {
+
+    private final List<Map.Entry<String, Property<T>>> selected;
+
+    private SparseFieldset(List<Map.Entry<String, Property<T>>> selected) {
+        this.selected = selected;
+    }
+
+    /**
+     * Start defining the properties a resource offers
+     * @param <T> the resource type
+     * @return an empty definition
+     */
+    public static <T> Definition<T> define() {
+        return new Definition<>();
+    }
+
+    /**
+     * Stored fields the selected properties are read from
+     * @return stored field or column names, without duplicates
+     */
+    public Set<String> storedFields() {
+        Set<String> fields = new LinkedHashSet<>();
+        for (Map.Entry<String, Property<T>> entry : selected) {
+            fields.addAll(entry.getValue().storedFields());
+        }
+        return fields;
+    }
+
+    /**
+     * Write the selected properties of a resource
+     * @param resource resource read with at least {@link #storedFields()}
+     * @return the selected properties, nested for dotted names
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> write(T resource) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (Map.Entry<String, Property<T>> entry : selected) {
+            String[] path = entry.getKey().split("\\.");
+            Map<String, Object> parent = properties;
+            for (int i = 0; i < path.length - 1; i++) {
+                parent = (Map<String, Object>) parent.computeIfAbsent(path[i], key -> new LinkedHashMap<>());
+            }
+            parent.put(path[path.length - 1], entry.getValue().value().apply(resource));
+        }
+        return properties;
+    }
+
+    private record Property<T>(Function<T, Object> value, List<String> storedFields) {
+    }
+
+    /**
+     * Properties a resource offers for selection
+     * @param <T> the resource type
+     */
+    public static final class Definition<T> {
+
+        private final Map<String, Property<T>> properties = new LinkedHashMap<>();
+
+        private Definition() {
+        }
+
+        /**
+         * Offer a property
+         * @param name property name, as written in the full resource
+         * @param value how to get the property's value
+         * @param storedFields stored fields the value is read from
+         * @return this definition
+         */
+        public Definition<T> property(String name, Function<T, Object> value, String... storedFields) {
+            properties.put(name, new Property<>(value, List.of(storedFields)));
+            return this;
+        }
+
+        /**
+         * Select properties from a {@code fields=} parameter
+         * @param fields comma-separated property names
+         * @return the selection, in the order the properties were defined
+         * @throws IllegalArgumentException if no property or an unknown property is named
+         */
+        public SparseFieldset<T> select(String fields) {
+            Set<String> names = new LinkedHashSet<>();
+            for (String name : fields.split(",")) {
+                if (!name.isBlank()) {
+                    names.add(name.trim());
+                }
+            }
+            if (names.isEmpty()) {
+                throw new IllegalArgumentException("No fields selected");
+            }
+            List<String> unknown = new ArrayList<>(names);
+            unknown.removeAll(properties.keySet());
+            if (!unknown.isEmpty()) {
+                throw new IllegalArgumentException("Unknown fields " + unknown + "; available fields are " + properties.keySet());
+            }
+
+            // A whole property already holds any of its nested properties
+            names.removeIf(name -> name.contains(".") && names.contains(name.substring(0, name.indexOf('.'))));
+
+            List<Map.Entry<String, Property<T>>> selected = new ArrayList<>();
+            properties.forEach((name, property) -> {
+                if (names.contains(name)) {
+                    selected.add(Map.entry(name, property));
+                }
+            });
+            return new SparseFieldset<>(Collections.unmodifiableList(selected));
+        }
+    }
+}
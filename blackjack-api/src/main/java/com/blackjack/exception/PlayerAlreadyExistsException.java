@@ -0,0 +1,19 @@
+package com.blackjack.exception;
+
+public class PlayerAlreadyExistsException extends RuntimeException {
+    
+    public PlayerAlreadyExistsException(String message) {
+        super(message);
+    }
+    
+    public PlayerAlreadyExistsException(String field, String value) {
+        super("Player already exists with " + field + ": " + value);
+    }
+
+    /**
+     * For a unique key violation that does not say which of the player's keys was taken
+     */
+    public static PlayerAlreadyExistsException usernameOrEmail() {
+        return new PlayerAlreadyExistsException("Player with username/email already exists");
+    }
+}
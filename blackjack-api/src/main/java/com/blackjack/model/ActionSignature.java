@@ -0,0 +1,66 @@
+package com.blackjack.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compact, indexable encoding of a game's action sequence.
+ * Each action is one character, so a sequence becomes a short string that an
+ * ordinary index answers exact and prefix searches on. For searches anywhere in
+ * the sequence, every run of up to {@link #MAX_GRAM_LENGTH} actions is stored
+ * as well, in a multikey-indexed array.
+ */
+public final class ActionSignature {
+
+    /** Longest run of actions stored as a gram */
+    public static final int MAX_GRAM_LENGTH = 3;
+
+    private ActionSignature() {
+    }
+
+    /**
+     * Encode an action sequence
+     * @param actions actions in the order they were taken
+     * @return one character per action
+     */
+    public static String encode(List<Game.GameAction> actions) {
+        StringBuilder signature = new StringBuilder(actions.size());
+        for (Game.GameAction action : actions) {
+            signature.append(action.getCode());
+        }
+        return signature.toString();
+    }
+
+    /**
+     * Every distinct run of one to {@link #MAX_GRAM_LENGTH} actions in a signature
+     * @param signature encoded action sequence
+     * @return grams in order of first appearance
+     */
+    public static List<String> grams(String signature) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int length = 1; length <= MAX_GRAM_LENGTH; length++) {
+            for (int start = 0; start + length <= signature.length(); start++) {
+                grams.add(signature.substring(start, start + length));
+            }
+        }
+        return new ArrayList<>(grams);
+    }
+
+    /**
+     * The grams a signature must have to contain the given sequence
+     * @param sequence encoded action sequence to search for
+     * @return the sequence itself if short enough, otherwise its runs of {@link #MAX_GRAM_LENGTH}
+     */
+    public static List<String> searchGrams(String sequence) {
+        if (sequence.length() <= MAX_GRAM_LENGTH) {
+            return List.of(sequence);
+        }
+        Set<String> grams = new LinkedHashSet<>();
+        for (int start = 0; start + MAX_GRAM_LENGTH <= sequence.length(); start++) {
+            grams.add(sequence.substring(start, start + MAX_GRAM_LENGTH));
+        }
+        return new ArrayList<>(grams);
+    }
+}
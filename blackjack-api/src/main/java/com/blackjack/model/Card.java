@@ -11,6 +11,9 @@ import lombok.Getter;
 @AllArgsConstructor
 @Schema(description = "A playing card")
 public class Card {
+
+    public static final String HIDDEN_CODE = "??";
+
     @Schema(description = "Card suit", example = "HEARTS")
     private Suit suit;
     
@@ -94,6 +97,14 @@ public class Card {
         return rank == Rank.ACE;
     }
 
+    /**
+     * Short code for the card, rank then suit initial such as {@code 10H} or {@code AS};
+     * a face-down card is {@code ??}
+     */
+    public String toCode() {
+        return faceUp ? rank.getSymbol() + suit.name().charAt(0) : HIDDEN_CODE;
+    }
+
     public void flip() {
         this.faceUp = !this.faceUp;
     }
@@ -1,12 +1,15 @@
 package com.blackjack.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,6 +17,7 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @Document(collection = "games")
+@CompoundIndex(name = "player_start_time", def = "{'player_id': 1, 'start_time': -1, '_id': -1}")
 @Schema(description = "Blackjack game entity")
 public class Game {
     @Id
@@ -33,11 +37,11 @@ public class Game {
     private Hand dealerHand = new Hand();
     
     @Schema(description = "Bet amount for this game", example = "25.00")
-    private BigDecimal bet;
+    private Money bet;
     
     @Field("insurance_bet")
     @Schema(description = "Insurance bet amount", example = "12.50")
-    private BigDecimal insuranceBet;
+    private Money insuranceBet;
     
     @Schema(description = "Current status of the game", example = "IN_PROGRESS")
     private GameStatus status;
@@ -56,7 +60,45 @@ public class Game {
     @Schema(description = "List of actions taken during the game")
     private List<GameAction> actions = new ArrayList<>();
 
-    public Game(Long playerId, BigDecimal bet) {
+    @JsonIgnore
+    @Indexed
+    @Field("action_signature")
+    @Schema(hidden = true)
+    private String actionSignature;
+
+    @JsonIgnore
+    @Indexed
+    @Field("action_grams")
+    @Schema(hidden = true)
+    private List<String> actionGrams = new ArrayList<>();
+
+    @JsonIgnore
+    @Indexed(sparse = true)
+    @Field("pending_settlement")
+    @Schema(hidden = true)
+    private PendingSettlement pendingSettlement;
+
+    @JsonIgnore
+    @Field("failed_settlement")
+    @Schema(hidden = true)
+    private PendingSettlement failedSettlement;
+
+    @JsonIgnore
+    @Version
+    @Schema(hidden = true)
+    private Long revision;
+
+    @JsonIgnore
+    @Field("split_count")
+    @Schema(hidden = true)
+    private int splitCount;
+
+    @JsonIgnore
+    @Field("split_game_id")
+    @Schema(hidden = true)
+    private String splitGameId;
+
+    public Game(Long playerId, Money bet) {
         this.playerId = playerId;
         this.bet = bet;
         this.playerHand = new Hand();
@@ -84,36 +126,54 @@ public class Game {
         @Schema(description = "Dealer wins the game")
         DEALER_WIN, 
         @Schema(description = "Game ends in a tie")
-        @SuppressWarnings("unused") 
         PUSH, 
         @Schema(description = "Player gets blackjack")
         PLAYER_BLACKJACK, 
         @Schema(description = "Player busts (over 21)")
-        @SuppressWarnings("unused") 
         PLAYER_BUST, 
         @Schema(description = "Dealer busts (over 21)")
-        @SuppressWarnings("unused") 
         DEALER_BUST
     }
 
     @Schema(description = "Available game actions")
     public enum GameAction {
         @Schema(description = "Draw another card")
-        HIT, 
+        HIT('H'),
         @Schema(description = "End turn with current hand")
-        STAND, 
+        STAND('S'),
         @Schema(description = "Double the bet and take one more card")
         @SuppressWarnings("unused") 
-        DOUBLE_DOWN, 
+        DOUBLE_DOWN('D'),
         @Schema(description = "Forfeit half the bet and end the game")
         @SuppressWarnings("unused") 
-        SURRENDER
+        SURRENDER('R');
+
+        private final char code;
+
+        GameAction(char code) {
+            this.code = code;
+        }
+
+        /**
+         * Character representing this action in the action signature
+         */
+        public char getCode() {
+            return code;
+        }
     }
 
     public void addAction(GameAction action) {
         this.actions.add(action);
     }
 
+    /**
+     * Recompute the indexed action fields from the current actions
+     */
+    public void refreshActionSignature() {
+        this.actionSignature = ActionSignature.encode(actions);
+        this.actionGrams = ActionSignature.grams(actionSignature);
+    }
+
     public void completeGame(GameResult result) {
         this.status = GameStatus.COMPLETED;
         this.result = result;
@@ -121,13 +181,29 @@ public class Game {
     }
 
     public boolean isPlayerTurn() {
-        return status == GameStatus.IN_PROGRESS && !playerHand.isBusted() && !playerHand.isBlackjack();
+        return isPlayerTurn(playerHand.getValue());
     }
 
     public boolean isDealerTurn() {
-        return status == GameStatus.IN_PROGRESS && 
-               !playerHand.isBusted() && 
-               playerHand.getValue() <= 21 &&
+        return isDealerTurn(playerHand.getValue());
+    }
+
+    /**
+     * Whether the player can still act, given the already computed value of the player's hand
+     * @param playerValue value of the player's hand
+     */
+    public boolean isPlayerTurn(int playerValue) {
+        boolean blackjack = playerHand.getCards().size() == 2 && playerValue == 21;
+        return status == GameStatus.IN_PROGRESS && playerValue <= 21 && !blackjack;
+    }
+
+    /**
+     * Whether the dealer is to play, given the already computed value of the player's hand
+     * @param playerValue value of the player's hand
+     */
+    public boolean isDealerTurn(int playerValue) {
+        return status == GameStatus.IN_PROGRESS &&
+               playerValue <= 21 &&
                !actions.isEmpty() &&
                actions.getLast() == GameAction.STAND;
     }
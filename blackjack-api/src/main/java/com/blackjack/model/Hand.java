@@ -17,46 +17,66 @@ public class Hand {
 
     @Schema(description = "Total value of the hand (with ace optimization)", example = "20")
     public int getValue() {
-        int value = 0;
-        int aces = 0;
-
-        for (Card card : cards) {
-            if (card.isAce()) {
-                aces++;
-            }
-            value += card.getValue();
-        }
-
-        // Adjust for aces - convert ace from 1 to 11 when beneficial
-        while (aces > 0 && value + 10 <= 21) {
-            value += 10;  // Convert ace from 1 to 11
-            aces--;
-        }
-
-        return value;
+        return score().value();
     }
 
     @Schema(description = "Whether the hand is busted (over 21)", example = "false")
     public boolean isBusted() {
-        return getValue() > 21;
+        return score().isBusted();
     }
 
     @Schema(description = "Whether the hand is blackjack (21 with 2 cards)", example = "false")
     public boolean isBlackjack() {
-        return cards.size() == 2 && getValue() == 21;
+        return score().isBlackjack();
     }
 
     @Schema(description = "Whether the hand is soft (contains an ace counted as 11)", example = "true")
     public boolean isSoft() {
-        if (cards.stream().noneMatch(Card::isAce)) {
-            return false;  // No aces, can't be soft
+        return score().soft();
+    }
+
+    /**
+     * Score the hand in one pass over the cards
+     * @return value, softness and card count of the hand
+     */
+    public Score score() {
+        int hardValue = 0;  // All aces as 1
+        boolean hasAce = false;
+        for (Card card : cards) {
+            hasAce |= card.isAce();
+            hardValue += card.getValue();
+        }
+
+        int value = bestValue(hardValue, hasAce);
+        return new Score(value, value != hardValue, cards.size());
+    }
+
+    /**
+     * Best value of a hand, counting an ace as 11 when that does not bust it
+     * @param hardValue value with every ace counted as 1
+     * @param hasAce whether the hand holds an ace
+     * @return value of the hand
+     */
+    public static int bestValue(int hardValue, boolean hasAce) {
+        // Only one ace can count as 11 without going over 21
+        return hasAce && hardValue + 10 <= 21 ? hardValue + 10 : hardValue;
+    }
+
+    /**
+     * Result of scoring a hand
+     * @param value total value with the best ace count
+     * @param soft whether an ace is counted as 11
+     * @param cardCount number of cards in the hand
+     */
+    public record Score(int value, boolean soft, int cardCount) {
+
+        public boolean isBusted() {
+            return value > 21;
+        }
+
+        public boolean isBlackjack() {
+            return cardCount == 2 && value == 21;
         }
-        
-        int hardValue = cards.stream().mapToInt(Card::getValue).sum();  // All aces as 1
-        int softValue = getValue();  // With ace optimization
-        
-        // Hand is soft if we're using at least one ace as 11
-        return softValue > hardValue && softValue <= 21;
     }
 
     @Override
@@ -0,0 +1,86 @@
+package com.blackjack.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@Table("balance_ledger")
+@Schema(description = "Append-only record of a single player balance change")
+public class LedgerEntry {
+    @Id
+    @Schema(description = "Ledger entry identifier, increasing in insertion order", example = "42")
+    private Long id;
+
+    @Column("player_id")
+    @Schema(description = "ID of the player whose balance changed", example = "1")
+    private Long playerId;
+
+    @Column("game_id")
+    @Schema(description = "Game that caused the change, if any", example = "507f1f77bcf86cd799439011")
+    private String gameId;
+
+    @Column("entry_type")
+    @Schema(description = "Kind of balance change", example = "BET")
+    private EntryType entryType;
+
+    @Column("amount")
+    @Schema(description = "Signed amount applied to the balance", example = "-25.00")
+    private Money amount;
+
+    @Column("idempotency_key")
+    @Schema(description = "Key that makes the change apply at most once", example = "507f1f77bcf86cd799439011:BET")
+    private String idempotencyKey;
+
+    @Column("created_at")
+    @Schema(description = "When the entry was recorded", example = "2023-12-08T15:30:45")
+    private LocalDateTime createdAt;
+
+    public LedgerEntry(Long playerId, String gameId, EntryType entryType, Money amount, String idempotencyKey) {
+        this.playerId = playerId;
+        this.gameId = gameId;
+        this.entryType = entryType;
+        this.amount = amount;
+        this.idempotencyKey = idempotencyKey;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Create an entry for a game transaction, keyed so each game applies it once
+     */
+    public static LedgerEntry forGame(Long playerId, String gameId, EntryType entryType, Money amount) {
+        return new LedgerEntry(playerId, gameId, entryType, amount, gameId + ":" + entryType);
+    }
+
+    /**
+     * Create an entry for a game transaction that can happen several times, keyed so each occurrence applies once
+     */
+    public static LedgerEntry forGame(Long playerId, String gameId, EntryType entryType, int ordinal, Money amount) {
+        return new LedgerEntry(playerId, gameId, entryType, amount, gameId + ":" + entryType + ":" + ordinal);
+    }
+
+    @Schema(description = "Ledger entry type enumeration")
+    public enum EntryType {
+        @Schema(description = "Starting balance credited on registration")
+        OPENING,
+        @Schema(description = "Manual balance adjustment")
+        ADJUSTMENT,
+        @Schema(description = "Initial bet placed on a game")
+        BET,
+        @Schema(description = "Bet returned because its game could not be stored")
+        BET_REFUND,
+        @Schema(description = "Additional bet placed when splitting a hand")
+        SPLIT_BET,
+        @Schema(description = "Insurance bet against dealer blackjack")
+        INSURANCE_BET,
+        @Schema(description = "Insurance paid out on dealer blackjack")
+        INSURANCE_PAYOUT,
+        @Schema(description = "Final settlement of a game (zero when the bet is lost)")
+        SETTLEMENT
+    }
+}
@@ -0,0 +1,108 @@
+package com.blackjack.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point monetary amount stored as a whole number of cents.
+ * Arithmetic stays on a primitive {@code long}; conversion to {@link BigDecimal}
+ * happens only at the JSON and database boundaries, where amounts are
+ * represented as {@code DECIMAL(19,2)} values.
+ */
+@Schema(type = "number", format = "decimal", description = "Monetary amount with two decimal places", example = "25.00")
+public record Money(long cents) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private static final int SCALE = 2;
+
+    /**
+     * Create an amount from a number of cents
+     * @param cents amount in cents
+     * @return the amount
+     */
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Create an amount from a whole number of currency units
+     * @param units amount in whole units
+     * @return the amount
+     */
+    public static Money of(long units) {
+        return ofCents(Math.multiplyExact(units, 100L));
+    }
+
+    /**
+     * Create an amount from a decimal value, rounding half-up to cents
+     * @param amount decimal amount
+     * @return the amount, or null if the value is null
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        return ofCents(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    /**
+     * Multiply by a ratio, rounding half-up to whole cents (e.g. 5/2 for a 2.5x payout)
+     * @param numerator ratio numerator
+     * @param denominator ratio denominator, must be positive
+     * @return the scaled amount
+     */
+    public Money times(long numerator, long denominator) {
+        long product = Math.multiplyExact(cents, numerator);
+        long quotient = product / denominator;
+        long remainder = product % denominator;
+        if (Math.abs(remainder) * 2 >= denominator) {
+            quotient += Long.signum(product);
+        }
+        return ofCents(quotient);
+    }
+
+    public boolean isNegative() {
+        return cents < 0;
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public boolean isLessThan(Money other) {
+        return cents < other.cents;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.blackjack.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.Field;
+import java.time.LocalDateTime;
+
+/**
+ * Balance changes a completed game still owes the player.
+ * Written together with the final game state and removed once the settlement
+ * relay has applied it to the players database. The statistics steps are not
+ * covered by the ledger's idempotency keys, so each leaves a marker here once
+ * written and is skipped when the settlement is retried. Failed attempts are
+ * counted and retried with backoff; a settlement that keeps failing is moved
+ * to the game's failed settlement for inspection. A relay claims the
+ * settlement with a lease before applying it, so no two relays apply it at
+ * the same time.
+ */
+@Data
+@NoArgsConstructor
+@Schema(description = "Settlement waiting to be applied to the player's balance")
+public class PendingSettlement {
+    @Schema(description = "Amount returned to the player for the main bet", example = "50.00")
+    private Money payout;
+
+    @Field("insurance_payout")
+    @Schema(description = "Amount returned to the player for a winning insurance bet", example = "37.50")
+    private Money insurancePayout;
+
+    @Schema(description = "Whether the game counts as a win in the player's statistics", example = "true")
+    private boolean won;
+
+    @Field("created_at")
+    @Schema(description = "When the game was completed", example = "2023-12-08T15:35:20")
+    private LocalDateTime createdAt;
+
+    @Field("statistics_recorded")
+    @Schema(description = "Whether the game has been added to the player's statistics", example = "false")
+    private boolean statisticsRecorded;
+
+    @Field("daily_totals_recorded")
+    @Schema(description = "Whether the game has been added to the player's daily totals", example = "false")
+    private boolean dailyTotalsRecorded;
+
+    @Schema(description = "Number of failed attempts to apply the settlement", example = "0")
+    private int attempts;
+
+    @Field("next_attempt_at")
+    @Schema(description = "Earliest time the settlement is retried after a failure", example = "2023-12-08T15:35:21")
+    private LocalDateTime nextAttemptAt;
+
+    @Field("last_error")
+    @Schema(description = "Error of the last failed attempt", example = "Player not found with ID: 1")
+    private String lastError;
+
+    @Field("lease_owner")
+    @Schema(description = "Relay instance applying the settlement", example = "5f0c6b1e-8a0d-4f6e-9d43-2f1f0c7b6a11")
+    private String leaseOwner;
+
+    @Field("lease_until")
+    @Schema(description = "Until when the lease owner may apply the settlement undisturbed", example = "2023-12-08T15:36:20")
+    private LocalDateTime leaseUntil;
+}
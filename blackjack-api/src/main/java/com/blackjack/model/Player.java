@@ -4,12 +4,12 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.InsertOnlyProperty;
 import org.springframework.data.relational.core.mapping.Table;
 import org.springframework.data.relational.core.mapping.Column;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Min;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -17,6 +17,9 @@ import java.time.LocalDateTime;
 @Table("players")
 @Schema(description = "Player entity representing a blackjack player")
 public class Player {
+    /** Balance credited to every new player through the ledger */
+    public static final Money OPENING_BALANCE = Money.of(100);
+
     @Id
     @Schema(description = "Unique player identifier", example = "1")
     private Long id;
@@ -32,10 +35,11 @@ public class Player {
     @Schema(description = "Player's email address", example = "john.smith@example.com")
     private String email;
     
-    @Min(0)
+    // Written on insert only; afterwards the balance ledger maintains this column
+    @InsertOnlyProperty
     @Column("balance")
     @Schema(description = "Player's current balance", example = "150.75")
-    private BigDecimal balance = BigDecimal.ZERO;
+    private Money balance = Money.ZERO;
     
     @Min(0)
     @Column("games_played")
@@ -49,7 +53,7 @@ public class Player {
     
     @Column("total_winnings")
     @Schema(description = "Total amount won across all games", example = "275.50")
-    private BigDecimal totalWinnings = BigDecimal.ZERO;
+    private Money totalWinnings = Money.ZERO;
     
     // Daily statistics fields referenced in repository
     @Min(0)
@@ -81,6 +85,26 @@ public class Player {
         this.updatedAt = LocalDateTime.now();
     }
 
+    /**
+     * Copy of this player that can be changed without affecting this one
+     */
+    public Player copy() {
+        Player copy = new Player();
+        copy.id = id;
+        copy.username = username;
+        copy.email = email;
+        copy.balance = balance;
+        copy.gamesPlayed = gamesPlayed;
+        copy.gamesWon = gamesWon;
+        copy.totalWinnings = totalWinnings;
+        copy.gamesPlayedToday = gamesPlayedToday;
+        copy.gamesWonToday = gamesWonToday;
+        copy.lastLoginDate = lastLoginDate;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        return copy;
+    }
+
     public void updateStats(boolean won) {
         this.gamesPlayed++;
         this.gamesPlayedToday++;
@@ -91,31 +115,30 @@ public class Player {
         this.updatedAt = LocalDateTime.now();
     }
 
-    public void updateBalance(BigDecimal amount) {
-        if (this.balance.add(amount).compareTo(BigDecimal.ZERO) < 0) {
+    public void updateBalance(Money amount) {
+        Money updated = this.balance.plus(amount);
+        if (updated.isNegative()) {
             throw new IllegalArgumentException("Balance cannot be negative");
         }
-        this.balance = this.balance.add(amount);
+        this.balance = updated;
         this.updatedAt = LocalDateTime.now();
     }
 
-    public void setBalance(BigDecimal balance) {
-        if (balance.compareTo(BigDecimal.ZERO) < 0) {
+    public void setBalance(Money balance) {
+        if (balance.isNegative()) {
             throw new IllegalArgumentException("Balance cannot be negative");
         }
         this.balance = balance;
     }
 
-    public void updateStatistics(boolean won, BigDecimal amount) {
+    // Balance changes are recorded through the balance ledger, not here
+    public void updateStatistics(boolean won, Money amount) {
         this.gamesPlayed++;
         this.gamesPlayedToday++;
         if (won) {
             this.gamesWon++;
             this.gamesWonToday++;
-            this.totalWinnings = this.totalWinnings.add(amount);
-            this.balance = this.balance.add(amount);
-        } else {
-            this.balance = this.balance.subtract(amount);
+            this.totalWinnings = this.totalWinnings.plus(amount);
         }
     }
 
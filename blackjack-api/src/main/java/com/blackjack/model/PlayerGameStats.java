@@ -0,0 +1,56 @@
+package com.blackjack.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Totals of one player's completed games on one day.
+ * Each settled game adds to its bucket with a single upserting {@code $inc}, so
+ * aggregate queries over a date range read one document per day instead of
+ * every game. Amounts are kept in cents because {@code $inc} only works on
+ * numbers, while {@link Money} is stored as a decimal string.
+ */
+@Data
+@NoArgsConstructor
+@Document(collection = "player_game_stats")
+@CompoundIndex(name = "player_day", def = "{'player_id': 1, 'day': 1}", unique = true)
+public class PlayerGameStats {
+    @Id
+    private String id;
+
+    @Field("player_id")
+    private Long playerId;
+
+    private LocalDate day;
+
+    private long games;
+
+    @Field("bet_cents")
+    private long betCents;
+
+    @Field("winnings_cents")
+    private long winningsCents;
+
+    private Map<Game.GameResult, Long> results = new EnumMap<>(Game.GameResult.class);
+
+    /**
+     * ID of the bucket holding a player's games for a day
+     * @param playerId player ID
+     * @param day day the games were completed
+     * @return bucket ID
+     */
+    public static String bucketId(Long playerId, LocalDate day) {
+        return playerId + ":" + day;
+    }
+
+    public long getResultCount(Game.GameResult result) {
+        return results == null ? 0 : results.getOrDefault(result, 0L);
+    }
+}
@@ -9,7 +9,9 @@ import java.math.BigDecimal;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Min;
 import org.springframework.validation.annotation.Validated;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Custom repository interface for complex Game queries in MongoDB.
@@ -30,6 +32,20 @@ public interface CustomGameRepository {
             @NotNull LocalDateTime startDate,
             @NotNull LocalDateTime endDate);
 
+    /**
+     * Find one page of a player's games, newest first, from the (player, start time) index
+     * @param playerId the ID of the player
+     * @param limit maximum number of games to return
+     * @param beforeStartTime start time of the last game on the previous page, or null for the first page
+     * @param beforeId ID of the last game on the previous page, or null for the first page
+     * @return a Flux of games ordered by start time, then ID, descending
+     */
+    Flux<Game> findGamesByPlayerId(
+            @NotNull Long playerId,
+            @Min(1) int limit,
+            LocalDateTime beforeStartTime,
+            String beforeId);
+
     /**
      * Find the last unfinished game for a player
      * @param playerId the ID of the player
@@ -67,10 +83,10 @@ public interface CustomGameRepository {
             Pageable pageable);
 
     /**
-     * Calculate total winnings for a player in a date range
+     * Calculate total winnings for a player in a date range, from the daily game totals
      * @param playerId the ID of the player
-     * @param startDate start of the date range
-     * @param endDate end of the date range
+     * @param startDate start of the date range; only its day is used
+     * @param endDate end of the date range; only its day is used
      * @return total winnings as Mono<BigDecimal>
      */
     Mono<BigDecimal> calculateTotalWinnings(
@@ -88,10 +104,125 @@ public interface CustomGameRepository {
             @NotNull List<Game.GameAction> actions,
             @Min(1) int limit);
 
+    /**
+     * Find games whose action sequence starts with the given actions
+     * @param actions leading actions to match
+     * @param limit maximum number of games to return
+     * @return a Flux of games starting with the actions
+     */
+    Flux<Game> findGamesByActionPrefix(
+            @NotNull List<Game.GameAction> actions,
+            @Min(1) int limit);
+
+    /**
+     * Find games whose action sequence contains the given actions consecutively
+     * @param actions actions to match anywhere in the sequence
+     * @param limit maximum number of games to return
+     * @return a Flux of games containing the actions
+     */
+    Flux<Game> findGamesContainingActionSequence(
+            @NotNull List<Game.GameAction> actions,
+            @Min(1) int limit);
+
+    /**
+     * Derive the indexed action fields of games stored before they existed
+     * @param limit maximum number of games to update
+     * @return number of games that were missing the fields, zero once none are left
+     */
+    Mono<Integer> backfillActionSignatures(@Min(1) int limit);
+
+    /**
+     * Give games stored before they were versioned a revision, so they can be saved again
+     * @return number of games that were missing the revision
+     */
+    Mono<Long> backfillRevisions();
+
     /**
      * Find high stake games (bet amount above threshold)
      * @param threshold minimum bet amount
      * @return a Flux of high stake games
      */
     Flux<Game> findHighStakeGames(BigDecimal threshold);
-}
\ No newline at end of file
+
+    /**
+     * Find completed games whose settlement has not been applied yet and is due, oldest first
+     * @param limit maximum number of games to return
+     * @return a Flux of games carrying a pending settlement not waiting out a retry backoff
+     *         nor leased by a relay
+     */
+    Flux<Game> findPendingSettlements(@Min(1) int limit);
+
+    /**
+     * Claim a game's pending settlement, if it is still due and not leased by another relay
+     * @param gameId the ID of the game
+     * @param owner ID of the claiming relay
+     * @param leaseUntil time until which no other relay may claim the settlement
+     * @return the game as claimed, or empty if the settlement is gone, not due or leased
+     */
+    Mono<Game> claimPendingSettlement(@NotNull String gameId, @NotNull String owner, @NotNull LocalDateTime leaseUntil);
+
+    /**
+     * Mark that a game's pending settlement has been added to the player's statistics
+     * @param gameId the ID of the game
+     * @return completes when the game has been updated
+     */
+    Mono<Void> markStatisticsRecorded(@NotNull String gameId);
+
+    /**
+     * Mark that a game's pending settlement has been added to the player's daily totals
+     * @param gameId the ID of the game
+     * @return completes when the game has been updated
+     */
+    Mono<Void> markDailyTotalsRecorded(@NotNull String gameId);
+
+    /**
+     * Record a failed attempt to apply a game's pending settlement and release its lease
+     * @param gameId the ID of the game
+     * @param attempts failed attempts so far
+     * @param nextAttemptAt earliest time to try again
+     * @param error message of the failure
+     * @return completes when the game has been updated
+     */
+    Mono<Void> recordSettlementFailure(
+            @NotNull String gameId,
+            int attempts,
+            @NotNull LocalDateTime nextAttemptAt,
+            String error);
+
+    /**
+     * Move a game's pending settlement to its failed settlement, so it is no longer retried
+     * @param gameId the ID of the game
+     * @return completes when the game has been updated
+     */
+    Mono<Void> failPendingSettlement(@NotNull String gameId);
+
+    /**
+     * Remove the pending settlement from a game once it has been applied
+     * @param gameId the ID of the game
+     * @return completes when the game has been updated
+     */
+    Mono<Void> clearPendingSettlement(@NotNull String gameId);
+
+    /**
+     * Write back several games with one unordered bulk write
+     * @param games games to replace, matched by ID and the revision they were read at
+     * @return IDs of the games that were not written because they were changed since they were read;
+     *         every other game has been written
+     */
+    Mono<Set<String>> replaceGames(@NotNull List<Game> games);
+
+    /**
+     * Read only the revision of a game
+     * @param gameId the ID of the game
+     * @return the game's revision, or empty if there is no such game
+     */
+    Mono<Long> findRevisionById(@NotNull String gameId);
+
+    /**
+     * Read only some fields of a game
+     * @param gameId the ID of the game
+     * @param fields game properties to read; the ID and revision are always read
+     * @return the partially read game, or empty if there is no such game
+     */
+    Mono<Game> findByIdWithFields(@NotNull String gameId, @NotNull Collection<String> fields);
+}
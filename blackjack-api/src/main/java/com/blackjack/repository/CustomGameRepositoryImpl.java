@@ -1,15 +1,32 @@
 package com.blackjack.repository;
 
+import com.blackjack.model.ActionSignature;
 import com.blackjack.model.Game;
+import com.blackjack.model.Money;
+import com.blackjack.model.PlayerGameStats;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.core.query.Criteria;
-import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.time.LocalDateTime;
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * Implementation of CustomGameRepository interface.
@@ -18,9 +35,15 @@ import java.math.BigDecimal;
 @Repository
 public class CustomGameRepositoryImpl implements CustomGameRepository {
 
+    private static final String ID = "id";
     private static final String STATUS = "status";
     private static final String PLAYER_ID = "playerId";
     private static final String START_TIME = "startTime";
+    private static final String PENDING_SETTLEMENT = "pendingSettlement";
+    private static final String ACTION_SIGNATURE = "actionSignature";
+    private static final String ACTION_GRAMS = "actionGrams";
+    private static final String ACTIONS = "actions";
+    private static final String REVISION = "revision";
 
     private final ReactiveMongoTemplate mongoTemplate;
 
@@ -38,6 +61,53 @@ public class CustomGameRepositoryImpl implements CustomGameRepository {
         return mongoTemplate.find(query, Game.class);
     }
 
+    @Override
+    public Flux<Game> findGamesByPlayerId(Long playerId, int limit, LocalDateTime beforeStartTime, String beforeId) {
+        Criteria criteria = Criteria.where(PLAYER_ID).is(playerId);
+        if (beforeStartTime != null && beforeId != null) {
+            Object id = ObjectId.isValid(beforeId) ? new ObjectId(beforeId) : beforeId;
+            criteria = criteria.orOperator(
+                    Criteria.where(START_TIME).lt(beforeStartTime),
+                    Criteria.where(START_TIME).is(beforeStartTime).and(ID).lt(id));
+        }
+        Query query = new Query()
+                .addCriteria(criteria)
+                .with(org.springframework.data.domain.Sort.by(
+                        org.springframework.data.domain.Sort.Direction.DESC, START_TIME, ID))
+                .limit(limit);
+
+        return mongoTemplate.find(query, Game.class);
+    }
+
+    @Override
+    public Mono<Integer> backfillActionSignatures(int limit) {
+        Criteria missing = Criteria.where(ACTION_SIGNATURE).exists(false);
+        Query query = new Query(missing).limit(limit);
+        query.fields().include(ACTIONS);
+        return mongoTemplate.find(query, Game.class)
+                .collectList()
+                .flatMap(games -> {
+                    if (games.isEmpty()) {
+                        return Mono.just(0);
+                    }
+                    // Field updates rather than replaces, so the backfill neither moves the revision nor races a save
+                    ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Game.class);
+                    for (Game game : games) {
+                        String signature = ActionSignature.encode(game.getActions());
+                        bulk.updateOne(new Query(Criteria.where(ID).is(game.getId()).and(ACTION_SIGNATURE).exists(false)),
+                                new Update().set(ACTION_SIGNATURE, signature).set(ACTION_GRAMS, ActionSignature.grams(signature)));
+                    }
+                    return bulk.execute().thenReturn(games.size());
+                });
+    }
+
+    @Override
+    public Mono<Long> backfillRevisions() {
+        Query query = new Query(Criteria.where(REVISION).exists(false));
+        return mongoTemplate.updateMulti(query, new Update().set(REVISION, 0L), Game.class)
+                .map(UpdateResult::getModifiedCount);
+    }
+
     @Override
     public Flux<Game> findHighStakeGames(BigDecimal threshold) {
         Query query = new Query()
@@ -96,32 +166,181 @@ public class CustomGameRepositoryImpl implements CustomGameRepository {
 
     @Override
     public Mono<BigDecimal> calculateTotalWinnings(Long playerId, LocalDateTime startDate, LocalDateTime endDate) {
-        Aggregation aggregation = Aggregation.newAggregation(
-                Aggregation.match(Criteria.where(PLAYER_ID).is(playerId)
-                        .and(STATUS).is(Game.GameStatus.COMPLETED)
-                        .and(START_TIME).gte(startDate).lte(endDate)),
-                Aggregation.project()
-                        .andExpression("cond: { if: { $eq: ['$result', 'PLAYER_WIN'] }, then: '$bet', else: { cond: { if: { $eq: ['$result', 'PLAYER_BLACKJACK'] }, then: { $multiply: ['$bet', 1.5] }, else: 0 } } }")
-                        .as("winnings"),
-                Aggregation.group().sum("winnings").as("totalWinnings")
-        );
-
-        return mongoTemplate.aggregate(aggregation, Game.class, Object.class)
-                .map(result -> {
-                    org.bson.Document doc = (org.bson.Document) result;
-                    Number winnings = doc.getDouble("totalWinnings");
-                    return winnings != null ? new BigDecimal(winnings.toString()) : BigDecimal.ZERO;
-                })
-                .next()
-                .defaultIfEmpty(BigDecimal.ZERO);
+        // Read the daily totals maintained by settlement instead of scanning the games themselves
+        Query query = new Query()
+                .addCriteria(Criteria.where(PLAYER_ID).is(playerId)
+                        .and("day").gte(startDate.toLocalDate()).lte(endDate.toLocalDate()));
+
+        return mongoTemplate.find(query, PlayerGameStats.class)
+                .map(PlayerGameStats::getWinningsCents)
+                .reduce(0L, Long::sum)
+                .map(cents -> Money.ofCents(cents).toBigDecimal());
     }
 
     @Override
     public Flux<Game> findGamesByActionSequence(java.util.List<Game.GameAction> actions, int limit) {
         Query query = new Query()
-                .addCriteria(Criteria.where("actions").is(actions))
+                .addCriteria(Criteria.where(ACTION_SIGNATURE).is(ActionSignature.encode(actions)))
                 .limit(limit);
         
         return mongoTemplate.find(query, Game.class);
     }
-} 
\ No newline at end of file
+
+    @Override
+    public Flux<Game> findGamesByActionPrefix(java.util.List<Game.GameAction> actions, int limit) {
+        // An anchored, case-sensitive regex is answered with a range scan on the signature index
+        Query query = new Query()
+                .addCriteria(Criteria.where(ACTION_SIGNATURE).regex("^" + Pattern.quote(ActionSignature.encode(actions))))
+                .limit(limit);
+
+        return mongoTemplate.find(query, Game.class);
+    }
+
+    @Override
+    public Flux<Game> findGamesContainingActionSequence(java.util.List<Game.GameAction> actions, int limit) {
+        String sequence = ActionSignature.encode(actions);
+        Criteria criteria = Criteria.where(ACTION_GRAMS).all(ActionSignature.searchGrams(sequence));
+        if (sequence.length() > ActionSignature.MAX_GRAM_LENGTH) {
+            // The grams narrow the candidates through the index; the regex checks they are consecutive
+            criteria = criteria.and(ACTION_SIGNATURE).regex(Pattern.quote(sequence));
+        }
+        Query query = new Query()
+                .addCriteria(criteria)
+                .limit(limit);
+
+        return mongoTemplate.find(query, Game.class);
+    }
+
+    @Override
+    public Flux<Game> findPendingSettlements(int limit) {
+        Query query = new Query()
+                .addCriteria(claimableSettlement(Criteria.where(PENDING_SETTLEMENT).exists(true), LocalDateTime.now()))
+                .with(org.springframework.data.domain.Sort.by(
+                        org.springframework.data.domain.Sort.Direction.ASC, "endTime"))
+                .limit(limit);
+
+        return mongoTemplate.find(query, Game.class);
+    }
+
+    @Override
+    public Mono<Game> claimPendingSettlement(String gameId, String owner, LocalDateTime leaseUntil) {
+        Query query = new Query(claimableSettlement(
+                Criteria.where(ID).is(gameId).and(PENDING_SETTLEMENT).exists(true), LocalDateTime.now()));
+        Update update = new Update()
+                .set(PENDING_SETTLEMENT + ".leaseOwner", owner)
+                .set(PENDING_SETTLEMENT + ".leaseUntil", leaseUntil);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Game.class);
+    }
+
+    /**
+     * Narrow to settlements that are not waiting out a retry backoff and not leased by a relay
+     */
+    private static Criteria claimableSettlement(Criteria criteria, LocalDateTime now) {
+        String nextAttemptAt = PENDING_SETTLEMENT + ".nextAttemptAt";
+        String leaseUntil = PENDING_SETTLEMENT + ".leaseUntil";
+        return criteria.andOperator(
+                new Criteria().orOperator(Criteria.where(nextAttemptAt).exists(false), Criteria.where(nextAttemptAt).lte(now)),
+                new Criteria().orOperator(Criteria.where(leaseUntil).exists(false), Criteria.where(leaseUntil).lte(now)));
+    }
+
+    @Override
+    public Mono<Void> markStatisticsRecorded(String gameId) {
+        return markPendingSettlement(gameId, "statisticsRecorded");
+    }
+
+    @Override
+    public Mono<Void> markDailyTotalsRecorded(String gameId) {
+        return markPendingSettlement(gameId, "dailyTotalsRecorded");
+    }
+
+    private Mono<Void> markPendingSettlement(String gameId, String marker) {
+        Query query = new Query(Criteria.where(ID).is(gameId).and(PENDING_SETTLEMENT).exists(true));
+        return mongoTemplate.updateFirst(query, new Update().set(PENDING_SETTLEMENT + "." + marker, true), Game.class)
+                .then();
+    }
+
+    @Override
+    public Mono<Void> recordSettlementFailure(String gameId, int attempts, LocalDateTime nextAttemptAt, String error) {
+        Query query = new Query(Criteria.where(ID).is(gameId).and(PENDING_SETTLEMENT).exists(true));
+        Update update = new Update()
+                .set(PENDING_SETTLEMENT + ".attempts", attempts)
+                .set(PENDING_SETTLEMENT + ".nextAttemptAt", nextAttemptAt)
+                .set(PENDING_SETTLEMENT + ".lastError", error)
+                .unset(PENDING_SETTLEMENT + ".leaseOwner")
+                .unset(PENDING_SETTLEMENT + ".leaseUntil");
+        return mongoTemplate.updateFirst(query, update, Game.class).then();
+    }
+
+    @Override
+    public Mono<Void> failPendingSettlement(String gameId) {
+        Query query = new Query(Criteria.where(ID).is(gameId).and(PENDING_SETTLEMENT).exists(true));
+        // The target of $rename is not mapped to the stored field name, so it is given as stored
+        return mongoTemplate.updateFirst(query, new Update().rename(PENDING_SETTLEMENT, "failed_settlement"), Game.class)
+                .then();
+    }
+
+    @Override
+    public Mono<Void> clearPendingSettlement(String gameId) {
+        Query query = new Query()
+                .addCriteria(Criteria.where("id").is(gameId));
+
+        return mongoTemplate.updateFirst(query, new Update().unset(PENDING_SETTLEMENT), Game.class)
+                .then();
+    }
+
+    @Override
+    public Mono<Set<String>> replaceGames(List<Game> games) {
+        if (games.isEmpty()) {
+            return Mono.just(Set.of());
+        }
+        ReactiveBulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Game.class);
+        for (Game game : games) {
+            // Bulk writes skip the version check of save, so each replace matches the revision it was read at
+            // A game stored before it was versioned has no revision, which the filter matches as null
+            Long revision = game.getRevision();
+            game.setRevision(revision == null ? 1 : revision + 1);
+            // A bulk result only counts matches, so a stale replace upserts instead: the insert collides
+            // on the game's ID and the error names which replace it was. Only games read in progress are
+            // replaced, and those are never purged, so the upsert cannot store a deleted game again
+            bulk.replaceOne(new Query(Criteria.where(ID).is(game.getId()).and(REVISION).is(revision)), game,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        return bulk.execute()
+                .<Set<String>>thenReturn(Set.of())
+                .onErrorResume(error -> staleReplaces(error) != null, error -> {
+                    Set<String> stale = new HashSet<>();
+                    for (BulkWriteError writeError : staleReplaces(error).getWriteErrors()) {
+                        if (writeError.getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                            return Mono.error(error);
+                        }
+                        stale.add(games.get(writeError.getIndex()).getId());
+                    }
+                    return Mono.just(stale);
+                });
+    }
+
+    private static MongoBulkWriteException staleReplaces(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoBulkWriteException bulkError) {
+                return bulkError;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Mono<Long> findRevisionById(String gameId) {
+        Query query = new Query(Criteria.where(ID).is(gameId));
+        query.fields().include(REVISION);
+        return mongoTemplate.findOne(query, Game.class)
+                .map(game -> game.getRevision() == null ? 0L : game.getRevision());
+    }
+
+    @Override
+    public Mono<Game> findByIdWithFields(String gameId, Collection<String> fields) {
+        Query query = new Query(Criteria.where(ID).is(gameId));
+        fields.forEach(query.fields()::include);
+        query.fields().include(REVISION);
+        return mongoTemplate.findOne(query, Game.class);
+    }
+}
@@ -0,0 +1,34 @@
+package com.blackjack.repository;
+
+import com.blackjack.model.Game;
+import com.blackjack.model.Money;
+import com.blackjack.model.PlayerGameStats;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.time.LocalDate;
+
+/**
+ * Custom repository interface for maintaining and reading daily game totals.
+ */
+@Validated
+public interface CustomPlayerGameStatsRepository {
+
+    /**
+     * Add a completed game to the bucket of the day it ended, creating the bucket if needed
+     * @param game the completed game
+     * @param payout amount returned to the player for the main bet
+     * @return completes once the bucket has been updated
+     */
+    Mono<Void> recordGame(@NotNull Game game, @NotNull Money payout);
+
+    /**
+     * Find the daily buckets of a player within a date range, oldest first
+     * @param playerId the ID of the player
+     * @param from first day, inclusive
+     * @param to last day, inclusive
+     * @return a Flux of daily buckets
+     */
+    Flux<PlayerGameStats> findBuckets(@NotNull Long playerId, @NotNull LocalDate from, @NotNull LocalDate to);
+}
@@ -0,0 +1,62 @@
+package com.blackjack.repository;
+
+import com.blackjack.model.Game;
+import com.blackjack.model.Money;
+import com.blackjack.model.PlayerGameStats;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import java.time.LocalDate;
+
+/**
+ * Implementation of CustomPlayerGameStatsRepository interface.
+ * Every game is applied with one upsert, so concurrent settlements for the same
+ * player and day never overwrite each other.
+ */
+@Repository
+public class CustomPlayerGameStatsRepositoryImpl implements CustomPlayerGameStatsRepository {
+
+    private static final String PLAYER_ID = "playerId";
+    private static final String DAY = "day";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public CustomPlayerGameStatsRepositoryImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Void> recordGame(Game game, Money payout) {
+        LocalDate day = (game.getEndTime() != null ? game.getEndTime() : game.getStartTime()).toLocalDate();
+        // Winnings are what the player gained on the main bet: the bet for a win, 1.5x for a blackjack
+        long winnings = Math.max(0, payout.cents() - game.getBet().cents());
+
+        Query query = new Query(Criteria.where("id").is(PlayerGameStats.bucketId(game.getPlayerId(), day)));
+        Update update = new Update()
+                .setOnInsert(PLAYER_ID, game.getPlayerId())
+                .setOnInsert(DAY, day)
+                .inc("games", 1)
+                .inc("betCents", game.getBet().cents())
+                .inc("winningsCents", winnings);
+        if (game.getResult() != null) {
+            update.inc("results." + game.getResult().name(), 1);
+        }
+
+        return mongoTemplate.upsert(query, update, PlayerGameStats.class).then();
+    }
+
+    @Override
+    public Flux<PlayerGameStats> findBuckets(Long playerId, LocalDate from, LocalDate to) {
+        Query query = new Query()
+                .addCriteria(Criteria.where(PLAYER_ID).is(playerId)
+                        .and(DAY).gte(from).lte(to))
+                .with(Sort.by(Sort.Direction.ASC, DAY));
+
+        return mongoTemplate.find(query, PlayerGameStats.class);
+    }
+}
@@ -0,0 +1,20 @@
+package com.blackjack.repository;
+
+import com.blackjack.model.Player;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Custom player queries that cannot be expressed as derived or annotated queries.
+ */
+public interface CustomPlayerRepository {
+
+    /**
+     * Read only some columns of a player
+     * @param id player ID
+     * @param columns columns to read; properties stored elsewhere keep their defaults
+     * @return the partially read player, or empty if there is no such player
+     */
+    Mono<Player> findByIdWithColumns(Long id, Collection<String> columns);
+}
@@ -0,0 +1,28 @@
+package com.blackjack.repository;
+
+import com.blackjack.model.Player;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Implementation of CustomPlayerRepository interface.
+ */
+public class CustomPlayerRepositoryImpl implements CustomPlayerRepository {
+
+    private final R2dbcEntityTemplate entityTemplate;
+
+    public CustomPlayerRepositoryImpl(R2dbcEntityTemplate entityTemplate) {
+        this.entityTemplate = entityTemplate;
+    }
+
+    @Override
+    public Mono<Player> findByIdWithColumns(Long id, Collection<String> columns) {
+        return entityTemplate.select(Player.class)
+                .matching(Query.query(Criteria.where("id").is(id)).columns(columns))
+                .one();
+    }
+}
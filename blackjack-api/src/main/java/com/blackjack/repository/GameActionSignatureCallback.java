@@ -0,0 +1,21 @@
+package com.blackjack.repository;
+
+import com.blackjack.model.Game;
+import org.reactivestreams.Publisher;
+import org.springframework.data.mongodb.core.mapping.event.ReactiveBeforeConvertCallback;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Derives the indexed action signature of a game every time it is saved, so
+ * the stored signature always matches the stored actions.
+ */
+@Component
+public class GameActionSignatureCallback implements ReactiveBeforeConvertCallback<Game> {
+
+    @Override
+    public Publisher<Game> onBeforeConvert(Game game, String collection) {
+        game.refreshActionSignature();
+        return Mono.just(game);
+    }
+}
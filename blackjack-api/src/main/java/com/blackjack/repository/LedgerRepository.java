@@ -0,0 +1,21 @@
+package com.blackjack.repository;
+
+import com.blackjack.model.LedgerEntry;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Repository interface for reading the append-only balance ledger in MySQL using R2DBC.
+ * Entries are written in batches by the balance ledger writer, never updated.
+ */
+@Repository
+public interface LedgerRepository extends R2dbcRepository<LedgerEntry, Long> {
+
+    /**
+     * Stream a player's ledger entries in the order they were recorded
+     * @param playerId the ID of the player
+     * @return a Flux of ledger entries
+     */
+    Flux<LedgerEntry> findByPlayerIdOrderByIdAsc(Long playerId);
+}
@@ -0,0 +1,15 @@
+package com.blackjack.repository;
+
+import com.blackjack.model.PlayerGameStats;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Repository interface for the daily per-player game totals in MongoDB.
+ */
+@Repository
+@Validated
+public interface PlayerGameStatsRepository
+        extends ReactiveMongoRepository<PlayerGameStats, String>, CustomPlayerGameStatsRepository {
+}
@@ -1,23 +1,74 @@
 package com.blackjack.repository;
 
 import com.blackjack.model.Player;
+import com.blackjack.repository.projection.PlayerBalance;
+import com.blackjack.repository.projection.PlayerStatistics;
+import org.springframework.data.r2dbc.repository.Modifying;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 /**
  * Repository interface for managing Player entities in MySQL using R2DBC.
  * Provides operations for player data management.
  */
 @Repository
-public interface PlayerRepository extends R2dbcRepository<Player, Long> {
+public interface PlayerRepository extends R2dbcRepository<Player, Long>, CustomPlayerRepository {
 
     Mono<Player> findByUsername(String username);
     Mono<Boolean> existsByUsername(String username);
+    Mono<Boolean> existsByEmail(String email);
+
+    /**
+     * Balance of a player without loading the rest of the row
+     */
+    @Query("SELECT id, balance FROM players WHERE id = :id")
+    Mono<PlayerBalance> findBalanceById(Long id);
+
+    /**
+     * Statistics columns of a player without loading the rest of the row
+     */
+    @Query("SELECT id, username, balance, games_played, games_won, total_winnings, games_played_today, games_won_today, "
+            + "updated_at FROM players WHERE id = :id")
+    Mono<PlayerStatistics> findStatisticsById(Long id);
+
+    /**
+     * When a player was last written, read without loading the player
+     */
+    @Query("SELECT updated_at FROM players WHERE id = :id")
+    Mono<LocalDateTime> findUpdatedAtById(Long id);
     
     @Query("SELECT * FROM players WHERE balance >= :minBalance AND balance <= :maxBalance")
     Flux<Player> findPlayersByBalanceRange(BigDecimal minBalance, BigDecimal maxBalance);
-}
\ No newline at end of file
+
+    /**
+     * First page of players with at least the given balance, richest first
+     */
+    @Query("SELECT * FROM players WHERE balance >= :minBalance ORDER BY balance DESC, id DESC LIMIT :limit")
+    Flux<Player> findPlayersWithBalanceAtLeast(BigDecimal minBalance, int limit);
+
+    /**
+     * Next page of players with at least the given balance, continuing after the (balance, id) cursor
+     */
+    @Query("SELECT * FROM players WHERE balance >= :minBalance "
+            + "AND (balance < :afterBalance OR (balance = :afterBalance AND id < :afterId)) "
+            + "ORDER BY balance DESC, id DESC LIMIT :limit")
+    Flux<Player> findPlayersWithBalanceAtLeastAfter(BigDecimal minBalance, BigDecimal afterBalance, Long afterId, int limit);
+
+    @Query("SELECT * FROM players WHERE games_played >= :minGamesPlayed "
+            + "ORDER BY games_won / games_played DESC, id ASC LIMIT :limit")
+    Flux<Player> findTopPlayersByWinRate(int minGamesPlayed, int limit);
+
+    /**
+     * Add game results to a player's overall and daily statistics in one statement
+     */
+    @Modifying
+    @Query("UPDATE players SET games_played = games_played + :played, games_won = games_won + :won, "
+            + "games_played_today = games_played_today + :played, games_won_today = games_won_today + :won, "
+            + "total_winnings = total_winnings + :winnings, updated_at = :updatedAt WHERE id = :id")
+    Mono<Integer> incrementStatistics(Long id, int played, int won, BigDecimal winnings, LocalDateTime updatedAt);
+}
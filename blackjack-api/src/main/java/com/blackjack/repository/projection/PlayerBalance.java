@@ -0,0 +1,11 @@
+package com.blackjack.repository.projection;
+
+import com.blackjack.model.Money;
+
+/**
+ * Read-only view of a player's balance, for checks that need nothing else
+ * @param id player ID
+ * @param balance current balance
+ */
+public record PlayerBalance(Long id, Money balance) {
+}
@@ -0,0 +1,30 @@
+package com.blackjack.repository.projection;
+
+import com.blackjack.model.Money;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only view of the columns behind a player's statistics
+ * @param id player ID
+ * @param username player username
+ * @param balance current balance
+ * @param gamesPlayed total games played
+ * @param gamesWon total games won
+ * @param totalWinnings total winnings
+ * @param gamesPlayedToday games played today
+ * @param gamesWonToday games won today
+ * @param updatedAt when the player was last written
+ */
+public record PlayerStatistics(Long id, String username, Money balance, int gamesPlayed, int gamesWon,
+                               Money totalWinnings, int gamesPlayedToday, int gamesWonToday,
+                               LocalDateTime updatedAt) {
+
+    public double winRate() {
+        return gamesPlayed == 0 ? 0.0 : (double) gamesWon / gamesPlayed;
+    }
+
+    public double dailyWinRate() {
+        return gamesPlayedToday == 0 ? 0.0 : (double) gamesWonToday / gamesPlayedToday;
+    }
+}
@@ -1,10 +1,17 @@
 package com.blackjack.service;
 
+import com.blackjack.dto.GameActionRequest;
+import com.blackjack.dto.GameActionResult;
+import com.blackjack.dto.PlayerGameSummaryResponse;
 import com.blackjack.model.Game;
+import com.blackjack.model.Money;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface GameService {
     /**
@@ -13,7 +20,7 @@ public interface GameService {
      * @param bet initial bet amount
      * @return the created game
      */
-    Mono<Game> startGame(Long playerId, BigDecimal bet);
+    Mono<Game> startGame(Long playerId, Money bet);
 
     /**
      * Player hits (draws a card)
@@ -29,6 +36,13 @@ public interface GameService {
      */
     Mono<Game> stand(String gameId);
 
+    /**
+     * Play hit and stand actions across several games, saving every changed game with one bulk write
+     * @param requests actions to play; actions for the same game are played in the order given
+     * @return one result per action, in request order
+     */
+    Flux<GameActionResult> playActions(List<GameActionRequest> requests);
+
     /**
      * Player splits their hand
      * @param gameId game ID
@@ -50,6 +64,28 @@ public interface GameService {
      */
     Mono<Game> getGameById(String gameId);
 
+    /**
+     * Get the revision of a game without loading the game
+     * @param gameId game ID
+     * @return the revision, which changes every time the game is saved, if the game exists
+     */
+    Mono<Long> getGameRevision(String gameId);
+
+    /**
+     * Get a game reading only some of its fields
+     * @param gameId game ID
+     * @param fields game properties to read
+     * @return the partially read game if found
+     */
+    Mono<Game> getGameById(String gameId, Collection<String> fields);
+
+    /**
+     * Get several games by ID
+     * @param gameIds game IDs
+     * @return the games that exist, in the order of their IDs
+     */
+    Flux<Game> getGamesByIds(List<String> gameIds);
+
     /**
      * Get active games for a player
      * @param playerId player ID
@@ -57,6 +93,16 @@ public interface GameService {
      */
     Flux<Game> getActiveGames(Long playerId);
 
+    /**
+     * Get one page of a player's games, active and completed, newest first
+     * @param playerId player ID
+     * @param limit maximum number of games to return
+     * @param beforeStartTime start time of the last game on the previous page, or null for the first page
+     * @param beforeId ID of the last game on the previous page, or null for the first page
+     * @return page of games
+     */
+    Flux<Game> getPlayerGames(Long playerId, int limit, LocalDateTime beforeStartTime, String beforeId);
+
     /**
      * Get completed games for a player within a date range
      * @param playerId player ID
@@ -66,6 +112,24 @@ public interface GameService {
      */
     Flux<Game> getCompletedGames(Long playerId, LocalDateTime startDate, LocalDateTime endDate);
 
+    /**
+     * Summarize a player's completed games by day
+     * @param playerId player ID
+     * @param from first day, inclusive
+     * @param to last day, inclusive
+     * @return totals over the range, read from the daily game buckets
+     */
+    Mono<PlayerGameSummaryResponse> getPlayerGameSummary(Long playerId, LocalDate from, LocalDate to);
+
+    /**
+     * Find games by the sequence of actions the player took
+     * @param actions actions to search for
+     * @param match how the actions must appear in a game
+     * @param limit maximum number of games to return
+     * @return matching games
+     */
+    Flux<Game> findGamesByActions(List<Game.GameAction> actions, ActionMatch match, int limit);
+
     /**
      * Get high stake games (games with bets above threshold)
      * @param threshold minimum bet amount
@@ -79,4 +143,16 @@ public interface GameService {
      * @return number of games deleted
      */
     Mono<Long> cleanupOldGames(LocalDateTime olderThan);
-} 
\ No newline at end of file
+
+    /**
+     * Ways an action sequence can match a game's actions
+     */
+    enum ActionMatch {
+        /** The game's actions are exactly the sequence */
+        EXACT,
+        /** The game's actions start with the sequence */
+        PREFIX,
+        /** The sequence appears consecutively anywhere in the game's actions */
+        CONTAINS
+    }
+}
@@ -1,9 +1,18 @@
 package com.blackjack.service;
 
+import com.blackjack.dto.CreatePlayerRequest;
+import com.blackjack.dto.PlayerImportResult;
+import com.blackjack.dto.PlayerSearchResult;
+import com.blackjack.model.LedgerEntry;
+import com.blackjack.model.Money;
 import com.blackjack.model.Player;
+import com.blackjack.repository.projection.PlayerStatistics;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 public interface PlayerService {
     /**
@@ -13,6 +22,13 @@ public interface PlayerService {
      */
     Mono<Player> createPlayer(Player player);
 
+    /**
+     * Create players in bulk, continuing past rows that are invalid or already taken
+     * @param requests players to create
+     * @return outcome of every row, in upload order
+     */
+    Flux<PlayerImportResult> importPlayers(Flux<CreatePlayerRequest> requests);
+
     /**
      * Get player by ID
      * @param id player ID
@@ -20,6 +36,13 @@ public interface PlayerService {
      */
     Mono<Player> getPlayerById(Long id);
 
+    /**
+     * Get several players by ID
+     * @param ids player IDs
+     * @return the players that exist, in the order of their IDs
+     */
+    Flux<Player> getPlayersByIds(List<Long> ids);
+
     /**
      * Get player by username
      * @param username player username
@@ -27,6 +50,14 @@ public interface PlayerService {
      */
     Mono<Player> getPlayerByUsername(String username);
 
+    /**
+     * Find players whose username starts with a prefix, ignoring case
+     * @param prefix username prefix
+     * @param limit maximum number of matches to return
+     * @return matching players in username order
+     */
+    Flux<PlayerSearchResult> searchPlayersByUsername(String prefix, int limit);
+
     /**
      * Update player information
      * @param id player ID
@@ -48,16 +79,96 @@ public interface PlayerService {
      * @param amount amount to add (positive) or subtract (negative)
      * @return updated player
      */
-    Mono<Player> updateBalance(Long id, BigDecimal amount);
+    Mono<Player> updateBalance(Long id, Money amount);
+
+    /**
+     * Apply a game-related balance change at most once per game and entry type
+     * @param id player ID
+     * @param gameId game that caused the change
+     * @param type kind of balance change
+     * @param amount amount to add (positive) or subtract (negative)
+     * @return true if the change was applied, false if it had already been applied
+     */
+    Mono<Boolean> recordGameTransaction(Long id, String gameId, LedgerEntry.EntryType type, Money amount);
+
+    /**
+     * Hold funds for a bet against the player's available balance, which every implementation
+     * tracks in memory so concurrent holds cannot together exceed the balance
+     * @param id player ID
+     * @param amount amount to hold
+     * @return true if the funds are held, false if the available balance is too low;
+     *         empty if the player does not exist
+     */
+    Mono<Boolean> reserveFunds(Long id, Money amount);
+
+    /**
+     * Debit held funds through the ledger, at most once per game and entry type.
+     * The hold is released if the debit is not applied.
+     * @param id player ID
+     * @param gameId game the funds were held for
+     * @param type kind of debit
+     * @param amount amount previously held
+     * @return true if the debit was applied, false if it had already been applied
+     */
+    Mono<Boolean> commitReservation(Long id, String gameId, LedgerEntry.EntryType type, Money amount);
+
+    /**
+     * Debit held funds through the ledger for a transaction a game can make several times,
+     * at most once per game, entry type and ordinal. The hold is released if the debit is not applied.
+     * @param id player ID
+     * @param gameId game the funds were held for
+     * @param type kind of debit
+     * @param ordinal which occurrence of the debit in the game, starting at 1
+     * @param amount amount previously held
+     * @return true if the debit was applied, false if it had already been applied
+     */
+    Mono<Boolean> commitReservation(Long id, String gameId, LedgerEntry.EntryType type, int ordinal, Money amount);
+
+    /**
+     * Release held funds that will not be spent
+     * @param id player ID
+     * @param amount amount previously held
+     * @return completes once the funds are available again
+     */
+    Mono<Void> releaseReservation(Long id, Money amount);
+
+    /**
+     * Get the statistics of a player without loading the full player
+     * @param id player ID
+     * @return statistics if the player exists
+     */
+    Mono<PlayerStatistics> getPlayerStatistics(Long id);
+
+    /**
+     * Get when a player was last written, without loading the player
+     * @param id player ID
+     * @return time of the last write if the player exists
+     */
+    Mono<LocalDateTime> getPlayerUpdatedAt(Long id);
+
+    /**
+     * Get a player reading only some of its columns, bypassing the player cache
+     * @param id player ID
+     * @param columns columns to read
+     * @return the partially read player if found
+     */
+    Mono<Player> getPlayerById(Long id, Collection<String> columns);
+
+    /**
+     * Get the balance ledger of a player in the order entries were recorded
+     * @param id player ID
+     * @return stream of ledger entries
+     */
+    Flux<LedgerEntry> getLedgerHistory(Long id);
 
     /**
      * Update player statistics after a game
      * @param id player ID
      * @param won whether the player won
      * @param amount amount won or lost
-     * @return updated player
+     * @return completes once the statistics have been written
      */
-    Mono<Player> updateStatistics(Long id, boolean won, BigDecimal amount);
+    Mono<Void> updateStatistics(Long id, boolean won, Money amount);
 
     /**
      * Get top players by win rate
@@ -67,11 +178,14 @@ public interface PlayerService {
     Flux<Player> getTopPlayers(int limit);
 
     /**
-     * Get players with balance above threshold
+     * Get one page of players with balance above threshold, richest first
      * @param threshold minimum balance
-     * @return list of players
+     * @param limit maximum number of players to return
+     * @param afterBalance balance of the last player on the previous page, or null for the first page
+     * @param afterId ID of the last player on the previous page, or null for the first page
+     * @return page of players
      */
-    Flux<Player> getPlayersWithBalanceAbove(BigDecimal threshold);
+    Flux<Player> getPlayersWithBalanceAbove(BigDecimal threshold, int limit, BigDecimal afterBalance, Long afterId);
 
     /**
      * Get all players
@@ -1,33 +1,59 @@
 package com.blackjack.service.impl;
 
+import com.blackjack.dto.GameActionRequest;
+import com.blackjack.dto.GameActionResult;
+import com.blackjack.dto.PlayerGameSummaryResponse;
 import com.blackjack.model.Card;
 import com.blackjack.model.Game;
 import com.blackjack.model.Hand;
+import com.blackjack.model.LedgerEntry;
+import com.blackjack.model.Money;
+import com.blackjack.model.PendingSettlement;
+import com.blackjack.model.PlayerGameStats;
 import com.blackjack.repository.GameRepository;
+import com.blackjack.repository.PlayerGameStatsRepository;
 import com.blackjack.service.DeckService;
 import com.blackjack.service.GameService;
 import com.blackjack.service.PlayerService;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class GameServiceImpl implements GameService {
 
     private final GameRepository gameRepository;
+    private final PlayerGameStatsRepository playerGameStatsRepository;
     private final PlayerService playerService;
     private final DeckService deckService;
 
+    // Payout multipliers are expressed in halves of the bet so 3:2 blackjack stays integral
+    private static final long PAYOUT_DENOMINATOR = 2;
+    private static final long NO_PAYOUT = 0;
+    private static final long PUSH_PAYOUT = 2;
+    private static final long WIN_PAYOUT = 4;
+    private static final long BLACKJACK_PAYOUT = 5;
+
+    // Games played at once by a batch; bounded so one request cannot monopolize the deck service
+    private static final int BATCH_CONCURRENCY = 8;
+
     @Override
-    public Mono<Game> startGame(Long playerId, BigDecimal bet) {
-        return playerService.getPlayerById(playerId)
-                .flatMap(player -> {
-                    if (player.getBalance().compareTo(bet) < 0) {
+    public Mono<Game> startGame(Long playerId, Money bet) {
+        return playerService.reserveFunds(playerId, bet)
+                .flatMap(reserved -> {
+                    if (!reserved) {
                         return Mono.error(new IllegalStateException("Insufficient funds"));
                     }
                     
@@ -37,50 +63,66 @@ public class GameServiceImpl implements GameService {
                             : deckService.shuffle().then()
                         )
                         .then(dealInitialCards())
-                        .flatMap(hands -> {
+                        .map(hands -> {
                             Game game = new Game(playerId, bet);
+                            // Assigned up front so the bet is debited before the game can be played
+                            game.setId(new ObjectId().toHexString());
                             game.setPlayerHand(hands.playerHand);
                             game.setDealerHand(hands.dealerHand);
                             game.setStartTime(LocalDateTime.now());
                             game.setStatus(Game.GameStatus.IN_PROGRESS);
-                            
-                            return gameRepository.save(game)
-                                    .flatMap(savedGame -> playerService.updateBalance(playerId, bet.negate())
-                                            .thenReturn(savedGame));
-                        });
+                            return game;
+                        })
+                        .onErrorResume(error -> playerService.releaseReservation(playerId, bet).then(Mono.error(error)))
+                        .flatMap(game -> playerService.commitReservation(playerId, game.getId(), LedgerEntry.EntryType.BET, bet)
+                                .then(Mono.defer(() -> gameRepository.save(game)
+                                        // The debit went through but the game did not, so give the bet back
+                                        .onErrorResume(error -> playerService.recordGameTransaction(
+                                                        playerId, game.getId(), LedgerEntry.EntryType.BET_REFUND, bet)
+                                                .then(Mono.error(error))))));
                 });
     }
 
     @Override
     public Mono<Game> hit(String gameId) {
         return gameRepository.findById(gameId)
-                .flatMap(game -> {
-                    if (game.getStatus() != Game.GameStatus.IN_PROGRESS) {
-                        return Mono.error(new IllegalStateException("Game is not in progress"));
-                    }
-                    
-                    return deckService.drawCard()
-                            .flatMap(card -> {
-                                game.getPlayerHand().addCard(card);
-                                if (game.getPlayerHand().isBusted()) {
-                                    return handlePlayerBust(game);
-                                }
-                                return gameRepository.save(game);
-                            });
-                });
+                .flatMap(this::playHit)
+                .flatMap(gameRepository::save);
     }
 
     @Override
     public Mono<Game> stand(String gameId) {
         return gameRepository.findById(gameId)
-                .flatMap(game -> {
-                    if (game.getStatus() != Game.GameStatus.IN_PROGRESS) {
-                        return Mono.error(new IllegalStateException("Game is not in progress"));
-                    }
-                    
-                    return playDealerHand(game)
-                            .flatMap(this::determineWinner);
-                });
+                .flatMap(this::playStand)
+                .flatMap(gameRepository::save);
+    }
+
+    @Override
+    public Flux<GameActionResult> playActions(List<GameActionRequest> requests) {
+        GameActionResult[] results = new GameActionResult[requests.size()];
+        Map<String, List<Integer>> positionsByGame = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            positionsByGame.computeIfAbsent(requests.get(i).getGameId(), id -> new ArrayList<>()).add(i);
+        }
+
+        // Games are played in parallel, but each game's actions run in request order
+        return gameRepository.findAllById(positionsByGame.keySet())
+                .flatMap(game -> Flux.fromIterable(positionsByGame.get(game.getId()))
+                        .concatMap(position -> playAction(game, requests.get(position).getAction())
+                                .doOnNext(result -> results[position] = result))
+                        .reduce(false, (changed, result) -> changed || result.getStatus() == GameActionResult.Status.APPLIED)
+                        .filter(Boolean::booleanValue)
+                        .map(changed -> game), BATCH_CONCURRENCY)
+                .collectList()
+                .flatMap(gameRepository::replaceGames)
+                // A game changed meanwhile was not saved, so none of its actions took effect
+                .flatMapMany(stale -> Flux.range(0, results.length)
+                        .map(i -> results[i] == null
+                                ? GameActionResult.rejected(requests.get(i), GameActionResult.Status.NOT_FOUND, "Game not found")
+                                : stale.contains(results[i].getGameId())
+                                        ? GameActionResult.rejected(requests.get(i), GameActionResult.Status.CONFLICT,
+                                                "Game was changed by another request, reload it and retry")
+                                        : results[i]));
     }
 
     @Override
@@ -91,9 +133,9 @@ public class GameServiceImpl implements GameService {
                         return Mono.error(new IllegalStateException("Cannot split this hand"));
                     }
                     
-                    return playerService.getPlayerById(game.getPlayerId())
-                            .flatMap(player -> {
-                                if (player.getBalance().compareTo(game.getBet()) < 0) {
+                    return playerService.reserveFunds(game.getPlayerId(), game.getBet())
+                            .flatMap(reserved -> {
+                                if (!reserved) {
                                     return Mono.error(new IllegalStateException("Insufficient funds for split"));
                                 }
                                 
@@ -101,21 +143,28 @@ public class GameServiceImpl implements GameService {
                                 Hand newHand = new Hand();
                                 newHand.addCard(originalHand.getCards().remove(1));
                                 
-                                return deckService.drawCards(2)
-                                        .collectList()
+                                // Keyed by which split this is, so a retry is charged once but a re-split is charged again;
+                                // a duplicate means this split was paid for by an attempt that did not finish
+                                int ordinal = game.getSplitCount() + 1;
+                                return playerService.commitReservation(game.getPlayerId(), game.getId(),
+                                                LedgerEntry.EntryType.SPLIT_BET, ordinal, game.getBet())
+                                        .then(Mono.defer(() -> deckService.drawCards(2).collectList()))
                                         .flatMap(cards -> {
                                             originalHand.addCard(cards.get(0));
                                             newHand.addCard(cards.get(1));
+                                            game.setSplitCount(ordinal);
                                             
                                             Game splitGame = new Game(game.getPlayerId(), game.getBet());
+                                            // Assigned up front so the original game can point at it
+                                            splitGame.setId(new ObjectId().toHexString());
                                             splitGame.setPlayerHand(newHand);
                                             splitGame.setDealerHand(game.getDealerHand());
                                             splitGame.setStartTime(LocalDateTime.now());
                                             splitGame.setStatus(Game.GameStatus.IN_PROGRESS);
+                                            game.setSplitGameId(splitGame.getId());
                                             
                                             return gameRepository.save(game)
                                                     .then(gameRepository.save(splitGame))
-                                                    .then(playerService.updateBalance(game.getPlayerId(), game.getBet().negate()))
                                                     .thenReturn(game);
                                         });
                             });
@@ -130,16 +179,22 @@ public class GameServiceImpl implements GameService {
                         return Mono.error(new IllegalStateException("Cannot take insurance"));
                     }
                     
-                    BigDecimal insuranceBet = game.getBet().divide(BigDecimal.valueOf(2), RoundingMode.HALF_UP);
-                    return playerService.getPlayerById(game.getPlayerId())
-                            .flatMap(player -> {
-                                if (player.getBalance().compareTo(insuranceBet) < 0) {
+                    Money insuranceBet = game.getBet().times(1, 2);
+                    return playerService.reserveFunds(game.getPlayerId(), insuranceBet)
+                            .flatMap(reserved -> {
+                                if (!reserved) {
                                     return Mono.error(new IllegalStateException("Insufficient funds for insurance"));
                                 }
                                 
-                                game.setInsuranceBet(insuranceBet);
-                                return playerService.updateBalance(game.getPlayerId(), insuranceBet.negate())
-                                        .then(gameRepository.save(game));
+                                return playerService.commitReservation(game.getPlayerId(), game.getId(),
+                                                LedgerEntry.EntryType.INSURANCE_BET, insuranceBet)
+                                        .flatMap(applied -> {
+                                            if (!applied) {
+                                                return Mono.error(new IllegalStateException("Insurance has already been taken"));
+                                            }
+                                            game.setInsuranceBet(insuranceBet);
+                                            return gameRepository.save(game);
+                                        });
                             });
                 });
     }
@@ -149,16 +204,80 @@ public class GameServiceImpl implements GameService {
         return gameRepository.findById(gameId);
     }
 
+    @Override
+    public Mono<Long> getGameRevision(String gameId) {
+        return gameRepository.findRevisionById(gameId);
+    }
+
+    @Override
+    public Mono<Game> getGameById(String gameId, Collection<String> fields) {
+        return gameRepository.findByIdWithFields(gameId, fields);
+    }
+
+    @Override
+    public Flux<Game> getGamesByIds(List<String> gameIds) {
+        List<String> distinct = gameIds.stream().distinct().toList();
+        // findAllById is a single $in query, which does not return games in the order requested
+        return gameRepository.findAllById(distinct)
+                .collectMap(Game::getId)
+                .flatMapMany(found -> Flux.fromIterable(distinct).mapNotNull(found::get));
+    }
+
     @Override
     public Flux<Game> getActiveGames(Long playerId) {
         return gameRepository.findByPlayerIdAndStatus(playerId, Game.GameStatus.IN_PROGRESS);
     }
 
+    @Override
+    public Flux<Game> getPlayerGames(Long playerId, int limit, LocalDateTime beforeStartTime, String beforeId) {
+        return gameRepository.findGamesByPlayerId(playerId, limit, beforeStartTime, beforeId);
+    }
+
     @Override
     public Flux<Game> getCompletedGames(Long playerId, LocalDateTime startDate, LocalDateTime endDate) {
         return gameRepository.findGamesByPlayerIdAndDateRange(playerId, startDate, endDate);
     }
 
+    @Override
+    public Mono<PlayerGameSummaryResponse> getPlayerGameSummary(Long playerId, LocalDate from, LocalDate to) {
+        return playerGameStatsRepository.findBuckets(playerId, from, to)
+                .collectList()
+                .map(buckets -> {
+                    long games = 0;
+                    long betCents = 0;
+                    long winningsCents = 0;
+                    Map<Game.GameResult, Long> results = new EnumMap<>(Game.GameResult.class);
+                    for (PlayerGameStats bucket : buckets) {
+                        games += bucket.getGames();
+                        betCents += bucket.getBetCents();
+                        winningsCents += bucket.getWinningsCents();
+                        for (Game.GameResult result : Game.GameResult.values()) {
+                            long count = bucket.getResultCount(result);
+                            if (count > 0) {
+                                results.merge(result, count, Long::sum);
+                            }
+                        }
+                    }
+                    Money averageBet = games == 0 ? Money.ZERO : Money.ofCents(betCents / games);
+                    return new PlayerGameSummaryResponse(playerId, from, to, games,
+                            Money.ofCents(betCents).toBigDecimal(), averageBet.toBigDecimal(),
+                            Money.ofCents(winningsCents).toBigDecimal(),
+                            results.getOrDefault(Game.GameResult.PLAYER_BLACKJACK, 0L), results);
+                });
+    }
+
+    @Override
+    public Flux<Game> findGamesByActions(List<Game.GameAction> actions, ActionMatch match, int limit) {
+        if (actions.isEmpty()) {
+            return Flux.error(new IllegalArgumentException("At least one action is required"));
+        }
+        return switch (match) {
+            case EXACT -> gameRepository.findGamesByActionSequence(actions, limit);
+            case PREFIX -> gameRepository.findGamesByActionPrefix(actions, limit);
+            case CONTAINS -> gameRepository.findGamesContainingActionSequence(actions, limit);
+        };
+    }
+
     @Override
     public Flux<Game> getHighStakeGames(BigDecimal threshold) {
         return gameRepository.findHighStakeGames(threshold);
@@ -169,6 +288,45 @@ public class GameServiceImpl implements GameService {
         return gameRepository.deleteByStatusAndEndTimeBefore(Game.GameStatus.COMPLETED, olderThan);
     }
 
+    private Mono<GameActionResult> playAction(Game game, Game.GameAction action) {
+        Mono<Game> played = switch (action) {
+            case HIT -> playHit(game);
+            case STAND -> playStand(game);
+            default -> Mono.error(new IllegalArgumentException(action + " cannot be played in a batch"));
+        };
+        return played
+                .map(updated -> GameActionResult.applied(updated, action))
+                .onErrorResume(error -> error instanceof IllegalStateException || error instanceof IllegalArgumentException,
+                        error -> Mono.just(GameActionResult.rejected(game.getId(), action,
+                                GameActionResult.Status.REJECTED, error.getMessage())));
+    }
+
+    private Mono<Game> playHit(Game game) {
+        if (game.getStatus() != Game.GameStatus.IN_PROGRESS) {
+            return Mono.error(new IllegalStateException("Game is not in progress"));
+        }
+
+        game.addAction(Game.GameAction.HIT);
+        return deckService.drawCard()
+                .flatMap(card -> {
+                    game.getPlayerHand().addCard(card);
+                    if (game.getPlayerHand().isBusted()) {
+                        return handlePlayerBust(game);
+                    }
+                    return Mono.just(game);
+                });
+    }
+
+    private Mono<Game> playStand(Game game) {
+        if (game.getStatus() != Game.GameStatus.IN_PROGRESS) {
+            return Mono.error(new IllegalStateException("Game is not in progress"));
+        }
+
+        game.addAction(Game.GameAction.STAND);
+        return playDealerHand(game)
+                .flatMap(this::determineWinner);
+    }
+
     private Mono<InitialHands> dealInitialCards() {
         return deckService.drawCards(4)
                 .collectList()
@@ -221,7 +379,7 @@ public class GameServiceImpl implements GameService {
         } else if (playerHand.isBusted()) {
             return handleDealerWin(game);
         } else if (dealerHand.isBusted()) {
-            return handlePlayerWin(game);
+            return handleDealerBust(game);
         } else {
             int playerScore = playerHand.getValue();
             int dealerScore = dealerHand.getValue();
@@ -253,45 +411,53 @@ public class GameServiceImpl implements GameService {
                game.getDealerHand().getCards().getFirst().getRank() == Card.Rank.ACE;
     }
 
-    private Mono<Game> handleGameCompletion(Game game, boolean isPlayerWin, BigDecimal payoutMultiplier) {
-        game.setStatus(Game.GameStatus.COMPLETED);
-        game.setEndTime(LocalDateTime.now());
+    private Mono<Game> handleGameCompletion(Game game, Game.GameResult result, boolean isPlayerWin, long payoutHalves) {
+        game.completeGame(result);
         
-        if (payoutMultiplier != null && payoutMultiplier.compareTo(BigDecimal.ZERO) > 0) {
-            BigDecimal winnings = game.getBet().multiply(payoutMultiplier);
-            return playerService.updateBalance(game.getPlayerId(), winnings)
-                    .then(playerService.updateStatistics(game.getPlayerId(), isPlayerWin, game.getBet()))
-                    .then(gameRepository.save(game));
+        Money winnings = game.getBet().times(payoutHalves, PAYOUT_DENOMINATOR);
+        PendingSettlement settlement = game.getPendingSettlement();
+        if (settlement == null) {
+            settlement = new PendingSettlement();
+            settlement.setCreatedAt(game.getEndTime());
+            game.setPendingSettlement(settlement);
         }
+        settlement.setPayout(winnings);
+        settlement.setWon(isPlayerWin);
         
-        return playerService.updateStatistics(game.getPlayerId(), isPlayerWin, game.getBet())
-                .then(gameRepository.save(game));
+        // Balances are applied by the settlement relay, so completion is a single write to the games store
+        return Mono.just(game);
     }
 
     private Mono<Game> handlePlayerBust(Game game) {
-        return handleGameCompletion(game, false, null);
+        return handleGameCompletion(game, Game.GameResult.PLAYER_BUST, false, NO_PAYOUT);
     }
 
     private Mono<Game> handlePlayerWin(Game game) {
-        return handleGameCompletion(game, true, BigDecimal.valueOf(2));
+        return handleGameCompletion(game, Game.GameResult.PLAYER_WIN, true, WIN_PAYOUT);
+    }
+
+    private Mono<Game> handleDealerBust(Game game) {
+        return handleGameCompletion(game, Game.GameResult.DEALER_BUST, true, WIN_PAYOUT);
     }
 
     private Mono<Game> handleDealerWin(Game game) {
-        return handleGameCompletion(game, false, null);
+        return handleGameCompletion(game, Game.GameResult.DEALER_WIN, false, NO_PAYOUT);
     }
 
     private Mono<Game> handleBlackjackWin(Game game) {
-        return handleGameCompletion(game, true, BigDecimal.valueOf(2.5));
+        return handleGameCompletion(game, Game.GameResult.PLAYER_BLACKJACK, true, BLACKJACK_PAYOUT);
     }
 
     private Mono<Game> handlePush(Game game) {
-        return handleGameCompletion(game, true, BigDecimal.ONE);
+        return handleGameCompletion(game, Game.GameResult.PUSH, true, PUSH_PAYOUT);
     }
 
     private Mono<Game> handleInsuranceWin(Game game) {
-        BigDecimal insuranceWin = game.getInsuranceBet().multiply(BigDecimal.valueOf(2));
-        return playerService.updateBalance(game.getPlayerId(), insuranceWin)
-                .then(handleDealerWin(game));
+        PendingSettlement settlement = new PendingSettlement();
+        settlement.setInsurancePayout(game.getInsuranceBet().times(2, 1));
+        settlement.setCreatedAt(LocalDateTime.now());
+        game.setPendingSettlement(settlement);
+        return handleDealerWin(game);
     }
 
     private record InitialHands(Hand playerHand, Hand dealerHand) {}
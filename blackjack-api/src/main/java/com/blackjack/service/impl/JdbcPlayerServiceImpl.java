@@ -0,0 +1,610 @@
+package com.blackjack.service.impl;
+
+import com.blackjack.dto.CreatePlayerRequest;
+import com.blackjack.dto.PlayerImportResult;
+import com.blackjack.dto.PlayerSearchResult;
+import com.blackjack.exception.PlayerAlreadyExistsException;
+import com.blackjack.exception.PlayerNotFoundException;
+import com.blackjack.model.LedgerEntry;
+import com.blackjack.model.Money;
+import com.blackjack.model.Player;
+import com.blackjack.repository.projection.PlayerStatistics;
+import com.blackjack.service.PlayerService;
+import com.blackjack.service.support.BalanceReservations;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.function.Tuple2;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Player service backed by blocking JDBC on virtual threads, active with the {@code jdbc} profile.
+ * Every call runs plain SQL on its own virtual thread and hands the result back
+ * to Reactor, so it can be compared with {@link PlayerServiceImpl} under the
+ * same load. There is no cache, batching or in-memory index here: each ledger
+ * entry is applied in its own transaction, and a reservation is only a balance
+ * check because the ledger transaction rejects any debit that would overdraw.
+ * Only bulk imports are batched, writing each chunk with JDBC statement batches.
+ */
+@Slf4j
+@Service
+@Profile("jdbc")
+public class JdbcPlayerServiceImpl implements PlayerService {
+
+    private static final int MIN_GAMES_FOR_RANKING = 10;
+
+    private static final RowMapper<Player> PLAYER_MAPPER = (rs, rowNum) -> {
+        Player player = new Player();
+        player.setId(rs.getLong("id"));
+        player.setUsername(rs.getString("username"));
+        player.setEmail(rs.getString("email"));
+        player.setBalance(Money.of(rs.getBigDecimal("balance")));
+        player.setGamesPlayed(rs.getInt("games_played"));
+        player.setGamesWon(rs.getInt("games_won"));
+        player.setTotalWinnings(Money.of(rs.getBigDecimal("total_winnings")));
+        player.setGamesPlayedToday(rs.getInt("games_played_today"));
+        player.setGamesWonToday(rs.getInt("games_won_today"));
+        player.setLastLoginDate(toLocalDateTime(rs.getTimestamp("last_login_date")));
+        player.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        player.setUpdatedAt(toLocalDateTime(rs.getTimestamp("updated_at")));
+        return player;
+    };
+
+    private static final Set<String> PLAYER_COLUMNS = Set.of("id", "username", "email", "balance", "games_played",
+            "games_won", "total_winnings", "games_played_today", "games_won_today", "last_login_date",
+            "created_at", "updated_at");
+
+    // Reads whichever player columns the query selected
+    private static final RowMapper<Player> PARTIAL_PLAYER_MAPPER = (rs, rowNum) -> {
+        Player player = new Player();
+        ResultSetMetaData metaData = rs.getMetaData();
+        for (int column = 1; column <= metaData.getColumnCount(); column++) {
+            switch (metaData.getColumnLabel(column).toLowerCase(Locale.ROOT)) {
+                case "id" -> player.setId(rs.getLong(column));
+                case "username" -> player.setUsername(rs.getString(column));
+                case "email" -> player.setEmail(rs.getString(column));
+                case "balance" -> player.setBalance(Money.of(rs.getBigDecimal(column)));
+                case "games_played" -> player.setGamesPlayed(rs.getInt(column));
+                case "games_won" -> player.setGamesWon(rs.getInt(column));
+                case "total_winnings" -> player.setTotalWinnings(Money.of(rs.getBigDecimal(column)));
+                case "games_played_today" -> player.setGamesPlayedToday(rs.getInt(column));
+                case "games_won_today" -> player.setGamesWonToday(rs.getInt(column));
+                case "last_login_date" -> player.setLastLoginDate(toLocalDateTime(rs.getTimestamp(column)));
+                case "created_at" -> player.setCreatedAt(toLocalDateTime(rs.getTimestamp(column)));
+                case "updated_at" -> player.setUpdatedAt(toLocalDateTime(rs.getTimestamp(column)));
+                default -> { }
+            }
+        }
+        return player;
+    };
+
+    private static final RowMapper<PlayerStatistics> STATISTICS_MAPPER = (rs, rowNum) -> new PlayerStatistics(
+            rs.getLong("id"),
+            rs.getString("username"),
+            Money.of(rs.getBigDecimal("balance")),
+            rs.getInt("games_played"),
+            rs.getInt("games_won"),
+            Money.of(rs.getBigDecimal("total_winnings")),
+            rs.getInt("games_played_today"),
+            rs.getInt("games_won_today"),
+            rs.getTimestamp("updated_at").toLocalDateTime());
+
+    private static final RowMapper<LedgerEntry> LEDGER_MAPPER = (rs, rowNum) -> {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setId(rs.getLong("id"));
+        entry.setPlayerId(rs.getLong("player_id"));
+        entry.setGameId(rs.getString("game_id"));
+        entry.setEntryType(LedgerEntry.EntryType.valueOf(rs.getString("entry_type")));
+        entry.setAmount(Money.of(rs.getBigDecimal("amount")));
+        entry.setIdempotencyKey(rs.getString("idempotency_key"));
+        entry.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        return entry;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Scheduler jdbcScheduler;
+    private final Validator validator;
+    private final int importChunkSize;
+    // Holds funds the same way as the R2DBC store, seeded and reread through JDBC
+    private final BalanceReservations balanceReservations;
+
+    public JdbcPlayerServiceImpl(JdbcTemplate playersJdbcTemplate, TransactionTemplate playersTransactionTemplate,
+                                 Scheduler jdbcScheduler, Validator validator,
+                                 @Value("${blackjack.players.import.chunk-size:500}") int importChunkSize,
+                                 @Value("${blackjack.reservations.max-size:100000}") long reservationsMaxSize,
+                                 @Value("${blackjack.reservations.ttl:10m}") Duration reservationsTtl) {
+        this.jdbcTemplate = playersJdbcTemplate;
+        this.transactionTemplate = playersTransactionTemplate;
+        this.jdbcScheduler = jdbcScheduler;
+        this.validator = validator;
+        this.importChunkSize = importChunkSize;
+        this.balanceReservations = new BalanceReservations(id -> call(() -> {
+            List<BigDecimal> balance = jdbcTemplate.queryForList("SELECT balance FROM players WHERE id = ?", BigDecimal.class, id);
+            return balance.isEmpty() ? null : Money.of(balance.getFirst());
+        }), reservationsMaxSize, reservationsTtl);
+    }
+
+    @Override
+    public Mono<Player> createPlayer(Player player) {
+        log.info("Creating new player: {}", player);
+        return call(() -> insertPlayer(player))
+            .doOnSuccess(savedPlayer -> log.info("Successfully created player: {}", savedPlayer))
+            .doOnError(error -> log.error("Error creating player: {}", error.getMessage(), error));
+    }
+
+    // The player and its opening ledger entry are written in one transaction, so neither exists without the other
+    private Player insertPlayer(Player player) {
+        return transactionTemplate.execute(status -> {
+            if (exists("SELECT COUNT(*) FROM players WHERE username = ?", player.getUsername())) {
+                throw new PlayerAlreadyExistsException("username", player.getUsername());
+            }
+            if (exists("SELECT COUNT(*) FROM players WHERE email = ?", player.getEmail())) {
+                throw new PlayerAlreadyExistsException("email", player.getEmail());
+            }
+            LocalDateTime now = LocalDateTime.now();
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            try {
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            "INSERT INTO players (username, email, balance, created_at, updated_at) VALUES (?, ?, 0, ?, ?)",
+                            Statement.RETURN_GENERATED_KEYS);
+                    statement.setString(1, player.getUsername());
+                    statement.setString(2, player.getEmail());
+                    statement.setTimestamp(3, Timestamp.valueOf(now));
+                    statement.setTimestamp(4, Timestamp.valueOf(now));
+                    return statement;
+                }, keyHolder);
+            } catch (DuplicateKeyException error) {
+                // A concurrent signup took the username or email after the checks above
+                throw PlayerAlreadyExistsException.usernameOrEmail();
+            }
+            player.setId(keyHolder.getKey().longValue());
+            player.setCreatedAt(now);
+            player.setUpdatedAt(now);
+            applyEntry(new LedgerEntry(player.getId(), null, LedgerEntry.EntryType.OPENING, Player.OPENING_BALANCE,
+                    "player:" + player.getId() + ":OPENING"));
+            player.setBalance(Player.OPENING_BALANCE);
+            return player;
+        });
+    }
+
+    @Override
+    public Flux<PlayerImportResult> importPlayers(Flux<CreatePlayerRequest> requests) {
+        log.info("Importing players");
+        // Chunks are written with batched statements, one transaction and one virtual thread at a time
+        return requests.index()
+            .buffer(importChunkSize)
+            .concatMap(chunk -> stream(() -> importChunk(chunk)))
+            .doOnError(error -> log.error("Error importing players: {}", error.getMessage(), error));
+    }
+
+    @Override
+    public Mono<Player> getPlayerById(Long id) {
+        log.info("Fetching player by ID: {}", id);
+        return call(() -> findOne("SELECT * FROM players WHERE id = ?", id))
+            .doOnError(error -> log.error("Error fetching player by ID {}: {}", id, error.getMessage(), error));
+    }
+
+    @Override
+    public Mono<Player> getPlayerById(Long id, Collection<String> columns) {
+        log.info("Fetching columns {} of player: {}", columns, id);
+        if (!PLAYER_COLUMNS.containsAll(columns)) {
+            return Mono.error(new IllegalArgumentException("Unknown player columns: " + columns));
+        }
+        return call(() -> {
+            List<Player> players = jdbcTemplate.query("SELECT " + String.join(", ", columns) + " FROM players WHERE id = ?",
+                    PARTIAL_PLAYER_MAPPER, id);
+            return players.isEmpty() ? null : players.getFirst();
+        });
+    }
+
+    @Override
+    public Flux<Player> getPlayersByIds(List<Long> ids) {
+        log.info("Fetching {} players by ID", ids.size());
+        List<Long> distinct = ids.stream().distinct().toList();
+        if (distinct.isEmpty()) {
+            return Flux.empty();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(distinct.size(), "?"));
+        return call(() -> jdbcTemplate.query("SELECT * FROM players WHERE id IN (" + placeholders + ")",
+                    PLAYER_MAPPER, distinct.toArray()))
+            .flatMapMany(players -> {
+                Map<Long, Player> found = players.stream().collect(Collectors.toMap(Player::getId, player -> player));
+                return Flux.fromIterable(distinct).mapNotNull(found::get);
+            })
+            .doOnError(error -> log.error("Error fetching players by ID {}: {}", ids, error.getMessage(), error));
+    }
+
+    @Override
+    public Mono<Player> getPlayerByUsername(String username) {
+        log.info("Fetching player by username: {}", username);
+        return call(() -> findOne("SELECT * FROM players WHERE username = ?", username))
+            .doOnError(error -> log.error("Error fetching player by username {}: {}", username, error.getMessage(), error));
+    }
+
+    @Override
+    public Flux<PlayerSearchResult> searchPlayersByUsername(String prefix, int limit) {
+        log.debug("Searching usernames with prefix: {}", prefix);
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return stream(() -> jdbcTemplate.query(
+                "SELECT id, username FROM players WHERE username LIKE ? ORDER BY username LIMIT ?",
+                (rs, rowNum) -> new PlayerSearchResult(rs.getLong("id"), rs.getString("username")),
+                pattern, limit));
+    }
+
+    @Override
+    public Mono<Player> updatePlayer(Long id, Player player) {
+        log.info("Updating player {}: {}", id, player);
+        return call(() -> {
+            int updated = jdbcTemplate.update("UPDATE players SET username = ?, email = ?, updated_at = ? WHERE id = ?",
+                    player.getUsername(), player.getEmail(), Timestamp.valueOf(LocalDateTime.now()), id);
+            return updated == 0 ? null : findOne("SELECT * FROM players WHERE id = ?", id);
+        })
+            .onErrorMap(DuplicateKeyException.class, error -> PlayerAlreadyExistsException.usernameOrEmail())
+            .doOnSuccess(updatedPlayer -> log.info("Successfully updated player: {}", updatedPlayer))
+            .doOnError(error -> log.error("Error updating player {}: {}", id, error.getMessage(), error));
+    }
+
+    @Override
+    public Mono<Void> deletePlayer(Long id) {
+        log.info("Deleting player: {}", id);
+        return call(() -> jdbcTemplate.update("DELETE FROM players WHERE id = ?", id))
+            .then()
+            .doOnSuccess(v -> balanceReservations.invalidate(id))
+            .doOnSuccess(v -> log.info("Successfully deleted player: {}", id))
+            .doOnError(error -> log.error("Error deleting player {}: {}", id, error.getMessage(), error));
+    }
+
+    @Override
+    public Mono<Player> updateBalance(Long id, Money amount) {
+        log.info("Updating balance for player {}: {}", id, amount);
+        LedgerEntry entry = new LedgerEntry(id, null, LedgerEntry.EntryType.ADJUSTMENT, amount,
+                "adjustment:" + UUID.randomUUID());
+        return call(() -> {
+            applyEntry(entry);
+            return findOne("SELECT * FROM players WHERE id = ?", id);
+        })
+            .doOnSuccess(player -> balanceReservations.apply(id, amount))
+            .onErrorResume(PlayerNotFoundException.class, error -> Mono.empty())
+            .doOnError(error -> log.error("Error updating balance for player {}: {}", id, error.getMessage(), error));
+    }
+
+    @Override
+    public Mono<Boolean> recordGameTransaction(Long id, String gameId, LedgerEntry.EntryType type, Money amount) {
+        log.info("Recording {} of {} for player {} in game {}", type, amount, id, gameId);
+        return call(() -> applyEntry(LedgerEntry.forGame(id, gameId, type, amount)))
+            .doOnSuccess(applied -> {
+                if (applied) {
+                    balanceReservations.apply(id, amount);
+                } else {
+                    log.warn("Skipped duplicate {} for player {} in game {}", type, id, gameId);
+                }
+            })
+            .doOnError(error -> log.error("Error recording {} for player {} in game {}: {}", type, id, gameId, error.getMessage(), error));
+    }
+
+    @Override
+    public Mono<Boolean> reserveFunds(Long id, Money amount) {
+        log.debug("Holding {} for player {}", amount, id);
+        return balanceReservations.reserve(id, amount)
+            .doOnError(error -> log.error("Error holding funds for player {}: {}", id, error.getMessage(), error));
+    }
+
+    @Override
+    public Mono<Boolean> commitReservation(Long id, String gameId, LedgerEntry.EntryType type, Money amount) {
+        log.info("Committing {} of {} for player {} in game {}", type, amount, id, gameId);
+        return commit(LedgerEntry.forGame(id, gameId, type, amount.negate()), amount);
+    }
+
+    @Override
+    public Mono<Boolean> commitReservation(Long id, String gameId, LedgerEntry.EntryType type, int ordinal, Money amount) {
+        log.info("Committing {} #{} of {} for player {} in game {}", type, ordinal, amount, id, gameId);
+        return commit(LedgerEntry.forGame(id, gameId, type, ordinal, amount.negate()), amount);
+    }
+
+    @Override
+    public Mono<Void> releaseReservation(Long id, Money amount) {
+        log.debug("Releasing {} held for player {}", amount, id);
+        return Mono.fromRunnable(() -> balanceReservations.release(id, amount));
+    }
+
+    @Override
+    public Mono<PlayerStatistics> getPlayerStatistics(Long id) {
+        log.info("Fetching statistics for player: {}", id);
+        return call(() -> {
+            List<PlayerStatistics> statistics = jdbcTemplate.query("SELECT id, username, balance, games_played, "
+                    + "games_won, total_winnings, games_played_today, games_won_today, updated_at FROM players WHERE id = ?",
+                    STATISTICS_MAPPER, id);
+            return statistics.isEmpty() ? null : statistics.getFirst();
+        });
+    }
+
+    @Override
+    public Mono<LocalDateTime> getPlayerUpdatedAt(Long id) {
+        return call(() -> {
+            List<Timestamp> updatedAt = jdbcTemplate.queryForList("SELECT updated_at FROM players WHERE id = ?",
+                    Timestamp.class, id);
+            return updatedAt.isEmpty() ? null : updatedAt.getFirst().toLocalDateTime();
+        });
+    }
+
+    @Override
+    public Flux<LedgerEntry> getLedgerHistory(Long id) {
+        log.info("Streaming ledger history for player: {}", id);
+        return stream(() -> jdbcTemplate.query(
+                "SELECT * FROM balance_ledger WHERE player_id = ? ORDER BY id", LEDGER_MAPPER, id));
+    }
+
+    @Override
+    public Mono<Void> updateStatistics(Long id, boolean won, Money amount) {
+        log.info("Updating statistics for player {}: won={}, amount={}", id, won, amount);
+        int wins = won ? 1 : 0;
+        BigDecimal winnings = won ? amount.toBigDecimal() : BigDecimal.ZERO;
+        return call(() -> jdbcTemplate.update("UPDATE players SET games_played = games_played + 1, "
+                        + "games_won = games_won + ?, games_played_today = games_played_today + 1, "
+                        + "games_won_today = games_won_today + ?, total_winnings = total_winnings + ?, "
+                        + "updated_at = ? WHERE id = ?",
+                wins, wins, winnings, Timestamp.valueOf(LocalDateTime.now()), id))
+            .then()
+            .doOnError(error -> log.error("Error updating statistics for player {}: {}", id, error.getMessage(), error));
+    }
+
+    @Override
+    public Flux<Player> getTopPlayers(int limit) {
+        log.info("Fetching top {} players", limit);
+        return stream(() -> jdbcTemplate.query("SELECT * FROM players WHERE games_played >= ? "
+                + "ORDER BY games_won / games_played DESC, id ASC LIMIT ?", PLAYER_MAPPER, MIN_GAMES_FOR_RANKING, limit));
+    }
+
+    @Override
+    public Flux<Player> getPlayersWithBalanceAbove(BigDecimal threshold, int limit, BigDecimal afterBalance, Long afterId) {
+        log.info("Fetching up to {} players with balance above {} after ({}, {})", limit, threshold, afterBalance, afterId);
+        if (afterBalance != null && afterId != null) {
+            return stream(() -> jdbcTemplate.query("SELECT * FROM players WHERE balance >= ? "
+                            + "AND (balance < ? OR (balance = ? AND id < ?)) ORDER BY balance DESC, id DESC LIMIT ?",
+                    PLAYER_MAPPER, threshold, afterBalance, afterBalance, afterId, limit));
+        }
+        return stream(() -> jdbcTemplate.query("SELECT * FROM players WHERE balance >= ? ORDER BY balance DESC, id DESC LIMIT ?",
+                PLAYER_MAPPER, threshold, limit));
+    }
+
+    @Override
+    public Flux<Player> getAllPlayers() {
+        log.info("Fetching all players");
+        return stream(() -> jdbcTemplate.query("SELECT * FROM players", PLAYER_MAPPER));
+    }
+
+    @Override
+    public Mono<Integer> resetDailyStatistics() {
+        log.info("Resetting daily statistics for all players");
+        return call(() -> jdbcTemplate.update("UPDATE players SET games_played_today = 0, games_won_today = 0, updated_at = ?",
+                Timestamp.valueOf(LocalDateTime.now())))
+            .doOnSuccess(count -> log.info("Successfully reset daily statistics for {} players", count))
+            .doOnError(error -> log.error("Error resetting daily statistics: {}", error.getMessage(), error));
+    }
+
+    /**
+     * Apply one ledger entry in its own transaction, at most once per idempotency key.
+     * Locking the player row serialises entries per player, which also makes the
+     * duplicate check safe because a key always belongs to one player.
+     */
+    private Mono<Boolean> commit(LedgerEntry debit, Money amount) {
+        Long id = debit.getPlayerId();
+        return call(() -> applyEntry(debit))
+            .doOnSuccess(applied -> {
+                if (applied) {
+                    balanceReservations.commit(id, amount);
+                } else {
+                    log.warn("Skipped duplicate {} for player {} in game {}", debit.getEntryType(), id, debit.getGameId());
+                    balanceReservations.release(id, amount);
+                }
+            })
+            // The ledger disagreed with the in-memory balance, so resync it from the database
+            .doOnError(error -> balanceReservations.release(id, amount))
+            .doOnError(error -> balanceReservations.markStale(id))
+            .doOnError(error -> log.error("Error committing {} for player {} in game {}: {}", debit.getEntryType(), id, debit.getGameId(), error.getMessage(), error));
+    }
+
+    private boolean applyEntry(LedgerEntry entry) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            List<BigDecimal> balance = jdbcTemplate.queryForList(
+                    "SELECT balance FROM players WHERE id = ? FOR UPDATE", BigDecimal.class, entry.getPlayerId());
+            if (balance.isEmpty()) {
+                throw new PlayerNotFoundException(entry.getPlayerId());
+            }
+            if (exists("SELECT COUNT(*) FROM balance_ledger WHERE idempotency_key = ?", entry.getIdempotencyKey())) {
+                return false;
+            }
+            Money updated = Money.of(balance.getFirst()).plus(entry.getAmount());
+            if (updated.isNegative()) {
+                throw new IllegalStateException("Insufficient funds");
+            }
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.update("INSERT INTO balance_ledger (player_id, game_id, entry_type, amount, idempotency_key, created_at) "
+                            + "VALUES (?, ?, ?, ?, ?, ?)",
+                    entry.getPlayerId(), entry.getGameId(), entry.getEntryType().name(), entry.getAmount().toBigDecimal(),
+                    entry.getIdempotencyKey(), Timestamp.valueOf(entry.getCreatedAt() != null ? entry.getCreatedAt() : now));
+            jdbcTemplate.update("UPDATE players SET balance = ?, updated_at = ? WHERE id = ?",
+                    updated.toBigDecimal(), Timestamp.valueOf(now), entry.getPlayerId());
+            return true;
+        }));
+    }
+
+    private Player findOne(String sql, Object arg) {
+        List<Player> players = jdbcTemplate.query(sql, PLAYER_MAPPER, arg);
+        return players.isEmpty() ? null : players.getFirst();
+    }
+
+    private boolean exists(String sql, Object arg) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, arg);
+        return count != null && count > 0;
+    }
+
+    private List<PlayerImportResult> importChunk(List<Tuple2<Long, CreatePlayerRequest>> chunk) {
+        PlayerImportResult[] results = new PlayerImportResult[chunk.size()];
+        List<Integer> candidates = new ArrayList<>(chunk.size());
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            long row = chunk.get(i).getT1() + 1;
+            CreatePlayerRequest request = chunk.get(i).getT2();
+            Set<ConstraintViolation<CreatePlayerRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                String message = violations.stream().map(ConstraintViolation::getMessage).sorted()
+                        .collect(Collectors.joining("; "));
+                results[i] = PlayerImportResult.rejected(row, request.getUsername(), request.getEmail(),
+                        PlayerImportResult.Status.INVALID, message);
+            } else if (!usernames.add(key(request.getUsername()))) {
+                results[i] = duplicate(row, request, "Username repeats an earlier row");
+            } else if (!emails.add(key(request.getEmail()))) {
+                results[i] = duplicate(row, request, "Email repeats an earlier row");
+            } else {
+                candidates.add(i);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return List.of(results);
+        }
+
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        jdbcTemplate.query("SELECT username, email FROM players WHERE username IN (" + placeholders(usernames.size())
+                        + ") OR email IN (" + placeholders(emails.size()) + ")",
+                rs -> {
+                    takenUsernames.add(key(rs.getString("username")));
+                    takenEmails.add(key(rs.getString("email")));
+                },
+                Stream.concat(usernames.stream(), emails.stream()).toArray());
+        List<Integer> toInsert = new ArrayList<>(candidates.size());
+        for (int i : candidates) {
+            long row = chunk.get(i).getT1() + 1;
+            CreatePlayerRequest request = chunk.get(i).getT2();
+            if (takenUsernames.contains(key(request.getUsername()))) {
+                results[i] = duplicate(row, request, "Username is already taken");
+            } else if (takenEmails.contains(key(request.getEmail()))) {
+                results[i] = duplicate(row, request, "Email is already registered");
+            } else {
+                toInsert.add(i);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return List.of(results);
+        }
+
+        List<CreatePlayerRequest> requests = toInsert.stream().map(i -> chunk.get(i).getT2()).toList();
+        try {
+            Map<String, Long> ids = transactionTemplate.execute(status -> insertPlayers(requests));
+            for (int i : toInsert) {
+                CreatePlayerRequest request = chunk.get(i).getT2();
+                results[i] = PlayerImportResult.created(chunk.get(i).getT1() + 1, request.getUsername(), request.getEmail(),
+                        ids.get(key(request.getUsername())));
+            }
+        } catch (DataIntegrityViolationException error) {
+            // A concurrent signup took a value; retry row by row so only the conflicting rows are reported
+            log.debug("Chunk of {} rows hit a unique constraint, retrying row by row", toInsert.size());
+            for (int i : toInsert) {
+                long row = chunk.get(i).getT1() + 1;
+                CreatePlayerRequest request = chunk.get(i).getT2();
+                try {
+                    Player player = insertPlayer(new Player(request.getUsername(), request.getEmail()));
+                    results[i] = PlayerImportResult.created(row, player.getUsername(), player.getEmail(), player.getId());
+                } catch (PlayerAlreadyExistsException rowError) {
+                    results[i] = duplicate(row, request, rowError.getMessage());
+                } catch (DataIntegrityViolationException rowError) {
+                    results[i] = duplicate(row, request, "Username or email is already taken");
+                }
+            }
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Insert players with their opening balance and ledger entries as two statement batches
+     * @return player IDs keyed by lower-cased username
+     */
+    private Map<String, Long> insertPlayers(List<CreatePlayerRequest> requests) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        BigDecimal openingBalance = Player.OPENING_BALANCE.toBigDecimal();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO players (username, email, balance, created_at, updated_at) VALUES (?, ?, ?, ?, ?)",
+                requests.stream()
+                        .map(request -> new Object[] {request.getUsername(), request.getEmail(), openingBalance, now, now})
+                        .toList());
+
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id, username FROM players WHERE username IN (" + placeholders(requests.size()) + ")",
+                rs -> {
+                    ids.put(key(rs.getString("username")), rs.getLong("id"));
+                },
+                requests.stream().map(CreatePlayerRequest::getUsername).toArray());
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO balance_ledger (player_id, game_id, entry_type, amount, idempotency_key, created_at) "
+                        + "VALUES (?, NULL, ?, ?, ?, ?)",
+                ids.values().stream()
+                        .map(id -> new Object[] {id, LedgerEntry.EntryType.OPENING.name(), openingBalance,
+                                "player:" + id + ":OPENING", now})
+                        .toList());
+        return ids;
+    }
+
+    private static PlayerImportResult duplicate(long row, CreatePlayerRequest request, String message) {
+        return PlayerImportResult.rejected(row, request.getUsername(), request.getEmail(),
+                PlayerImportResult.Status.DUPLICATE, message);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    // Unique columns use a case-insensitive collation
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    // A null result completes the Mono empty, matching the reactive repositories
+    private <T> Mono<T> call(Callable<T> query) {
+        return Mono.fromCallable(query).subscribeOn(jdbcScheduler);
+    }
+
+    private <T> Flux<T> stream(Callable<List<T>> query) {
+        return call(query).flatMapMany(Flux::fromIterable);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
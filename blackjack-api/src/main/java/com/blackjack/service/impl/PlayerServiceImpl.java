@@ -1,25 +1,78 @@
 package com.blackjack.service.impl;
 
+import com.blackjack.dto.CreatePlayerRequest;
+import com.blackjack.dto.PlayerImportResult;
+import com.blackjack.dto.PlayerSearchResult;
+import com.blackjack.exception.PlayerAlreadyExistsException;
+import com.blackjack.exception.PlayerNotFoundException;
+import com.blackjack.model.LedgerEntry;
+import com.blackjack.model.Money;
 import com.blackjack.model.Player;
+import com.blackjack.repository.LedgerRepository;
 import com.blackjack.repository.PlayerRepository;
+import com.blackjack.repository.projection.PlayerStatistics;
 import com.blackjack.service.PlayerService;
+import com.blackjack.service.support.BalanceLedger;
+import com.blackjack.service.support.BalanceReservations;
+import com.blackjack.service.support.PlayerBatchLoader;
+import com.blackjack.service.support.PlayerCache;
+import com.blackjack.service.support.PlayerExistenceFilter;
+import com.blackjack.service.support.PlayerImporter;
+import com.blackjack.service.support.StatisticsBatcher;
+import com.blackjack.service.support.UsernameIndex;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 @Slf4j
 @Service
+@Profile("!jdbc")
 public class PlayerServiceImpl implements PlayerService {
 
     private final PlayerRepository playerRepository;
+    private final PlayerCache playerCache;
+    private final PlayerBatchLoader playerBatchLoader;
+    private final LedgerRepository ledgerRepository;
+    private final BalanceLedger balanceLedger;
+    private final UsernameIndex usernameIndex;
+    private final PlayerExistenceFilter existenceFilter;
+    private final StatisticsBatcher statisticsBatcher;
+    private final BalanceReservations balanceReservations;
+    private final PlayerImporter playerImporter;
+    private final TransactionalOperator transactionalOperator;
+
+    private static final int MIN_GAMES_FOR_RANKING = 10;
 
     @Autowired
-    public PlayerServiceImpl(PlayerRepository playerRepository) {
+    public PlayerServiceImpl(PlayerRepository playerRepository, PlayerCache playerCache,
+                             PlayerBatchLoader playerBatchLoader, LedgerRepository ledgerRepository,
+                             BalanceLedger balanceLedger, UsernameIndex usernameIndex,
+                             PlayerExistenceFilter existenceFilter, StatisticsBatcher statisticsBatcher,
+                             BalanceReservations balanceReservations, PlayerImporter playerImporter,
+                             TransactionalOperator transactionalOperator) {
         this.playerRepository = playerRepository;
+        this.playerCache = playerCache;
+        this.playerBatchLoader = playerBatchLoader;
+        this.ledgerRepository = ledgerRepository;
+        this.balanceLedger = balanceLedger;
+        this.usernameIndex = usernameIndex;
+        this.existenceFilter = existenceFilter;
+        this.statisticsBatcher = statisticsBatcher;
+        this.balanceReservations = balanceReservations;
+        this.playerImporter = playerImporter;
+        this.transactionalOperator = transactionalOperator;
     }
 
     @Override
@@ -27,16 +80,47 @@ public class PlayerServiceImpl implements PlayerService {
         log.info("Creating new player: {}", player);
         player.setCreatedAt(LocalDateTime.now());
         player.setUpdatedAt(LocalDateTime.now());
-        player.setBalance(BigDecimal.valueOf(100)); // Starting balance
-        return playerRepository.save(player)
+        player.setBalance(Player.OPENING_BALANCE);
+        // The player and its opening ledger entry are written in one transaction, so neither exists without the other
+        Mono<Player> create = Mono.defer(() -> playerRepository.save(player))
+            // A concurrent signup took the username or email after the uniqueness check
+            .onErrorMap(DuplicateKeyException.class, error -> PlayerAlreadyExistsException.usernameOrEmail())
+            .flatMap(savedPlayer -> ledgerRepository.save(new LedgerEntry(savedPlayer.getId(), null,
+                            LedgerEntry.EntryType.OPENING, Player.OPENING_BALANCE, "player:" + savedPlayer.getId() + ":OPENING"))
+                .thenReturn(savedPlayer));
+        return ensureUnique(player)
+            .then(transactionalOperator.transactional(create))
+            .doOnSuccess(playerCache::invalidate)
+            .doOnSuccess(usernameIndex::put)
+            .doOnSuccess(existenceFilter::add)
             .doOnSuccess(savedPlayer -> log.info("Successfully created player: {}", savedPlayer))
             .doOnError(error -> log.error("Error creating player: {}", error.getMessage(), error));
     }
 
+    @Override
+    public Flux<PlayerImportResult> importPlayers(Flux<CreatePlayerRequest> requests) {
+        log.info("Importing players");
+        return playerImporter.importPlayers(requests)
+            .doOnNext(result -> {
+                if (result.getStatus() == PlayerImportResult.Status.CREATED) {
+                    Player player = new Player(result.getUsername(), result.getEmail());
+                    player.setId(result.getPlayerId());
+                    playerCache.invalidate(player);
+                    usernameIndex.put(player);
+                    existenceFilter.add(player);
+                }
+            })
+            .doOnError(error -> log.error("Error importing players: {}", error.getMessage(), error));
+    }
+
     @Override
     public Mono<Player> getPlayerById(Long id) {
         log.info("Fetching player by ID: {}", id);
-        return playerRepository.findById(id)
+        if (existenceFilter.isDefinitelyAbsent(id)) {
+            log.warn("Player not found with ID: {}", id);
+            return Mono.empty();
+        }
+        return playerCache.getById(id, playerBatchLoader::load)
             .doOnSuccess(player -> log.info("Found player: {}", player))
             .doOnError(error -> log.error("Error fetching player by ID {}: {}", id, error.getMessage(), error))
             .switchIfEmpty(Mono.<Player>empty().doOnSubscribe(subscription -> {
@@ -44,10 +128,25 @@ public class PlayerServiceImpl implements PlayerService {
             }));
     }
 
+    @Override
+    public Flux<Player> getPlayersByIds(List<Long> ids) {
+        log.info("Fetching {} players by ID", ids.size());
+        Set<Long> candidates = new LinkedHashSet<>();
+        ids.stream().filter(id -> !existenceFilter.isDefinitelyAbsent(id)).forEach(candidates::add);
+        if (candidates.isEmpty()) {
+            return Flux.empty();
+        }
+        // Cached players are served from memory; the rest are read with one IN query
+        return playerCache.getAllById(candidates, missing -> playerRepository.findAllById(missing)
+                        .collectMap(Player::getId))
+            .flatMapMany(found -> Flux.fromIterable(candidates).mapNotNull(found::get))
+            .doOnError(error -> log.error("Error fetching players by ID {}: {}", ids, error.getMessage(), error));
+    }
+
     @Override
     public Mono<Player> getPlayerByUsername(String username) {
         log.info("Fetching player by username: {}", username);
-        return playerRepository.findByUsername(username)
+        return playerCache.getByUsername(username, playerRepository::findByUsername)
             .doOnSuccess(player -> log.info("Found player: {}", player))
             .doOnError(error -> log.error("Error fetching player by username {}: {}", username, error.getMessage(), error))
             .switchIfEmpty(Mono.<Player>empty().doOnSubscribe(subscription -> {
@@ -55,16 +154,27 @@ public class PlayerServiceImpl implements PlayerService {
             }));
     }
 
+    @Override
+    public Flux<PlayerSearchResult> searchPlayersByUsername(String prefix, int limit) {
+        log.debug("Searching usernames with prefix: {}", prefix);
+        return Flux.defer(() -> Flux.fromIterable(usernameIndex.search(prefix, limit)));
+    }
+
     @Override
     public Mono<Player> updatePlayer(Long id, Player player) {
         log.info("Updating player {}: {}", id, player);
         return playerRepository.findById(id)
             .flatMap(existingPlayer -> {
+                playerCache.invalidate(existingPlayer);
                 existingPlayer.setUsername(player.getUsername());
                 existingPlayer.setEmail(player.getEmail());
                 existingPlayer.setUpdatedAt(LocalDateTime.now());
-                return playerRepository.save(existingPlayer);
+                return playerRepository.save(existingPlayer)
+                    .onErrorMap(DuplicateKeyException.class, error -> PlayerAlreadyExistsException.usernameOrEmail());
             })
+            .doOnSuccess(playerCache::invalidate)
+            .doOnSuccess(usernameIndex::put)
+            .doOnSuccess(existenceFilter::add)
             .doOnSuccess(updatedPlayer -> log.info("Successfully updated player: {}", updatedPlayer))
             .doOnError(error -> log.error("Error updating player {}: {}", id, error.getMessage(), error));
     }
@@ -73,54 +183,128 @@ public class PlayerServiceImpl implements PlayerService {
     public Mono<Void> deletePlayer(Long id) {
         log.info("Deleting player: {}", id);
         return playerRepository.deleteById(id)
+            .doOnSuccess(v -> playerCache.invalidate(id))
+            .doOnSuccess(v -> usernameIndex.remove(id))
+            .doOnSuccess(v -> existenceFilter.remove(id))
+            .doOnSuccess(v -> balanceReservations.invalidate(id))
             .doOnSuccess(v -> log.info("Successfully deleted player: {}", id))
             .doOnError(error -> log.error("Error deleting player {}: {}", id, error.getMessage(), error));
     }
 
     @Override
-    public Mono<Player> updateBalance(Long id, BigDecimal amount) {
+    public Mono<Player> updateBalance(Long id, Money amount) {
         log.info("Updating balance for player {}: {}", id, amount);
-        return playerRepository.findById(id)
-            .flatMap(player -> {
-                try {
-                    player.updateBalance(amount);
-                    return playerRepository.save(player);
-                } catch (IllegalArgumentException e) {
-                    log.error("Insufficient funds for player {}: {}", id, e.getMessage());
-                    return Mono.error(new IllegalStateException("Insufficient funds"));
+        LedgerEntry entry = new LedgerEntry(id, null, LedgerEntry.EntryType.ADJUSTMENT, amount,
+                "adjustment:" + UUID.randomUUID());
+        return balanceLedger.append(entry)
+            .doOnSuccess(applied -> playerCache.invalidate(id))
+            .doOnSuccess(applied -> balanceReservations.apply(id, amount))
+            .then(Mono.defer(() -> playerRepository.findById(id)))
+            .onErrorResume(PlayerNotFoundException.class, error -> Mono.empty())
+            .doOnSuccess(player -> log.info("Successfully updated balance for player {}", id))
+            .doOnError(error -> log.error("Error updating balance for player {}: {}", id, error.getMessage(), error));
+    }
+
+    @Override
+    public Mono<Boolean> recordGameTransaction(Long id, String gameId, LedgerEntry.EntryType type, Money amount) {
+        log.info("Recording {} of {} for player {} in game {}", type, amount, id, gameId);
+        return balanceLedger.append(LedgerEntry.forGame(id, gameId, type, amount))
+            .doOnSuccess(applied -> playerCache.invalidate(id))
+            .doOnSuccess(applied -> {
+                if (applied) {
+                    balanceReservations.apply(id, amount);
+                } else {
+                    log.warn("Skipped duplicate {} for player {} in game {}", type, id, gameId);
                 }
             })
-            .doOnSuccess(player -> log.info("Successfully updated balance for player {}: {}", id, player.getBalance()))
-            .doOnError(error -> log.error("Error updating balance for player {}: {}", id, error.getMessage(), error));
+            .doOnError(error -> log.error("Error recording {} for player {} in game {}: {}", type, id, gameId, error.getMessage(), error));
+    }
+
+    @Override
+    public Mono<Boolean> reserveFunds(Long id, Money amount) {
+        log.debug("Holding {} for player {}", amount, id);
+        if (existenceFilter.isDefinitelyAbsent(id)) {
+            return Mono.empty();
+        }
+        return balanceReservations.reserve(id, amount)
+            .doOnError(error -> log.error("Error holding funds for player {}: {}", id, error.getMessage(), error));
     }
 
     @Override
-    public Mono<Player> updateStatistics(Long id, boolean won, BigDecimal amount) {
+    public Mono<Boolean> commitReservation(Long id, String gameId, LedgerEntry.EntryType type, Money amount) {
+        log.info("Committing {} of {} for player {} in game {}", type, amount, id, gameId);
+        return commit(LedgerEntry.forGame(id, gameId, type, amount.negate()), amount);
+    }
+
+    @Override
+    public Mono<Boolean> commitReservation(Long id, String gameId, LedgerEntry.EntryType type, int ordinal, Money amount) {
+        log.info("Committing {} #{} of {} for player {} in game {}", type, ordinal, amount, id, gameId);
+        return commit(LedgerEntry.forGame(id, gameId, type, ordinal, amount.negate()), amount);
+    }
+
+    @Override
+    public Mono<Void> releaseReservation(Long id, Money amount) {
+        log.debug("Releasing {} held for player {}", amount, id);
+        return Mono.fromRunnable(() -> balanceReservations.release(id, amount));
+    }
+
+    @Override
+    public Mono<PlayerStatistics> getPlayerStatistics(Long id) {
+        log.info("Fetching statistics for player: {}", id);
+        if (existenceFilter.isDefinitelyAbsent(id)) {
+            return Mono.empty();
+        }
+        return playerRepository.findStatisticsById(id)
+            .doOnError(error -> log.error("Error fetching statistics for player {}: {}", id, error.getMessage(), error));
+    }
+
+    @Override
+    public Mono<LocalDateTime> getPlayerUpdatedAt(Long id) {
+        if (existenceFilter.isDefinitelyAbsent(id)) {
+            return Mono.empty();
+        }
+        return playerRepository.findUpdatedAtById(id);
+    }
+
+    @Override
+    public Mono<Player> getPlayerById(Long id, Collection<String> columns) {
+        if (existenceFilter.isDefinitelyAbsent(id)) {
+            return Mono.empty();
+        }
+        return playerRepository.findByIdWithColumns(id, columns);
+    }
+
+    @Override
+    public Flux<LedgerEntry> getLedgerHistory(Long id) {
+        log.info("Streaming ledger history for player: {}", id);
+        return ledgerRepository.findByPlayerIdOrderByIdAsc(id)
+            .doOnError(error -> log.error("Error streaming ledger for player {}: {}", id, error.getMessage(), error));
+    }
+
+    @Override
+    public Mono<Void> updateStatistics(Long id, boolean won, Money amount) {
         log.info("Updating statistics for player {}: won={}, amount={}", id, won, amount);
-        return playerRepository.findById(id)
-            .flatMap(player -> {
-                player.updateStatistics(won, amount);
-                return playerRepository.save(player);
-            })
-            .doOnSuccess(player -> log.info("Successfully updated statistics for player: {}", player))
+        return statisticsBatcher.record(id, won, amount)
+            .doOnSuccess(v -> playerCache.invalidate(id))
+            .doOnSuccess(v -> log.info("Successfully updated statistics for player: {}", id))
             .doOnError(error -> log.error("Error updating statistics for player {}: {}", id, error.getMessage(), error));
     }
 
     @Override
     public Flux<Player> getTopPlayers(int limit) {
         log.info("Fetching top {} players", limit);
-        return playerRepository.findAll()
-            .filter(player -> player.getGamesPlayed() >= 10)
-            .sort((p1, p2) -> Double.compare(p2.getWinRate(), p1.getWinRate()))
-            .take(limit)
+        return playerRepository.findTopPlayersByWinRate(MIN_GAMES_FOR_RANKING, limit)
             .doOnComplete(() -> log.info("Successfully fetched top players"))
             .doOnError(error -> log.error("Error fetching top players: {}", error.getMessage(), error));
     }
 
     @Override
-    public Flux<Player> getPlayersWithBalanceAbove(BigDecimal threshold) {
-        log.info("Fetching players with balance above: {}", threshold);
-        return playerRepository.findPlayersByBalanceRange(threshold, new BigDecimal("999999999.99"))
+    public Flux<Player> getPlayersWithBalanceAbove(BigDecimal threshold, int limit, BigDecimal afterBalance, Long afterId) {
+        log.info("Fetching up to {} players with balance above {} after ({}, {})", limit, threshold, afterBalance, afterId);
+        Flux<Player> page = afterBalance != null && afterId != null
+            ? playerRepository.findPlayersWithBalanceAtLeastAfter(threshold, afterBalance, afterId, limit)
+            : playerRepository.findPlayersWithBalanceAtLeast(threshold, limit);
+        return page
             .doOnComplete(() -> log.info("Successfully fetched players with balance above {}", threshold))
             .doOnError(error -> log.error("Error fetching players with balance above {}: {}", threshold, error.getMessage(), error));
     }
@@ -143,7 +327,43 @@ public class PlayerServiceImpl implements PlayerService {
             })
             .count()
             .map(Long::intValue)
+            .doOnTerminate(playerCache::invalidateAll)
             .doOnSuccess(count -> log.info("Successfully reset daily statistics for {} players", count))
             .doOnError(error -> log.error("Error resetting daily statistics: {}", error.getMessage(), error));
     }
-} 
\ No newline at end of file
+
+    private Mono<Boolean> commit(LedgerEntry debit, Money amount) {
+        Long id = debit.getPlayerId();
+        return balanceLedger.append(debit)
+            .doOnSuccess(applied -> playerCache.invalidate(id))
+            .doOnSuccess(applied -> {
+                if (applied) {
+                    balanceReservations.commit(id, amount);
+                } else {
+                    log.warn("Skipped duplicate {} for player {} in game {}", debit.getEntryType(), id, debit.getGameId());
+                    balanceReservations.release(id, amount);
+                }
+            })
+            // The ledger disagreed with the in-memory balance, so resync it from the database
+            .doOnError(error -> balanceReservations.release(id, amount))
+            .doOnError(error -> balanceReservations.markStale(id))
+            .doOnError(error -> log.error("Error committing {} for player {} in game {}: {}", debit.getEntryType(), id, debit.getGameId(), error.getMessage(), error));
+    }
+
+    // Only values the filter has possibly seen need a database check; the unique constraints back this up
+    private Mono<Void> ensureUnique(Player player) {
+        Mono<Boolean> usernameTaken = existenceFilter.mightContainUsername(player.getUsername())
+            ? playerRepository.existsByUsername(player.getUsername())
+            : Mono.just(false);
+        Mono<Boolean> emailTaken = existenceFilter.mightContainEmail(player.getEmail())
+            ? playerRepository.existsByEmail(player.getEmail())
+            : Mono.just(false);
+        return usernameTaken
+            .flatMap(taken -> taken
+                ? Mono.<Boolean>error(new PlayerAlreadyExistsException("username", player.getUsername()))
+                : emailTaken)
+            .flatMap(taken -> taken
+                ? Mono.<Void>error(new PlayerAlreadyExistsException("email", player.getEmail()))
+                : Mono.<Void>empty());
+    }
+}
@@ -0,0 +1,51 @@
+package com.blackjack.service.support;
+
+import com.blackjack.repository.GameRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * One-off backfill of the indexed action signature for games stored before
+ * it existed. The action searches only look at the indexed fields, so until
+ * this has run they do not find those games. Runs in batches once the
+ * application is ready; once every game has the fields it costs one query.
+ */
+@Slf4j
+@Component
+public class ActionSignatureBackfill {
+
+    private final GameRepository gameRepository;
+    private final int batchSize;
+
+    public ActionSignatureBackfill(GameRepository gameRepository,
+                                   @Value("${blackjack.action-signature.backfill-batch-size:500}") int batchSize) {
+        this.gameRepository = gameRepository;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Backfill every game missing its action signature
+     * @return number of games backfilled
+     */
+    public Mono<Long> run() {
+        return Mono.defer(() -> gameRepository.backfillActionSignatures(batchSize))
+                .repeat()
+                .takeUntil(updated -> updated < batchSize)
+                .reduce(0L, Long::sum)
+                .doOnSuccess(count -> {
+                    if (count > 0) {
+                        log.info("Backfilled action signatures of {} games", count);
+                    }
+                })
+                .doOnError(error -> log.error("Error backfilling action signatures: {}", error.getMessage(), error));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        run().subscribe(count -> { }, error -> { });
+    }
+}
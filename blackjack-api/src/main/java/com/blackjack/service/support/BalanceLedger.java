@@ -0,0 +1,204 @@
+package com.blackjack.service.support;
+
+import com.blackjack.exception.PlayerNotFoundException;
+import com.blackjack.model.LedgerEntry;
+import com.blackjack.model.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Batched writer for the append-only balance ledger.
+ * Entries submitted within a short window are applied in one transaction:
+ * the affected players are locked, entries whose idempotency key was already
+ * recorded are skipped, the rest are inserted with a single multi-row INSERT,
+ * and each affected player's running balance in {@code players.balance} is
+ * rewritten once with the batch's net change.
+ */
+@Slf4j
+@Component
+public class BalanceLedger {
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final MicroBatcher<PendingEntry> batcher;
+
+    public BalanceLedger(
+            DatabaseClient databaseClient,
+            TransactionalOperator transactionalOperator,
+            @Value("${blackjack.ledger.batch.window:5ms}") Duration window,
+            @Value("${blackjack.ledger.batch.max-size:200}") int maxBatchSize) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.batcher = new MicroBatcher<>(window, maxBatchSize, this::dispatch);
+    }
+
+    /**
+     * Append an entry and apply it to the player's balance, at most once per idempotency key
+     * @param entry ledger entry to append
+     * @return true if the entry was applied, false if its key had already been applied
+     */
+    public Mono<Boolean> append(LedgerEntry entry) {
+        return Mono.defer(() -> {
+            Sinks.One<Boolean> sink = Sinks.one();
+            batcher.submit(new PendingEntry(entry, sink));
+            return sink.asMono();
+        });
+    }
+
+    private void dispatch(List<PendingEntry> batch) {
+        log.debug("Applying {} ledger entries in one batch", batch.size());
+        transactionalOperator.transactional(applyBatch(batch))
+                .subscribe(
+                        outcomes -> batch.forEach(pending -> outcomes.get(pending).resolve(pending.sink())),
+                        error -> {
+                            if (error instanceof DataIntegrityViolationException && batch.size() > 1) {
+                                // A key written outside the locks (such as an opening entry) collided;
+                                // apply entries one by one so only the conflicting one fails
+                                log.warn("Ledger batch of {} hit a unique constraint, retrying entry by entry", batch.size());
+                                batch.forEach(pending -> dispatch(List.of(pending)));
+                                return;
+                            }
+                            log.error("Error applying ledger batch: {}", error.getMessage(), error);
+                            batch.forEach(pending -> pending.sink().tryEmitError(error));
+                        });
+    }
+
+    private Mono<Map<PendingEntry, Outcome>> applyBatch(List<PendingEntry> batch) {
+        List<String> keys = batch.stream().map(pending -> pending.entry().getIdempotencyKey()).distinct().toList();
+        List<Long> playerIds = batch.stream().map(pending -> pending.entry().getPlayerId()).distinct().toList();
+
+        Mono<Map<Long, Money>> balances = databaseClient
+                .sql("SELECT id, balance FROM players WHERE id IN (:ids) FOR UPDATE")
+                .bind("ids", playerIds)
+                .map(row -> Map.entry(row.get("id", Long.class), Money.of(row.get("balance", BigDecimal.class))))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+
+        // Read only once the players are locked: every writer of a player's entries takes that lock
+        // first, so no entry for these players can be inserted between this check and the insert
+        Mono<Set<String>> existingKeys = databaseClient
+                .sql("SELECT idempotency_key FROM balance_ledger WHERE idempotency_key IN (:keys)")
+                .bind("keys", keys)
+                .map(row -> row.get("idempotency_key", String.class))
+                .all()
+                .collect(HashSet::new, Set::add);
+
+        return balances
+                .zipWhen(locked -> existingKeys)
+                .flatMap(state -> {
+                    Set<String> seenKeys = new HashSet<>(state.getT2());
+                    Map<Long, Money> runningBalances = new HashMap<>(state.getT1());
+                    Map<PendingEntry, Outcome> outcomes = new IdentityHashMap<>();
+                    List<LedgerEntry> accepted = new ArrayList<>();
+
+                    // Entries are applied in submission order so a debit sees earlier credits
+                    for (PendingEntry pending : batch) {
+                        LedgerEntry entry = pending.entry();
+                        Money balance = runningBalances.get(entry.getPlayerId());
+                        if (balance == null) {
+                            outcomes.put(pending, Outcome.error(new PlayerNotFoundException(entry.getPlayerId())));
+                        } else if (!seenKeys.add(entry.getIdempotencyKey())) {
+                            outcomes.put(pending, Outcome.DUPLICATE);
+                        } else if (balance.plus(entry.getAmount()).isNegative()) {
+                            seenKeys.remove(entry.getIdempotencyKey());
+                            outcomes.put(pending, Outcome.error(new IllegalStateException("Insufficient funds")));
+                        } else {
+                            runningBalances.put(entry.getPlayerId(), balance.plus(entry.getAmount()));
+                            accepted.add(entry);
+                            outcomes.put(pending, Outcome.APPLIED);
+                        }
+                    }
+
+                    if (accepted.isEmpty()) {
+                        return Mono.just(outcomes);
+                    }
+                    Map<Long, Money> changedBalances = new LinkedHashMap<>();
+                    accepted.forEach(entry -> changedBalances.put(entry.getPlayerId(), runningBalances.get(entry.getPlayerId())));
+
+                    return insertEntries(accepted)
+                            .then(updateBalances(changedBalances))
+                            .thenReturn(outcomes);
+                });
+    }
+
+    private Mono<Void> insertEntries(List<LedgerEntry> entries) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO balance_ledger (player_id, game_id, entry_type, amount, idempotency_key, created_at) VALUES ");
+        for (int i = 0; i < entries.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:playerId").append(i)
+                    .append(", :gameId").append(i)
+                    .append(", :entryType").append(i)
+                    .append(", :amount").append(i)
+                    .append(", :key").append(i)
+                    .append(", :createdAt").append(i).append(")");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < entries.size(); i++) {
+            LedgerEntry entry = entries.get(i);
+            spec = spec.bind("playerId" + i, entry.getPlayerId())
+                    .bind("entryType" + i, entry.getEntryType().name())
+                    .bind("amount" + i, entry.getAmount().toBigDecimal())
+                    .bind("key" + i, entry.getIdempotencyKey())
+                    .bind("createdAt" + i, entry.getCreatedAt() != null ? entry.getCreatedAt() : LocalDateTime.now());
+            spec = entry.getGameId() != null
+                    ? spec.bind("gameId" + i, entry.getGameId())
+                    : spec.bindNull("gameId" + i, String.class);
+        }
+        return spec.fetch().rowsUpdated().then();
+    }
+
+    private Mono<Void> updateBalances(Map<Long, Money> balances) {
+        LocalDateTime now = LocalDateTime.now();
+        return Flux.fromIterable(balances.entrySet())
+                .concatMap(balance -> databaseClient
+                        .sql("UPDATE players SET balance = :balance, updated_at = :updatedAt WHERE id = :id")
+                        .bind("balance", balance.getValue().toBigDecimal())
+                        .bind("updatedAt", now)
+                        .bind("id", balance.getKey())
+                        .fetch()
+                        .rowsUpdated())
+                .then();
+    }
+
+    private record PendingEntry(LedgerEntry entry, Sinks.One<Boolean> sink) {}
+
+    private record Outcome(boolean applied, RuntimeException error) {
+        static final Outcome APPLIED = new Outcome(true, null);
+        static final Outcome DUPLICATE = new Outcome(false, null);
+
+        static Outcome error(RuntimeException error) {
+            return new Outcome(false, error);
+        }
+
+        void resolve(Sinks.One<Boolean> sink) {
+            if (error != null) {
+                sink.tryEmitError(error);
+            } else {
+                sink.tryEmitValue(applied);
+            }
+        }
+    }
+}
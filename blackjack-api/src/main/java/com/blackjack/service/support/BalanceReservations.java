@@ -0,0 +1,224 @@
+package com.blackjack.service.support;
+
+import com.blackjack.model.Money;
+import com.blackjack.repository.PlayerRepository;
+import com.blackjack.repository.projection.PlayerBalance;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-memory available balance per player, used to hold funds for bets.
+ * An account is seeded from {@code players.balance} the first time a player
+ * bets, through whichever store the player service uses, and from then on tracks the balance minus every hold taken, so funds
+ * checks are a compare-and-set instead of a read from the database. Holds turn
+ * into ledger debits, which reach MySQL through the batched balance ledger.
+ * Credits made elsewhere (for example on another instance) never reach an
+ * account, so a hold it cannot cover rereads the balance before it is refused;
+ * the account remembers its open holds so a reread does not hand them out again.
+ * The ledger still rejects debits that would overdraw a player, and an account
+ * it disagrees with is reread on its next hold. Accounts are bounded in number
+ * and dropped when idle.
+ */
+@Slf4j
+@Component
+public class BalanceReservations {
+
+    private final Function<Long, Mono<Money>> balances;
+
+    private final Map<Long, CompletableFuture<Account>> accounts;
+
+    @Autowired
+    public BalanceReservations(
+            PlayerRepository playerRepository,
+            @Value("${blackjack.reservations.max-size:100000}") long maxSize,
+            @Value("${blackjack.reservations.ttl:10m}") Duration ttl) {
+        this(id -> playerRepository.findBalanceById(id).map(PlayerBalance::balance), maxSize, ttl);
+    }
+
+    /**
+     * @param balances reads a player's stored balance, empty if the player does not exist
+     * @param maxSize maximum number of accounts kept
+     * @param ttl how long an idle account is kept
+     */
+    public BalanceReservations(Function<Long, Mono<Money>> balances, long maxSize, Duration ttl) {
+        this.balances = balances;
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .<Long, CompletableFuture<Account>>build()
+                .asMap();
+    }
+
+    /**
+     * Hold funds if the player's available balance covers them
+     * @param playerId player ID
+     * @param amount amount to hold
+     * @return true if the funds are now held, false if the balance in the database is too low as well;
+     *         empty if the player does not exist
+     */
+    public Mono<Boolean> reserve(Long playerId, Money amount) {
+        long cents = amount.cents();
+        return Mono.defer(() -> Mono.fromFuture(account(playerId), true))
+                .flatMap(account -> !account.stale && account.tryHold(cents)
+                        ? Mono.just(true)
+                        : reread(playerId, account).map(reread -> reread.tryHold(cents)));
+    }
+
+    /**
+     * Give back funds held by {@link #reserve} that will not be spent
+     * @param playerId player ID
+     * @param amount amount previously held
+     */
+    public void release(Long playerId, Money amount) {
+        Account account = loadedAccount(playerId);
+        if (account != null) {
+            account.release(amount.cents());
+        }
+    }
+
+    /**
+     * Record that held funds were debited in the database
+     * @param playerId player ID
+     * @param amount amount previously held
+     */
+    public void commit(Long playerId, Money amount) {
+        Account account = loadedAccount(playerId);
+        if (account != null) {
+            account.commit(amount.cents());
+        }
+    }
+
+    /**
+     * Reflect a balance change that did not go through a hold, such as a payout
+     * @param playerId player ID
+     * @param delta signed change applied to the balance
+     */
+    public void apply(Long playerId, Money delta) {
+        Account account = loadedAccount(playerId);
+        if (account != null) {
+            account.available.addAndGet(delta.cents());
+        }
+    }
+
+    /**
+     * Reread a player's balance from the database before the next hold, keeping open holds
+     * @param playerId player ID
+     */
+    public void markStale(Long playerId) {
+        Account account = loadedAccount(playerId);
+        if (account != null) {
+            account.stale = true;
+        }
+    }
+
+    /**
+     * Forget a player's account so the next hold reseeds it from the database
+     * @param playerId player ID
+     */
+    public void invalidate(Long playerId) {
+        if (accounts.remove(playerId) != null) {
+            log.debug("Dropped available balance for player {}", playerId);
+        }
+    }
+
+    private Account loadedAccount(Long playerId) {
+        CompletableFuture<Account> account = accounts.get(playerId);
+        if (account == null) {
+            return null;
+        }
+        Account loaded = account.getNow(null);
+        if (loaded == null) {
+            // Still loading: the change may or may not be in the row being read, so read it again
+            accounts.remove(playerId, account);
+        }
+        return loaded;
+    }
+
+    private CompletableFuture<Account> account(Long playerId) {
+        CompletableFuture<Account> existing = accounts.get(playerId);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<Account> seeded = new CompletableFuture<>();
+        existing = accounts.putIfAbsent(playerId, seeded);
+        if (existing != null) {
+            return existing;
+        }
+        balances.apply(playerId)
+                .map(balance -> new Account(balance.cents()))
+                .subscribe(
+                        seeded::complete,
+                        error -> {
+                            accounts.remove(playerId, seeded);
+                            seeded.completeExceptionally(error);
+                        },
+                        () -> {
+                            if (!seeded.isDone()) {
+                                accounts.remove(playerId, seeded);
+                                seeded.complete(null);
+                            }
+                        });
+        return seeded;
+    }
+
+    private Mono<Account> reread(Long playerId, Account account) {
+        log.debug("Rereading balance of player {} before refusing a hold", playerId);
+        return balances.apply(playerId)
+                .map(balance -> {
+                    account.reseed(balance.cents());
+                    return account;
+                })
+                .switchIfEmpty(Mono.fromRunnable(() -> invalidate(playerId)));
+    }
+
+    private static final class Account {
+
+        private final AtomicLong available;
+        // Holds not yet committed or released, which the database balance does not reflect
+        private final AtomicLong held = new AtomicLong();
+        private volatile boolean stale;
+
+        private Account(long balance) {
+            this.available = new AtomicLong(balance);
+        }
+
+        private boolean tryHold(long cents) {
+            // Counted as held first, so a concurrent reseed can only underestimate what is available
+            held.addAndGet(cents);
+            while (true) {
+                long current = available.get();
+                if (current < cents) {
+                    held.addAndGet(-cents);
+                    return false;
+                }
+                if (available.compareAndSet(current, current - cents)) {
+                    return true;
+                }
+            }
+        }
+
+        private void release(long cents) {
+            available.addAndGet(cents);
+            held.addAndGet(-cents);
+        }
+
+        private void commit(long cents) {
+            held.addAndGet(-cents);
+        }
+
+        private void reseed(long balance) {
+            stale = false;
+            available.set(balance - held.get());
+        }
+    }
+}
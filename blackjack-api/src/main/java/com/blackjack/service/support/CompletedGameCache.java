@@ -0,0 +1,104 @@
+package com.blackjack.service.support;
+
+import com.blackjack.model.Game;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Cache of completed games encoded as JSON.
+ * A completed game never changes, so its encoded bytes and the strong ETag
+ * derived from them can be served again without reading or serializing the game.
+ * Entries are bounded by their total size in bytes and by time since last access.
+ * Hit/miss statistics are published as {@code cache.*} metrics.
+ */
+@Slf4j
+@Component
+public class CompletedGameCache {
+
+    private final Cache<String, EncodedGame> games;
+    private final ObjectMapper objectMapper;
+
+    public CompletedGameCache(
+            @Value("${blackjack.cache.completed-games.max-size:64MB}") DataSize maxSize,
+            @Value("${blackjack.cache.completed-games.ttl:1h}") Duration ttl,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.games = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .<String, EncodedGame>weigher((id, encoded) -> encoded.json().length)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, games, "games.completed");
+    }
+
+    /**
+     * Get the encoded game for an ID
+     * @param id game ID
+     * @return the encoded game, or null if it is not cached
+     */
+    public EncodedGame get(String id) {
+        return games.getIfPresent(id);
+    }
+
+    /**
+     * Encode a game, caching the result if the game is completed
+     * @param game game to encode
+     * @return the encoded game
+     */
+    public EncodedGame put(Game game) {
+        EncodedGame encoded = encode(game);
+        if (game.getStatus() == Game.GameStatus.COMPLETED && game.getId() != null) {
+            games.put(game.getId(), encoded);
+        }
+        return encoded;
+    }
+
+    /**
+     * Drop all cached games
+     */
+    public void invalidateAll() {
+        log.debug("Invalidating all cached completed games");
+        games.invalidateAll();
+    }
+
+    private EncodedGame encode(Game game) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(game);
+            return new EncodedGame(json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode game " + game.getId(), e);
+        }
+    }
+
+    /**
+     * A game encoded as JSON
+     * @param json encoded game
+     * @param eTag strong entity tag of the encoded bytes, quoted
+     */
+    public record EncodedGame(byte[] json, String eTag) {
+
+        /**
+         * Wrap the encoded bytes for writing, without copying them
+         * @return a new buffer reading the shared bytes
+         */
+        public DataBuffer toDataBuffer() {
+            return DefaultDataBufferFactory.sharedInstance.wrap(json);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.blackjack.service.support;
+
+import com.blackjack.repository.GameRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * One-off backfill of the revision for games stored before games were
+ * versioned. Such a game loads without a revision, which saving would take
+ * for a new game. Runs once the application is ready; once every game has a
+ * revision it costs one query.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GameRevisionBackfill {
+
+    private final GameRepository gameRepository;
+
+    /**
+     * Backfill every game missing its revision
+     * @return number of games backfilled
+     */
+    public Mono<Long> run() {
+        return gameRepository.backfillRevisions()
+                .doOnSuccess(count -> {
+                    if (count != null && count > 0) {
+                        log.info("Backfilled revisions of {} games", count);
+                    }
+                })
+                .doOnError(error -> log.error("Error backfilling game revisions: {}", error.getMessage(), error));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        run().subscribe(count -> { }, error -> { });
+    }
+}
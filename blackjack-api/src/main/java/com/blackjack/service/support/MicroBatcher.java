@@ -0,0 +1,80 @@
+package com.blackjack.service.support;
+
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Collects items submitted within a short window and hands them to a dispatcher as one batch.
+ * A batch is dispatched when the window elapses or when it reaches the maximum size,
+ * whichever comes first. The dispatcher runs outside the internal lock.
+ */
+public class MicroBatcher<T> {
+
+    private final Duration window;
+    private final int maxBatchSize;
+    private final Consumer<List<T>> dispatcher;
+    private final Scheduler scheduler = Schedulers.parallel();
+
+    private final Object lock = new Object();
+    private List<T> pending = new ArrayList<>();
+    private Disposable scheduledFlush;
+
+    public MicroBatcher(Duration window, int maxBatchSize, Consumer<List<T>> dispatcher) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Add an item to the current batch
+     * @param item item to batch
+     */
+    public void submit(T item) {
+        List<T> fullBatch = null;
+        synchronized (lock) {
+            pending.add(item);
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = takePending();
+            } else if (scheduledFlush == null) {
+                scheduledFlush = scheduler.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        if (fullBatch != null) {
+            dispatcher.accept(fullBatch);
+        }
+    }
+
+    /**
+     * Dispatch whatever is pending right away
+     */
+    public void flush() {
+        List<T> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            dispatcher.accept(batch);
+        }
+    }
+
+    // Must be called while holding the lock
+    private List<T> takePending() {
+        List<T> batch = pending;
+        pending = new ArrayList<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.dispose();
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,74 @@
+package com.blackjack.service.support;
+
+import com.blackjack.model.Player;
+import com.blackjack.repository.PlayerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Micro-batching loader for players by ID.
+ * Lookups arriving within a short window are collected and resolved with a
+ * single {@code WHERE id IN (...)} query; a batch is dispatched early once it
+ * reaches the configured size. Duplicate IDs in a batch share one row.
+ */
+@Slf4j
+@Component
+public class PlayerBatchLoader {
+
+    private final PlayerRepository playerRepository;
+    private final MicroBatcher<LoadRequest> batcher;
+
+    public PlayerBatchLoader(
+            PlayerRepository playerRepository,
+            @Value("${blackjack.players.batch.window:2ms}") Duration window,
+            @Value("${blackjack.players.batch.max-size:100}") int maxBatchSize) {
+        this.playerRepository = playerRepository;
+        this.batcher = new MicroBatcher<>(window, maxBatchSize, this::dispatch);
+    }
+
+    /**
+     * Load a player by ID as part of the current batch
+     * @param id player ID
+     * @return the player, or empty if no player has that ID
+     */
+    public Mono<Player> load(Long id) {
+        return Mono.defer(() -> {
+            Sinks.One<Player> sink = Sinks.one();
+            batcher.submit(new LoadRequest(id, sink));
+            return sink.asMono();
+        });
+    }
+
+    private void dispatch(List<LoadRequest> batch) {
+        Set<Long> ids = new LinkedHashSet<>();
+        batch.forEach(request -> ids.add(request.id()));
+        log.debug("Loading {} players in one batch", ids.size());
+
+        playerRepository.findAllById(new ArrayList<>(ids))
+                .collectMap(Player::getId)
+                .subscribe(
+                        found -> batch.forEach(request -> {
+                            Player player = found.get(request.id());
+                            if (player != null) {
+                                request.sink().tryEmitValue(player);
+                            } else {
+                                request.sink().tryEmitEmpty();
+                            }
+                        }),
+                        error -> {
+                            log.error("Error loading player batch {}: {}", ids, error.getMessage(), error);
+                            batch.forEach(request -> request.sink().tryEmitError(error));
+                        });
+    }
+
+    private record LoadRequest(Long id, Sinks.One<Player> sink) {}
+}
@@ -0,0 +1,197 @@
+package com.blackjack.service.support;
+
+import com.blackjack.model.Player;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Read-through cache for player lookups by ID and by username.
+ * Concurrent lookups for the same key share a single repository call, and
+ * entries are bounded by size and time-to-live. Hit/miss statistics are
+ * published as {@code cache.*} metrics tagged with the cache name.
+ * <p>
+ * A load that read the database before a write can finish after the write
+ * invalidated the player. Every invalidation therefore moves a generation
+ * on, and a load that sees a different generation when it finishes hands its
+ * result to the caller but does not keep it cached.
+ * <p>
+ * Callers get their own copy of a cached player, so changing it, for example
+ * before a save that then fails, does not change what other readers see.
+ */
+@Slf4j
+@Component
+public class PlayerCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final AsyncCache<Long, Player> byId;
+    private final AsyncCache<String, Player> byUsername;
+    // Usernames a player is cached under, so invalidating by ID does not scan the username cache
+    private final Map<Long, String> usernamesById = new ConcurrentHashMap<>();
+    private final AtomicLongArray idGenerations = new AtomicLongArray(GENERATION_STRIPES);
+    // The player behind a username is only known once it is loaded, so username loads check any invalidation
+    private final AtomicLong usernameGeneration = new AtomicLong();
+
+    public PlayerCache(
+            @Value("${blackjack.cache.players.max-size:10000}") long maxSize,
+            @Value("${blackjack.cache.players.ttl:30s}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        this.byUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .<String, Player>evictionListener((username, player, cause) -> {
+                    if (player != null) {
+                        usernamesById.remove(player.getId(), username);
+                    }
+                })
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId.synchronous(), "players.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, byUsername.synchronous(), "players.byUsername");
+    }
+
+    /**
+     * Get a player by ID, loading it on a miss
+     * @param id player ID
+     * @param loader repository lookup used on a miss
+     * @return the player, or empty if the loader found none
+     */
+    public Mono<Player> getById(Long id, Function<Long, Mono<Player>> loader) {
+        // Cancelling one subscriber must not cancel the shared future other callers wait on
+        return Mono.fromFuture(() -> byId.get(id, (key, executor) -> {
+            long generation = idGeneration(key);
+            CompletableFuture<Player> loaded = loader.apply(key).toFuture();
+            loaded.thenRun(() -> {
+                if (idGeneration(key) != generation) {
+                    byId.asMap().remove(key, loaded);
+                }
+            });
+            return loaded;
+        }), true).map(Player::copy);
+    }
+
+    /**
+     * Get several players by ID, loading every miss with one call
+     * @param ids player IDs
+     * @param loader repository lookup for the IDs that are not cached; IDs it omits are not players
+     * @return the players found, keyed by ID
+     */
+    public Mono<Map<Long, Player>> getAllById(Collection<Long> ids, Function<Set<Long>, Mono<Map<Long, Player>>> loader) {
+        Map<Long, Long> generations = new ConcurrentHashMap<>();
+        return Mono.fromFuture(() -> byId.getAll(ids, (missing, executor) -> {
+            missing.forEach(id -> generations.put(id, idGeneration(id)));
+            return loader.apply(Set.copyOf(missing)).toFuture();
+        }).thenApply(found -> {
+            generations.forEach((id, generation) -> {
+                Player player = found.get(id);
+                if (player != null && idGeneration(id) != generation) {
+                    byId.synchronous().asMap().remove(id, player);
+                }
+            });
+            Map<Long, Player> copies = new HashMap<>();
+            found.forEach((id, player) -> copies.put(id, player.copy()));
+            return copies;
+        }), true);
+    }
+
+    /**
+     * Get a player by username, loading it on a miss
+     * @param username player username
+     * @param loader repository lookup used on a miss
+     * @return the player, or empty if the loader found none
+     */
+    public Mono<Player> getByUsername(String username, Function<String, Mono<Player>> loader) {
+        return Mono.fromFuture(() -> byUsername.get(username, (key, executor) -> {
+            long generation = usernameGeneration.get();
+            CompletableFuture<Player> loaded = loader.apply(key).toFuture();
+            loaded.thenAccept(player -> {
+                if (player == null) {
+                    return;
+                }
+                usernamesById.put(player.getId(), key);
+                if (usernameGeneration.get() != generation) {
+                    byUsername.asMap().remove(key, loaded);
+                    usernamesById.remove(player.getId(), key);
+                }
+            });
+            return loaded;
+        }), true).map(Player::copy);
+    }
+
+    /**
+     * Drop every cached entry for a player
+     * @param player the player that was written
+     */
+    public void invalidate(Player player) {
+        if (player == null) {
+            return;
+        }
+        invalidate(player.getId());
+        if (player.getUsername() != null) {
+            byUsername.synchronous().invalidate(player.getUsername());
+        }
+    }
+
+    /**
+     * Drop every cached entry for a player ID, including username entries
+     * @param id player ID
+     */
+    public void invalidate(Long id) {
+        if (id == null) {
+            return;
+        }
+        // Generations move first, so a load finishing from here on does not keep what it read
+        idGenerations.incrementAndGet(stripe(id));
+        usernameGeneration.incrementAndGet();
+        byId.synchronous().invalidate(id);
+        String username = usernamesById.remove(id);
+        if (username != null) {
+            byUsername.synchronous().invalidate(username);
+        }
+    }
+
+    /**
+     * Drop all cached players
+     */
+    public void invalidateAll() {
+        log.debug("Invalidating all cached players");
+        for (int stripe = 0; stripe < GENERATION_STRIPES; stripe++) {
+            idGenerations.incrementAndGet(stripe);
+        }
+        usernameGeneration.incrementAndGet();
+        byId.synchronous().invalidateAll();
+        byUsername.synchronous().invalidateAll();
+        usernamesById.clear();
+    }
+
+    private long idGeneration(Long id) {
+        return idGenerations.get(stripe(id));
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (GENERATION_STRIPES - 1);
+    }
+}
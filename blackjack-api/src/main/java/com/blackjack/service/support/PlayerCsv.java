@@ -0,0 +1,83 @@
+package com.blackjack.service.support;
+
+import com.blackjack.dto.CreatePlayerRequest;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads player import rows from CSV.
+ * The first row is a header if it names a {@code username} or {@code email}
+ * column; otherwise every row is username, then email.
+ */
+public final class PlayerCsv {
+
+    private PlayerCsv() {
+    }
+
+    /**
+     * Turn CSV lines into create requests, honouring an optional header row
+     * @param lines CSV lines; blank lines are skipped
+     * @return one request per data row, with missing columns left null
+     */
+    public static Flux<CreatePlayerRequest> parse(Flux<String> lines) {
+        return lines.map(String::strip)
+                .filter(line -> !line.isEmpty())
+                .switchOnFirst((first, rows) -> {
+                    List<String> header = first.hasValue() ? splitCsvLine(first.get()) : List.of();
+                    int usernameColumn = indexOfIgnoreCase(header, "username");
+                    int emailColumn = indexOfIgnoreCase(header, "email");
+                    if (usernameColumn < 0 && emailColumn < 0) {
+                        return rows.map(line -> toCreateRequest(splitCsvLine(line), 0, 1));
+                    }
+                    return rows.skip(1).map(line -> toCreateRequest(splitCsvLine(line), usernameColumn, emailColumn));
+                });
+    }
+
+    private static CreatePlayerRequest toCreateRequest(List<String> cells, int usernameColumn, int emailColumn) {
+        return new CreatePlayerRequest(cell(cells, usernameColumn), cell(cells, emailColumn));
+    }
+
+    private static String cell(List<String> cells, int column) {
+        return column >= 0 && column < cells.size() ? cells.get(column) : null;
+    }
+
+    private static int indexOfIgnoreCase(List<String> cells, String name) {
+        for (int i = 0; i < cells.size(); i++) {
+            if (cells.get(i).equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Comma-separated cells; a cell may be wrapped in double quotes, with "" for a literal quote
+    private static List<String> splitCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString().strip());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString().strip());
+        return cells;
+    }
+}
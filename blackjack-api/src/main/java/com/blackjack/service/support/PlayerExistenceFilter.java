@@ -0,0 +1,135 @@
+package com.blackjack.service.support;
+
+import com.blackjack.model.Player;
+import com.blackjack.repository.PlayerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.BitSet;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory membership filter for player IDs, usernames and emails.
+ * IDs up to a watermark are tracked exactly in a bitmap, so a missing bit
+ * means the player does not exist. IDs can commit out of order, so the
+ * watermark stays a safety margin below the highest loaded ID; IDs above it
+ * are always reported as possibly present. Usernames and emails go into Bloom
+ * filters, where a miss means the value is definitely new. Until loading
+ * completes, every check answers "maybe" so callers fall back to the database.
+ */
+@Slf4j
+@Component
+public class PlayerExistenceFilter {
+
+    private final PlayerRepository playerRepository;
+
+    private final BitSet ids = new BitSet();
+    private final BloomFilter usernames;
+    private final BloomFilter emails;
+    private final long idSafetyMargin;
+    private volatile long watermark = -1;
+
+    public PlayerExistenceFilter(
+            PlayerRepository playerRepository,
+            @Value("${blackjack.players.filter.expected-insertions:100000}") int expectedInsertions,
+            @Value("${blackjack.players.filter.false-positive-probability:0.01}") double falsePositiveProbability,
+            @Value("${blackjack.players.filter.id-safety-margin:1000}") long idSafetyMargin) {
+        this.playerRepository = playerRepository;
+        this.idSafetyMargin = idSafetyMargin;
+        this.usernames = new BloomFilter(expectedInsertions, falsePositiveProbability);
+        this.emails = new BloomFilter(expectedInsertions, falsePositiveProbability);
+    }
+
+    /**
+     * Load every player from the database and start answering definite misses
+     * @return number of players loaded
+     */
+    public Mono<Long> rebuild() {
+        AtomicLong maxId = new AtomicLong(0);
+        return playerRepository.findAll()
+                .doOnNext(player -> {
+                    add(player);
+                    maxId.accumulateAndGet(player.getId(), Math::max);
+                })
+                .count()
+                .doOnSuccess(count -> {
+                    watermark = Math.max(0, maxId.get() - idSafetyMargin);
+                    log.info("Loaded {} players into the existence filter (IDs up to {})", count, watermark);
+                })
+                .doOnError(error -> log.error("Error building player existence filter: {}", error.getMessage(), error));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild().subscribe(count -> { }, error -> { });
+    }
+
+    /**
+     * Check whether a player ID is known not to exist
+     * @param id player ID
+     * @return true only if no player can have this ID
+     */
+    public boolean isDefinitelyAbsent(Long id) {
+        if (id == null || id <= 0) {
+            return true;
+        }
+        long loadedUpTo = watermark;
+        if (id > loadedUpTo || id > Integer.MAX_VALUE) {
+            return false;
+        }
+        synchronized (ids) {
+            return !ids.get(id.intValue());
+        }
+    }
+
+    public boolean mightContainUsername(String username) {
+        return watermark < 0 || usernames.mightContain(key(username));
+    }
+
+    public boolean mightContainEmail(String email) {
+        return watermark < 0 || emails.mightContain(key(email));
+    }
+
+    /**
+     * Record a created or updated player
+     * @param player the player that was saved
+     */
+    public void add(Player player) {
+        if (player == null || player.getId() == null) {
+            return;
+        }
+        if (player.getId() > 0 && player.getId() <= Integer.MAX_VALUE) {
+            synchronized (ids) {
+                ids.set(player.getId().intValue());
+            }
+        }
+        if (player.getUsername() != null) {
+            usernames.add(key(player.getUsername()));
+        }
+        if (player.getEmail() != null) {
+            emails.add(key(player.getEmail()));
+        }
+    }
+
+    /**
+     * Record a deleted player; its username and email stay in the Bloom filters
+     * @param id player ID
+     */
+    public void remove(Long id) {
+        if (id != null && id > 0 && id <= Integer.MAX_VALUE) {
+            synchronized (ids) {
+                ids.clear(id.intValue());
+            }
+        }
+    }
+
+    // Unique columns use a case-insensitive collation
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
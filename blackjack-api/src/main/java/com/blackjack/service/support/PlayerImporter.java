@@ -0,0 +1,234 @@
+package com.blackjack.service.support;
+
+import com.blackjack.dto.CreatePlayerRequest;
+import com.blackjack.dto.PlayerImportResult;
+import com.blackjack.model.LedgerEntry;
+import com.blackjack.model.Player;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates players in bulk from a stream of rows.
+ * Rows are grouped into chunks; each chunk is validated, checked for usernames
+ * and emails that already exist with one query, and written with one multi-row
+ * INSERT for the players and one for their opening ledger entries, in a single
+ * transaction. Only a bounded number of chunks is in flight, so a large upload
+ * is read from the request as fast as it can be written. If a chunk hits a
+ * unique constraint anyway (a concurrent signup), its rows are retried one at a
+ * time so only the conflicting rows are reported as duplicates.
+ */
+@Slf4j
+@Component
+public class PlayerImporter {
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int concurrency;
+
+    public PlayerImporter(
+            DatabaseClient databaseClient,
+            TransactionalOperator transactionalOperator,
+            Validator validator,
+            @Value("${blackjack.players.import.chunk-size:500}") int chunkSize,
+            @Value("${blackjack.players.import.concurrency:2}") int concurrency) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Import players, reporting the outcome of every row in upload order
+     * @param requests rows to import
+     * @return one result per row
+     */
+    public Flux<PlayerImportResult> importPlayers(Flux<CreatePlayerRequest> requests) {
+        return requests.index()
+                .buffer(chunkSize)
+                .flatMapSequential(this::importChunk, concurrency, 1);
+    }
+
+    private Flux<PlayerImportResult> importChunk(List<Tuple2<Long, CreatePlayerRequest>> chunk) {
+        PlayerImportResult[] results = new PlayerImportResult[chunk.size()];
+        List<Candidate> candidates = new ArrayList<>(chunk.size());
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+
+        for (int i = 0; i < chunk.size(); i++) {
+            long row = chunk.get(i).getT1() + 1;
+            CreatePlayerRequest request = chunk.get(i).getT2();
+            Set<ConstraintViolation<CreatePlayerRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                String message = violations.stream().map(ConstraintViolation::getMessage).sorted()
+                        .collect(Collectors.joining("; "));
+                results[i] = PlayerImportResult.rejected(row, request.getUsername(), request.getEmail(),
+                        PlayerImportResult.Status.INVALID, message);
+            } else if (usernames.contains(key(request.getUsername()))) {
+                results[i] = duplicate(row, request, "Username repeats an earlier row");
+            } else if (emails.contains(key(request.getEmail()))) {
+                results[i] = duplicate(row, request, "Email repeats an earlier row");
+            } else {
+                usernames.add(key(request.getUsername()));
+                emails.add(key(request.getEmail()));
+                candidates.add(new Candidate(i, row, request));
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            return Flux.fromArray(results);
+        }
+        return findTaken(usernames, emails)
+                .flatMap(taken -> {
+                    List<Candidate> toInsert = new ArrayList<>(candidates.size());
+                    for (Candidate candidate : candidates) {
+                        if (taken.usernames().contains(key(candidate.request().getUsername()))) {
+                            results[candidate.index()] = duplicate(candidate.row(), candidate.request(), "Username is already taken");
+                        } else if (taken.emails().contains(key(candidate.request().getEmail()))) {
+                            results[candidate.index()] = duplicate(candidate.row(), candidate.request(), "Email is already registered");
+                        } else {
+                            toInsert.add(candidate);
+                        }
+                    }
+                    return insertChunk(toInsert, results);
+                })
+                .doOnSuccess(v -> log.debug("Imported chunk of {} rows", chunk.size()))
+                .thenMany(Flux.defer(() -> Flux.fromArray(results)));
+    }
+
+    private Mono<Void> insertChunk(List<Candidate> candidates, PlayerImportResult[] results) {
+        if (candidates.isEmpty()) {
+            return Mono.empty();
+        }
+        return insert(candidates)
+                .doOnNext(ids -> candidates.forEach(candidate -> results[candidate.index()] = created(candidate, ids)))
+                .then()
+                .onErrorResume(DataIntegrityViolationException.class, error -> {
+                    log.debug("Chunk of {} rows hit a unique constraint, retrying row by row", candidates.size());
+                    return Flux.fromIterable(candidates)
+                            .concatMap(candidate -> insert(List.of(candidate))
+                                    .doOnNext(ids -> results[candidate.index()] = created(candidate, ids))
+                                    .onErrorResume(DataIntegrityViolationException.class, rowError -> {
+                                        results[candidate.index()] = duplicate(candidate.row(), candidate.request(),
+                                                "Username or email is already taken");
+                                        return Mono.empty();
+                                    }))
+                            .then();
+                });
+    }
+
+    /**
+     * Insert players and their opening ledger entries in one transaction
+     * @return player IDs keyed by lower-cased username
+     */
+    private Mono<Map<String, Long>> insert(List<Candidate> candidates) {
+        LocalDateTime now = LocalDateTime.now();
+        Mono<Map<String, Long>> write = insertPlayers(candidates, now)
+                .then(Mono.defer(() -> findIds(candidates)))
+                .flatMap(ids -> insertOpeningEntries(ids.values(), now).thenReturn(ids));
+        return transactionalOperator.transactional(write);
+    }
+
+    private Mono<Void> insertPlayers(List<Candidate> candidates, LocalDateTime now) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO players (username, email, balance, created_at, updated_at) VALUES ");
+        for (int i = 0; i < candidates.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:username").append(i).append(", :email").append(i).append(", :balance, :now, :now)");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .bind("balance", Player.OPENING_BALANCE.toBigDecimal())
+                .bind("now", now);
+        for (int i = 0; i < candidates.size(); i++) {
+            spec = spec.bind("username" + i, candidates.get(i).request().getUsername())
+                    .bind("email" + i, candidates.get(i).request().getEmail());
+        }
+        return spec.fetch().rowsUpdated().then();
+    }
+
+    private Mono<Map<String, Long>> findIds(List<Candidate> candidates) {
+        return databaseClient.sql("SELECT id, username FROM players WHERE username IN (:usernames)")
+                .bind("usernames", candidates.stream().map(candidate -> candidate.request().getUsername()).toList())
+                .map(row -> Map.entry(key(row.get("username", String.class)), row.get("id", Long.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    private Mono<Void> insertOpeningEntries(Iterable<Long> playerIds, LocalDateTime now) {
+        List<Long> ids = new ArrayList<>();
+        playerIds.forEach(ids::add);
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO balance_ledger (player_id, game_id, entry_type, amount, idempotency_key, created_at) VALUES ");
+        for (int i = 0; i < ids.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:playerId").append(i).append(", NULL, :entryType, :amount, :key").append(i).append(", :now)");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .bind("entryType", LedgerEntry.EntryType.OPENING.name())
+                .bind("amount", Player.OPENING_BALANCE.toBigDecimal())
+                .bind("now", now);
+        for (int i = 0; i < ids.size(); i++) {
+            spec = spec.bind("playerId" + i, ids.get(i))
+                    .bind("key" + i, "player:" + ids.get(i) + ":OPENING");
+        }
+        return spec.fetch().rowsUpdated().then();
+    }
+
+    private Mono<Taken> findTaken(Set<String> usernames, Set<String> emails) {
+        return databaseClient.sql("SELECT username, email FROM players WHERE username IN (:usernames) OR email IN (:emails)")
+                .bind("usernames", List.copyOf(usernames))
+                .bind("emails", List.copyOf(emails))
+                .map(row -> new String[] {row.get("username", String.class), row.get("email", String.class)})
+                .all()
+                .collect(() -> new Taken(new HashSet<>(), new HashSet<>()), (taken, row) -> {
+                    taken.usernames().add(key(row[0]));
+                    taken.emails().add(key(row[1]));
+                });
+    }
+
+    private static PlayerImportResult created(Candidate candidate, Map<String, Long> ids) {
+        CreatePlayerRequest request = candidate.request();
+        return PlayerImportResult.created(candidate.row(), request.getUsername(), request.getEmail(),
+                ids.get(key(request.getUsername())));
+    }
+
+    private static PlayerImportResult duplicate(long row, CreatePlayerRequest request, String message) {
+        return PlayerImportResult.rejected(row, request.getUsername(), request.getEmail(),
+                PlayerImportResult.Status.DUPLICATE, message);
+    }
+
+    // Unique columns use a case-insensitive collation
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private record Candidate(int index, long row, CreatePlayerRequest request) {}
+
+    private record Taken(Set<String> usernames, Set<String> emails) {}
+}
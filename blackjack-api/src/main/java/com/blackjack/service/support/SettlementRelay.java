@@ -0,0 +1,144 @@
+package com.blackjack.service.support;
+
+import com.blackjack.model.Game;
+import com.blackjack.model.LedgerEntry;
+import com.blackjack.model.PendingSettlement;
+import com.blackjack.repository.GameRepository;
+import com.blackjack.repository.PlayerGameStatsRepository;
+import com.blackjack.service.PlayerService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Applies settlements of completed games to player balances.
+ * Game completion only writes the final game, with its pending settlement, to
+ * Mongo. This relay polls for those games, claims each with a lease of
+ * {@code blackjack.settlement.lease} so no other instance, nor an overlapping
+ * run, applies it at the same time, records the payouts in the balance
+ * ledger, adds the game to the player's statistics and daily totals and clears
+ * the settlement afterwards. Ledger entries are keyed by game, so a settlement
+ * that was applied but not cleared (crash, timeout) is not paid twice when it
+ * is picked up again. The statistics steps mark the settlement once written and
+ * are skipped on a retry, independently of whether the payout was new; a crash
+ * between a statistics write and its marker can count that game twice, but a
+ * failure never drops it. A settlement that fails is retried with exponential
+ * backoff so it does not hold up newer ones, and after
+ * {@code blackjack.settlement.max-attempts} failures it is moved to the game's
+ * failed settlement, where it waits for an operator.
+ */
+@Slf4j
+@Component
+public class SettlementRelay {
+
+    private static final Duration BATCH_TIMEOUT = Duration.ofSeconds(30);
+
+    private final GameRepository gameRepository;
+    private final PlayerGameStatsRepository playerGameStatsRepository;
+    private final PlayerService playerService;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration maxRetryBackoff;
+    private final Duration lease;
+    private final String owner = UUID.randomUUID().toString();
+
+    public SettlementRelay(
+            GameRepository gameRepository,
+            PlayerGameStatsRepository playerGameStatsRepository,
+            PlayerService playerService,
+            @Value("${blackjack.settlement.batch-size:100}") int batchSize,
+            @Value("${blackjack.settlement.max-attempts:10}") int maxAttempts,
+            @Value("${blackjack.settlement.retry-backoff:1s}") Duration retryBackoff,
+            @Value("${blackjack.settlement.max-retry-backoff:10m}") Duration maxRetryBackoff,
+            @Value("${blackjack.settlement.lease:1m}") Duration lease) {
+        this.gameRepository = gameRepository;
+        this.playerGameStatsRepository = playerGameStatsRepository;
+        this.playerService = playerService;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = retryBackoff;
+        this.maxRetryBackoff = maxRetryBackoff;
+        this.lease = lease;
+    }
+
+    @Scheduled(fixedDelayString = "${blackjack.settlement.poll-interval:250ms}")
+    public void poll() {
+        try {
+            Integer settled = relayBatch().block(BATCH_TIMEOUT);
+            if (settled != null && settled > 0) {
+                log.debug("Applied {} game settlements", settled);
+            }
+        } catch (Exception e) {
+            log.error("Error relaying game settlements: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Apply one batch of pending settlements
+     * @return number of games settled; failed games stay pending and are retried after a backoff
+     */
+    public Mono<Integer> relayBatch() {
+        // Settlements run concurrently so the ledger and statistics batchers can coalesce them
+        // A game claimed by someone else since it was found is left to them
+        return gameRepository.findPendingSettlements(batchSize)
+                .flatMap(pending -> gameRepository.claimPendingSettlement(pending.getId(), owner, LocalDateTime.now().plus(lease))
+                        .flatMap(game -> settle(game)
+                                .thenReturn(1)
+                                .onErrorResume(error -> recordFailure(game, error).then(Mono.empty()))), batchSize)
+                .reduce(0, Integer::sum);
+    }
+
+    private Mono<Void> recordFailure(Game game, Throwable error) {
+        int attempts = game.getPendingSettlement().getAttempts() + 1;
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (backoff.compareTo(maxRetryBackoff) > 0) {
+            backoff = maxRetryBackoff;
+        }
+        Mono<Void> recorded = gameRepository.recordSettlementFailure(game.getId(), attempts,
+                LocalDateTime.now().plus(backoff), error.getMessage());
+        if (attempts >= maxAttempts) {
+            log.error("Settlement of game {} failed {} times, moving it to failed settlements: {}",
+                    game.getId(), attempts, error.getMessage(), error);
+            recorded = recorded.then(Mono.defer(() -> gameRepository.failPendingSettlement(game.getId())));
+        } else {
+            log.warn("Settlement of game {} failed (attempt {}), retrying in {}: {}",
+                    game.getId(), attempts, backoff, error.getMessage());
+        }
+        return recorded.onErrorResume(recordError -> {
+            log.error("Error recording failed settlement of game {}: {}", game.getId(), recordError.getMessage(), recordError);
+            return Mono.empty();
+        });
+    }
+
+    private Mono<Void> settle(Game game) {
+        PendingSettlement settlement = game.getPendingSettlement();
+        Mono<Void> insurance = settlement.getInsurancePayout() == null
+                ? Mono.empty()
+                : playerService.recordGameTransaction(game.getPlayerId(), game.getId(),
+                        LedgerEntry.EntryType.INSURANCE_PAYOUT, settlement.getInsurancePayout()).then();
+        Mono<Void> payout = insurance
+                .then(Mono.defer(() -> playerService.recordGameTransaction(game.getPlayerId(), game.getId(),
+                        LedgerEntry.EntryType.SETTLEMENT, settlement.getPayout())))
+                .then();
+
+        Mono<Void> statistics = settlement.isStatisticsRecorded()
+                ? Mono.empty()
+                : Mono.defer(() -> playerService.updateStatistics(game.getPlayerId(), settlement.isWon(), game.getBet()))
+                        .then(Mono.defer(() -> gameRepository.markStatisticsRecorded(game.getId())));
+        Mono<Void> dailyTotals = settlement.isDailyTotalsRecorded()
+                ? Mono.empty()
+                : Mono.defer(() -> playerGameStatsRepository.recordGame(game, settlement.getPayout()))
+                        .then(Mono.defer(() -> gameRepository.markDailyTotalsRecorded(game.getId())));
+
+        return payout
+                .then(Mono.when(statistics, dailyTotals))
+                .then(Mono.defer(() -> gameRepository.clearPendingSettlement(game.getId())));
+    }
+}
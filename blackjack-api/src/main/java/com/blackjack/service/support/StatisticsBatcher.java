@@ -0,0 +1,120 @@
+package com.blackjack.service.support;
+
+import com.blackjack.model.Money;
+import com.blackjack.repository.PlayerRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces player statistics increments over a short window.
+ * All games finished by the same player within one window are folded into a
+ * single {@code UPDATE players SET games_played = games_played + ?, ...}, so a
+ * burst of settlements costs one write per player instead of a read and a
+ * write per game. Pending increments are flushed when the application stops.
+ */
+@Slf4j
+@Component
+public class StatisticsBatcher {
+
+    private static final int WRITE_CONCURRENCY = 4;
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final PlayerRepository playerRepository;
+    private final MicroBatcher<PendingIncrement> batcher;
+    private final Set<CompletableFuture<Void>> inFlight = ConcurrentHashMap.newKeySet();
+
+    public StatisticsBatcher(
+            PlayerRepository playerRepository,
+            @Value("${blackjack.players.stats.window:20ms}") Duration window,
+            @Value("${blackjack.players.stats.max-size:500}") int maxBatchSize) {
+        this.playerRepository = playerRepository;
+        this.batcher = new MicroBatcher<>(window, maxBatchSize, this::dispatch);
+    }
+
+    /**
+     * Record one finished game for a player
+     * @param playerId player ID
+     * @param won whether the player won
+     * @param amount amount added to total winnings when the player won
+     * @return completes once the increment has been written
+     */
+    public Mono<Void> record(Long playerId, boolean won, Money amount) {
+        return Mono.defer(() -> {
+            Sinks.Empty<Void> sink = Sinks.empty();
+            batcher.submit(new PendingIncrement(playerId, won, amount, sink));
+            return sink.asMono();
+        });
+    }
+
+    /**
+     * Write all pending increments and wait for in-flight writes to finish
+     */
+    @PreDestroy
+    public void flush() {
+        batcher.flush();
+        try {
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                    .get(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Error flushing player statistics: {}", e.getMessage(), e);
+        }
+    }
+
+    private void dispatch(List<PendingIncrement> batch) {
+        Map<Long, Delta> deltas = new LinkedHashMap<>();
+        for (PendingIncrement increment : batch) {
+            deltas.computeIfAbsent(increment.playerId(), id -> new Delta()).add(increment);
+        }
+        log.debug("Writing statistics for {} games as {} player updates", batch.size(), deltas.size());
+
+        LocalDateTime now = LocalDateTime.now();
+        CompletableFuture<Void> write = Flux.fromIterable(deltas.entrySet())
+                .flatMap(entry -> playerRepository.incrementStatistics(entry.getKey(), entry.getValue().played,
+                        entry.getValue().won, entry.getValue().winnings.toBigDecimal(), now), WRITE_CONCURRENCY)
+                .then()
+                .toFuture();
+        inFlight.add(write);
+        write.whenComplete((ignored, error) -> {
+            inFlight.remove(write);
+            if (error != null) {
+                log.error("Error writing player statistics batch: {}", error.getMessage(), error);
+                batch.forEach(increment -> increment.sink().tryEmitError(error));
+            } else {
+                batch.forEach(increment -> increment.sink().tryEmitEmpty());
+            }
+        });
+    }
+
+    private record PendingIncrement(Long playerId, boolean won, Money amount, Sinks.Empty<Void> sink) {}
+
+    private static final class Delta {
+        private int played;
+        private int won;
+        private Money winnings = Money.ZERO;
+
+        void add(PendingIncrement increment) {
+            played++;
+            if (increment.won()) {
+                won++;
+                winnings = winnings.plus(increment.amount());
+            }
+        }
+    }
+}
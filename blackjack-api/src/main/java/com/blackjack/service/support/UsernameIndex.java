@@ -0,0 +1,107 @@
+package com.blackjack.service.support;
+
+import com.blackjack.dto.PlayerSearchResult;
+import com.blackjack.model.Player;
+import com.blackjack.repository.PlayerRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted in-memory index of usernames for case-insensitive prefix search.
+ * Loaded from the players table once the application is ready and kept
+ * current by the player service as players are created, renamed or deleted.
+ */
+@Slf4j
+@Component
+public class UsernameIndex {
+
+    private final PlayerRepository playerRepository;
+
+    private final ConcurrentSkipListMap<String, PlayerSearchResult> byKey = new ConcurrentSkipListMap<>();
+    private final Map<Long, String> keysById = new ConcurrentHashMap<>();
+
+    public UsernameIndex(PlayerRepository playerRepository) {
+        this.playerRepository = playerRepository;
+    }
+
+    /**
+     * Load every username from the database
+     * @return number of usernames indexed
+     */
+    public Mono<Long> rebuild() {
+        return playerRepository.findAll()
+                .doOnNext(this::put)
+                .count()
+                .doOnSuccess(count -> log.info("Indexed {} usernames for prefix search", count))
+                .doOnError(error -> log.error("Error building username index: {}", error.getMessage(), error));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild().subscribe(count -> { }, error -> { });
+    }
+
+    /**
+     * Find players whose username starts with a prefix, ignoring case
+     * @param prefix username prefix
+     * @param limit maximum number of matches to return
+     * @return matches in username order
+     */
+    public List<PlayerSearchResult> search(String prefix, int limit) {
+        String from = key(prefix);
+        NavigableMap<String, PlayerSearchResult> matches = byKey.subMap(from, true, from + Character.MAX_VALUE, false);
+        List<PlayerSearchResult> results = new ArrayList<>(Math.min(limit, 16));
+        for (PlayerSearchResult match : matches.values()) {
+            if (results.size() >= limit) {
+                break;
+            }
+            results.add(match);
+        }
+        return results;
+    }
+
+    /**
+     * Add a player, replacing any previous username it was indexed under
+     * @param player the player that was saved
+     */
+    public void put(Player player) {
+        if (player == null || player.getId() == null || player.getUsername() == null) {
+            return;
+        }
+        String newKey = key(player.getUsername());
+        String oldKey = keysById.put(player.getId(), newKey);
+        if (oldKey != null && !oldKey.equals(newKey)) {
+            byKey.remove(oldKey);
+        }
+        byKey.put(newKey, new PlayerSearchResult(player.getId(), player.getUsername()));
+    }
+
+    /**
+     * Remove a player from the index
+     * @param id player ID
+     */
+    public void remove(Long id) {
+        if (id == null) {
+            return;
+        }
+        String key = keysById.remove(id);
+        if (key != null) {
+            byKey.remove(key);
+        }
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
@@ -10,5 +10,35 @@ CREATE TABLE IF NOT EXISTS players (
     games_won_today INT NOT NULL DEFAULT 0,
     last_login_date TIMESTAMP,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
-);
\ No newline at end of file
+    updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)
+);
+
+-- Separate statements so existing databases pick the indexes up. MySQL has no CREATE INDEX IF NOT EXISTS,
+-- so each index is only created when information_schema does not list it yet and re-runs are no-ops
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE()
+        AND table_name = 'players' AND index_name = 'idx_players_balance') = 0,
+    'CREATE INDEX idx_players_balance ON players (balance, id)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE()
+        AND table_name = 'players' AND index_name = 'idx_players_games_played') = 0,
+    'CREATE INDEX idx_players_games_played ON players (games_played, games_won)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+-- Microseconds, so two writes in the same second still give the player different ETags; repeating MODIFY is harmless
+ALTER TABLE players MODIFY updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+
+CREATE TABLE IF NOT EXISTS balance_ledger (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    player_id BIGINT NOT NULL,
+    game_id VARCHAR(64),
+    entry_type VARCHAR(32) NOT NULL,
+    amount DECIMAL(19,2) NOT NULL,
+    idempotency_key VARCHAR(128) NOT NULL UNIQUE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_balance_ledger_player (player_id, id)
+);
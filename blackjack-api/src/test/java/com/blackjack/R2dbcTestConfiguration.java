@@ -1,8 +1,10 @@
 package com.blackjack;
 
+import com.blackjack.config.DatabaseConfig;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
 import org.testcontainers.containers.MySQLContainer;
 import org.testcontainers.utility.DockerImageName;
 
@@ -18,4 +20,9 @@ public class R2dbcTestConfiguration {
             .withPassword("test")
             .withReuse(true);
     }
+
+    @Bean
+    public R2dbcCustomConversions r2dbcCustomConversions() {
+        return new DatabaseConfig().r2dbcCustomConversions();
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,146 @@
+package com.blackjack.config;
+
+import com.blackjack.model.Card;
+import com.blackjack.model.Game;
+import com.blackjack.model.Money;
+import com.blackjack.model.Player;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the response encodings on a page of games and a page of players.
+ * Each encoding writes the same pages repeatedly, and the payload size and
+ * serialization time per page are printed next to JSON. The hand-written
+ * game serializers are compared with Jackson's bean serializers the same way,
+ * along with the bytes allocated per page. Run with
+ * {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class CodecBenchmarkTest {
+
+    private static final int PAGE_SIZE = 50;
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURED_ITERATIONS = 20_000;
+
+    @Test
+    void compareEncodingsWithJson() throws Exception {
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", Jackson2ObjectMapperBuilder.json().build());
+        mappers.put("cbor", CodecConfig.cborMapper(Jackson2ObjectMapperBuilder.json()));
+        mappers.put("smile", CodecConfig.smileMapper(Jackson2ObjectMapperBuilder.json()));
+        mappers.put("compact", CodecConfig.compactMapper(Jackson2ObjectMapperBuilder.json()));
+
+        Random random = new Random(42);
+        List<Game> games = new ArrayList<>();
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            games.add(game(random, i));
+            players.add(player(i));
+        }
+
+        System.out.printf("%-10s %-8s %10s %8s %12s %8s%n", "encoding", "page", "bytes", "vs json", "us/page", "vs json");
+        Map<String, Result> json = new LinkedHashMap<>();
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            for (Map.Entry<String, List<?>> page : Map.<String, List<?>>of("games", games, "players", players).entrySet()) {
+                Result result = run(entry.getValue().writerFor(entry.getValue().getTypeFactory()
+                        .constructCollectionType(List.class, page.getValue().getFirst().getClass())), page.getValue());
+                Result baseline = json.computeIfAbsent(page.getKey(), key -> result);
+                System.out.printf("%-10s %-8s %10d %7.0f%% %12.1f %7.0f%%%n", entry.getKey(), page.getKey(),
+                        result.bytes(), 100.0 * result.bytes() / baseline.bytes(),
+                        result.micros(), 100.0 * result.micros() / baseline.micros());
+                if (!entry.getKey().equals("json")) {
+                    assertTrue(result.bytes() < baseline.bytes(), entry.getKey() + " should be smaller than JSON");
+                }
+            }
+        }
+    }
+
+    @Test
+    void compareHandWrittenSerializersWithBeanSerializers() throws Exception {
+        ObjectMapper bean = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper handWritten = Jackson2ObjectMapperBuilder.json()
+                .serializers(new GameJsonSerializers.CardSerializer(), new GameJsonSerializers.HandSerializer(),
+                        new GameJsonSerializers.GameSerializer())
+                .build();
+
+        Random random = new Random(42);
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            games.add(game(random, i));
+        }
+
+        System.out.printf("%-12s %10s %12s %14s%n", "serializers", "bytes", "us/page", "alloc/page");
+        Result baseline = null;
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("bean", bean);
+        mappers.put("hand-written", handWritten);
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            Result result = run(entry.getValue().writerFor(entry.getValue().getTypeFactory()
+                    .constructCollectionType(List.class, Game.class)), games);
+            System.out.printf("%-12s %10d %12.1f %14d%n", entry.getKey(), result.bytes(), result.micros(), result.allocated());
+            if (baseline != null) {
+                assertEquals(baseline.bytes(), result.bytes(), "both serializers should write the same JSON");
+            }
+            baseline = result;
+        }
+    }
+
+    private Result run(ObjectWriter writer, List<?> page) throws Exception {
+        int bytes = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            bytes = writer.writeValueAsBytes(page).length;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            bytes = writer.writeValueAsBytes(page).length;
+        }
+        return new Result(bytes, (System.nanoTime() - start) / 1e3 / MEASURED_ITERATIONS,
+                (threads.getCurrentThreadAllocatedBytes() - allocated) / MEASURED_ITERATIONS);
+    }
+
+    private Game game(Random random, int i) {
+        Game game = new Game(1L + i % 10, Money.of(5 + random.nextInt(100)));
+        game.setId(String.format("%024x", i));
+        for (int card = 0; card < 2 + random.nextInt(3); card++) {
+            game.getPlayerHand().addCard(card(random));
+        }
+        game.getDealerHand().addCard(card(random));
+        Card hole = card(random);
+        hole.flip();
+        game.getDealerHand().addCard(hole);
+        game.addAction(Game.GameAction.HIT);
+        game.addAction(Game.GameAction.STAND);
+        game.completeGame(Game.GameResult.values()[random.nextInt(Game.GameResult.values().length)]);
+        return game;
+    }
+
+    private Card card(Random random) {
+        return new Card(Card.Suit.values()[random.nextInt(4)], Card.Rank.values()[random.nextInt(13)]);
+    }
+
+    private Player player(int i) {
+        Player player = new Player("player" + i, "player" + i + "@example.com");
+        player.setId((long) i + 1);
+        player.setBalance(Money.of(1_000 + i));
+        player.setGamesPlayed(100 + i);
+        player.setGamesWon(40 + i);
+        player.setTotalWinnings(Money.of(500 + i));
+        return player;
+    }
+
+    private record Result(int bytes, double micros, long allocated) {}
+}
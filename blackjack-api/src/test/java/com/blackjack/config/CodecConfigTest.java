@@ -0,0 +1,136 @@
+package com.blackjack.config;
+
+import com.blackjack.controller.GameController;
+import com.blackjack.model.Card;
+import com.blackjack.model.Game;
+import com.blackjack.model.Money;
+import com.blackjack.model.Player;
+import com.blackjack.service.GameService;
+import com.blackjack.service.PlayerService;
+import com.blackjack.service.support.CompletedGameCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CodecConfigTest {
+
+    @Mock
+    private GameService gameService;
+
+    @Mock
+    private PlayerService playerService;
+
+    @Mock
+    private ObjectProvider<Jackson2ObjectMapperBuilder> builders;
+
+    private WebTestClient webTestClient;
+    private Game game;
+
+    @BeforeEach
+    void setUp() {
+        when(builders.getObject()).thenAnswer(invocation -> Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(GameJsonSerializersTest.jsonComponents()));
+        CompletedGameCache completedGameCache = new CompletedGameCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1),
+                new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry());
+        webTestClient = WebTestClient.bindToController(new GameController(gameService, playerService, completedGameCache))
+                .httpMessageCodecs(new CodecConfig().binaryCodecCustomizer(new ObjectMapper().findAndRegisterModules(), builders)::customize)
+                .build();
+
+        game = new Game(1L, Money.of(25));
+        game.setId("game1");
+        game.getPlayerHand().addCard(new Card(Card.Suit.HEARTS, Card.Rank.TEN));
+        game.getDealerHand().addCard(new Card(Card.Suit.SPADES, Card.Rank.ACE));
+        Card hole = new Card(Card.Suit.CLUBS, Card.Rank.KING);
+        hole.flip();
+        game.getDealerHand().addCard(hole);
+        game.addAction(Game.GameAction.HIT);
+        lenient().when(gameService.getGameById("game1")).thenReturn(Mono.just(game));
+    }
+
+    @Test
+    void getGame_ShouldStayJson_WhenNoEncodingIsRequested() {
+        webTestClient.get().uri("/api/games/game1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.playerHand.cards[0].rank").isEqualTo("TEN");
+    }
+
+    @Test
+    void getGame_ShouldWriteCardCodes_WhenCompactIsAccepted() {
+        webTestClient.get().uri("/api/games/game1")
+                .accept(CodecConfig.COMPACT_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(CodecConfig.COMPACT_JSON)
+                .expectBody(String.class)
+                .value(body -> {
+                    assertTrue(body.contains("\"playerHand\":[\"10H\"]"), body);
+                    assertTrue(body.contains("\"dealerHand\":[\"AS\",\"??\"]"), body);
+                    assertTrue(body.contains("\"actions\":[\"H\"]"), body);
+                    assertFalse(body.contains("playerTurn"), body);
+                });
+    }
+
+    @Test
+    void getGame_ShouldWriteCbor_WhenCborIsAccepted() {
+        byte[] body = webTestClient.get().uri("/api/games/game1")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        JsonNode decoded = read(body);
+        assertEquals("game1", decoded.get("id").asText());
+        assertEquals("TEN", decoded.at("/playerHand/cards/0/rank").asText());
+    }
+
+    @Test
+    void getActiveGames_ShouldWriteOneCborArray_WhenCborIsAccepted() {
+        when(playerService.getPlayerById(1L)).thenReturn(Mono.just(new Player("alice", "alice@example.com")));
+        when(gameService.getActiveGames(1L)).thenReturn(Flux.just(game, game));
+
+        byte[] body = webTestClient.get().uri("/api/games/player/1/active")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        JsonNode decoded = read(body);
+        assertTrue(decoded.isArray());
+        assertEquals(2, decoded.size());
+    }
+
+    private JsonNode read(byte[] cbor) {
+        try {
+            return CodecConfig.cborMapper(Jackson2ObjectMapperBuilder.json()).readTree(cbor);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
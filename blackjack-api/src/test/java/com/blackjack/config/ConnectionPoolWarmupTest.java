@@ -0,0 +1,74 @@
+package com.blackjack.config;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.ValidationDepth;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionPoolWarmupTest {
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private Result result;
+
+    @Mock
+    private ObjectProvider<ConnectionFactory> connectionFactoryProvider;
+
+    @Test
+    void warmUp_ShouldValidateAndPrimeEachConnection() {
+        ConnectionPoolWarmup warmup = new ConnectionPoolWarmup(connectionFactoryProvider, 3, Duration.ofSeconds(1));
+        doReturn(Mono.just(connection)).when(connectionFactory).create();
+        doReturn(Mono.just(true)).when(connection).validate(ValidationDepth.REMOTE);
+        doReturn(Mono.empty()).when(connection).close();
+        when(connection.createStatement(anyString())).thenReturn(statement);
+        when(statement.bind(anyInt(), any())).thenReturn(statement);
+        doReturn(Flux.just(result)).when(statement).execute();
+        doReturn(Flux.empty()).when(result).map(any(java.util.function.BiFunction.class));
+
+        StepVerifier.create(warmup.warmUp(connectionFactory))
+                .expectNext(3)
+                .verifyComplete();
+
+        verify(connection, times(3)).validate(ValidationDepth.REMOTE);
+        verify(connection, times(3 * ConnectionPoolWarmup.WARMUP_QUERIES.size())).createStatement(anyString());
+        verify(connection, times(3)).close();
+    }
+
+    @Test
+    void warmUp_ShouldFailAndReleaseConnection_WhenValidationFails() {
+        ConnectionPoolWarmup warmup = new ConnectionPoolWarmup(connectionFactoryProvider, 1, Duration.ofSeconds(1));
+        doReturn(Mono.just(connection)).when(connectionFactory).create();
+        doReturn(Mono.just(false)).when(connection).validate(ValidationDepth.REMOTE);
+        doReturn(Mono.empty()).when(connection).close();
+
+        StepVerifier.create(warmup.warmUp(connectionFactory))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        verify(connection).close();
+        verify(connection, never()).createStatement(anyString());
+    }
+}
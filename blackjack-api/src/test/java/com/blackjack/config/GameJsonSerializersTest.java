@@ -0,0 +1,103 @@
+package com.blackjack.config;
+
+import com.blackjack.model.Card;
+import com.blackjack.model.Game;
+import com.blackjack.model.Hand;
+import com.blackjack.model.Money;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameJsonSerializersTest {
+
+    private ObjectMapper beanMapper;
+    private ObjectMapper handWrittenMapper;
+    private Game game;
+
+    @BeforeEach
+    void setUp() {
+        beanMapper = Jackson2ObjectMapperBuilder.json().build();
+        handWrittenMapper = handWrittenMapper(Jackson2ObjectMapperBuilder.json());
+
+        game = new Game(1L, Money.of(25));
+        game.setId("game1");
+        game.getPlayerHand().addCard(new Card(Card.Suit.HEARTS, Card.Rank.ACE));
+        game.getPlayerHand().addCard(new Card(Card.Suit.SPADES, Card.Rank.SIX));
+        game.getDealerHand().addCard(new Card(Card.Suit.DIAMONDS, Card.Rank.TEN));
+        Card hole = new Card(Card.Suit.CLUBS, Card.Rank.KING);
+        hole.flip();
+        game.getDealerHand().addCard(hole);
+        game.addAction(Game.GameAction.STAND);
+    }
+
+    @Test
+    void serialize_ShouldMatchBeanSerializer_WhenGameIsInProgress() throws Exception {
+        assertSameJson(game);
+        JsonNode json = handWrittenMapper.readTree(handWrittenMapper.writeValueAsString(game));
+        assertEquals(17, json.path("playerHand").path("value").asInt());
+        assertTrue(json.path("playerHand").path("soft").asBoolean());
+        assertTrue(json.path("dealerTurn").asBoolean());
+        assertTrue(json.path("insuranceBet").isNull());
+    }
+
+    @Test
+    void serialize_ShouldMatchBeanSerializer_WhenGameIsCompleted() throws Exception {
+        game.setInsuranceBet(Money.of(new BigDecimal("12.50")));
+        game.getPlayerHand().addCard(new Card(Card.Suit.HEARTS, Card.Rank.NINE));
+        game.getPlayerHand().addCard(new Card(Card.Suit.CLUBS, Card.Rank.EIGHT));
+        game.completeGame(Game.GameResult.PLAYER_BUST);
+
+        assertSameJson(game);
+        assertSameJson(new Game());
+    }
+
+    @Test
+    void serialize_ShouldMatchBeanSerializer_ForEveryCard() throws Exception {
+        Hand hand = new Hand();
+        for (Card.Suit suit : Card.Suit.values()) {
+            for (Card.Rank rank : Card.Rank.values()) {
+                Card card = new Card(suit, rank);
+                hand.addCard(card);
+                assertSameJson(card);
+                card.flip();
+                assertSameJson(card);
+            }
+        }
+        assertSameJson(hand);
+    }
+
+    @Test
+    void serialize_ShouldWriteFieldByField_WhenFormatIsBinary() throws Exception {
+        ObjectMapper beanCbor = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        ObjectMapper cbor = CodecConfig.cborMapper(Jackson2ObjectMapperBuilder.json().modulesToInstall(jsonComponents()));
+
+        assertEquals(beanCbor.readTree(beanCbor.writeValueAsBytes(game)), cbor.readTree(cbor.writeValueAsBytes(game)));
+    }
+
+    private void assertSameJson(Object value) throws Exception {
+        assertEquals(beanMapper.readTree(beanMapper.writeValueAsString(value)),
+                handWrittenMapper.readTree(handWrittenMapper.writeValueAsString(value)));
+    }
+
+    // The serializers as the application registers them, through the @JsonComponent module
+    static SimpleModule jsonComponents() {
+        SimpleModule module = new SimpleModule("JsonComponents");
+        module.addSerializer(Card.class, new GameJsonSerializers.CardSerializer());
+        module.addSerializer(Hand.class, new GameJsonSerializers.HandSerializer());
+        module.addSerializer(Game.class, new GameJsonSerializers.GameSerializer());
+        return module;
+    }
+
+    private static ObjectMapper handWrittenMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.serializers(new GameJsonSerializers.CardSerializer(), new GameJsonSerializers.HandSerializer(),
+                new GameJsonSerializers.GameSerializer()).build();
+    }
+}
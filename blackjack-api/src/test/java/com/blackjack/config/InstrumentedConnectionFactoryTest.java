@@ -0,0 +1,73 @@
+package com.blackjack.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.R2dbcTimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InstrumentedConnectionFactoryTest {
+
+    @Mock
+    private ConnectionFactory pool;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    private SimpleMeterRegistry meterRegistry;
+    private InstrumentedConnectionFactory connectionFactory;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(meterRegistryProvider.getIfAvailable()).thenReturn(meterRegistry);
+        connectionFactory = new InstrumentedConnectionFactory(pool, "connectionFactory", meterRegistryProvider);
+    }
+
+    @Test
+    void create_ShouldTimeSuccessfulAcquisitions() {
+        doReturn(Mono.just(connection)).when(pool).create();
+
+        StepVerifier.create(connectionFactory.create())
+                .expectNext(connection)
+                .verifyComplete();
+
+        assertEquals(1, meterRegistry.get(InstrumentedConnectionFactory.ACQUIRE_TIMER)
+                .tag("outcome", "success").timer().count());
+        assertEquals(0, meterRegistry.get(InstrumentedConnectionFactory.ACQUIRE_TIMEOUTS).counter().count());
+    }
+
+    @Test
+    void create_ShouldCountTimeouts() {
+        doReturn(Mono.error(new R2dbcTimeoutException("Connection acquisition timed out after 3000ms")))
+                .when(pool).create();
+
+        StepVerifier.create(connectionFactory.create())
+                .expectError(R2dbcTimeoutException.class)
+                .verify();
+
+        assertEquals(1, meterRegistry.get(InstrumentedConnectionFactory.ACQUIRE_TIMEOUTS).counter().count());
+        assertEquals(1, meterRegistry.get(InstrumentedConnectionFactory.ACQUIRE_TIMER)
+                .tag("outcome", "timeout").timer().count());
+    }
+
+    @Test
+    void unwrap_ShouldExposePoolForBootGauges() {
+        assertSame(pool, connectionFactory.unwrap());
+    }
+}
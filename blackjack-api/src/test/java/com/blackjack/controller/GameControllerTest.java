@@ -0,0 +1,183 @@
+package com.blackjack.controller;
+
+import com.blackjack.exception.GlobalExceptionHandler;
+import com.blackjack.model.Card;
+import com.blackjack.model.Game;
+import com.blackjack.model.Money;
+import com.blackjack.service.GameService;
+import com.blackjack.service.PlayerService;
+import com.blackjack.service.support.CompletedGameCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameControllerTest {
+
+    @Mock
+    private GameService gameService;
+
+    @Mock
+    private PlayerService playerService;
+
+    private WebTestClient webTestClient;
+    private Game game;
+
+    @BeforeEach
+    void setUp() {
+        CompletedGameCache completedGameCache = new CompletedGameCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1),
+                Jackson2ObjectMapperBuilder.json().build(), new SimpleMeterRegistry());
+        webTestClient = WebTestClient.bindToController(new GameController(gameService, playerService, completedGameCache))
+                .controllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        game = new Game(1L, Money.of(25));
+        game.setId("game1");
+        game.getPlayerHand().addCard(new Card(Card.Suit.HEARTS, Card.Rank.TEN));
+        game.getDealerHand().addCard(new Card(Card.Suit.SPADES, Card.Rank.ACE));
+        game.setRevision(1L);
+        lenient().when(gameService.getGameById("game1")).thenReturn(Mono.just(game));
+    }
+
+    @Test
+    void getGame_ShouldServeCompletedGameFromCache_WhenReadAgain() {
+        game.completeGame(Game.GameResult.DEALER_WIN);
+
+        String eTag = webTestClient.get().uri("/api/games/game1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectHeader().valueMatches("Cache-Control", ".*immutable.*")
+                .expectBody()
+                .jsonPath("$.result").isEqualTo("DEALER_WIN")
+                .returnResult().getResponseHeaders().getETag();
+
+        webTestClient.get().uri("/api/games/game1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", eTag)
+                .expectBody()
+                .jsonPath("$.result").isEqualTo("DEALER_WIN");
+
+        assertNotNull(eTag);
+        verify(gameService, times(1)).getGameById("game1");
+    }
+
+    @Test
+    void getGame_ShouldReturnNotModified_WhenETagMatches() {
+        game.completeGame(Game.GameResult.DEALER_WIN);
+        String eTag = webTestClient.get().uri("/api/games/game1")
+                .exchange()
+                .returnResult(String.class).getResponseHeaders().getETag();
+
+        webTestClient.get().uri("/api/games/game1")
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void getGame_ShouldNotCache_WhenGameIsInProgress() {
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get().uri("/api/games/game1")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().valueEquals("ETag", "W/\"1\"")
+                    .expectBody()
+                    .jsonPath("$.status").isEqualTo("IN_PROGRESS");
+        }
+
+        verify(gameService, times(2)).getGameById("game1");
+    }
+
+    @Test
+    void getGame_ShouldReturnNotModifiedWithoutLoading_WhenRevisionMatches() {
+        when(gameService.getGameRevision("game1")).thenReturn(Mono.just(1L));
+
+        webTestClient.get().uri("/api/games/game1")
+                .ifNoneMatch("W/\"1\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", "W/\"1\"");
+
+        verify(gameService, never()).getGameById(anyString());
+    }
+
+    @Test
+    void getGame_ShouldReturnGame_WhenRevisionChanged() {
+        game.setRevision(2L);
+        when(gameService.getGameRevision("game1")).thenReturn(Mono.just(2L));
+
+        webTestClient.get().uri("/api/games/game1")
+                .ifNoneMatch("W/\"1\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "W/\"2\"")
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("IN_PROGRESS");
+    }
+
+    @Test
+    void getGame_ShouldReturnNotFound_WhenConditionalGameIsMissing() {
+        when(gameService.getGameRevision("missing")).thenReturn(Mono.empty());
+
+        webTestClient.get().uri("/api/games/missing")
+                .ifNoneMatch("W/\"1\"")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getGame_ShouldReturnOnlySelectedFields_WhenFieldsGiven() {
+        when(gameService.getGameById("game1", Set.of("status", "playerHand"))).thenReturn(Mono.just(game));
+
+        webTestClient.get().uri("/api/games/game1?fields=status,playerHand.value")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", "W/\"1\"")
+                .expectBody()
+                .jsonPath("$.status").isEqualTo("IN_PROGRESS")
+                .jsonPath("$.playerHand.value").isEqualTo(10)
+                .jsonPath("$.playerHand.cards").doesNotExist()
+                .jsonPath("$.bet").doesNotExist();
+
+        verify(gameService, never()).getGameById("game1");
+    }
+
+    @Test
+    void getGame_ShouldReturnBadRequest_WhenFieldIsUnknown() {
+        webTestClient.get().uri("/api/games/game1?fields=status,deck")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(gameService);
+    }
+
+    @Test
+    void hit_ShouldReturnConflict_WhenGameWasChangedConcurrently() {
+        when(gameService.hit("game1")).thenReturn(Mono.error(new OptimisticLockingFailureException("Version mismatch")));
+
+        webTestClient.post().uri("/api/games/game1/hit")
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("CONFLICT");
+    }
+}
@@ -0,0 +1,125 @@
+package com.blackjack.controller;
+
+import com.blackjack.model.Card;
+import com.blackjack.model.Game;
+import com.blackjack.model.Hand;
+import com.blackjack.model.Money;
+import com.blackjack.service.GameService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GameWebSocketHandlerTest {
+
+    @Mock
+    private GameService gameService;
+
+    private GameWebSocketHandler handler;
+    private Game game;
+
+    @BeforeEach
+    void setUp() {
+        handler = new GameWebSocketHandler(gameService, new ObjectMapper());
+
+        game = new Game(1L, Money.of(25));
+        game.setId("game1");
+        game.getPlayerHand().addCard(new Card(Card.Suit.HEARTS, Card.Rank.TEN));
+        game.getPlayerHand().addCard(new Card(Card.Suit.SPADES, Card.Rank.TWO));
+        game.getDealerHand().addCard(new Card(Card.Suit.DIAMONDS, Card.Rank.SEVEN));
+        Card hole = new Card(Card.Suit.CLUBS, Card.Rank.KING);
+        hole.flip();
+        game.getDealerHand().addCard(hole);
+    }
+
+    @Test
+    void exchange_ShouldSendFullStateFirstThenOnlyChanges() {
+        when(gameService.getGameById("game1")).thenReturn(Mono.just(game));
+        when(gameService.hit("game1")).thenAnswer(invocation -> {
+            game.getPlayerHand().addCard(new Card(Card.Suit.HEARTS, Card.Rank.FIVE));
+            return Mono.just(game);
+        });
+        when(gameService.stand("game1")).thenAnswer(invocation -> {
+            game.getDealerHand().getCards().get(1).flip();
+            game.completeGame(Game.GameResult.DEALER_WIN);
+            return Mono.just(game);
+        });
+
+        StepVerifier.create(handler.exchange(Flux.just(
+                        "{\"id\":1,\"g\":\"game1\",\"a\":\"G\"}",
+                        "{\"id\":2,\"g\":\"game1\",\"a\":\"H\"}",
+                        "{\"id\":3,\"g\":\"game1\",\"a\":\"S\"}")))
+                .expectNext("{\"id\":1,\"g\":\"game1\",\"s\":\"IN_PROGRESS\",\"b\":25.00,\"p\":[\"10H\",\"2S\"],"
+                        + "\"pr\":true,\"d\":[\"7D\",\"??\"],\"dr\":true}")
+                .expectNext("{\"id\":2,\"g\":\"game1\",\"p\":[\"5H\"]}")
+                .expectNext("{\"id\":3,\"g\":\"game1\",\"s\":\"COMPLETED\",\"r\":\"DEALER_WIN\",\"d\":[\"7D\",\"KC\"],\"dr\":true}")
+                .verifyComplete();
+    }
+
+    @Test
+    void exchange_ShouldAnswerFailuresWithoutClosingTheSession() {
+        when(gameService.hit("done")).thenReturn(Mono.error(new IllegalStateException("Game is not in progress")));
+        when(gameService.hit("missing")).thenReturn(Mono.empty());
+        when(gameService.insurance("game1")).thenReturn(Mono.just(game));
+
+        StepVerifier.create(handler.exchange(Flux.just(
+                        "not json",
+                        "{\"id\":2,\"g\":\"done\",\"a\":\"H\"}",
+                        "{\"id\":3,\"g\":\"missing\",\"a\":\"H\"}",
+                        "{\"id\":4,\"g\":\"game1\",\"a\":\"I\"}")).collectList())
+                .expectNextMatches(replies -> replies.size() == 4
+                        && replies.contains("{\"e\":\"Invalid frame\"}")
+                        && replies.contains("{\"id\":2,\"g\":\"done\",\"e\":\"Game is not in progress\"}")
+                        && replies.contains("{\"id\":3,\"g\":\"missing\",\"e\":\"Game not found\"}")
+                        && replies.stream().anyMatch(reply -> reply.startsWith("{\"id\":4,\"g\":\"game1\",\"s\":")))
+                .verifyComplete();
+    }
+
+    @Test
+    void exchange_ShouldRejectGamesBeyondTheSessionLimit() {
+        when(gameService.getGameById(anyString())).thenReturn(Mono.just(game));
+
+        Flux<String> frames = Flux.range(0, GameWebSocketHandler.MAX_GAMES_PER_SESSION + 1)
+                .map(i -> "{\"id\":" + i + ",\"g\":\"game" + i + "\",\"a\":\"G\"}");
+
+        StepVerifier.create(handler.exchange(frames).filter(reply -> reply.contains("\"e\"")))
+                .expectNext("{\"id\":256,\"g\":\"game256\",\"e\":\"Too many games on this session\"}")
+                .verifyComplete();
+    }
+
+    @Test
+    void exchange_ShouldSendSplitGameId_WhenHandIsSplit() {
+        when(gameService.split("game1")).thenAnswer(invocation -> {
+            game.setSplitGameId("game2");
+            return Mono.just(game);
+        });
+
+        StepVerifier.create(handler.exchange(Flux.just("{\"id\":1,\"g\":\"game1\",\"a\":\"P\"}")))
+                .expectNextMatches(reply -> reply.startsWith("{\"id\":1,\"g\":\"game1\",")
+                        && reply.endsWith(",\"sg\":\"game2\"}"))
+                .verifyComplete();
+    }
+
+    @Test
+    void exchange_ShouldFreeTheSessionLimit_WhenGamesComplete() {
+        game.completeGame(Game.GameResult.DEALER_WIN);
+        when(gameService.getGameById(anyString())).thenReturn(Mono.just(game));
+
+        // Every game finishes, so a session can play more of them than the limit, and finished ones again
+        Flux<String> frames = Flux.range(0, GameWebSocketHandler.MAX_GAMES_PER_SESSION * 2)
+                .map(i -> "{\"id\":" + i + ",\"g\":\"game" + (i % (GameWebSocketHandler.MAX_GAMES_PER_SESSION + 1))
+                        + "\",\"a\":\"G\"}");
+
+        StepVerifier.create(handler.exchange(frames).filter(reply -> reply.contains("\"e\"")))
+                .verifyComplete();
+        verify(gameService, times(GameWebSocketHandler.MAX_GAMES_PER_SESSION * 2)).getGameById(anyString());
+    }
+}
@@ -0,0 +1,121 @@
+package com.blackjack.controller;
+
+import com.blackjack.exception.GlobalExceptionHandler;
+import com.blackjack.model.Money;
+import com.blackjack.model.Player;
+import com.blackjack.repository.projection.PlayerStatistics;
+import com.blackjack.service.PlayerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlayerControllerTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2023, 12, 8, 15, 30, 45, 123_456_000);
+
+    @Mock
+    private PlayerService playerService;
+
+    private WebTestClient webTestClient;
+    private String eTag;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToController(new PlayerController(playerService))
+                .controllerAdvice(new GlobalExceptionHandler())
+                .build();
+        eTag = EntityTags.of(UPDATED_AT);
+    }
+
+    @Test
+    void getPlayerStats_ShouldTagStatisticsWithUpdateTime() {
+        when(playerService.getPlayerStatistics(1L)).thenReturn(Mono.just(
+                new PlayerStatistics(1L, "alice", Money.of(100), 4, 2, Money.of(50), 1, 1, UPDATED_AT)));
+
+        webTestClient.get().uri("/api/players/1/stats")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", eTag)
+                .expectBody()
+                .jsonPath("$.winRate").isEqualTo(0.5);
+    }
+
+    @Test
+    void getPlayerStats_ShouldReturnNotModifiedWithoutLoading_WhenUpdateTimeMatches() {
+        when(playerService.getPlayerUpdatedAt(1L)).thenReturn(Mono.just(UPDATED_AT));
+
+        webTestClient.get().uri("/api/players/1/stats")
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        verify(playerService, never()).getPlayerStatistics(anyLong());
+    }
+
+    @Test
+    void getPlayerStats_ShouldReturnStatistics_WhenPlayerChanged() {
+        LocalDateTime changed = UPDATED_AT.plusNanos(1_000);
+        when(playerService.getPlayerUpdatedAt(1L)).thenReturn(Mono.just(changed));
+        when(playerService.getPlayerStatistics(1L)).thenReturn(Mono.just(
+                new PlayerStatistics(1L, "alice", Money.of(100), 5, 2, Money.of(50), 2, 1, changed)));
+
+        webTestClient.get().uri("/api/players/1/stats")
+                .ifNoneMatch(eTag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("ETag", EntityTags.of(changed))
+                .expectBody()
+                .jsonPath("$.gamesPlayed").isEqualTo(5);
+    }
+
+    @Test
+    void getPlayerById_ShouldReadOnlySelectedColumns_WhenFieldsGiven() {
+        Player player = new Player();
+        player.setId(1L);
+        player.setGamesPlayed(4);
+        player.setGamesWon(1);
+        when(playerService.getPlayerById(1L, Set.of("id", "games_played", "games_won"))).thenReturn(Mono.just(player));
+
+        webTestClient.get().uri("/api/players/1?fields=id,winRate")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(1)
+                .jsonPath("$.winRate").isEqualTo(0.25)
+                .jsonPath("$.username").doesNotExist();
+
+        verify(playerService, never()).getPlayerById(anyLong());
+    }
+
+    @Test
+    void getPlayerById_ShouldReturnBadRequest_WhenNoFieldsSelected() {
+        webTestClient.get().uri("/api/players/1?fields=,")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(playerService);
+    }
+
+    @Test
+    void getWealthyPlayers_ShouldReturnBadRequest_WhenCursorIsHalfGiven() {
+        webTestClient.get().uri("/api/players/wealthy?afterBalance=250.00")
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.get().uri("/api/players/wealthy?afterId=42")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(playerService);
+    }
+}
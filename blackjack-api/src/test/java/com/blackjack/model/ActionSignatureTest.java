@@ -0,0 +1,39 @@
+package com.blackjack.model;
+
+import com.blackjack.model.Game.GameAction;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ActionSignatureTest {
+
+    @Test
+    void testEncode() {
+        assertEquals("HHSD", ActionSignature.encode(List.of(GameAction.HIT, GameAction.HIT, GameAction.STAND, GameAction.DOUBLE_DOWN)));
+        assertEquals("", ActionSignature.encode(List.of()));
+    }
+
+    @Test
+    void testGramsCoverEveryShortRun() {
+        assertEquals(List.of("H", "S", "HH", "HS", "HHS"), ActionSignature.grams("HHS"));
+        assertEquals(List.of("H", "S", "HH", "HS", "HHH", "HHS"), ActionSignature.grams("HHHS"));
+    }
+
+    @Test
+    void testSearchGrams() {
+        assertEquals(List.of("HS"), ActionSignature.searchGrams("HS"));
+        assertEquals(List.of("HHH", "HHS"), ActionSignature.searchGrams("HHHS"));
+    }
+
+    @Test
+    void testRefreshActionSignature() {
+        Game game = new Game(1L, Money.of(10));
+        game.addAction(GameAction.HIT);
+        game.addAction(GameAction.STAND);
+
+        game.refreshActionSignature();
+
+        assertEquals("HS", game.getActionSignature());
+        assertTrue(game.getActionGrams().containsAll(List.of("H", "S", "HS")));
+    }
+}
@@ -2,14 +2,13 @@ package com.blackjack.model;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import java.math.BigDecimal;
 import static org.junit.jupiter.api.Assertions.*;
 
 class GameTest {
 
     private Game game;
     private static final Long PLAYER_ID = 1L;
-    private static final BigDecimal BET_AMOUNT = BigDecimal.valueOf(100);
+    private static final Money BET_AMOUNT = Money.of(100);
 
     @BeforeEach
     void setUp() {
@@ -0,0 +1,50 @@
+package com.blackjack.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import java.math.BigDecimal;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void testConversionFromDecimal() {
+        assertEquals(2550, Money.of(new BigDecimal("25.50")).cents());
+        assertEquals(1001, Money.of(new BigDecimal("10.005")).cents());
+        assertEquals(new BigDecimal("25.50"), Money.ofCents(2550).toBigDecimal());
+        assertSame(Money.ZERO, Money.of(BigDecimal.ZERO));
+        assertNull(Money.of((BigDecimal) null));
+    }
+
+    @Test
+    void testArithmetic() {
+        Money balance = Money.of(100);
+
+        assertEquals(Money.of(125), balance.plus(Money.of(25)));
+        assertEquals(Money.of(75), balance.minus(Money.of(25)));
+        assertEquals(Money.of(-100), balance.negate());
+        assertTrue(balance.minus(Money.of(101)).isNegative());
+        assertTrue(Money.of(5).isLessThan(balance));
+    }
+
+    @Test
+    void testPayoutRatiosRoundHalfUp() {
+        assertEquals(Money.of(250), Money.of(100).times(5, 2));
+        assertEquals(Money.ofCents(2503), Money.ofCents(1001).times(5, 2));
+        assertEquals(Money.ofCents(501), Money.ofCents(1001).times(1, 2));
+        assertEquals(Money.ofCents(-501), Money.ofCents(-1001).times(1, 2));
+    }
+
+    @Test
+    void testOverflowIsRejected() {
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MAX_VALUE).plus(Money.ofCents(1)));
+    }
+
+    @Test
+    void testJsonUsesDecimalRepresentation() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+
+        assertEquals("12.50", mapper.writeValueAsString(Money.ofCents(1250)));
+        assertEquals(Money.ofCents(1250), mapper.readValue("12.5", Money.class));
+    }
+}
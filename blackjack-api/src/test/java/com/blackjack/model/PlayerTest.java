@@ -2,7 +2,6 @@ package com.blackjack.model;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import java.math.BigDecimal;
 import static org.junit.jupiter.api.Assertions.*;
 
 class PlayerTest {
@@ -10,7 +9,7 @@ class PlayerTest {
     private Player player;
     private static final String USERNAME = "testPlayer";
     private static final String EMAIL = "test@example.com";
-    private static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(1000);
+    private static final Money INITIAL_BALANCE = Money.of(1000);
 
     @BeforeEach
     void setUp() {
@@ -27,38 +26,38 @@ class PlayerTest {
         assertEquals(INITIAL_BALANCE, player.getBalance());
         assertEquals(0, player.getGamesPlayed());
         assertEquals(0, player.getGamesWon());
-        assertEquals(BigDecimal.ZERO, player.getTotalWinnings());
+        assertEquals(Money.ZERO, player.getTotalWinnings());
     }
 
     @Test
     void testUpdateStatistics() {
-        BigDecimal winAmount = BigDecimal.valueOf(100);
+        Money winAmount = Money.of(100);
         player.updateStatistics(true, winAmount);
         
         assertEquals(1, player.getGamesPlayed());
         assertEquals(1, player.getGamesWon());
         assertEquals(winAmount, player.getTotalWinnings());
-        assertEquals(INITIAL_BALANCE.add(winAmount), player.getBalance());
+        assertEquals(INITIAL_BALANCE, player.getBalance());
 
         // Test losing game
-        BigDecimal loseAmount = BigDecimal.valueOf(50);
+        Money loseAmount = Money.of(50);
         player.updateStatistics(false, loseAmount);
         
         assertEquals(2, player.getGamesPlayed());
         assertEquals(1, player.getGamesWon());
         assertEquals(winAmount, player.getTotalWinnings());
-        assertEquals(INITIAL_BALANCE.add(winAmount).subtract(loseAmount), player.getBalance());
+        assertEquals(INITIAL_BALANCE, player.getBalance());
     }
 
     @Test
     void testWinRate() {
         // Win 2 games
-        player.updateStatistics(true, BigDecimal.TEN);
-        player.updateStatistics(true, BigDecimal.TEN);
+        player.updateStatistics(true, Money.of(10));
+        player.updateStatistics(true, Money.of(10));
         
         // Lose 2 games
-        player.updateStatistics(false, BigDecimal.TEN);
-        player.updateStatistics(false, BigDecimal.TEN);
+        player.updateStatistics(false, Money.of(10));
+        player.updateStatistics(false, Money.of(10));
         
         assertEquals(4, player.getGamesPlayed());
         assertEquals(2, player.getGamesWon());
@@ -68,7 +67,7 @@ class PlayerTest {
     @Test
     void testNegativeBalanceNotAllowed() {
         assertThrows(IllegalArgumentException.class, () -> 
-            player.setBalance(BigDecimal.valueOf(-100)));
+            player.setBalance(Money.of(-100)));
     }
 
     @Test
@@ -3,11 +3,18 @@ package com.blackjack.repository;
 import com.blackjack.MongoTestConfiguration;
 import com.blackjack.model.Game;
 import com.blackjack.model.Hand;
+import com.blackjack.model.Money;
+import com.blackjack.model.PendingSettlement;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import reactor.core.publisher.Mono;
@@ -16,20 +23,31 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @DataMongoTest
-@Import(MongoTestConfiguration.class)
+@Import({MongoTestConfiguration.class, GameActionSignatureCallback.class})
 class GameRepositoryTest {
 
     @Autowired
     private GameRepository gameRepository;
 
+    @Autowired
+    private PlayerGameStatsRepository playerGameStatsRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate mongoTemplate;
+
     private Game testGame;
     private final Long testPlayerId = 1L;
 
     @BeforeEach
     void setUp() {
-        testGame = new Game(testPlayerId, BigDecimal.valueOf(100));
+        testGame = new Game(testPlayerId, Money.of(100));
         testGame.setStartTime(LocalDateTime.now());
         testGame.setEndTime(LocalDateTime.now());
         testGame.setPlayerHand(new Hand());
@@ -47,7 +65,7 @@ class GameRepositoryTest {
         StepVerifier.create(gameRepository.findByPlayerId(testPlayerId))
                 .expectNextMatches(game -> 
                     game.getPlayerId().equals(testPlayerId) &&
-                    game.getBet().equals(BigDecimal.valueOf(100)))
+                    game.getBet().equals(Money.of(100)))
                 .verifyComplete();
     }
 
@@ -63,8 +81,8 @@ class GameRepositoryTest {
     @Test
     void findByPlayerId_WithPagination_ShouldReturnPagedGames() {
         // Create additional games
-        Game game1 = new Game(testPlayerId, BigDecimal.valueOf(200));
-        Game game2 = new Game(testPlayerId, BigDecimal.valueOf(300));
+        Game game1 = new Game(testPlayerId, Money.of(200));
+        Game game2 = new Game(testPlayerId, Money.of(300));
 
         StepVerifier.create(
                 gameRepository.deleteAll()
@@ -89,7 +107,7 @@ class GameRepositoryTest {
     @Test
     void findHighStakeGames_ShouldReturnGamesAboveThreshold() {
         // Given
-        Game highStakeGame = new Game(testPlayerId, BigDecimal.valueOf(1000));
+        Game highStakeGame = new Game(testPlayerId, Money.of(1000));
         highStakeGame.setStatus(Game.GameStatus.IN_PROGRESS);
         
         // When & Then
@@ -98,18 +116,18 @@ class GameRepositoryTest {
                     .then(gameRepository.save(highStakeGame))
                     .thenMany(gameRepository.findHighStakeGames(BigDecimal.valueOf(500))))
                 .expectNextMatches(game -> 
-                    game.getBet().compareTo(BigDecimal.valueOf(500)) > 0 &&
+                    game.getBet().compareTo(Money.of(500)) > 0 &&
                     game.getStatus() == Game.GameStatus.IN_PROGRESS)
                 .verifyComplete();
     }
 
     @Test
     void deleteCompletedGamesOlderThan_ShouldRemoveOldGames() {
-        Game oldGame = new Game(testPlayerId, BigDecimal.valueOf(100));
+        Game oldGame = new Game(testPlayerId, Money.of(100));
         oldGame.setStatus(Game.GameStatus.COMPLETED);
         oldGame.setEndTime(LocalDateTime.now().minusDays(7));
 
-        Game recentGame = new Game(testPlayerId, BigDecimal.valueOf(100));
+        Game recentGame = new Game(testPlayerId, Money.of(100));
         recentGame.setStatus(Game.GameStatus.COMPLETED);
         recentGame.setEndTime(LocalDateTime.now());
 
@@ -131,7 +149,7 @@ class GameRepositoryTest {
         LocalDateTime startDate = now.minusDays(1);
         LocalDateTime endDate = now.plusDays(1);
 
-        Game game = new Game(testPlayerId, BigDecimal.valueOf(100));
+        Game game = new Game(testPlayerId, Money.of(100));
         game.setStartTime(now);
         game.setEndTime(now);
 
@@ -157,11 +175,11 @@ class GameRepositoryTest {
 
     @Test
     void findTopWinningGames_ShouldReturnOrderedGames() {
-        Game winningGame1 = new Game(testPlayerId, BigDecimal.valueOf(500));
+        Game winningGame1 = new Game(testPlayerId, Money.of(500));
         winningGame1.setStatus(Game.GameStatus.COMPLETED);
         winningGame1.setResult(Game.GameResult.PLAYER_WIN);
 
-        Game winningGame2 = new Game(testPlayerId, BigDecimal.valueOf(300));
+        Game winningGame2 = new Game(testPlayerId, Money.of(300));
         winningGame2.setStatus(Game.GameStatus.COMPLETED);
         winningGame2.setResult(Game.GameResult.PLAYER_BLACKJACK);
 
@@ -171,14 +189,43 @@ class GameRepositoryTest {
                         gameRepository.save(winningGame1),
                         gameRepository.save(winningGame2)))
                     .thenMany(gameRepository.findTopWinningGames(2)))
-                .expectNextMatches(game -> game.getBet().equals(BigDecimal.valueOf(500)))
-                .expectNextMatches(game -> game.getBet().equals(BigDecimal.valueOf(300)))
+                .expectNextMatches(game -> game.getBet().equals(Money.of(500)))
+                .expectNextMatches(game -> game.getBet().equals(Money.of(300)))
                 .verifyComplete();
     }
 
+    @Test
+    void findGamesByPlayerId_ShouldPageNewestFirstAcrossStatuses() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Game oldest = new Game(testPlayerId, Money.of(10));
+        oldest.setStartTime(now.minusYears(2));
+        oldest.completeGame(Game.GameResult.PUSH);
+        Game sameTimeA = new Game(testPlayerId, Money.of(10));
+        sameTimeA.setStartTime(now.minusDays(1));
+        Game sameTimeB = new Game(testPlayerId, Money.of(10));
+        sameTimeB.setStartTime(now.minusDays(1));
+        Game active = new Game(testPlayerId, Money.of(10));
+        active.setStartTime(now);
+        Game otherPlayer = new Game(2L, Money.of(10));
+        otherPlayer.setStartTime(now);
+
+        List<Game> firstPage = gameRepository.deleteAll()
+                .thenMany(gameRepository.saveAll(List.of(oldest, sameTimeA, sameTimeB, active, otherPlayer)))
+                .thenMany(gameRepository.findGamesByPlayerId(testPlayerId, 2, null, null))
+                .collectList()
+                .block();
+        Game last = firstPage.get(1);
+
+        StepVerifier.create(gameRepository.findGamesByPlayerId(testPlayerId, 2, last.getStartTime(), last.getId()))
+                .expectNextMatches(game -> game.getStartTime().equals(now.minusDays(1)) && !game.getId().equals(last.getId()))
+                .expectNextMatches(game -> game.getId().equals(oldest.getId()))
+                .verifyComplete();
+        assertEquals(active.getId(), firstPage.get(0).getId());
+    }
+
     @Test
     void findGamesByActionSequence_ShouldReturnMatchingGames() {
-        Game gameWithActions = new Game(testPlayerId, BigDecimal.valueOf(100));
+        Game gameWithActions = new Game(testPlayerId, Money.of(100));
         List<Game.GameAction> actions = Arrays.asList(
             Game.GameAction.HIT,
             Game.GameAction.STAND
@@ -193,30 +240,266 @@ class GameRepositoryTest {
                 .verifyComplete();
     }
 
+    @Test
+    void findGamesByActionPrefixAndContents_ShouldMatchIndexedSignature() {
+        Game hitHitStand = new Game(testPlayerId, Money.of(100));
+        List.of(Game.GameAction.HIT, Game.GameAction.HIT, Game.GameAction.STAND).forEach(hitHitStand::addAction);
+        Game standOnly = new Game(testPlayerId, Money.of(100));
+        standOnly.addAction(Game.GameAction.STAND);
+        Game hitStandHitHitStand = new Game(testPlayerId, Money.of(100));
+        List.of(Game.GameAction.HIT, Game.GameAction.STAND, Game.GameAction.HIT, Game.GameAction.HIT, Game.GameAction.STAND)
+                .forEach(hitStandHitHitStand::addAction);
+
+        StepVerifier.create(
+                gameRepository.deleteAll()
+                    .thenMany(gameRepository.saveAll(List.of(hitHitStand, standOnly, hitStandHitHitStand)))
+                    .thenMany(gameRepository.findGamesByActionPrefix(List.of(Game.GameAction.HIT, Game.GameAction.HIT), 10))
+                    .map(Game::getActionSignature)
+                    .collectList())
+                .expectNext(List.of("HHS"))
+                .verifyComplete();
+
+        StepVerifier.create(
+                gameRepository.findGamesContainingActionSequence(
+                        List.of(Game.GameAction.STAND, Game.GameAction.HIT, Game.GameAction.HIT, Game.GameAction.STAND), 10)
+                    .map(Game::getActionSignature)
+                    .collectList())
+                .expectNext(List.of("HSHHS"))
+                .verifyComplete();
+
+        StepVerifier.create(
+                gameRepository.findGamesContainingActionSequence(List.of(Game.GameAction.HIT, Game.GameAction.STAND), 10)
+                    .count())
+                .expectNext(2L)
+                .verifyComplete();
+    }
+
+    @Test
+    void backfillActionSignatures_ShouldIndexGamesStoredWithoutSignature() {
+        testGame.addAction(Game.GameAction.HIT);
+        testGame.addAction(Game.GameAction.STAND);
+        gameRepository.save(testGame).block();
+        // As stored before the signature existed
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(testGame.getId())),
+                new Update().unset("actionSignature").unset("actionGrams"), Game.class).block();
+
+        StepVerifier.create(gameRepository.findGamesByActionSequence(List.of(Game.GameAction.HIT, Game.GameAction.STAND), 10))
+                .verifyComplete();
+
+        StepVerifier.create(gameRepository.backfillActionSignatures(10)
+                    .then(gameRepository.backfillActionSignatures(10)))
+                .expectNext(0)
+                .verifyComplete();
+
+        StepVerifier.create(gameRepository.findGamesContainingActionSequence(List.of(Game.GameAction.STAND), 10)
+                    .map(Game::getActionSignature))
+                .expectNext("HS")
+                .verifyComplete();
+    }
+
+    @Test
+    void replaceGames_ShouldWriteEveryGameAndRefreshSignatures() {
+        Game other = new Game(testPlayerId, Money.of(50));
+        other.setStatus(Game.GameStatus.IN_PROGRESS);
+        other = gameRepository.save(other).block();
+
+        testGame.addAction(Game.GameAction.STAND);
+        testGame.completeGame(Game.GameResult.PUSH);
+        other.addAction(Game.GameAction.HIT);
+
+        StepVerifier.create(
+                gameRepository.replaceGames(List.of(testGame, other))
+                    .thenMany(gameRepository.findByPlayerIdAndStatus(testPlayerId, Game.GameStatus.COMPLETED))
+                    .map(Game::getActionSignature))
+                .expectNext("S")
+                .verifyComplete();
+
+        StepVerifier.create(gameRepository.findById(other.getId()).map(Game::getActionSignature))
+                .expectNext("H")
+                .verifyComplete();
+    }
+
+    @Test
+    void findRevisionById_ShouldAdvanceOnEverySave() {
+        long saved = testGame.getRevision();
+        testGame.addAction(Game.GameAction.HIT);
+
+        StepVerifier.create(
+                gameRepository.save(testGame)
+                    .then(gameRepository.replaceGames(List.of(testGame)))
+                    .then(gameRepository.findRevisionById(testGame.getId())))
+                .expectNext(saved + 2)
+                .verifyComplete();
+
+        StepVerifier.create(gameRepository.findRevisionById("missing"))
+                .verifyComplete();
+    }
+
+    @Test
+    void save_ShouldRejectStaleGame_WhenGameWasSavedConcurrently() {
+        Game stale = gameRepository.findById(testGame.getId()).block();
+        testGame.addAction(Game.GameAction.HIT);
+        gameRepository.save(testGame).block();
+
+        stale.addAction(Game.GameAction.STAND);
+        StepVerifier.create(gameRepository.save(stale))
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
+    }
+
+    @Test
+    void replaceGames_ShouldRejectStaleGame_WhenGameWasSavedConcurrently() {
+        Game stale = gameRepository.findById(testGame.getId()).block();
+        testGame.addAction(Game.GameAction.HIT);
+        gameRepository.save(testGame).block();
+
+        stale.addAction(Game.GameAction.STAND);
+        Game other = new Game(testPlayerId, Money.of(50));
+        other.setStatus(Game.GameStatus.IN_PROGRESS);
+        other = gameRepository.save(other).block();
+        other.addAction(Game.GameAction.HIT);
+
+        StepVerifier.create(gameRepository.replaceGames(List.of(stale, other)))
+                .expectNext(Set.of(testGame.getId()))
+                .verifyComplete();
+
+        StepVerifier.create(gameRepository.findById(other.getId()).map(Game::getActionSignature))
+                .expectNext("H")
+                .verifyComplete();
+
+        StepVerifier.create(gameRepository.findById(testGame.getId()).map(Game::getActionSignature))
+                .expectNext("H")
+                .verifyComplete();
+    }
+
+    @Test
+    void save_ShouldUpdateGameStoredWithoutRevision_OnceBackfilled() {
+        // As stored before games were versioned
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(testGame.getId())),
+                new Update().unset("revision"), Game.class).block();
+        StepVerifier.create(gameRepository.findRevisionById(testGame.getId()))
+                .expectNext(0L)
+                .verifyComplete();
+
+        StepVerifier.create(gameRepository.backfillRevisions()
+                    .then(gameRepository.backfillRevisions()))
+                .expectNext(0L)
+                .verifyComplete();
+
+        Game legacy = gameRepository.findById(testGame.getId()).block();
+        legacy.addAction(Game.GameAction.HIT);
+        StepVerifier.create(gameRepository.save(legacy)
+                    .then(gameRepository.count()))
+                .expectNext(1L)
+                .verifyComplete();
+        StepVerifier.create(gameRepository.findRevisionById(testGame.getId()))
+                .expectNext(1L)
+                .verifyComplete();
+    }
+
+    @Test
+    void replaceGames_ShouldUpdateGameStoredWithoutRevision() {
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(testGame.getId())),
+                new Update().unset("revision"), Game.class).block();
+
+        Game legacy = gameRepository.findById(testGame.getId()).block();
+        assertNull(legacy.getRevision());
+        legacy.addAction(Game.GameAction.STAND);
+        StepVerifier.create(gameRepository.replaceGames(List.of(legacy))
+                    .then(gameRepository.findById(testGame.getId())))
+                .assertNext(game -> {
+                    assertEquals("S", game.getActionSignature());
+                    assertEquals(1L, game.getRevision());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void findPendingSettlements_ShouldSkipBackedOffAndFailedSettlements() {
+        PendingSettlement settlement = new PendingSettlement();
+        settlement.setPayout(Money.of(200));
+        testGame.setPendingSettlement(settlement);
+        Game backedOff = new Game(testPlayerId, Money.of(100));
+        backedOff.setPendingSettlement(new PendingSettlement());
+        Game failed = new Game(testPlayerId, Money.of(100));
+        failed.setPendingSettlement(new PendingSettlement());
+
+        StepVerifier.create(
+                gameRepository.saveAll(List.of(testGame, backedOff, failed))
+                    .then(gameRepository.recordSettlementFailure(backedOff.getId(), 1,
+                            LocalDateTime.now().plusMinutes(1), "Connection refused"))
+                    .then(gameRepository.failPendingSettlement(failed.getId()))
+                    .thenMany(gameRepository.findPendingSettlements(10)))
+                .expectNextMatches(game -> game.getId().equals(testGame.getId()))
+                .verifyComplete();
+
+        StepVerifier.create(gameRepository.findById(failed.getId()))
+                .assertNext(game -> {
+                    assertNull(game.getPendingSettlement());
+                    assertNotNull(game.getFailedSettlement());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void claimPendingSettlement_ShouldLeaseSettlementToOneRelay() {
+        testGame.setPendingSettlement(new PendingSettlement());
+        gameRepository.save(testGame).block();
+        LocalDateTime leaseUntil = LocalDateTime.now().plusMinutes(1);
+
+        StepVerifier.create(gameRepository.claimPendingSettlement(testGame.getId(), "relay1", leaseUntil))
+                .assertNext(game -> assertEquals("relay1", game.getPendingSettlement().getLeaseOwner()))
+                .verifyComplete();
+        StepVerifier.create(gameRepository.claimPendingSettlement(testGame.getId(), "relay2", leaseUntil))
+                .verifyComplete();
+        StepVerifier.create(gameRepository.findPendingSettlements(10))
+                .verifyComplete();
+
+        // A failure releases the lease, and the settlement is claimable again once its backoff is over
+        StepVerifier.create(gameRepository.recordSettlementFailure(testGame.getId(), 1, LocalDateTime.now(), "Timeout")
+                    .then(gameRepository.claimPendingSettlement(testGame.getId(), "relay2", leaseUntil)))
+                .assertNext(game -> assertEquals("relay2", game.getPendingSettlement().getLeaseOwner()))
+                .verifyComplete();
+    }
+
+    @Test
+    void findByIdWithFields_ShouldReadOnlySelectedFields() {
+        StepVerifier.create(
+                gameRepository.save(testGame)
+                    .then(gameRepository.findByIdWithFields(testGame.getId(), List.of("status"))))
+                .assertNext(game -> {
+                    assertEquals(testGame.getId(), game.getId());
+                    assertEquals(Game.GameStatus.IN_PROGRESS, game.getStatus());
+                    assertEquals(testGame.getRevision(), game.getRevision());
+                    assertNull(game.getBet());
+                })
+                .verifyComplete();
+    }
+
     @Test
     void calculateTotalWinnings_ShouldReturnCorrectAmount() {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime startDate = now.minusDays(1);
         LocalDateTime endDate = now.plusDays(1);
 
-        Game winGame = new Game(testPlayerId, BigDecimal.valueOf(200));
+        Game winGame = new Game(testPlayerId, Money.of(200));
         winGame.setStatus(Game.GameStatus.COMPLETED);
         winGame.setResult(Game.GameResult.PLAYER_WIN);
         winGame.setStartTime(now);
         winGame.setEndTime(now);
 
-        Game loseGame = new Game(testPlayerId, BigDecimal.valueOf(100));
+        Game loseGame = new Game(testPlayerId, Money.of(100));
         loseGame.setStatus(Game.GameStatus.COMPLETED);
         loseGame.setResult(Game.GameResult.DEALER_WIN);
         loseGame.setStartTime(now);
         loseGame.setEndTime(now);
 
         StepVerifier.create(
-                gameRepository.deleteAll()
-                    .then(gameRepository.save(winGame))  // Save games one by one
-                    .then(gameRepository.save(loseGame))
+                playerGameStatsRepository.deleteAll()
+                    .then(playerGameStatsRepository.recordGame(winGame, Money.of(400)))  // Settle games one by one
+                    .then(playerGameStatsRepository.recordGame(loseGame, Money.ZERO))
                     .then(gameRepository.calculateTotalWinnings(testPlayerId, startDate, endDate)))
-                .expectNext(BigDecimal.valueOf(200))
+                .expectNext(Money.of(200).toBigDecimal())
                 .verifyComplete();
     }
 } 
\ No newline at end of file
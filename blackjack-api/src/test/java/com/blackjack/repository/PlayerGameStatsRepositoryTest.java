@@ -0,0 +1,68 @@
+package com.blackjack.repository;
+
+import com.blackjack.MongoTestConfiguration;
+import com.blackjack.model.Game;
+import com.blackjack.model.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.context.annotation.Import;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@DataMongoTest
+@Import(MongoTestConfiguration.class)
+class PlayerGameStatsRepositoryTest {
+
+    @Autowired
+    private PlayerGameStatsRepository playerGameStatsRepository;
+
+    private final Long testPlayerId = 1L;
+
+    @BeforeEach
+    void setUp() {
+        playerGameStatsRepository.deleteAll().block();
+    }
+
+    @Test
+    void recordGame_ShouldAccumulateGamesOfTheSameDayInOneBucket() {
+        LocalDateTime now = LocalDateTime.now();
+        Game blackjack = completedGame(Money.of(20), Game.GameResult.PLAYER_BLACKJACK, now);
+        Game loss = completedGame(Money.of(40), Game.GameResult.DEALER_WIN, now);
+
+        StepVerifier.create(
+                Flux.merge(
+                        playerGameStatsRepository.recordGame(blackjack, Money.of(50)),
+                        playerGameStatsRepository.recordGame(loss, Money.ZERO))
+                    .thenMany(playerGameStatsRepository.findBuckets(testPlayerId, now.toLocalDate(), now.toLocalDate())))
+                .expectNextMatches(bucket ->
+                    bucket.getGames() == 2 &&
+                    bucket.getBetCents() == Money.of(60).cents() &&
+                    bucket.getWinningsCents() == Money.of(30).cents() &&
+                    bucket.getResultCount(Game.GameResult.PLAYER_BLACKJACK) == 1 &&
+                    bucket.getResultCount(Game.GameResult.DEALER_WIN) == 1)
+                .verifyComplete();
+    }
+
+    @Test
+    void findBuckets_ShouldReturnOnlyDaysInRange() {
+        LocalDateTime today = LocalDate.now().atTime(12, 0);
+
+        StepVerifier.create(
+                playerGameStatsRepository.recordGame(completedGame(Money.of(10), Game.GameResult.PUSH, today.minusDays(2)), Money.of(10))
+                    .then(playerGameStatsRepository.recordGame(completedGame(Money.of(10), Game.GameResult.PUSH, today), Money.of(10)))
+                    .thenMany(playerGameStatsRepository.findBuckets(testPlayerId, today.toLocalDate().minusDays(1), today.toLocalDate())))
+                .expectNextMatches(bucket -> bucket.getDay().equals(today.toLocalDate()))
+                .verifyComplete();
+    }
+
+    private Game completedGame(Money bet, Game.GameResult result, LocalDateTime endTime) {
+        Game game = new Game(testPlayerId, bet);
+        game.completeGame(result);
+        game.setEndTime(endTime);
+        return game;
+    }
+}
@@ -1,6 +1,7 @@
 package com.blackjack.repository;
 
 import com.blackjack.R2dbcTestConfiguration;
+import com.blackjack.model.Money;
 import com.blackjack.model.Player;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,7 +29,7 @@ class PlayerRepositoryTest {
     void setUp() {
         // Clean setup for R2DBC reactive tests
         testPlayer = new Player("testUser", "test@example.com");
-        testPlayer.setBalance(BigDecimal.valueOf(1000));
+        testPlayer.setBalance(Money.of(1000));
         testPlayer.setCreatedAt(LocalDateTime.now());
         testPlayer.setUpdatedAt(LocalDateTime.now());
         
@@ -53,6 +54,37 @@ class PlayerRepositoryTest {
                 .verifyComplete();
     }
 
+    @Test
+    void findBalanceById_ShouldReturnOnlyBalance() {
+        // Given
+        Player savedPlayer = playerRepository.save(testPlayer).block();
+
+        // When & Then
+        StepVerifier.create(playerRepository.findBalanceById(savedPlayer.getId()))
+                .expectNextMatches(balance ->
+                    balance.id().equals(savedPlayer.getId()) &&
+                    balance.balance().equals(Money.of(1000)))
+                .verifyComplete();
+    }
+
+    @Test
+    void findStatisticsById_ShouldReturnStatisticsColumns() {
+        // Given
+        testPlayer.setGamesPlayed(4);
+        testPlayer.setGamesWon(3);
+        testPlayer.setTotalWinnings(Money.of(75));
+        Player savedPlayer = playerRepository.save(testPlayer).block();
+
+        // When & Then
+        StepVerifier.create(playerRepository.findStatisticsById(savedPlayer.getId()))
+                .expectNextMatches(statistics ->
+                    statistics.username().equals("testUser") &&
+                    statistics.gamesPlayed() == 4 &&
+                    statistics.winRate() == 0.75 &&
+                    statistics.totalWinnings().equals(Money.of(75)))
+                .verifyComplete();
+    }
+
     @Test
     void findByUsername_ShouldReturnEmptyForNonExistentUser() {
         // When & Then
@@ -87,13 +119,13 @@ class PlayerRepositoryTest {
     void findPlayersByBalanceRange_ShouldReturnPlayersInRange() {
         // Given
         Player player1 = new Player("player1", "player1@example.com");
-        player1.setBalance(BigDecimal.valueOf(500));
+        player1.setBalance(Money.of(500));
         
         Player player2 = new Player("player2", "player2@example.com");
-        player2.setBalance(BigDecimal.valueOf(1500));
+        player2.setBalance(Money.of(1500));
         
         Player player3 = new Player("player3", "player3@example.com");
-        player3.setBalance(BigDecimal.valueOf(2500));
+        player3.setBalance(Money.of(2500));
 
         Flux<Player> saveOperations = Flux.just(player1, player2, player3)
                 .flatMap(playerRepository::save);
@@ -109,6 +141,35 @@ class PlayerRepositoryTest {
                 .verifyComplete();
     }
 
+    @Test
+    void findPlayersWithBalanceAtLeast_ShouldPageRichestFirst() {
+        // Given
+        Player player1 = new Player("player1", "player1@example.com");
+        player1.setBalance(Money.of(500));
+        
+        Player player2 = new Player("player2", "player2@example.com");
+        player2.setBalance(Money.of(1500));
+        
+        Player player3 = new Player("player3", "player3@example.com");
+        player3.setBalance(Money.of(2500));
+
+        Player lastOnFirstPage = Flux.just(player1, player2, player3)
+                .concatMap(playerRepository::save)
+                .thenMany(playerRepository.findPlayersWithBalanceAtLeast(BigDecimal.valueOf(100), 2))
+                .blockLast();
+        
+        // When & Then
+        StepVerifier.create(playerRepository.findPlayersWithBalanceAtLeast(BigDecimal.valueOf(100), 2))
+                .expectNextMatches(player -> player.getUsername().equals("player3"))
+                .expectNextMatches(player -> player.getUsername().equals("player2"))
+                .verifyComplete();
+        
+        StepVerifier.create(playerRepository.findPlayersWithBalanceAtLeastAfter(BigDecimal.valueOf(100),
+                lastOnFirstPage.getBalance().toBigDecimal(), lastOnFirstPage.getId(), 2))
+                .expectNextMatches(player -> player.getUsername().equals("player1"))
+                .verifyComplete();
+    }
+
     @Test
     void findAll_ShouldReturnAllPlayers() {
         // Given
@@ -136,7 +197,7 @@ class PlayerRepositoryTest {
                     savedPlayer.getId() != null &&
                     savedPlayer.getUsername().equals("testUser") &&
                     savedPlayer.getEmail().equals("test@example.com") &&
-                    savedPlayer.getBalance().equals(BigDecimal.valueOf(1000)))
+                    savedPlayer.getBalance().equals(Money.of(1000)))
                 .verifyComplete();
     }
 
@@ -162,12 +223,12 @@ class PlayerRepositoryTest {
         // When & Then - chain the operations to avoid blocking issues
         StepVerifier.create(savedPlayerMono
                 .flatMap(savedPlayer -> {
-                    savedPlayer.setBalance(BigDecimal.valueOf(2000));
+                    savedPlayer.setBalance(Money.of(2000));
                     savedPlayer.setUpdatedAt(LocalDateTime.now());
                     return playerRepository.save(savedPlayer);
                 }))
                 .expectNextMatches(updated -> 
-                    updated.getBalance().equals(BigDecimal.valueOf(2000)) &&
+                    updated.getBalance().equals(Money.of(2000)) &&
                     updated.getUsername().equals("testUser"))
                 .verifyComplete();
     }
@@ -1,24 +1,33 @@
 package com.blackjack.service;
 
+import com.blackjack.dto.GameActionRequest;
+import com.blackjack.dto.GameActionResult;
 import com.blackjack.model.Card;
 import com.blackjack.model.Game;
 import com.blackjack.model.Hand;
+import com.blackjack.model.LedgerEntry;
+import com.blackjack.model.Money;
 import com.blackjack.model.Player;
+import com.blackjack.model.PlayerGameStats;
 import com.blackjack.repository.GameRepository;
+import com.blackjack.repository.PlayerGameStatsRepository;
 import com.blackjack.service.impl.DeckServiceImpl;
 import com.blackjack.service.impl.GameServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -31,6 +40,9 @@ class GameServiceTest {
     @Mock
     private GameRepository gameRepository;
 
+    @Mock
+    private PlayerGameStatsRepository playerGameStatsRepository;
+
     @Mock
     private PlayerService playerService;
 
@@ -43,16 +55,16 @@ class GameServiceTest {
     @BeforeEach
     void setUp() {
         deckService = new DeckServiceImpl();
-        gameService = new GameServiceImpl(gameRepository, playerService, deckService);
+        gameService = new GameServiceImpl(gameRepository, playerGameStatsRepository, playerService, deckService);
         
         // Set up test player
         testPlayer = new Player();
         testPlayer.setId(1L);
         testPlayer.setUsername("testUser");
-        testPlayer.setBalance(BigDecimal.valueOf(1000));
+        testPlayer.setBalance(Money.of(1000));
 
         // Set up test game
-        testGame = new Game(testPlayer.getId(), BigDecimal.valueOf(100));
+        testGame = new Game(testPlayer.getId(), Money.of(100));
         testGame.setId("game123");
         testGame.setStatus(Game.GameStatus.IN_PROGRESS);
         
@@ -75,28 +87,31 @@ class GameServiceTest {
 
     @Test
     void startGame_ShouldCreateNewGame_WhenPlayerHasSufficientFunds() {
-        BigDecimal bet = BigDecimal.valueOf(100);
-        when(playerService.getPlayerById(1L)).thenReturn(Mono.just(testPlayer));
-        when(gameRepository.save(any(Game.class))).thenReturn(Mono.just(testGame));
-        when(playerService.updateBalance(eq(1L), any(BigDecimal.class))).thenReturn(Mono.just(testPlayer));
+        Money bet = Money.of(100);
+        when(playerService.reserveFunds(1L, bet)).thenReturn(Mono.just(true));
+        when(playerService.commitReservation(eq(1L), anyString(), eq(LedgerEntry.EntryType.BET), eq(bet))).thenReturn(Mono.just(true));
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
 
         StepVerifier.create(gameService.startGame(1L, bet))
                 .expectNextMatches(game -> {
-                    assertNotNull(game);
+                    assertNotNull(game.getId());
                     assertEquals(1L, game.getPlayerId());
                     assertEquals(bet, game.getBet());
                     return true;
                 })
                 .verifyComplete();
 
-        verify(playerService).updateBalance(eq(1L), eq(bet.negate()));
-        verify(gameRepository).save(any(Game.class));
+        // The bet is debited under the game's ID before the game is stored
+        InOrder inOrder = inOrder(playerService, gameRepository);
+        inOrder.verify(playerService).commitReservation(eq(1L), anyString(), eq(LedgerEntry.EntryType.BET), eq(bet));
+        inOrder.verify(gameRepository).save(any(Game.class));
+        verify(playerService, never()).getPlayerById(anyLong());
     }
 
     @Test
     void startGame_ShouldFail_WhenInsufficientFunds() {
-        BigDecimal bet = BigDecimal.valueOf(2000);
-        when(playerService.getPlayerById(1L)).thenReturn(Mono.just(testPlayer));
+        Money bet = Money.of(2000);
+        when(playerService.reserveFunds(1L, bet)).thenReturn(Mono.just(false));
 
         StepVerifier.create(gameService.startGame(1L, bet))
                 .expectError(IllegalStateException.class)
@@ -105,6 +120,38 @@ class GameServiceTest {
         verify(gameRepository, never()).save(any(Game.class));
     }
 
+    @Test
+    void startGame_ShouldNotStoreGame_WhenBetIsRejectedByLedger() {
+        Money bet = Money.of(100);
+        when(playerService.reserveFunds(1L, bet)).thenReturn(Mono.just(true));
+        when(playerService.commitReservation(eq(1L), anyString(), eq(LedgerEntry.EntryType.BET), eq(bet)))
+                .thenReturn(Mono.error(new IllegalStateException("Insufficient funds")));
+
+        StepVerifier.create(gameService.startGame(1L, bet))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        verify(gameRepository, never()).save(any(Game.class));
+        verify(playerService, never()).recordGameTransaction(anyLong(), anyString(), any(LedgerEntry.EntryType.class), any(Money.class));
+    }
+
+    @Test
+    void startGame_ShouldRefundBet_WhenGameCannotBeSaved() {
+        Money bet = Money.of(100);
+        when(playerService.reserveFunds(1L, bet)).thenReturn(Mono.just(true));
+        when(playerService.commitReservation(eq(1L), anyString(), eq(LedgerEntry.EntryType.BET), eq(bet))).thenReturn(Mono.just(true));
+        when(gameRepository.save(any(Game.class))).thenReturn(Mono.error(new RuntimeException("Mongo unavailable")));
+        when(playerService.recordGameTransaction(eq(1L), anyString(), eq(LedgerEntry.EntryType.BET_REFUND), eq(bet)))
+                .thenReturn(Mono.just(true));
+
+        StepVerifier.create(gameService.startGame(1L, bet))
+                .expectError(RuntimeException.class)
+                .verify();
+
+        verify(playerService).recordGameTransaction(eq(1L), anyString(), eq(LedgerEntry.EntryType.BET_REFUND), eq(bet));
+        verify(playerService, never()).releaseReservation(anyLong(), any(Money.class));
+    }
+
     @Test
     void hit_ShouldAddCardToPlayerHand() {
         when(gameRepository.findById("game123")).thenReturn(Mono.just(testGame));
@@ -113,6 +160,7 @@ class GameServiceTest {
         StepVerifier.create(gameService.hit("game123"))
                 .expectNextMatches(game -> {
                     assertTrue(game.getPlayerHand().getCards().size() >= 2);
+                    assertEquals(List.of(Game.GameAction.HIT), game.getActions());
                     return true;
                 })
                 .verifyComplete();
@@ -135,21 +183,119 @@ class GameServiceTest {
     @Test
     void stand_ShouldCompleteDealerTurnAndDetermineWinner() {
         when(gameRepository.findById("game123")).thenReturn(Mono.just(testGame));
-        when(gameRepository.save(any(Game.class))).thenReturn(Mono.just(testGame));
-        // Mock all possible playerService calls that might be made based on game outcome
-        lenient().when(playerService.updateBalance(eq(1L), any(BigDecimal.class))).thenReturn(Mono.just(testPlayer));
-        lenient().when(playerService.updateStatistics(eq(1L), anyBoolean(), any(BigDecimal.class))).thenReturn(Mono.just(testPlayer));
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
 
         StepVerifier.create(gameService.stand("game123"))
                 .expectNextMatches(game -> {
-                    // Since we're mocking the repository save, the actual game logic runs
-                    // but we get back our mocked testGame which hasn't been modified
-                    assertNotNull(game);
+                    assertEquals(Game.GameStatus.COMPLETED, game.getStatus());
+                    assertNotNull(game.getResult());
+                    assertNotNull(game.getPendingSettlement());
+                    assertNotNull(game.getPendingSettlement().getPayout());
                     return true;
                 })
                 .verifyComplete();
 
         verify(gameRepository).save(any(Game.class));
+        // Balances and statistics are left to the settlement relay
+        verifyNoInteractions(playerService);
+    }
+
+    @Test
+    void getGamesByIds_ShouldReturnGamesInRequestOrder() {
+        Game other = new Game(testPlayer.getId(), Money.of(10));
+        other.setId("game456");
+        when(gameRepository.findAllById(List.of("game456", "missing", "game123")))
+                .thenReturn(Flux.just(testGame, other));
+
+        StepVerifier.create(gameService.getGamesByIds(List.of("game456", "missing", "game123", "game456")))
+                .expectNext(other, testGame)
+                .verifyComplete();
+    }
+
+    @Test
+    void playActions_ShouldPlayEachGameInOrderAndWriteOnce() {
+        Game completed = new Game(testPlayer.getId(), Money.of(10));
+        completed.setId("game456");
+        completed.setStatus(Game.GameStatus.COMPLETED);
+        when(gameRepository.findAllById(anyIterable())).thenReturn(Flux.just(testGame, completed));
+        when(gameRepository.replaceGames(anyList())).thenReturn(Mono.just(Set.of()));
+
+        StepVerifier.create(gameService.playActions(List.of(
+                        new GameActionRequest("game123", Game.GameAction.STAND),
+                        new GameActionRequest("missing", Game.GameAction.HIT),
+                        new GameActionRequest("game456", Game.GameAction.HIT),
+                        new GameActionRequest("game123", Game.GameAction.HIT))))
+                .assertNext(result -> {
+                    assertEquals(GameActionResult.Status.APPLIED, result.getStatus());
+                    assertEquals(Game.GameStatus.COMPLETED, result.getGame().getStatus());
+                })
+                .expectNext(GameActionResult.rejected("missing", Game.GameAction.HIT,
+                        GameActionResult.Status.NOT_FOUND, "Game not found"))
+                .expectNext(GameActionResult.rejected("game456", Game.GameAction.HIT,
+                        GameActionResult.Status.REJECTED, "Game is not in progress"))
+                .expectNext(GameActionResult.rejected("game123", Game.GameAction.HIT,
+                        GameActionResult.Status.REJECTED, "Game is not in progress"))
+                .verifyComplete();
+
+        verify(gameRepository).replaceGames(List.of(testGame));
+        verify(gameRepository, never()).save(any(Game.class));
+    }
+
+    @Test
+    void playActions_ShouldReportConflict_OnlyForGamesChangedConcurrently() {
+        Game other = new Game(testPlayer.getId(), Money.of(10));
+        other.setId("game456");
+        other.setStatus(Game.GameStatus.IN_PROGRESS);
+        when(gameRepository.findAllById(anyIterable())).thenReturn(Flux.just(testGame, other));
+        when(gameRepository.replaceGames(anyList())).thenReturn(Mono.just(Set.of("game456")));
+
+        StepVerifier.create(gameService.playActions(List.of(
+                        new GameActionRequest("game123", Game.GameAction.STAND),
+                        new GameActionRequest("game456", Game.GameAction.HIT))))
+                .assertNext(result -> {
+                    assertEquals(GameActionResult.Status.APPLIED, result.getStatus());
+                    assertEquals("game123", result.getGameId());
+                })
+                .expectNext(GameActionResult.rejected("game456", Game.GameAction.HIT,
+                        GameActionResult.Status.CONFLICT, "Game was changed by another request, reload it and retry"))
+                .verifyComplete();
+    }
+
+    @Test
+    void playActions_ShouldRejectActionsThatCannotBeBatched() {
+        when(gameRepository.findAllById(anyIterable())).thenReturn(Flux.just(testGame));
+        when(gameRepository.replaceGames(anyList())).thenReturn(Mono.just(Set.of()));
+
+        StepVerifier.create(gameService.playActions(List.of(new GameActionRequest("game123", Game.GameAction.SURRENDER))))
+                .expectNext(GameActionResult.rejected("game123", Game.GameAction.SURRENDER,
+                        GameActionResult.Status.REJECTED, "SURRENDER cannot be played in a batch"))
+                .verifyComplete();
+
+        verify(gameRepository).replaceGames(List.of());
+    }
+
+    @Test
+    void stand_ShouldCarryInsurancePayout_WhenDealerHasBlackjack() {
+        Hand dealerHand = new Hand();
+        dealerHand.addCard(new Card(Card.Suit.DIAMONDS, Card.Rank.ACE));
+        dealerHand.addCard(new Card(Card.Suit.CLUBS, Card.Rank.KING));
+        testGame.setDealerHand(dealerHand);
+        testGame.setInsuranceBet(Money.of(50));
+
+        when(gameRepository.findById("game123")).thenReturn(Mono.just(testGame));
+        when(gameRepository.save(any(Game.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(gameService.stand("game123"))
+                .expectNextMatches(game -> {
+                    assertEquals(Money.of(100), game.getPendingSettlement().getInsurancePayout());
+                    assertEquals(Money.ZERO, game.getPendingSettlement().getPayout());
+                    assertFalse(game.getPendingSettlement().isWon());
+                    assertEquals(Game.GameResult.DEALER_WIN, game.getResult());
+                    return true;
+                })
+                .verifyComplete();
+
+        verifyNoInteractions(playerService);
     }
 
     @Test
@@ -160,8 +306,9 @@ class GameServiceTest {
 
         when(gameRepository.findById("game123")).thenReturn(Mono.just(testGame));
         when(gameRepository.save(any(Game.class))).thenReturn(Mono.just(testGame));
-        when(playerService.getPlayerById(1L)).thenReturn(Mono.just(testPlayer));
-        when(playerService.updateBalance(eq(1L), any(BigDecimal.class))).thenReturn(Mono.just(testPlayer));
+        when(playerService.reserveFunds(1L, Money.of(50))).thenReturn(Mono.just(true));
+        when(playerService.commitReservation(1L, "game123", LedgerEntry.EntryType.INSURANCE_BET, Money.of(50)))
+                .thenReturn(Mono.just(true));
 
         StepVerifier.create(gameService.insurance("game123"))
                 .expectNextMatches(game -> {
@@ -170,7 +317,7 @@ class GameServiceTest {
                 })
                 .verifyComplete();
 
-        verify(playerService).updateBalance(eq(1L), any(BigDecimal.class));
+        verify(playerService).commitReservation(1L, "game123", LedgerEntry.EntryType.INSURANCE_BET, Money.of(50));
         verify(gameRepository).save(any(Game.class));
     }
 
@@ -183,18 +330,40 @@ class GameServiceTest {
 
         when(gameRepository.findById("game123")).thenReturn(Mono.just(testGame));
         when(gameRepository.save(any(Game.class))).thenReturn(Mono.just(testGame));
-        when(playerService.getPlayerById(1L)).thenReturn(Mono.just(testPlayer));
-        when(playerService.updateBalance(eq(1L), any(BigDecimal.class))).thenReturn(Mono.just(testPlayer));
+        when(playerService.reserveFunds(1L, Money.of(100))).thenReturn(Mono.just(true));
+        when(playerService.commitReservation(1L, "game123", LedgerEntry.EntryType.SPLIT_BET, 1, Money.of(100)))
+                .thenReturn(Mono.just(true));
 
         StepVerifier.create(gameService.split("game123"))
                 .expectNextMatches(game -> {
-                    assertNotNull(game);
+                    assertEquals(1, game.getSplitCount());
+                    assertNotNull(game.getSplitGameId());
                     return true;
                 })
                 .verifyComplete();
 
         verify(gameRepository, times(2)).save(any(Game.class));
-        verify(playerService).updateBalance(eq(1L), any(BigDecimal.class));
+        verify(playerService).commitReservation(1L, "game123", LedgerEntry.EntryType.SPLIT_BET, 1, Money.of(100));
+    }
+
+    @Test
+    void split_ShouldChargeAgain_WhenHandIsSplitASecondTime() {
+        testGame.getPlayerHand().getCards().clear();
+        testGame.getPlayerHand().addCard(new Card(Card.Suit.HEARTS, Card.Rank.EIGHT));
+        testGame.getPlayerHand().addCard(new Card(Card.Suit.SPADES, Card.Rank.EIGHT));
+        testGame.setSplitCount(1);
+
+        when(gameRepository.findById("game123")).thenReturn(Mono.just(testGame));
+        when(gameRepository.save(any(Game.class))).thenReturn(Mono.just(testGame));
+        when(playerService.reserveFunds(1L, Money.of(100))).thenReturn(Mono.just(true));
+        when(playerService.commitReservation(1L, "game123", LedgerEntry.EntryType.SPLIT_BET, 2, Money.of(100)))
+                .thenReturn(Mono.just(true));
+
+        StepVerifier.create(gameService.split("game123"))
+                .expectNextMatches(game -> game.getSplitCount() == 2)
+                .verifyComplete();
+
+        verify(playerService).commitReservation(1L, "game123", LedgerEntry.EntryType.SPLIT_BET, 2, Money.of(100));
     }
 
     @Test
@@ -220,6 +389,18 @@ class GameServiceTest {
         verify(gameRepository).findByPlayerIdAndStatus(1L, Game.GameStatus.IN_PROGRESS);
     }
 
+    @Test
+    void getPlayerGames_ShouldReadOnePageFromRepository() {
+        LocalDateTime cursor = LocalDateTime.now();
+        when(gameRepository.findGamesByPlayerId(1L, 20, cursor, "game999")).thenReturn(Flux.just(testGame));
+
+        StepVerifier.create(gameService.getPlayerGames(1L, 20, cursor, "game999"))
+                .expectNext(testGame)
+                .verifyComplete();
+
+        verify(gameRepository, never()).findByPlayerIdAndStatus(anyLong(), any(Game.GameStatus.class));
+    }
+
     @Test
     void getCompletedGames_ShouldReturnCompletedGames() {
         LocalDateTime startDate = LocalDateTime.now().minusDays(7);
@@ -234,4 +415,60 @@ class GameServiceTest {
 
         verify(gameRepository).findGamesByPlayerIdAndDateRange(eq(1L), eq(startDate), eq(endDate));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getPlayerGameSummary_ShouldAddUpDailyBuckets() {
+        LocalDate today = LocalDate.now();
+        PlayerGameStats yesterday = bucket(today.minusDays(1), 2, Money.of(50), Money.of(25));
+        yesterday.getResults().put(Game.GameResult.PLAYER_WIN, 1L);
+        yesterday.getResults().put(Game.GameResult.DEALER_WIN, 1L);
+        PlayerGameStats todays = bucket(today, 2, Money.of(30), Money.of(30));
+        todays.getResults().put(Game.GameResult.PLAYER_BLACKJACK, 1L);
+        todays.getResults().put(Game.GameResult.DEALER_WIN, 1L);
+        when(playerGameStatsRepository.findBuckets(1L, today.minusDays(1), today)).thenReturn(Flux.just(yesterday, todays));
+
+        StepVerifier.create(gameService.getPlayerGameSummary(1L, today.minusDays(1), today))
+                .expectNextMatches(summary -> {
+                    assertEquals(4, summary.getGamesPlayed());
+                    assertEquals(Money.of(80).toBigDecimal(), summary.getTotalBet());
+                    assertEquals(Money.of(20).toBigDecimal(), summary.getAverageBet());
+                    assertEquals(Money.of(55).toBigDecimal(), summary.getTotalWinnings());
+                    assertEquals(1, summary.getBlackjacks());
+                    assertEquals(2L, summary.getResults().get(Game.GameResult.DEALER_WIN));
+                    return true;
+                })
+                .verifyComplete();
+
+        verifyNoInteractions(gameRepository);
+    }
+
+    @Test
+    void findGamesByActions_ShouldUseQueryForMatchType() {
+        List<Game.GameAction> actions = List.of(Game.GameAction.HIT, Game.GameAction.STAND);
+        when(gameRepository.findGamesByActionPrefix(actions, 10)).thenReturn(Flux.just(testGame));
+
+        StepVerifier.create(gameService.findGamesByActions(actions, GameService.ActionMatch.PREFIX, 10))
+                .expectNext(testGame)
+                .verifyComplete();
+
+        verify(gameRepository, never()).findGamesContainingActionSequence(anyList(), anyInt());
+    }
+
+    @Test
+    void findGamesByActions_ShouldRejectEmptySequence() {
+        StepVerifier.create(gameService.findGamesByActions(List.of(), GameService.ActionMatch.CONTAINS, 10))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    private static PlayerGameStats bucket(LocalDate day, long games, Money bet, Money winnings) {
+        PlayerGameStats bucket = new PlayerGameStats();
+        bucket.setId(PlayerGameStats.bucketId(1L, day));
+        bucket.setPlayerId(1L);
+        bucket.setDay(day);
+        bucket.setGames(games);
+        bucket.setBetCents(bet.cents());
+        bucket.setWinningsCents(winnings.cents());
+        return bucket;
+    }
+}
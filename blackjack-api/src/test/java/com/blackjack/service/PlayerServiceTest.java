@@ -1,20 +1,42 @@
 package com.blackjack.service;
 
+import com.blackjack.dto.CreatePlayerRequest;
+import com.blackjack.dto.PlayerImportResult;
+import com.blackjack.exception.PlayerAlreadyExistsException;
+import com.blackjack.model.LedgerEntry;
+import com.blackjack.model.Money;
 import com.blackjack.model.Player;
+import com.blackjack.repository.LedgerRepository;
 import com.blackjack.repository.PlayerRepository;
+import com.blackjack.repository.projection.PlayerBalance;
+import com.blackjack.repository.projection.PlayerStatistics;
 import com.blackjack.service.impl.PlayerServiceImpl;
+import com.blackjack.service.support.BalanceLedger;
+import com.blackjack.service.support.BalanceReservations;
+import com.blackjack.service.support.PlayerBatchLoader;
+import com.blackjack.service.support.PlayerCache;
+import com.blackjack.service.support.PlayerExistenceFilter;
+import com.blackjack.service.support.PlayerImporter;
+import com.blackjack.service.support.StatisticsBatcher;
+import com.blackjack.service.support.UsernameIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -26,22 +48,45 @@ class PlayerServiceTest {
     @Mock
     private PlayerRepository playerRepository;
 
+    @Mock
+    private LedgerRepository ledgerRepository;
+
+    @Mock
+    private BalanceLedger balanceLedger;
+
+    @Mock
+    private PlayerImporter playerImporter;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
     private PlayerService playerService;
+    private UsernameIndex usernameIndex;
+    private PlayerExistenceFilter existenceFilter;
 
     private Player testPlayer;
 
     @BeforeEach
     void setUp() {
-        playerService = new PlayerServiceImpl(playerRepository);
+        PlayerCache playerCache = new PlayerCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        PlayerBatchLoader playerBatchLoader = new PlayerBatchLoader(playerRepository, Duration.ofMillis(1), 100);
+        usernameIndex = new UsernameIndex(playerRepository);
+        existenceFilter = new PlayerExistenceFilter(playerRepository, 1000, 0.01, 0);
+        StatisticsBatcher statisticsBatcher = new StatisticsBatcher(playerRepository, Duration.ofMillis(1), 100);
+        playerService = new PlayerServiceImpl(playerRepository, playerCache, playerBatchLoader,
+                ledgerRepository, balanceLedger, usernameIndex, existenceFilter, statisticsBatcher,
+                new BalanceReservations(playerRepository, 1000, Duration.ofMinutes(10)), playerImporter,
+                transactionalOperator);
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
         
         testPlayer = new Player();
         testPlayer.setId(1L);
         testPlayer.setUsername("testUser");
         testPlayer.setEmail("test@example.com");
-        testPlayer.setBalance(BigDecimal.valueOf(1000));
+        testPlayer.setBalance(Money.of(1000));
         testPlayer.setGamesPlayed(10);
         testPlayer.setGamesWon(5);
-        testPlayer.setTotalWinnings(BigDecimal.valueOf(500));
+        testPlayer.setTotalWinnings(Money.of(500));
         testPlayer.setCreatedAt(LocalDateTime.now());
         testPlayer.setUpdatedAt(LocalDateTime.now());
 
@@ -51,34 +96,196 @@ class PlayerServiceTest {
 
     @Test
     void createPlayer_ShouldSaveAndReturnPlayer() {
+        when(playerRepository.existsByUsername("testUser")).thenReturn(Mono.just(false));
+        when(playerRepository.existsByEmail("test@example.com")).thenReturn(Mono.just(false));
         when(playerRepository.save(any(Player.class))).thenReturn(Mono.just(testPlayer));
+        when(ledgerRepository.save(any(LedgerEntry.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
 
         StepVerifier.create(playerService.createPlayer(testPlayer))
-                .expectNext(testPlayer)
+                .expectNextMatches(player -> Money.of(100).equals(player.getBalance()))
                 .verifyComplete();
 
+        ArgumentCaptor<LedgerEntry> entryCaptor = ArgumentCaptor.forClass(LedgerEntry.class);
         verify(playerRepository).save(any(Player.class));
+        verify(ledgerRepository).save(entryCaptor.capture());
+        assertEquals(LedgerEntry.EntryType.OPENING, entryCaptor.getValue().getEntryType());
+        assertEquals("player:1:OPENING", entryCaptor.getValue().getIdempotencyKey());
+        verify(transactionalOperator).transactional(any(Mono.class));
+        verify(balanceLedger, never()).append(any(LedgerEntry.class));
+    }
+
+    @Test
+    void createPlayer_ShouldNotIndexPlayer_WhenOpeningEntryFails() {
+        when(playerRepository.existsByUsername("testUser")).thenReturn(Mono.just(false));
+        when(playerRepository.existsByEmail("test@example.com")).thenReturn(Mono.just(false));
+        when(playerRepository.save(any(Player.class))).thenReturn(Mono.just(testPlayer));
+        when(ledgerRepository.save(any(LedgerEntry.class))).thenReturn(Mono.error(new RuntimeException("Connection reset")));
+
+        StepVerifier.create(playerService.createPlayer(testPlayer))
+                .expectError(RuntimeException.class)
+                .verify();
+
+        assertTrue(usernameIndex.search("testUser", 10).isEmpty());
+    }
+
+    @Test
+    void createPlayer_ShouldFailAsDuplicate_WhenConcurrentSignupTookUsername() {
+        when(playerRepository.existsByUsername("testUser")).thenReturn(Mono.just(false));
+        when(playerRepository.existsByEmail("test@example.com")).thenReturn(Mono.just(false));
+        when(playerRepository.save(any(Player.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("Duplicate entry 'testUser' for key 'username'")));
+
+        StepVerifier.create(playerService.createPlayer(testPlayer))
+                .expectError(PlayerAlreadyExistsException.class)
+                .verify();
+
+        verify(ledgerRepository, never()).save(any(LedgerEntry.class));
+    }
+
+    @Test
+    void importPlayers_ShouldIndexCreatedPlayers() {
+        Flux<CreatePlayerRequest> requests = Flux.just(new CreatePlayerRequest("imported", "imported@example.com"),
+                new CreatePlayerRequest("taken", "taken@example.com"));
+        when(playerImporter.importPlayers(requests)).thenReturn(Flux.just(
+                PlayerImportResult.created(1, "imported", "imported@example.com", 7L),
+                PlayerImportResult.rejected(2, "taken", "taken@example.com", PlayerImportResult.Status.DUPLICATE,
+                        "Username is already taken")));
+
+        StepVerifier.create(playerService.importPlayers(requests))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        assertEquals(1, usernameIndex.search("imp", 10).size());
+        assertTrue(usernameIndex.search("tak", 10).isEmpty());
+    }
+
+    @Test
+    void createPlayer_ShouldSkipUniquenessQueries_WhenFilterKnowsValuesAreNew() {
+        Player existing = new Player("someoneElse", "else@example.com");
+        existing.setId(2L);
+        when(playerRepository.findAll()).thenReturn(Flux.just(existing));
+        existenceFilter.rebuild().block();
+        when(playerRepository.save(any(Player.class))).thenReturn(Mono.just(testPlayer));
+        when(ledgerRepository.save(any(LedgerEntry.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        StepVerifier.create(playerService.createPlayer(testPlayer))
+                .expectNext(testPlayer)
+                .verifyComplete();
+
+        verify(playerRepository, never()).existsByUsername(anyString());
+        verify(playerRepository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    void createPlayer_ShouldFail_WhenUsernameTaken() {
+        when(playerRepository.existsByUsername("testUser")).thenReturn(Mono.just(true));
+        when(playerRepository.existsByEmail("test@example.com")).thenReturn(Mono.just(false));
+
+        StepVerifier.create(playerService.createPlayer(testPlayer))
+                .expectError(PlayerAlreadyExistsException.class)
+                .verify();
+
+        verify(playerRepository, never()).save(any(Player.class));
+    }
+
+    @Test
+    void getPlayerById_ShouldReturnEmptyWithoutQuery_WhenIdDefinitelyAbsent() {
+        when(playerRepository.findAll()).thenReturn(Flux.just(testPlayer));
+        existenceFilter.rebuild().block();
+
+        StepVerifier.create(playerService.getPlayerById(0L))
+                .verifyComplete();
+        StepVerifier.create(playerService.getPlayerById(-5L))
+                .verifyComplete();
+
+        verify(playerRepository, never()).findAllById(anyIterable());
     }
 
     @Test
     void getPlayerById_ShouldReturnPlayer_WhenExists() {
-        when(playerRepository.findById(1L)).thenReturn(Mono.just(testPlayer));
+        when(playerRepository.findAllById(anyIterable())).thenReturn(Flux.just(testPlayer));
 
         StepVerifier.create(playerService.getPlayerById(1L))
                 .expectNext(testPlayer)
                 .verifyComplete();
 
-        verify(playerRepository).findById(1L);
+        verify(playerRepository).findAllById(anyIterable());
     }
 
     @Test
     void getPlayerById_ShouldReturnEmpty_WhenNotExists() {
-        when(playerRepository.findById(999L)).thenReturn(Mono.empty());
+        when(playerRepository.findAllById(anyIterable())).thenReturn(Flux.empty());
 
         StepVerifier.create(playerService.getPlayerById(999L))
                 .verifyComplete();
 
-        verify(playerRepository).findById(999L);
+        verify(playerRepository).findAllById(anyIterable());
+    }
+
+    @Test
+    void getPlayerById_ShouldServeRepeatedLookupsFromCache() {
+        when(playerRepository.findAllById(anyIterable())).thenReturn(Flux.just(testPlayer));
+
+        StepVerifier.create(playerService.getPlayerById(1L))
+                .expectNext(testPlayer)
+                .verifyComplete();
+        StepVerifier.create(playerService.getPlayerById(1L))
+                .expectNext(testPlayer)
+                .verifyComplete();
+
+        verify(playerRepository, times(1)).findAllById(anyIterable());
+    }
+
+    @Test
+    void getPlayerById_ShouldReload_AfterBalanceUpdate() {
+        when(playerRepository.findAllById(anyIterable())).thenReturn(Flux.just(testPlayer));
+        when(playerRepository.findById(1L)).thenReturn(Mono.just(testPlayer));
+        when(balanceLedger.append(any(LedgerEntry.class))).thenReturn(Mono.just(true));
+
+        playerService.getPlayerById(1L).block();
+        playerService.updateBalance(1L, Money.of(10)).block();
+        playerService.getPlayerById(1L).block();
+
+        verify(playerRepository, times(2)).findAllById(anyIterable());
+        verify(playerRepository).findById(1L);
+    }
+
+    @Test
+    void getPlayersByIds_ShouldLoadMissesWithOneQueryInRequestOrder() {
+        Player second = new Player("second", "second@example.com");
+        second.setId(2L);
+        Player third = new Player("third", "third@example.com");
+        third.setId(3L);
+        when(playerRepository.findAllById(anyIterable()))
+                .thenReturn(Flux.just(testPlayer))
+                .thenReturn(Flux.just(third, second));
+        playerService.getPlayerById(1L).block();
+
+        StepVerifier.create(playerService.getPlayersByIds(List.of(3L, 1L, 99L, 2L, 3L)))
+                .expectNext(third, testPlayer, second)
+                .verifyComplete();
+
+        verify(playerRepository).findAllById(Set.of(2L, 3L, 99L));
+        verify(playerRepository, times(2)).findAllById(anyIterable());
+    }
+
+    @Test
+    void searchPlayersByUsername_ShouldReflectCreateAndDelete() {
+        when(playerRepository.existsByUsername("testUser")).thenReturn(Mono.just(false));
+        when(playerRepository.existsByEmail("test@example.com")).thenReturn(Mono.just(false));
+        when(playerRepository.save(any(Player.class))).thenReturn(Mono.just(testPlayer));
+        when(ledgerRepository.save(any(LedgerEntry.class))).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        when(playerRepository.deleteById(1L)).thenReturn(Mono.empty());
+
+        playerService.createPlayer(testPlayer).block();
+        StepVerifier.create(playerService.searchPlayersByUsername("TEST", 10))
+                .expectNextMatches(result -> result.getPlayerId().equals(1L) && result.getUsername().equals("testUser"))
+                .verifyComplete();
+
+        playerService.deletePlayer(1L).block();
+        StepVerifier.create(playerService.searchPlayersByUsername("test", 10))
+                .verifyComplete();
+        verify(playerRepository, never()).findByUsername(anyString());
     }
 
     @Test
@@ -125,63 +332,190 @@ class PlayerServiceTest {
 
     @Test
     void updateBalance_ShouldUpdateAndReturnPlayer_WhenSufficientFunds() {
-        BigDecimal amount = BigDecimal.valueOf(100);
+        Money amount = Money.of(100);
+        when(balanceLedger.append(any(LedgerEntry.class))).thenReturn(Mono.just(true));
         when(playerRepository.findById(1L)).thenReturn(Mono.just(testPlayer));
-        when(playerRepository.save(any(Player.class))).thenReturn(Mono.just(testPlayer));
 
         StepVerifier.create(playerService.updateBalance(1L, amount))
                 .expectNext(testPlayer)
                 .verifyComplete();
 
-        verify(playerRepository).findById(1L);
-        verify(playerRepository).save(any(Player.class));
+        ArgumentCaptor<LedgerEntry> entryCaptor = ArgumentCaptor.forClass(LedgerEntry.class);
+        verify(balanceLedger).append(entryCaptor.capture());
+        assertEquals(LedgerEntry.EntryType.ADJUSTMENT, entryCaptor.getValue().getEntryType());
+        assertEquals(amount, entryCaptor.getValue().getAmount());
+        verify(playerRepository, never()).save(any(Player.class));
     }
 
     @Test
     void updateBalance_ShouldThrowException_WhenInsufficientFunds() {
-        BigDecimal amount = BigDecimal.valueOf(-2000);
-        when(playerRepository.findById(1L)).thenReturn(Mono.just(testPlayer));
+        Money amount = Money.of(-2000);
+        when(balanceLedger.append(any(LedgerEntry.class)))
+                .thenReturn(Mono.error(new IllegalStateException("Insufficient funds")));
 
         StepVerifier.create(playerService.updateBalance(1L, amount))
                 .expectError(IllegalStateException.class)
                 .verify();
 
-        verify(playerRepository).findById(1L);
+        verify(playerRepository, never()).findById(1L);
     }
 
     @Test
-    void updateStatistics_ShouldUpdateAndReturnPlayer() {
-        when(playerRepository.findById(1L)).thenReturn(Mono.just(testPlayer));
-        when(playerRepository.save(any(Player.class))).thenReturn(Mono.just(testPlayer));
+    void recordGameTransaction_ShouldAppendEntryKeyedByGame() {
+        when(balanceLedger.append(any(LedgerEntry.class))).thenReturn(Mono.just(true));
 
-        StepVerifier.create(playerService.updateStatistics(1L, true, BigDecimal.valueOf(100)))
-                .expectNext(testPlayer)
+        StepVerifier.create(playerService.recordGameTransaction(1L, "game123", LedgerEntry.EntryType.BET, Money.of(-25)))
+                .expectNext(true)
                 .verifyComplete();
 
-        verify(playerRepository).findById(1L);
-        verify(playerRepository).save(any(Player.class));
+        ArgumentCaptor<LedgerEntry> entryCaptor = ArgumentCaptor.forClass(LedgerEntry.class);
+        verify(balanceLedger).append(entryCaptor.capture());
+        assertEquals("game123:BET", entryCaptor.getValue().getIdempotencyKey());
+        assertEquals(Money.of(-25), entryCaptor.getValue().getAmount());
+    }
+
+    @Test
+    void recordGameTransaction_ShouldReturnFalse_WhenAlreadyRecorded() {
+        when(balanceLedger.append(any(LedgerEntry.class))).thenReturn(Mono.just(false));
+
+        StepVerifier.create(playerService.recordGameTransaction(1L, "game123", LedgerEntry.EntryType.SETTLEMENT, Money.of(50)))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void reserveFunds_ShouldHoldAgainstBalanceLoadedOnce() {
+        when(playerRepository.findBalanceById(1L)).thenReturn(Mono.just(new PlayerBalance(1L, Money.of(1000))));
+
+        StepVerifier.create(playerService.reserveFunds(1L, Money.of(600)))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(playerService.reserveFunds(1L, Money.of(400)))
+                .expectNext(true)
+                .verifyComplete();
+        verify(playerRepository, times(1)).findBalanceById(1L);
+
+        // A hold the account cannot cover rereads the balance before it is refused
+        StepVerifier.create(playerService.reserveFunds(1L, Money.of(1)))
+                .expectNext(false)
+                .verifyComplete();
+        verify(playerRepository, times(2)).findBalanceById(1L);
+        verify(playerRepository, never()).findById(1L);
+    }
+
+    @Test
+    void commitReservation_ShouldReleaseHold_WhenDebitAlreadyRecorded() {
+        when(playerRepository.findBalanceById(1L)).thenReturn(Mono.just(new PlayerBalance(1L, Money.of(1000))));
+        when(balanceLedger.append(any(LedgerEntry.class))).thenReturn(Mono.just(false));
+
+        StepVerifier.create(playerService.reserveFunds(1L, Money.of(1000))
+                        .then(playerService.commitReservation(1L, "game123", LedgerEntry.EntryType.BET, Money.of(1000)))
+                        .then(playerService.reserveFunds(1L, Money.of(1000))))
+                .expectNext(true)
+                .verifyComplete();
+
+        ArgumentCaptor<LedgerEntry> entryCaptor = ArgumentCaptor.forClass(LedgerEntry.class);
+        verify(balanceLedger).append(entryCaptor.capture());
+        assertEquals(Money.of(-1000), entryCaptor.getValue().getAmount());
+    }
+
+    @Test
+    void commitReservation_ShouldKeyDebitByOrdinal() {
+        when(balanceLedger.append(any(LedgerEntry.class))).thenReturn(Mono.just(true));
+
+        StepVerifier.create(playerService.commitReservation(1L, "game123", LedgerEntry.EntryType.SPLIT_BET, 2, Money.of(100)))
+                .expectNext(true)
+                .verifyComplete();
+
+        ArgumentCaptor<LedgerEntry> entryCaptor = ArgumentCaptor.forClass(LedgerEntry.class);
+        verify(balanceLedger).append(entryCaptor.capture());
+        assertEquals("game123:SPLIT_BET:2", entryCaptor.getValue().getIdempotencyKey());
+        assertEquals(Money.of(-100), entryCaptor.getValue().getAmount());
+    }
+
+    @Test
+    void getPlayerStatistics_ShouldReadStatisticsProjection() {
+        PlayerStatistics statistics = new PlayerStatistics(1L, "testUser", Money.of(1000), 10, 5, Money.of(500), 2, 1,
+                LocalDateTime.now());
+        when(playerRepository.findStatisticsById(1L)).thenReturn(Mono.just(statistics));
+
+        StepVerifier.create(playerService.getPlayerStatistics(1L))
+                .expectNextMatches(result -> result.winRate() == 0.5 && result.dailyWinRate() == 0.5)
+                .verifyComplete();
+
+        verify(playerRepository, never()).findById(anyLong());
+        verify(playerRepository, never()).findAllById(anyIterable());
+    }
+
+    @Test
+    void getPlayerUpdatedAt_ShouldReadOnlyTheUpdateTime() {
+        LocalDateTime updatedAt = LocalDateTime.of(2023, 12, 8, 15, 30, 45, 123_456_000);
+        when(playerRepository.findUpdatedAtById(1L)).thenReturn(Mono.just(updatedAt));
+
+        StepVerifier.create(playerService.getPlayerUpdatedAt(1L))
+                .expectNext(updatedAt)
+                .verifyComplete();
+
+        verify(playerRepository, never()).findById(anyLong());
+        verify(playerRepository, never()).findStatisticsById(anyLong());
+    }
+
+    @Test
+    void getLedgerHistory_ShouldStreamEntriesFromRepository() {
+        LedgerEntry opening = new LedgerEntry(1L, null, LedgerEntry.EntryType.OPENING, Money.of(100), "player:1:OPENING");
+        LedgerEntry bet = LedgerEntry.forGame(1L, "game123", LedgerEntry.EntryType.BET, Money.of(-25));
+        when(ledgerRepository.findByPlayerIdOrderByIdAsc(1L)).thenReturn(Flux.just(opening, bet));
+
+        StepVerifier.create(playerService.getLedgerHistory(1L))
+                .expectNext(opening, bet)
+                .verifyComplete();
+    }
+
+    @Test
+    void updateStatistics_ShouldIncrementWithoutLoadingPlayer() {
+        when(playerRepository.incrementStatistics(eq(1L), eq(1), eq(1), eq(new BigDecimal("100.00")), any(LocalDateTime.class)))
+                .thenReturn(Mono.just(1));
+
+        StepVerifier.create(playerService.updateStatistics(1L, true, Money.of(100)))
+                .verifyComplete();
+
+        verify(playerRepository, never()).findById(anyLong());
+        verify(playerRepository, never()).save(any(Player.class));
     }
 
     @Test
     void getTopPlayers_ShouldReturnPlayers() {
-        when(playerRepository.findAll()).thenReturn(Flux.just(testPlayer));
+        when(playerRepository.findTopPlayersByWinRate(10, 10)).thenReturn(Flux.just(testPlayer));
 
         StepVerifier.create(playerService.getTopPlayers(10))
                 .expectNext(testPlayer)
                 .verifyComplete();
 
-        verify(playerRepository).findAll();
+        verify(playerRepository).findTopPlayersByWinRate(10, 10);
+        verify(playerRepository, never()).findAll();
+    }
+
+    @Test
+    void getPlayersWithBalanceAbove_ShouldReturnFirstPage_WhenNoCursor() {
+        when(playerRepository.findPlayersWithBalanceAtLeast(BigDecimal.valueOf(500), 20))
+                .thenReturn(Flux.just(testPlayer));
+
+        StepVerifier.create(playerService.getPlayersWithBalanceAbove(BigDecimal.valueOf(500), 20, null, null))
+                .expectNext(testPlayer)
+                .verifyComplete();
+
+        verify(playerRepository).findPlayersWithBalanceAtLeast(BigDecimal.valueOf(500), 20);
     }
 
     @Test
-    void getPlayersWithBalanceAbove_ShouldReturnPlayers() {
-        when(playerRepository.findPlayersByBalanceRange(any(BigDecimal.class), any(BigDecimal.class)))
+    void getPlayersWithBalanceAbove_ShouldContinueAfterCursor() {
+        when(playerRepository.findPlayersWithBalanceAtLeastAfter(BigDecimal.valueOf(500), BigDecimal.valueOf(1000), 7L, 20))
                 .thenReturn(Flux.just(testPlayer));
 
-        StepVerifier.create(playerService.getPlayersWithBalanceAbove(BigDecimal.valueOf(500)))
+        StepVerifier.create(playerService.getPlayersWithBalanceAbove(BigDecimal.valueOf(500), 20, BigDecimal.valueOf(1000), 7L))
                 .expectNext(testPlayer)
                 .verifyComplete();
 
-        verify(playerRepository).findPlayersByBalanceRange(any(BigDecimal.class), any(BigDecimal.class));
+        verify(playerRepository, never()).findPlayersWithBalanceAtLeast(any(BigDecimal.class), anyInt());
     }
 }
\ No newline at end of file
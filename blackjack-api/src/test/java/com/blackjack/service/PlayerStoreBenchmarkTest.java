@@ -0,0 +1,188 @@
+package com.blackjack.service;
+
+import com.blackjack.R2dbcTestConfiguration;
+import com.blackjack.model.LedgerEntry;
+import com.blackjack.model.Money;
+import com.blackjack.model.Player;
+import com.blackjack.repository.LedgerRepository;
+import com.blackjack.repository.PlayerRepository;
+import com.blackjack.service.impl.JdbcPlayerServiceImpl;
+import com.blackjack.service.impl.PlayerServiceImpl;
+import com.blackjack.service.support.BalanceLedger;
+import com.blackjack.service.support.BalanceReservations;
+import com.blackjack.service.support.PlayerBatchLoader;
+import com.blackjack.service.support.PlayerCache;
+import com.blackjack.service.support.PlayerExistenceFilter;
+import com.blackjack.service.support.PlayerImporter;
+import com.blackjack.service.support.StatisticsBatcher;
+import com.blackjack.service.support.UsernameIndex;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the R2DBC player service with the JDBC one on virtual threads.
+ * Both run the same operation mix against the same MySQL container at the same
+ * concurrency, and the throughput and p50/p99 latency of each are printed.
+ * Each service is measured as it would serve traffic, so the R2DBC side
+ * includes its cache and batching. Both hold bet funds through the same
+ * in-memory reservations, so funds checks cost the same on either side.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@DataR2dbcTest
+@Import({R2dbcTestConfiguration.class})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PlayerStoreBenchmarkTest {
+
+    private static final int PLAYERS = 200;
+    private static final int WARMUP_OPERATIONS = 2_000;
+    private static final int MEASURED_OPERATIONS = 20_000;
+    private static final int CONCURRENCY = 64;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private LedgerRepository ledgerRepository;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @Autowired
+    private MySQLContainer<?> mySQLContainer;
+
+    private HikariDataSource dataSource;
+    private ExecutorService virtualThreads;
+
+    private PlayerService reactiveService;
+    private PlayerService jdbcService;
+    private List<Long> playerIds;
+
+    @BeforeAll
+    void setUp() {
+        DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+        TransactionalOperator transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        reactiveService = new PlayerServiceImpl(playerRepository,
+                new PlayerCache(10_000, Duration.ofSeconds(30), new SimpleMeterRegistry()),
+                new PlayerBatchLoader(playerRepository, Duration.ofMillis(2), 100),
+                ledgerRepository,
+                new BalanceLedger(databaseClient, transactionalOperator, Duration.ofMillis(5), 200),
+                new UsernameIndex(playerRepository),
+                new PlayerExistenceFilter(playerRepository, 10_000, 0.01, 0),
+                new StatisticsBatcher(playerRepository, Duration.ofMillis(20), 500),
+                new BalanceReservations(playerRepository, 1000, Duration.ofMinutes(10)),
+                new PlayerImporter(databaseClient, transactionalOperator, validator, 500, 2),
+                transactionalOperator);
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(mySQLContainer.getJdbcUrl());
+        dataSource.setUsername(mySQLContainer.getUsername());
+        dataSource.setPassword(mySQLContainer.getPassword());
+        dataSource.setMaximumPoolSize(20);
+        virtualThreads = Executors.newVirtualThreadPerTaskExecutor();
+        Scheduler scheduler = Schedulers.fromExecutorService(virtualThreads, "jdbc-virtual");
+        jdbcService = new JdbcPlayerServiceImpl(new JdbcTemplate(dataSource),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), scheduler,
+                validator, 500, 100_000, Duration.ofMinutes(10));
+
+        playerIds = Flux.range(0, PLAYERS)
+                .concatMap(i -> jdbcService.createPlayer(new Player("bench" + i, "bench" + i + "@example.com")))
+                .map(Player::getId)
+                .collectList()
+                .block();
+    }
+
+    @AfterAll
+    void tearDown() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+        if (virtualThreads != null) {
+            virtualThreads.close();
+        }
+    }
+
+    @Test
+    void compareReactiveAndVirtualThreadJdbc() {
+        run(reactiveService, "r2dbc-warmup", WARMUP_OPERATIONS);
+        run(jdbcService, "jdbc-warmup", WARMUP_OPERATIONS);
+
+        Result reactive = run(reactiveService, "r2dbc", MEASURED_OPERATIONS);
+        Result jdbc = run(jdbcService, "jdbc", MEASURED_OPERATIONS);
+
+        System.out.printf("%-20s %12s %10s %10s%n", "player store", "ops/s", "p50 ms", "p99 ms");
+        System.out.println(reactive);
+        System.out.println(jdbc);
+
+        assertEquals(MEASURED_OPERATIONS, reactive.completed());
+        assertEquals(MEASURED_OPERATIONS, jdbc.completed());
+    }
+
+    private Result run(PlayerService service, String name, int operations) {
+        long[] latencies = new long[operations];
+        long start = System.nanoTime();
+        Long completed = Flux.range(0, operations)
+                .flatMap(i -> Mono.defer(() -> {
+                    long begin = System.nanoTime();
+                    return operation(service, name, i)
+                            .doOnTerminate(() -> latencies[i] = System.nanoTime() - begin);
+                }), CONCURRENCY)
+                .count()
+                .block();
+        long elapsed = System.nanoTime() - start;
+        Arrays.sort(latencies);
+        return new Result(name, completed, operations * 1e9 / elapsed,
+                latencies[operations / 2] / 1e6, latencies[(int) (operations * 0.99)] / 1e6);
+    }
+
+    // 60% lookups, 20% balance adjustments, 10% game settlements, 10% leaderboard reads
+    private Mono<?> operation(PlayerService service, String run, int i) {
+        Long playerId = playerIds.get(i % playerIds.size());
+        return switch (i % 10) {
+            case 0, 1 -> service.updateBalance(playerId, Money.of(1));
+            case 2 -> service.recordGameTransaction(playerId, run + "-" + i, LedgerEntry.EntryType.SETTLEMENT, Money.of(1));
+            case 3 -> service.getTopPlayers(10).collectList();
+            default -> service.getPlayerById(playerId);
+        };
+    }
+
+    private record Result(String name, long completed, double throughput, double p50Millis, double p99Millis) {
+        @Override
+        public String toString() {
+            return String.format("%-20s %12.0f %10.2f %10.2f", name, throughput, p50Millis, p99Millis);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.blackjack.service.support;
+
+import com.blackjack.repository.GameRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActionSignatureBackfillTest {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    private ActionSignatureBackfill backfill;
+
+    @BeforeEach
+    void setUp() {
+        backfill = new ActionSignatureBackfill(gameRepository, 2);
+    }
+
+    @Test
+    void run_ShouldRepeatBatches_UntilOneIsNotFull() {
+        when(gameRepository.backfillActionSignatures(2))
+                .thenReturn(Mono.just(2), Mono.just(2), Mono.just(1));
+
+        StepVerifier.create(backfill.run())
+                .expectNext(5L)
+                .verifyComplete();
+
+        verify(gameRepository, times(3)).backfillActionSignatures(2);
+    }
+
+    @Test
+    void run_ShouldQueryOnce_WhenNothingIsMissing() {
+        when(gameRepository.backfillActionSignatures(2)).thenReturn(Mono.just(0));
+
+        StepVerifier.create(backfill.run())
+                .expectNext(0L)
+                .verifyComplete();
+
+        verify(gameRepository).backfillActionSignatures(2);
+    }
+}
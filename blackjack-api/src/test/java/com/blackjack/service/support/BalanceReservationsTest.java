@@ -0,0 +1,105 @@
+package com.blackjack.service.support;
+
+import com.blackjack.model.Money;
+import com.blackjack.repository.PlayerRepository;
+import com.blackjack.repository.projection.PlayerBalance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceReservationsTest {
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    private BalanceReservations reservations;
+
+    @BeforeEach
+    void setUp() {
+        reservations = new BalanceReservations(playerRepository, 1000, Duration.ofMinutes(10));
+        lenient().when(playerRepository.findBalanceById(1L)).thenReturn(Mono.just(new PlayerBalance(1L, Money.of(100))));
+    }
+
+    @Test
+    void reserve_ShouldNeverOvercommit_UnderConcurrentHolds() {
+        StepVerifier.create(Flux.range(0, 50)
+                        .parallel(8)
+                        .runOn(Schedulers.parallel())
+                        .flatMap(i -> reservations.reserve(1L, Money.of(7)))
+                        .sequential()
+                        .filter(Boolean::booleanValue)
+                        .count())
+                .expectNext(14L)
+                .verifyComplete();
+    }
+
+    @Test
+    void releaseAndApply_ShouldRestoreAvailableBalance() {
+        assertTrue(reservations.reserve(1L, Money.of(100)).block());
+        assertFalse(reservations.reserve(1L, Money.of(1)).block());
+
+        reservations.release(1L, Money.of(40));
+        reservations.apply(1L, Money.of(10));
+
+        assertTrue(reservations.reserve(1L, Money.of(50)).block());
+        assertFalse(reservations.reserve(1L, Money.of(1)).block());
+    }
+
+    @Test
+    void reserve_ShouldRereadBalance_BeforeRefusingHold() {
+        assertTrue(reservations.reserve(1L, Money.of(60)).block());
+        // Credited elsewhere, for example on another instance
+        when(playerRepository.findBalanceById(1L)).thenReturn(Mono.just(new PlayerBalance(1L, Money.of(150))));
+
+        assertTrue(reservations.reserve(1L, Money.of(80)).block());
+        // The open hold of 60 is still held after the reread
+        assertFalse(reservations.reserve(1L, Money.of(20)).block());
+        assertTrue(reservations.reserve(1L, Money.of(10)).block());
+    }
+
+    @Test
+    void reserve_ShouldRereadBalance_WhenMarkedStale() {
+        assertTrue(reservations.reserve(1L, Money.of(40)).block());
+        reservations.commit(1L, Money.of(40));
+        when(playerRepository.findBalanceById(1L)).thenReturn(Mono.just(new PlayerBalance(1L, Money.of(30))));
+
+        reservations.markStale(1L);
+
+        assertTrue(reservations.reserve(1L, Money.of(30)).block());
+        assertFalse(reservations.reserve(1L, Money.of(1)).block());
+    }
+
+    @Test
+    void reserve_ShouldReseedFromDatabase_AfterInvalidate() {
+        assertTrue(reservations.reserve(1L, Money.of(100)).block());
+
+        reservations.invalidate(1L);
+
+        assertTrue(reservations.reserve(1L, Money.of(100)).block());
+        verify(playerRepository, times(2)).findBalanceById(1L);
+    }
+
+    @Test
+    void reserve_ShouldBeEmpty_WhenPlayerDoesNotExist() {
+        when(playerRepository.findBalanceById(2L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(reservations.reserve(2L, Money.of(1)))
+                .verifyComplete();
+        StepVerifier.create(reservations.reserve(2L, Money.of(1)))
+                .verifyComplete();
+
+        verify(playerRepository, times(2)).findBalanceById(2L);
+    }
+}
@@ -0,0 +1,74 @@
+package com.blackjack.service.support;
+
+import com.blackjack.model.Card;
+import com.blackjack.model.Game;
+import com.blackjack.model.Money;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompletedGameCacheTest {
+
+    private CompletedGameCache completedGameCache;
+    private Game game;
+
+    @BeforeEach
+    void setUp() {
+        completedGameCache = new CompletedGameCache(DataSize.ofMegabytes(1), Duration.ofMinutes(1),
+                Jackson2ObjectMapperBuilder.json().build(), new SimpleMeterRegistry());
+
+        game = new Game(1L, Money.of(25));
+        game.setId("game1");
+        game.getPlayerHand().addCard(new Card(Card.Suit.HEARTS, Card.Rank.TEN));
+        game.getDealerHand().addCard(new Card(Card.Suit.SPADES, Card.Rank.ACE));
+    }
+
+    @Test
+    void put_ShouldCacheEncodedGame_WhenGameIsCompleted() {
+        game.completeGame(Game.GameResult.DEALER_WIN);
+
+        CompletedGameCache.EncodedGame encoded = completedGameCache.put(game);
+
+        assertSame(encoded, completedGameCache.get("game1"));
+        assertTrue(new String(encoded.json(), StandardCharsets.UTF_8).contains("\"result\":\"DEALER_WIN\""));
+        assertTrue(encoded.eTag().matches("\"[0-9a-f]{32}\""));
+    }
+
+    @Test
+    void put_ShouldNotCache_WhenGameIsInProgress() {
+        CompletedGameCache.EncodedGame encoded = completedGameCache.put(game);
+
+        assertNotNull(encoded);
+        assertNull(completedGameCache.get("game1"));
+    }
+
+    @Test
+    void toDataBuffer_ShouldReadTheSameBytesEveryTime() {
+        game.completeGame(Game.GameResult.PUSH);
+        CompletedGameCache.EncodedGame encoded = completedGameCache.put(game);
+
+        DataBuffer first = encoded.toDataBuffer();
+        first.readPosition(first.writePosition());
+        DataBuffer second = encoded.toDataBuffer();
+
+        assertEquals(encoded.json().length, second.readableByteCount());
+    }
+
+    @Test
+    void invalidateAll_ShouldDropCachedGames() {
+        game.completeGame(Game.GameResult.PUSH);
+        completedGameCache.put(game);
+
+        completedGameCache.invalidateAll();
+
+        assertNull(completedGameCache.get("game1"));
+    }
+}
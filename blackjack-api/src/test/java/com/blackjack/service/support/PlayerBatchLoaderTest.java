@@ -0,0 +1,85 @@
+package com.blackjack.service.support;
+
+import com.blackjack.model.Player;
+import com.blackjack.repository.PlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlayerBatchLoaderTest {
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    private Player player1;
+    private Player player2;
+
+    @BeforeEach
+    void setUp() {
+        player1 = new Player("player1", "player1@example.com");
+        player1.setId(1L);
+        player2 = new Player("player2", "player2@example.com");
+        player2.setId(2L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void load_ShouldResolveConcurrentLookupsWithOneQuery() {
+        PlayerBatchLoader loader = new PlayerBatchLoader(playerRepository, Duration.ofMillis(20), 100);
+        when(playerRepository.findAllById(anyIterable())).thenReturn(Flux.just(player1, player2));
+
+        StepVerifier.create(Mono.zip(
+                        loader.load(1L),
+                        loader.load(2L),
+                        loader.load(1L),
+                        loader.load(3L).map(Player::getUsername).defaultIfEmpty("missing")))
+                .assertNext(results -> {
+                    assertSame(player1, results.getT1());
+                    assertSame(player2, results.getT2());
+                    assertSame(player1, results.getT3());
+                    assertEquals("missing", results.getT4());
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<Iterable<Long>> idsCaptor = ArgumentCaptor.forClass(Iterable.class);
+        verify(playerRepository, times(1)).findAllById(idsCaptor.capture());
+        assertEquals(3, ((List<Long>) idsCaptor.getValue()).size());
+    }
+
+    @Test
+    void load_ShouldDispatchEarly_WhenBatchIsFull() {
+        PlayerBatchLoader loader = new PlayerBatchLoader(playerRepository, Duration.ofMinutes(1), 2);
+        when(playerRepository.findAllById(anyIterable())).thenReturn(Flux.just(player1, player2));
+
+        StepVerifier.create(Mono.zip(loader.load(1L), loader.load(2L)))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        verify(playerRepository, times(1)).findAllById(anyIterable());
+    }
+
+    @Test
+    void load_ShouldPropagateErrorsToEveryCaller() {
+        PlayerBatchLoader loader = new PlayerBatchLoader(playerRepository, Duration.ofMillis(5), 100);
+        when(playerRepository.findAllById(anyIterable())).thenReturn(Flux.error(new IllegalStateException("db down")));
+
+        StepVerifier.create(Mono.zip(loader.load(1L), loader.load(2L)))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+}
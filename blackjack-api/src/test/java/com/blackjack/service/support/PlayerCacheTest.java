@@ -0,0 +1,121 @@
+package com.blackjack.service.support;
+
+import com.blackjack.model.Player;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlayerCacheTest {
+
+    private PlayerCache playerCache;
+
+    @BeforeEach
+    void setUp() {
+        playerCache = new PlayerCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void getById_ShouldLoadOnce_WhileCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        playerCache.getById(1L, id -> counted(loads, player(id, "alice"))).block();
+        playerCache.getById(1L, id -> counted(loads, player(id, "alice"))).block();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getById_ShouldNotShareCachedPlayer_WhenCallerChangesIt() {
+        Player changed = playerCache.getById(1L, id -> Mono.just(player(id, "alice"))).block();
+        changed.setUsername("renamed");
+
+        StepVerifier.create(playerCache.getById(1L, id -> Mono.error(new AssertionError("cached"))))
+                .expectNextMatches(player -> player.getUsername().equals("alice"))
+                .verifyComplete();
+        StepVerifier.create(playerCache.getAllById(List.of(1L), missing -> Mono.error(new AssertionError("cached"))))
+                .expectNextMatches(players -> players.get(1L).getUsername().equals("alice"))
+                .verifyComplete();
+    }
+
+    @Test
+    void getById_ShouldNotKeepLoad_WhenInvalidatedWhileLoading() {
+        Sinks.One<Player> stale = Sinks.one();
+        AtomicInteger loads = new AtomicInteger();
+
+        StepVerifier.create(playerCache.getById(1L, id -> stale.asMono()))
+                .then(() -> playerCache.invalidate(1L))
+                .then(() -> stale.tryEmitValue(player(1L, "alice")))
+                .expectNextMatches(player -> player.getUsername().equals("alice"))
+                .verifyComplete();
+
+        StepVerifier.create(playerCache.getById(1L, id -> counted(loads, player(id, "renamed"))))
+                .expectNextMatches(player -> player.getUsername().equals("renamed"))
+                .verifyComplete();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void getAllById_ShouldNotKeepLoad_WhenInvalidatedWhileLoading() {
+        Sinks.One<Map<Long, Player>> stale = Sinks.one();
+        AtomicInteger loads = new AtomicInteger();
+
+        StepVerifier.create(playerCache.getAllById(List.of(1L, 2L), missing -> stale.asMono()))
+                .then(() -> playerCache.invalidate(1L))
+                .then(() -> stale.tryEmitValue(Map.of(1L, player(1L, "alice"), 2L, player(2L, "bob"))))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        playerCache.getById(1L, id -> counted(loads, player(id, "alice"))).block();
+        playerCache.getById(2L, id -> counted(loads, player(id, "bob"))).block();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidateById_ShouldDropUsernameEntry() {
+        AtomicInteger loads = new AtomicInteger();
+        playerCache.getByUsername("alice", username -> counted(loads, player(1L, username))).block();
+
+        playerCache.invalidate(1L);
+        playerCache.getByUsername("alice", username -> counted(loads, player(1L, username))).block();
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getByUsername_ShouldNotKeepLoad_WhenPlayerInvalidatedWhileLoading() {
+        Sinks.One<Player> stale = Sinks.one();
+        AtomicInteger loads = new AtomicInteger();
+
+        StepVerifier.create(playerCache.getByUsername("alice", username -> stale.asMono()))
+                .then(() -> playerCache.invalidate(1L))
+                .then(() -> stale.tryEmitValue(player(1L, "alice")))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        playerCache.getByUsername("alice", username -> counted(loads, player(1L, username))).block();
+        assertEquals(1, loads.get());
+    }
+
+    private static Mono<Player> counted(AtomicInteger loads, Player player) {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return player;
+        });
+    }
+
+    private static Player player(Long id, String username) {
+        Player player = new Player(username, username + "@example.com");
+        player.setId(id);
+        return player;
+    }
+}
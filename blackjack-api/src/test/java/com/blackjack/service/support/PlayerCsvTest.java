@@ -0,0 +1,44 @@
+package com.blackjack.service.support;
+
+import com.blackjack.dto.CreatePlayerRequest;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.Objects;
+
+class PlayerCsvTest {
+
+    @Test
+    void parse_ShouldReadUsernameThenEmail_WithoutHeader() {
+        StepVerifier.create(PlayerCsv.parse(Flux.just("alice,alice@example.com", "", "bob, bob@example.com ")))
+                .expectNextMatches(request -> matches(request, "alice", "alice@example.com"))
+                .expectNextMatches(request -> matches(request, "bob", "bob@example.com"))
+                .verifyComplete();
+    }
+
+    @Test
+    void parse_ShouldFollowHeaderColumns_WhenHeaderGiven() {
+        StepVerifier.create(PlayerCsv.parse(Flux.just("Email,Country,Username", "carol@example.com,NL,carol")))
+                .expectNextMatches(request -> matches(request, "carol", "carol@example.com"))
+                .verifyComplete();
+    }
+
+    @Test
+    void parse_ShouldUnquoteCells() {
+        StepVerifier.create(PlayerCsv.parse(Flux.just("\"dave, \"\"the dealer\"\"\",dave@example.com")))
+                .expectNextMatches(request -> matches(request, "dave, \"the dealer\"", "dave@example.com"))
+                .verifyComplete();
+    }
+
+    @Test
+    void parse_ShouldLeaveMissingColumnsNull() {
+        StepVerifier.create(PlayerCsv.parse(Flux.just("username,email", "erin")))
+                .expectNextMatches(request -> matches(request, "erin", null))
+                .verifyComplete();
+    }
+
+    private static boolean matches(CreatePlayerRequest request, String username, String email) {
+        return Objects.equals(request.getUsername(), username) && Objects.equals(request.getEmail(), email);
+    }
+}
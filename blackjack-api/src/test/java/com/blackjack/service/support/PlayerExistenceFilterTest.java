@@ -0,0 +1,93 @@
+package com.blackjack.service.support;
+
+import com.blackjack.model.Player;
+import com.blackjack.repository.PlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlayerExistenceFilterTest {
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    private PlayerExistenceFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new PlayerExistenceFilter(playerRepository, 1000, 0.01, 0);
+    }
+
+    @Test
+    void checks_ShouldAnswerMaybe_BeforeLoading() {
+        assertFalse(filter.isDefinitelyAbsent(42L));
+        assertTrue(filter.mightContainUsername("anyone"));
+        assertTrue(filter.mightContainEmail("anyone@example.com"));
+    }
+
+    @Test
+    void isDefinitelyAbsent_ShouldTrackIdsUpToWatermark() {
+        when(playerRepository.findAll()).thenReturn(Flux.just(player(1L, "alice"), player(3L, "carol")));
+
+        StepVerifier.create(filter.rebuild())
+                .expectNext(2L)
+                .verifyComplete();
+
+        assertFalse(filter.isDefinitelyAbsent(1L));
+        assertTrue(filter.isDefinitelyAbsent(2L));
+        assertFalse(filter.isDefinitelyAbsent(3L));
+        // Above the watermark another instance may have created the player
+        assertFalse(filter.isDefinitelyAbsent(4L));
+
+        filter.remove(3L);
+        assertTrue(filter.isDefinitelyAbsent(3L));
+    }
+
+    @Test
+    void isDefinitelyAbsent_ShouldAnswerMaybe_WithinSafetyMarginOfHighestId() {
+        filter = new PlayerExistenceFilter(playerRepository, 1000, 0.01, 2);
+        // 4 may have been allocated before 5 but still committing while the players were loaded
+        when(playerRepository.findAll()).thenReturn(Flux.just(player(1L, "alice"), player(5L, "erin")));
+        filter.rebuild().block();
+
+        assertTrue(filter.isDefinitelyAbsent(2L));
+        assertTrue(filter.isDefinitelyAbsent(3L));
+        assertFalse(filter.isDefinitelyAbsent(4L));
+        assertFalse(filter.isDefinitelyAbsent(5L));
+    }
+
+    @Test
+    void mightContain_ShouldNeverMissAddedValues() {
+        when(playerRepository.findAll()).thenReturn(Flux.empty());
+        filter.rebuild().block();
+
+        for (long id = 1; id <= 500; id++) {
+            filter.add(player(id, "player" + id));
+        }
+
+        for (long id = 1; id <= 500; id++) {
+            assertTrue(filter.mightContainUsername("PLAYER" + id));
+            assertTrue(filter.mightContainEmail("player" + id + "@example.com"));
+        }
+        long falsePositives = LongStream.rangeClosed(1, 1000)
+                .filter(id -> filter.mightContainUsername("stranger" + id))
+                .count();
+        assertTrue(falsePositives < 50, "too many false positives: " + falsePositives);
+    }
+
+    private Player player(Long id, String username) {
+        Player player = new Player(username, username + "@example.com");
+        player.setId(id);
+        return player;
+    }
+}
@@ -0,0 +1,157 @@
+package com.blackjack.service.support;
+
+import com.blackjack.dto.CreatePlayerRequest;
+import com.blackjack.dto.PlayerImportResult;
+import io.r2dbc.spi.Row;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlayerImporterTest {
+
+    @Mock
+    private DatabaseClient databaseClient;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    private final List<String> statements = new ArrayList<>();
+    private List<Row> takenRows = List.of();
+    private List<Row> idRows = List.of();
+    private boolean failMultiRowInsert;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        lenient().when(databaseClient.sql(anyString())).thenAnswer(invocation -> statement(invocation.getArgument(0)));
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void importPlayers_ShouldReportEveryRowInOrderWithoutAborting() {
+        idRows = List.of(row("alice", "alice@example.com", 1L), row("bob", "bob@example.com", 2L));
+
+        StepVerifier.create(importer(500).importPlayers(Flux.just(
+                        new CreatePlayerRequest("alice", "alice@example.com"),
+                        new CreatePlayerRequest("x", "not-an-email"),
+                        new CreatePlayerRequest("Alice", "other@example.com"),
+                        new CreatePlayerRequest("bob", "bob@example.com"))))
+                .expectNext(PlayerImportResult.created(1, "alice", "alice@example.com", 1L))
+                .assertNext(result -> {
+                    assertEquals(2, result.getRow());
+                    assertEquals(PlayerImportResult.Status.INVALID, result.getStatus());
+                    assertTrue(result.getMessage().contains("Email must be valid"));
+                })
+                .expectNext(PlayerImportResult.rejected(3, "Alice", "other@example.com",
+                        PlayerImportResult.Status.DUPLICATE, "Username repeats an earlier row"))
+                .expectNext(PlayerImportResult.created(4, "bob", "bob@example.com", 2L))
+                .verifyComplete();
+
+        assertEquals(1, count("INSERT INTO players"));
+        assertEquals(1, count("INSERT INTO balance_ledger"));
+    }
+
+    @Test
+    void importPlayers_ShouldSkipPlayersThatAlreadyExist() {
+        takenRows = List.of(row("carol", "carol@example.com", 3L));
+
+        StepVerifier.create(importer(500).importPlayers(Flux.just(new CreatePlayerRequest("Carol", "new@example.com"))))
+                .expectNext(PlayerImportResult.rejected(1, "Carol", "new@example.com",
+                        PlayerImportResult.Status.DUPLICATE, "Username is already taken"))
+                .verifyComplete();
+
+        assertEquals(0, count("INSERT"));
+    }
+
+    @Test
+    void importPlayers_ShouldWriteOneInsertPerChunk() {
+        List<CreatePlayerRequest> requests = new ArrayList<>();
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(new CreatePlayerRequest("player" + i, "player" + i + "@example.com"));
+            rows.add(row("player" + i, "player" + i + "@example.com", (long) i + 1));
+        }
+        idRows = rows;
+
+        StepVerifier.create(importer(2).importPlayers(Flux.fromIterable(requests)))
+                .expectNextCount(5)
+                .verifyComplete();
+
+        assertEquals(3, count("INSERT INTO players"));
+        assertEquals(3, count("SELECT username, email FROM players"));
+    }
+
+    @Test
+    void importPlayers_ShouldRetryRowByRowWhenChunkHitsUniqueConstraint() {
+        failMultiRowInsert = true;
+        idRows = List.of(row("dave", "dave@example.com", 4L), row("erin", "erin@example.com", 5L));
+
+        StepVerifier.create(importer(500).importPlayers(Flux.just(
+                        new CreatePlayerRequest("dave", "dave@example.com"),
+                        new CreatePlayerRequest("erin", "erin@example.com"))))
+                .expectNext(PlayerImportResult.created(1, "dave", "dave@example.com", 4L))
+                .expectNext(PlayerImportResult.created(2, "erin", "erin@example.com", 5L))
+                .verifyComplete();
+
+        assertEquals(3, count("INSERT INTO players"));
+    }
+
+    private PlayerImporter importer(int chunkSize) {
+        return new PlayerImporter(databaseClient, transactionalOperator,
+                Validation.buildDefaultValidatorFactory().getValidator(), chunkSize, 2);
+    }
+
+    private long count(String prefix) {
+        return statements.stream().filter(sql -> sql.startsWith(prefix)).count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private DatabaseClient.GenericExecuteSpec statement(String sql) {
+        statements.add(sql);
+        DatabaseClient.GenericExecuteSpec spec = mock(DatabaseClient.GenericExecuteSpec.class);
+        lenient().when(spec.bind(anyString(), any())).thenReturn(spec);
+        lenient().when(spec.map(any(Function.class))).thenAnswer(invocation -> {
+            Function<Row, Object> mapper = invocation.getArgument(0);
+            List<Row> source = sql.startsWith("SELECT id") ? idRows : takenRows;
+            RowsFetchSpec<Object> rows = mock(RowsFetchSpec.class);
+            when(rows.all()).thenAnswer(ignored -> Flux.fromIterable(source).map(mapper));
+            return rows;
+        });
+        FetchSpec<Map<String, Object>> fetch = mock(FetchSpec.class);
+        boolean multiRowPlayerInsert = sql.startsWith("INSERT INTO players") && sql.contains(":username1");
+        lenient().when(fetch.rowsUpdated()).thenReturn(failMultiRowInsert && multiRowPlayerInsert
+                ? Mono.error(new DataIntegrityViolationException("Duplicate entry"))
+                : Mono.just(1L));
+        lenient().when(spec.fetch()).thenReturn(fetch);
+        return spec;
+    }
+
+    private Row row(String username, String email, Long id) {
+        Row row = mock(Row.class);
+        lenient().when(row.get("username", String.class)).thenReturn(username);
+        lenient().when(row.get("email", String.class)).thenReturn(email);
+        lenient().when(row.get("id", Long.class)).thenReturn(id);
+        return row;
+    }
+}
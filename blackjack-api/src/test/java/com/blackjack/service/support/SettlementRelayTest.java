@@ -0,0 +1,235 @@
+package com.blackjack.service.support;
+
+import com.blackjack.exception.PlayerNotFoundException;
+import com.blackjack.model.Game;
+import com.blackjack.model.LedgerEntry;
+import com.blackjack.model.Money;
+import com.blackjack.model.PendingSettlement;
+import com.blackjack.repository.GameRepository;
+import com.blackjack.repository.PlayerGameStatsRepository;
+import com.blackjack.service.PlayerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SettlementRelayTest {
+
+    @Mock
+    private GameRepository gameRepository;
+
+    @Mock
+    private PlayerGameStatsRepository playerGameStatsRepository;
+
+    @Mock
+    private PlayerService playerService;
+
+    private SettlementRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        relay = new SettlementRelay(gameRepository, playerGameStatsRepository, playerService, 100, 3,
+                Duration.ofSeconds(1), Duration.ofMinutes(1), Duration.ofMinutes(2));
+        lenient().when(playerGameStatsRepository.recordGame(any(Game.class), any(Money.class))).thenReturn(Mono.empty());
+        lenient().when(gameRepository.markStatisticsRecorded(anyString())).thenReturn(Mono.empty());
+        lenient().when(gameRepository.markDailyTotalsRecorded(anyString())).thenReturn(Mono.empty());
+        lenient().when(gameRepository.recordSettlementFailure(anyString(), anyInt(), any(LocalDateTime.class), anyString()))
+                .thenReturn(Mono.empty());
+    }
+
+    @Test
+    void relayBatch_ShouldApplyPayoutAndStatisticsThenClear() {
+        Game game = completedGame("game1", Money.of(200), true);
+        pending(game);
+        when(playerService.recordGameTransaction(1L, "game1", LedgerEntry.EntryType.SETTLEMENT, Money.of(200)))
+                .thenReturn(Mono.just(true));
+        when(playerService.updateStatistics(1L, true, Money.of(100))).thenReturn(Mono.empty());
+        when(gameRepository.clearPendingSettlement("game1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(relay.relayBatch())
+                .expectNext(1)
+                .verifyComplete();
+
+        verify(playerService).updateStatistics(1L, true, Money.of(100));
+        verify(playerGameStatsRepository).recordGame(game, Money.of(200));
+        verify(gameRepository).clearPendingSettlement("game1");
+    }
+
+    @Test
+    void relayBatch_ShouldApplyInsurancePayout() {
+        Game game = completedGame("game1", Money.ZERO, false);
+        game.getPendingSettlement().setInsurancePayout(Money.of(100));
+        pending(game);
+        when(playerService.recordGameTransaction(eq(1L), eq("game1"), any(LedgerEntry.EntryType.class), any(Money.class)))
+                .thenReturn(Mono.just(true));
+        when(playerService.updateStatistics(1L, false, Money.of(100))).thenReturn(Mono.empty());
+        when(gameRepository.clearPendingSettlement("game1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(relay.relayBatch())
+                .expectNext(1)
+                .verifyComplete();
+
+        verify(playerService).recordGameTransaction(1L, "game1", LedgerEntry.EntryType.INSURANCE_PAYOUT, Money.of(100));
+        verify(playerService).recordGameTransaction(1L, "game1", LedgerEntry.EntryType.SETTLEMENT, Money.ZERO);
+    }
+
+    @Test
+    void relayBatch_ShouldRecordStatistics_WhenOnlyPayoutWasApplied() {
+        Game game = completedGame("game1", Money.of(200), true);
+        pending(game);
+        when(playerService.recordGameTransaction(1L, "game1", LedgerEntry.EntryType.SETTLEMENT, Money.of(200)))
+                .thenReturn(Mono.just(false));
+        when(playerService.updateStatistics(1L, true, Money.of(100))).thenReturn(Mono.empty());
+        when(gameRepository.clearPendingSettlement("game1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(relay.relayBatch())
+                .expectNext(1)
+                .verifyComplete();
+
+        verify(playerService).updateStatistics(1L, true, Money.of(100));
+        verify(gameRepository).markStatisticsRecorded("game1");
+        verify(playerGameStatsRepository).recordGame(game, Money.of(200));
+        verify(gameRepository).markDailyTotalsRecorded("game1");
+        verify(gameRepository).clearPendingSettlement("game1");
+    }
+
+    @Test
+    void relayBatch_ShouldSkipRecordedStatistics_WhenRetried() {
+        Game game = completedGame("game1", Money.of(200), true);
+        game.getPendingSettlement().setStatisticsRecorded(true);
+        pending(game);
+        when(playerService.recordGameTransaction(1L, "game1", LedgerEntry.EntryType.SETTLEMENT, Money.of(200)))
+                .thenReturn(Mono.just(false));
+        when(gameRepository.clearPendingSettlement("game1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(relay.relayBatch())
+                .expectNext(1)
+                .verifyComplete();
+
+        verify(playerService, never()).updateStatistics(anyLong(), anyBoolean(), any(Money.class));
+        verify(playerGameStatsRepository).recordGame(game, Money.of(200));
+        verify(gameRepository).clearPendingSettlement("game1");
+    }
+
+    @Test
+    void relayBatch_ShouldLeaveSettlementPending_WhenStatisticsFail() {
+        Game game = completedGame("game1", Money.of(200), true);
+        pending(game);
+        when(playerService.recordGameTransaction(1L, "game1", LedgerEntry.EntryType.SETTLEMENT, Money.of(200)))
+                .thenReturn(Mono.just(true));
+        when(playerService.updateStatistics(1L, true, Money.of(100)))
+                .thenReturn(Mono.error(new RuntimeException("Connection refused")));
+
+        StepVerifier.create(relay.relayBatch())
+                .expectNext(0)
+                .verifyComplete();
+
+        verify(gameRepository, never()).markStatisticsRecorded("game1");
+        verify(gameRepository, never()).clearPendingSettlement("game1");
+    }
+
+    @Test
+    void relayBatch_ShouldLeaveSettlementPending_WhenLedgerFails() {
+        Game failing = completedGame("game1", Money.of(200), true);
+        Game passing = completedGame("game2", Money.ZERO, false);
+        pending(failing, passing);
+        when(playerService.recordGameTransaction(1L, "game1", LedgerEntry.EntryType.SETTLEMENT, Money.of(200)))
+                .thenReturn(Mono.error(new RuntimeException("Connection refused")));
+        when(playerService.recordGameTransaction(1L, "game2", LedgerEntry.EntryType.SETTLEMENT, Money.ZERO))
+                .thenReturn(Mono.just(true));
+        when(playerService.updateStatistics(1L, false, Money.of(100))).thenReturn(Mono.empty());
+        when(gameRepository.clearPendingSettlement("game2")).thenReturn(Mono.empty());
+
+        StepVerifier.create(relay.relayBatch())
+                .expectNext(1)
+                .verifyComplete();
+
+        verify(gameRepository, never()).clearPendingSettlement("game1");
+        verify(gameRepository).recordSettlementFailure(eq("game1"), eq(1), any(LocalDateTime.class), eq("Connection refused"));
+        verify(gameRepository, never()).failPendingSettlement(anyString());
+    }
+
+    @Test
+    void relayBatch_ShouldBackOffExponentially_WhenSettlementKeepsFailing() {
+        Game game = completedGame("game1", Money.of(200), true);
+        game.getPendingSettlement().setAttempts(1);
+        pending(game);
+        when(playerService.recordGameTransaction(1L, "game1", LedgerEntry.EntryType.SETTLEMENT, Money.of(200)))
+                .thenReturn(Mono.error(new RuntimeException("Connection refused")));
+
+        LocalDateTime before = LocalDateTime.now();
+        StepVerifier.create(relay.relayBatch())
+                .expectNext(0)
+                .verifyComplete();
+
+        ArgumentCaptor<LocalDateTime> nextAttemptAt = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(gameRepository).recordSettlementFailure(eq("game1"), eq(2), nextAttemptAt.capture(), anyString());
+        assertFalse(nextAttemptAt.getValue().isBefore(before.plusSeconds(2)));
+    }
+
+    @Test
+    void relayBatch_ShouldMoveSettlementToFailed_AfterMaxAttempts() {
+        Game game = completedGame("game1", Money.of(200), true);
+        game.getPendingSettlement().setAttempts(2);
+        pending(game);
+        when(playerService.recordGameTransaction(1L, "game1", LedgerEntry.EntryType.SETTLEMENT, Money.of(200)))
+                .thenReturn(Mono.error(new PlayerNotFoundException(1L)));
+        when(gameRepository.failPendingSettlement("game1")).thenReturn(Mono.empty());
+
+        StepVerifier.create(relay.relayBatch())
+                .expectNext(0)
+                .verifyComplete();
+
+        verify(gameRepository).recordSettlementFailure(eq("game1"), eq(3), any(LocalDateTime.class), anyString());
+        verify(gameRepository).failPendingSettlement("game1");
+    }
+
+    @Test
+    void relayBatch_ShouldSkipSettlement_WhenAnotherRelayClaimedIt() {
+        Game game = completedGame("game1", Money.of(200), true);
+        when(gameRepository.findPendingSettlements(100)).thenReturn(Flux.just(game));
+        when(gameRepository.claimPendingSettlement(eq("game1"), anyString(), any(LocalDateTime.class)))
+                .thenReturn(Mono.empty());
+
+        StepVerifier.create(relay.relayBatch())
+                .expectNext(0)
+                .verifyComplete();
+
+        verify(playerService, never()).recordGameTransaction(anyLong(), anyString(), any(), any());
+        verify(playerService, never()).updateStatistics(anyLong(), anyBoolean(), any(Money.class));
+        verify(gameRepository, never()).clearPendingSettlement(anyString());
+    }
+
+    private void pending(Game... games) {
+        when(gameRepository.findPendingSettlements(100)).thenReturn(Flux.just(games));
+        for (Game game : games) {
+            when(gameRepository.claimPendingSettlement(eq(game.getId()), anyString(), any(LocalDateTime.class)))
+                    .thenReturn(Mono.just(game));
+        }
+    }
+
+    private static Game completedGame(String id, Money payout, boolean won) {
+        Game game = new Game(1L, Money.of(100));
+        game.setId(id);
+        game.setStatus(Game.GameStatus.COMPLETED);
+        PendingSettlement settlement = new PendingSettlement();
+        settlement.setPayout(payout);
+        settlement.setWon(won);
+        game.setPendingSettlement(settlement);
+        return game;
+    }
+}
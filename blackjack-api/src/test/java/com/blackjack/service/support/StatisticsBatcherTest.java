@@ -0,0 +1,65 @@
+package com.blackjack.service.support;
+
+import com.blackjack.model.Money;
+import com.blackjack.repository.PlayerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StatisticsBatcherTest {
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @Test
+    void record_ShouldCoalesceIncrementsPerPlayer() {
+        StatisticsBatcher batcher = new StatisticsBatcher(playerRepository, Duration.ofMillis(20), 100);
+        when(playerRepository.incrementStatistics(anyLong(), anyInt(), anyInt(), any(BigDecimal.class), any(LocalDateTime.class)))
+                .thenReturn(Mono.just(1));
+
+        StepVerifier.create(Mono.when(
+                        batcher.record(1L, true, Money.of(10)),
+                        batcher.record(1L, false, Money.of(20)),
+                        batcher.record(1L, true, Money.of(5)),
+                        batcher.record(2L, false, Money.of(50))))
+                .verifyComplete();
+
+        verify(playerRepository).incrementStatistics(eq(1L), eq(3), eq(2), eq(new BigDecimal("15.00")), any(LocalDateTime.class));
+        verify(playerRepository).incrementStatistics(eq(2L), eq(1), eq(0), eq(new BigDecimal("0.00")), any(LocalDateTime.class));
+        verifyNoMoreInteractions(playerRepository);
+    }
+
+    @Test
+    void flush_ShouldWritePendingIncrementsImmediately() {
+        StatisticsBatcher batcher = new StatisticsBatcher(playerRepository, Duration.ofMinutes(1), 100);
+        when(playerRepository.incrementStatistics(anyLong(), anyInt(), anyInt(), any(BigDecimal.class), any(LocalDateTime.class)))
+                .thenReturn(Mono.just(1));
+
+        batcher.record(1L, true, Money.of(10)).subscribe();
+        batcher.flush();
+
+        verify(playerRepository).incrementStatistics(eq(1L), eq(1), eq(1), eq(new BigDecimal("10.00")), any(LocalDateTime.class));
+    }
+
+    @Test
+    void record_ShouldPropagateWriteErrors() {
+        StatisticsBatcher batcher = new StatisticsBatcher(playerRepository, Duration.ofMillis(5), 100);
+        when(playerRepository.incrementStatistics(anyLong(), anyInt(), anyInt(), any(BigDecimal.class), any(LocalDateTime.class)))
+                .thenReturn(Mono.error(new IllegalStateException("db down")));
+
+        StepVerifier.create(batcher.record(1L, true, Money.of(10)))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+}
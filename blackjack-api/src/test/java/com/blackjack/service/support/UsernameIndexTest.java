@@ -0,0 +1,84 @@
+package com.blackjack.service.support;
+
+import com.blackjack.dto.PlayerSearchResult;
+import com.blackjack.model.Player;
+import com.blackjack.repository.PlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UsernameIndexTest {
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    private UsernameIndex usernameIndex;
+
+    @BeforeEach
+    void setUp() {
+        usernameIndex = new UsernameIndex(playerRepository);
+    }
+
+    @Test
+    void rebuild_ShouldIndexAllPlayers() {
+        when(playerRepository.findAll()).thenReturn(Flux.just(
+                player(1L, "johnsmith"), player(2L, "JohnDoe"), player(3L, "jane")));
+
+        StepVerifier.create(usernameIndex.rebuild())
+                .expectNext(3L)
+                .verifyComplete();
+
+        List<String> matches = usernameIndex.search("john", 10).stream()
+                .map(PlayerSearchResult::getUsername)
+                .toList();
+        assertEquals(List.of("JohnDoe", "johnsmith"), matches);
+    }
+
+    @Test
+    void search_ShouldRespectLimit() {
+        usernameIndex.put(player(1L, "alice"));
+        usernameIndex.put(player(2L, "alina"));
+        usernameIndex.put(player(3L, "alistair"));
+        usernameIndex.put(player(4L, "bob"));
+
+        List<PlayerSearchResult> matches = usernameIndex.search("al", 2);
+
+        assertEquals(2, matches.size());
+        assertEquals("alice", matches.get(0).getUsername());
+        assertEquals("alina", matches.get(1).getUsername());
+    }
+
+    @Test
+    void put_ShouldReplacePreviousUsername_WhenPlayerRenamed() {
+        usernameIndex.put(player(1L, "oldname"));
+        usernameIndex.put(player(1L, "newname"));
+
+        assertTrue(usernameIndex.search("old", 10).isEmpty());
+        assertEquals(1L, usernameIndex.search("new", 10).getFirst().getPlayerId());
+    }
+
+    @Test
+    void remove_ShouldDropPlayer() {
+        usernameIndex.put(player(1L, "johnsmith"));
+
+        usernameIndex.remove(1L);
+
+        assertTrue(usernameIndex.search("john", 10).isEmpty());
+    }
+
+    private Player player(Long id, String username) {
+        Player player = new Player(username, username + "@example.com");
+        player.setId(id);
+        return player;
+    }
+}
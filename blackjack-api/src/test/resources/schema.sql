@@ -11,5 +11,19 @@ CREATE TABLE IF NOT EXISTS players (
     games_won_today INT NOT NULL DEFAULT 0,
     last_login_date DATETIME,
     created_at DATETIME NOT NULL,
-    updated_at DATETIME NOT NULL
-); 
\ No newline at end of file
+    updated_at DATETIME(6) NOT NULL,
+    INDEX idx_players_balance (balance, id),
+    INDEX idx_players_games_played (games_played, games_won)
+);
+
+-- Create balance ledger table for R2DBC tests
+CREATE TABLE IF NOT EXISTS balance_ledger (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    player_id BIGINT NOT NULL,
+    game_id VARCHAR(64),
+    entry_type VARCHAR(32) NOT NULL,
+    amount DECIMAL(19,2) NOT NULL,
+    idempotency_key VARCHAR(128) NOT NULL UNIQUE,
+    created_at DATETIME NOT NULL,
+    INDEX idx_balance_ledger_player (player_id, id)
+);
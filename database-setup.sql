@@ -28,27 +28,66 @@ SHOW DATABASES LIKE 'blackjack';
 SELECT User, Host FROM mysql.user WHERE User = 'blackjack_user';
 
 -- ================================================
--- Optional: Create basic tables structure
+-- Tables, kept in sync with blackjack-api/src/main/resources/schema.sql
 -- ================================================
 
--- Players table (for R2DBC)
 CREATE TABLE IF NOT EXISTS players (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    name VARCHAR(100) NOT NULL,
-    total_winnings DECIMAL(10,2) DEFAULT 0.00,
-    games_played INT DEFAULT 0,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    UNIQUE KEY uk_player_name (name)
+    username VARCHAR(255) NOT NULL UNIQUE,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    balance DECIMAL(19,2) NOT NULL DEFAULT 0.00,
+    games_played INT NOT NULL DEFAULT 0,
+    games_won INT NOT NULL DEFAULT 0,
+    total_winnings DECIMAL(19,2) NOT NULL DEFAULT 0.00,
+    games_played_today INT NOT NULL DEFAULT 0,
+    games_won_today INT NOT NULL DEFAULT 0,
+    last_login_date TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)
+);
+
+-- Separate statements so existing databases pick the indexes up. MySQL has no CREATE INDEX IF NOT EXISTS,
+-- so each index is only created when information_schema does not list it yet and re-runs are no-ops
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE()
+        AND table_name = 'players' AND index_name = 'idx_players_balance') = 0,
+    'CREATE INDEX idx_players_balance ON players (balance, id)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics WHERE table_schema = DATABASE()
+        AND table_name = 'players' AND index_name = 'idx_players_games_played') = 0,
+    'CREATE INDEX idx_players_games_played ON players (games_played, games_won)', 'DO 0');
+PREPARE ddl FROM @ddl;
+EXECUTE ddl;
+DEALLOCATE PREPARE ddl;
+
+-- Microseconds, so two writes in the same second still give the player different ETags; repeating MODIFY is harmless
+ALTER TABLE players MODIFY updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+
+CREATE TABLE IF NOT EXISTS balance_ledger (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    player_id BIGINT NOT NULL,
+    game_id VARCHAR(64),
+    entry_type VARCHAR(32) NOT NULL,
+    amount DECIMAL(19,2) NOT NULL,
+    idempotency_key VARCHAR(128) NOT NULL UNIQUE,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_balance_ledger_player (player_id, id)
 );
 
 -- Sample data
-INSERT INTO players (name, total_winnings, games_played) VALUES 
-('Alice', 250.50, 15),
-('Bob', -100.25, 8),
-('Charlie', 500.00, 25)
-ON DUPLICATE KEY UPDATE name = VALUES(name);
+INSERT INTO players (username, email, balance, games_played, total_winnings) VALUES
+('alice', 'alice@example.com', 350.50, 15, 250.50),
+('bob', 'bob@example.com', 0.00, 8, -100.25),
+('charlie', 'charlie@example.com', 600.00, 25, 500.00)
+ON DUPLICATE KEY UPDATE username = VALUES(username);
+
+INSERT INTO balance_ledger (player_id, entry_type, amount, idempotency_key)
+SELECT id, 'OPENING', balance, CONCAT('player:', id, ':OPENING') FROM players
+WHERE username IN ('alice', 'bob', 'charlie')
+ON DUPLICATE KEY UPDATE idempotency_key = idempotency_key;
 
 -- Verify setup
 SELECT 'Database setup completed successfully!' as status;
-SELECT * FROM players; 
\ No newline at end of file
+SELECT * FROM players;